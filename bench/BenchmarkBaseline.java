@@ -0,0 +1,176 @@
+package highsuit.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH run against a saved baseline.
+ * Both files are JMH CSV results (-rf csv). A benchmark regresses when its
+ * throughput drops, or its time per operation grows, by more than the
+ * threshold fraction. Allocation per operation from -prof gc is reported
+ * alongside but does not fail the check. Exits with status 1 on any
+ * regression, or when a baselined benchmark is missing from the run.
+ *
+ * Usage: BenchmarkBaseline baseline.csv results.csv [threshold]
+ */
+public class BenchmarkBaseline {
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkBaseline baseline.csv results.csv [threshold]");
+            System.exit(2);
+        }
+        Path baselineFile = Paths.get(args[0]);
+        if (!Files.exists(baselineFile)) {
+            System.err.println("No baseline at " + baselineFile + "; run 'ant bench-baseline' first");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+
+        Map<String, Row> baseline = read(baselineFile);
+        Map<String, Row> results = read(Paths.get(args[1]));
+        int regressions = compare(baseline, results, threshold);
+
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed by more than "
+                + Math.round(threshold * 100) + "%");
+            System.exit(1);
+        }
+        System.out.println("No regressions beyond " + Math.round(threshold * 100) + "%");
+    }
+
+    // Print every baselined benchmark against its new score; returns the number of regressions
+    static int compare(Map<String, Row> baseline, Map<String, Row> results, double threshold) {
+        int regressions = 0;
+        System.out.printf("%-50s %14s %14s %9s %12s%n", "Benchmark", "Baseline", "Current", "Change", "Alloc B/op");
+
+        for (Row base : baseline.values()) {
+            if (base.isSecondary()) {
+                continue;
+            }
+            Row current = results.get(base.key);
+            if (current == null) {
+                System.out.printf("%-50s %14.3f %14s%n", base.key, base.score, "missing");
+                regressions++;
+                continue;
+            }
+
+            double change = (current.score - base.score) / base.score;
+            boolean regressed = base.isThroughput() ? change < -threshold : change > threshold;
+            if (regressed) {
+                regressions++;
+            }
+
+            Row allocation = results.get(base.key + ":" + ALLOCATION);
+            String allocated = allocation != null ? String.format("%.1f", allocation.score) : "-";
+            System.out.printf("%-50s %14.3f %14.3f %+8.1f%% %12s%s%n", base.key, base.score,
+                current.score, 100 * change, allocated, regressed ? "  REGRESSED" : "");
+        }
+        return regressions;
+    }
+
+    // Rows of a JMH CSV file keyed by benchmark name and parameter values
+    static Map<String, Row> read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file);
+        Map<String, Row> rows = new LinkedHashMap<>();
+        if (lines.isEmpty()) {
+            return rows;
+        }
+
+        List<String> header = split(lines.get(0));
+        int name = header.indexOf("Benchmark");
+        int mode = header.indexOf("Mode");
+        int score = header.indexOf("Score");
+        if (name < 0 || mode < 0 || score < 0) {
+            throw new IOException("Not a JMH CSV result file: " + file);
+        }
+
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = split(line);
+            StringBuilder key = new StringBuilder(normalize(fields.get(name)));
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && !fields.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).substring(7)).append('=').append(fields.get(i));
+                }
+            }
+            Row row = new Row(moveSecondary(key.toString()), fields.get(mode),
+                              Double.parseDouble(fields.get(score)));
+            rows.put(row.key, row);
+        }
+        return rows;
+    }
+
+    // Older JMH versions prefix secondary metrics with a middle dot
+    private static String normalize(String benchmark) {
+        return benchmark.replace(":·", ":");
+    }
+
+    // Keep the secondary metric after the parameters so primary keys stay prefixes
+    private static String moveSecondary(String key) {
+        int colon = key.indexOf(':');
+        int space = key.indexOf(' ');
+        if (colon < 0 || space < 0 || space < colon) {
+            return key;
+        }
+        int end = key.indexOf(' ', colon);
+        return key.substring(0, colon) + key.substring(end) + key.substring(colon, end);
+    }
+
+    // Split one CSV line, honouring double quotes
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * One result line: benchmark key, mode and score.
+     */
+    static class Row {
+        final String key;
+        final String mode;
+        final double score;
+
+        Row(String key, String mode, double score) {
+            this.key = key;
+            this.mode = mode;
+            this.score = score;
+        }
+
+        boolean isSecondary() {
+            return key.indexOf(':') >= 0;
+        }
+
+        boolean isThroughput() {
+            return mode.equals("thrpt");
+        }
+    }
+}
\ No newline at end of file
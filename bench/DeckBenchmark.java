@@ -0,0 +1,53 @@
+package highsuit.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import highsuit.*;
+
+/**
+ * JMH benchmarks for Deck
+ * Shuffling a full deck and dealing a hand from it
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DeckBenchmark {
+
+    private Deck deck;
+
+    @Setup
+    public void setUp() {
+        deck = new Deck(42L);
+    }
+
+    @Benchmark
+    public Deck reshuffle() {
+        deck.reshuffle();
+        return deck;
+    }
+
+    @Benchmark
+    public void dealHand(Blackhole blackhole) {
+        deck.reset();
+        for (int i = 0; i < 5; i++) {
+            blackhole.consume(deck.dealCard());
+        }
+    }
+
+    @Benchmark
+    public int dealHandIds() {
+        deck.reset();
+        int sum = 0;
+        for (int i = 0; i < 5; i++) {
+            sum += deck.dealCardId();
+        }
+        return sum;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package highsuit.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import highsuit.*;
+
+/**
+ * JMH benchmarks for GameEventBus
+ * Publishing the events of one two-player round (two deals, then a bonus
+ * choice, swap and score per player) to statistics and counting
+ * consumers; the publishing thread should allocate nothing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameEventBusBenchmark {
+
+    private static final int HAND = GameReplay.packHand(new byte[] {0, 13, 26, 39, 51});
+    private static final int SWAPPED_HAND = GameReplay.packHand(new byte[] {0, 13, 26, 2, 3});
+
+    private GameEventBus bus;
+    private int round;
+
+    @Setup
+    public void setUp() {
+        bus = new GameEventBus();
+        bus.subscribe("stats", new GameStats());
+        bus.subscribe("count", new GameEventHandler() {
+            long scored;
+
+            @Override
+            public void onEvent(GameEvent event, long sequence, boolean endOfBatch) {
+                if (event.getType() == GameEvent.SCORED) {
+                    scored += event.getScore();
+                }
+            }
+        });
+        bus.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        bus.close();
+    }
+
+    @Benchmark
+    public void publishRound() {
+        int r = round++ % 3;
+        bus.dealt(r, 0, "Alice", HAND);
+        bus.dealt(r, 1, "Computer", HAND);
+        bus.bonusChosen(r, 0, "Alice", HAND, 1);
+        bus.swapped(r, 0, "Alice", HAND, 1, 0b11000, SWAPPED_HAND);
+        bus.scored(r, 0, "Alice", HAND, 1, 0b11000, SWAPPED_HAND, 0, 30);
+        bus.bonusChosen(r, 1, "Computer", HAND, 3);
+        bus.swapped(r, 1, "Computer", HAND, 3, 0, HAND);
+        bus.scored(r, 1, "Computer", HAND, 3, 0, HAND, 3, 16);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package highsuit.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import highsuit.*;
+
+/**
+ * JMH benchmarks for GameReplay
+ * Recording a full two-player, three-round game from card lists, from
+ * card ids, packed directly, and as a seed and choices the way HighSuit
+ * does; and rebuilding the full replay from the seed one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameReplayBenchmark {
+
+    private static final int ROUNDS = 3;
+    private static final int PLAYERS = 2;
+
+    private ArrayList<Card> initialHand;
+    private ArrayList<Card> finalHand;
+    private byte[] initialIds;
+    private byte[] finalIds;
+    private ArrayList<Integer> swapped;
+    private int initialPacked;
+    private int finalPacked;
+    private int swapMask;
+    private SeedReplay seedReplay;
+
+    @Setup
+    public void setUp() {
+        Deck deck = new Deck(3L);
+        deck.shuffle();
+        initialHand = new ArrayList<>();
+        finalHand = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            initialHand.add(deck.dealCard());
+        }
+        finalHand.addAll(initialHand.subList(0, 3));
+        finalHand.add(deck.dealCard());
+        finalHand.add(deck.dealCard());
+
+        initialIds = new byte[5];
+        finalIds = new byte[5];
+        for (int i = 0; i < 5; i++) {
+            initialIds[i] = (byte) initialHand.get(i).getId();
+            finalIds[i] = (byte) finalHand.get(i).getId();
+        }
+
+        swapped = new ArrayList<>();
+        swapped.add(3);
+        swapped.add(4);
+
+        initialPacked = GameReplay.packHand(initialHand);
+        finalPacked = GameReplay.packHand(finalHand);
+        swapMask = GameReplay.swapMask(swapped);
+        seedReplay = recordGameSeed();
+    }
+
+    @Benchmark
+    public GameReplay recordGame() {
+        GameReplay replay = new GameReplay();
+        for (int round = 0; round < ROUNDS; round++) {
+            GameReplay.RoundReplay roundReplay = new GameReplay.RoundReplay();
+            for (int player = 0; player < PLAYERS; player++) {
+                roundReplay.addPlayerData(new GameReplay.PlayerRoundData(
+                    "Computer", initialHand, round, swapped, finalHand, 40 + round));
+            }
+            replay.addRound(roundReplay);
+        }
+        return replay;
+    }
+
+    @Benchmark
+    public GameReplay recordGameIds() {
+        GameReplay replay = new GameReplay();
+        for (int round = 0; round < ROUNDS; round++) {
+            GameReplay.RoundReplay roundReplay = new GameReplay.RoundReplay();
+            for (int player = 0; player < PLAYERS; player++) {
+                roundReplay.addPlayerData(new GameReplay.PlayerRoundData(
+                    "Computer", initialIds, round, swapped, finalIds, 40 + round));
+            }
+            replay.addRound(roundReplay);
+        }
+        return replay;
+    }
+
+    @Benchmark
+    public GameReplay recordGamePacked() {
+        GameReplay replay = new GameReplay();
+        for (int round = 0; round < ROUNDS; round++) {
+            replay.startRound();
+            for (int player = 0; player < PLAYERS; player++) {
+                replay.addPlayerRound("Computer", initialPacked, round, swapMask, finalPacked, 40 + round);
+            }
+        }
+        return replay;
+    }
+
+    @Benchmark
+    public SeedReplay recordGameSeed() {
+        SeedReplay replay = new SeedReplay(3L, List.of("Computer", "Alice"));
+        for (int round = 0; round < ROUNDS; round++) {
+            replay.startRound();
+            replay.addDecision("Computer", round, swapMask);
+            replay.addDecision("Alice", round, swapMask);
+        }
+        return replay;
+    }
+
+    @Benchmark
+    public GameReplay rebuildGameSeed() {
+        return seedReplay.toGameReplay();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package highsuit.bench;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import highsuit.*;
+
+/**
+ * JMH benchmarks for Leaderboard
+ * Inserts, rank queries and top-K listing against a board already holding
+ * `results` results with game-like averages
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LeaderboardBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int results;
+
+    private Leaderboard<String> board;
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        board = new Leaderboard<>(10);
+        random = new SplittableRandom(42);
+        for (int i = 0; i < results; i++) {
+            board.add(average(), "Player");
+        }
+    }
+
+    private int average() {
+        return 20 + random.nextInt(20) + random.nextInt(17);
+    }
+
+    @Benchmark
+    public boolean add() {
+        return board.add(average(), "Player");
+    }
+
+    @Benchmark
+    public long rank() {
+        return board.rank(average());
+    }
+
+    @Benchmark
+    public double percentile() {
+        return board.percentile(average());
+    }
+
+    @Benchmark
+    public List<String> top10() {
+        return board.top(10);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package highsuit.bench;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import highsuit.*;
+
+/**
+ * Contended JMH benchmarks for Leaderboard
+ * Many threads post results to one shared board, alone and alongside
+ * readers listing the top ten and asking for ranks. Run with -t to change
+ * the thread count of the unmixed benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LeaderboardStressBenchmark {
+
+    private Leaderboard<String> board;
+
+    @Setup
+    public void setUp() {
+        board = new Leaderboard<>(10);
+    }
+
+    private static int average() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return 20 + random.nextInt(20) + random.nextInt(17);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean contendedAdd() {
+        return board.add(average(), "Player");
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public boolean mixedAdd() {
+        return board.add(average(), "Player");
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public List<String> mixedTop10() {
+        return board.top(10);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public long mixedRank() {
+        return board.rank(average());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package highsuit.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import highsuit.*;
+
+/**
+ * JMH benchmarks for Player
+ * Each call deals the next of a fixed set of random hands, so the
+ * dealHand benchmark is the baseline to subtract from the others.
+ * computerSelectCards solves hands live unless a strategy.bin is present
+ * in the working directory.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlayerBenchmark {
+
+    private static final int HANDS = 1024;
+
+    private int[][] hands;
+    private int next;
+    private Player player;
+
+    @Setup
+    public void setUp() {
+        Deck deck = new Deck(7L);
+        hands = new int[HANDS][5];
+        for (int[] hand : hands) {
+            deck.reshuffle();
+            for (int i = 0; i < hand.length; i++) {
+                hand[i] = deck.dealCardId();
+            }
+        }
+        player = new Player("Computer");
+    }
+
+    private Player nextHand() {
+        int[] hand = hands[next];
+        next = (next + 1) & (HANDS - 1);
+        player.clearHand();
+        for (int id : hand) {
+            player.addCard(id);
+        }
+        return player;
+    }
+
+    @Benchmark
+    public Player dealHand() {
+        return nextHand();
+    }
+
+    @Benchmark
+    public int[] calculateSuitScores() {
+        return nextHand().calculateSuitScores();
+    }
+
+    @Benchmark
+    public int calculateRoundScore() {
+        Player hand = nextHand();
+        return hand.calculateRoundScore(next & 3);
+    }
+
+    @Benchmark
+    public ArrayList<Integer> computerSelectCards() {
+        return nextHand().computerSelectCards();
+    }
+}
\ No newline at end of file
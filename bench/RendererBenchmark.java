@@ -0,0 +1,78 @@
+package highsuit.bench;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import highsuit.*;
+
+/**
+ * JMH benchmarks for the renderers
+ * Drawing the replay screen of a two-player, three-round game through
+ * System.out call by call, into one buffered write per screen, and
+ * through the null renderer. Output goes to the null device, so each
+ * write still costs a system call, as it would on a terminal.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RendererBenchmark {
+
+    private PrintStream originalOut;
+    private GameReplay replay;
+    private BufferedRenderer buffered;
+
+    private static OutputStream sink() throws FileNotFoundException {
+        File device = new File(File.separatorChar == '\\' ? "NUL" : "/dev/null");
+        return device.exists() ? new FileOutputStream(device) : OutputStream.nullOutputStream();
+    }
+
+    @Setup
+    public void setUp() throws FileNotFoundException {
+        SeedReplay seedReplay = new SeedReplay(5L, List.of("Computer", "Alice"));
+        for (int round = 0; round < 3; round++) {
+            seedReplay.startRound();
+            seedReplay.addDecision("Computer", round, 0b00011);
+            seedReplay.addDecision("Alice", 3 - round, 0b10100);
+        }
+        replay = seedReplay.toGameReplay();
+
+        // Set up like the JDK's own System.out
+        originalOut = System.out;
+        System.setOut(new PrintStream(new BufferedOutputStream(sink()), true, StandardCharsets.UTF_8));
+        buffered = new BufferedRenderer(sink());
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void drawConsole() {
+        replay.displayReplay(Renderer.console());
+    }
+
+    @Benchmark
+    public void drawBuffered() {
+        replay.displayReplay(buffered);
+    }
+
+    @Benchmark
+    public void drawNone() {
+        replay.displayReplay(Renderer.none());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,124 @@
+package highsuit.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import highsuit.*;
+
+/**
+ * JMH benchmarks for ReplayLog
+ * Streaming a two-player, three-round game to the log, scanning an
+ * archive of 100,000 games one round at a time and with a parallel stream,
+ * and fetching single rounds of it through its ReplayIndex, with and
+ * without block compression.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReplayLogBenchmark {
+
+    private static final int ROUNDS = 3;
+    private static final int GAMES = 100_000;
+
+    @Param({"false", "true"})
+    public boolean compress;
+
+    private Path file;
+    private Path archive;
+    private ReplayLog.Writer writer;
+    private ReplayLog.Reader reader;
+    private ReplayIndex index;
+    private long nextGame;
+    private int initialPacked;
+    private int finalPacked;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Deck deck = new Deck(3L);
+        deck.shuffle();
+        byte[] hand = new byte[5];
+        for (int i = 0; i < hand.length; i++) {
+            hand[i] = (byte) deck.dealCardId();
+        }
+        initialPacked = GameReplay.packHand(hand);
+        hand[3] = (byte) deck.dealCardId();
+        hand[4] = (byte) deck.dealCardId();
+        finalPacked = GameReplay.packHand(hand);
+
+        file = Files.createTempFile("replays", ".dat");
+        Files.delete(file);
+        writer = new ReplayLog.Writer(file, compress);
+
+        archive = Files.createTempFile("archive", ".dat");
+        Files.delete(archive);
+        try (ReplayLog.Writer archiveWriter = new ReplayLog.Writer(archive, compress, true)) {
+            for (int game = 0; game < GAMES; game++) {
+                recordGame(archiveWriter);
+            }
+        }
+        reader = new ReplayLog.Reader(archive);
+        index = ReplayIndex.open(archive);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        writer.close();
+        reader.close();
+        index.close();
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(archive);
+        Files.deleteIfExists(ReplayIndex.roundsFile(archive));
+        Files.deleteIfExists(ReplayIndex.gamesFile(archive));
+    }
+
+    private long recordGame(ReplayLog.Writer target) {
+        long game = target.startGame();
+        for (int round = 0; round < ROUNDS; round++) {
+            target.startRound();
+            target.addPlayerRound("Alice", initialPacked, round, 0b11000, finalPacked, 40 + round);
+            target.addPlayerRound("Computer", finalPacked, 3, 0, finalPacked, (int) (game % 57));
+        }
+        return game;
+    }
+
+    @Benchmark
+    public long recordGame() {
+        return recordGame(writer);
+    }
+
+    // Whole-archive scans per second; the archive holds 300,000 rounds
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long scanArchive() {
+        long total = 0;
+        for (ReplayLog.Round round : reader) {
+            total += round.getRoundScore(1);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long scanArchiveParallel() {
+        return reader.rounds().parallel()
+            .mapToLong(round -> round.getRoundScore(1)).sum();
+    }
+
+    // One round of a game spread across the archive
+    @Benchmark
+    public int fetchRound() throws IOException {
+        nextGame = (nextGame + 7919) % GAMES;
+        return index.fetch(nextGame, (int) (nextGame % ROUNDS)).getRoundScore(1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package highsuit.bench;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import highsuit.*;
+
+/**
+ * JMH benchmarks for ScoreFlusher
+ * Time to post one game's results with and without write-behind: the
+ * synchronous table forces a log write per call, the write-behind table
+ * only queues the results for the flusher thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScoreFlusherBenchmark {
+
+    private static final File FILE = new File("highscores.txt");
+    private static final File SNAPSHOT = new File("highscores.snapshot");
+
+    @Param({"false", "true"})
+    public boolean writeBehind;
+
+    private ScoreTable table;
+    private final String[] names = {"Alice", "Bob"};
+    private final int[][] rounds = new int[2][3];
+    private int score;
+
+    @Setup
+    public void setUp() {
+        FILE.delete();
+        SNAPSHOT.delete();
+        table = new ScoreTable(5, writeBehind);
+    }
+
+    @TearDown
+    public void tearDown() {
+        table.close();
+        FILE.delete();
+        SNAPSHOT.delete();
+    }
+
+    @Benchmark
+    public ScoreTable postGame() {
+        for (int[] game : rounds) {
+            for (int i = 0; i < game.length; i++) {
+                score = (score + 37) % 57;
+                game[i] = score;
+            }
+        }
+        table.addScores(names, rounds);
+        return table;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package highsuit.bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import highsuit.*;
+
+/**
+ * Measures posting high scores from several processes at once.
+ * For each process count, starts that many JVMs in the working directory,
+ * waits until all are ready, then has each post its share of results to
+ * the shared score files through its own ScoreTable. Reports the combined
+ * rate, and fails if the files do not end up holding every result.
+ * JMH forks cannot coordinate like this, so it runs as a plain program.
+ *
+ * Usage: ScoreProcessBenchmark processCounts resultsPerProcess
+ * e.g. ScoreProcessBenchmark 1,2,4 2000
+ */
+public class ScoreProcessBenchmark {
+    private static final String[] FILES = {"highscores.txt", "highscores.snapshot", "highscores.lock"};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("post")) {
+            post(args[1], Integer.parseInt(args[2]));
+            return;
+        }
+        if (args.length != 2) {
+            System.err.println("Usage: ScoreProcessBenchmark processCounts resultsPerProcess");
+            System.exit(2);
+        }
+        int results = Integer.parseInt(args[1]);
+        System.out.printf("%-10s %12s %12s%n", "Processes", "Results/s", "Stored");
+        boolean failed = false;
+        for (String count : args[0].split(",")) {
+            int processes = Integer.parseInt(count.trim());
+            long stored = run(processes, results);
+            failed |= stored != (long) processes * results;
+        }
+        if (failed) {
+            System.err.println("Results were lost");
+            System.exit(1);
+        }
+    }
+
+    private static long run(int processes, int results) throws Exception {
+        for (String file : FILES) {
+            Files.deleteIfExists(Paths.get(file));
+        }
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process[] workers = new Process[processes];
+        for (int p = 0; p < processes; p++) {
+            workers[p] = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                ScoreProcessBenchmark.class.getName(), "post", "Process" + p, Integer.toString(results))
+                .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        }
+        for (Process worker : workers) {
+            // Each prints a line once its table is loaded
+            new BufferedReader(new InputStreamReader(worker.getInputStream())).readLine();
+        }
+
+        long start = System.nanoTime();
+        for (Process worker : workers) {
+            OutputStream go = worker.getOutputStream();
+            go.write('\n');
+            go.flush();
+        }
+        for (Process worker : workers) {
+            if (worker.waitFor() != 0) {
+                throw new IOException("A posting process failed");
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long stored = new ScoreTable().size();
+        System.out.printf("%-10d %12.0f %12d%n", processes, processes * results / seconds, stored);
+        return stored;
+    }
+
+    private static void post(String name, int results) throws IOException {
+        ScoreTable table = new ScoreTable();
+        table.size(); // Load before the clock starts
+        System.out.println("ready");
+        System.out.flush();
+        System.in.read();
+
+        int[][] rounds = new int[1][3];
+        for (int i = 0; i < results; i++) {
+            for (int r = 0; r < rounds[0].length; r++) {
+                rounds[0][r] = (i * 7 + r * 13) % 57;
+            }
+            table.addScores(new String[] {name}, rounds);
+        }
+    }
+}
\ No newline at end of file
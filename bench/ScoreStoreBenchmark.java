@@ -0,0 +1,73 @@
+package highsuit.bench;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import highsuit.*;
+
+/**
+ * JMH benchmarks for ScoreStore
+ * Opening a snapshot of `records` results and reading what the high score
+ * table needs at startup: the histogram and the top ten records
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScoreStoreBenchmark {
+
+    @Param({"1000", "1000000"})
+    public int records;
+
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("scores", ".dat");
+        long[] histogram = new long[64];
+        for (int i = 0; i < records; i++) {
+            histogram[average(i)]++;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ScoreStore.Writer writer = new ScoreStore.Writer(channel, histogram, records);
+            for (int i = 0; i < records; i++) {
+                writer.add("Player" + (i % 5000), average(i), average(i) * 3, 3);
+            }
+            writer.finish();
+        }
+    }
+
+    // Averages from 56 down to 1, best first
+    private int average(int record) {
+        return 56 - (int) (56L * record / records);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public void openTop10(Blackhole blackhole) throws IOException {
+        ScoreStore store = ScoreStore.open(file, 0);
+        for (int score = 0; score < store.getRange(); score++) {
+            blackhole.consume(store.countAt(score));
+        }
+        for (int i = 0; i < 10; i++) {
+            blackhole.consume(store.name(store.nameId(i)));
+            blackhole.consume(store.averageScore(i));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package highsuit.bench;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import highsuit.*;
+
+/**
+ * JMH benchmarks for ScoreTable
+ * addScore appends to highscores.txt in the working directory and
+ * compacts it into highscores.snapshot, so the bench target runs these
+ * from a scratch directory.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ScoreTableBenchmark {
+
+    private static final File FILE = new File("highscores.txt");
+    private static final File SNAPSHOT = new File("highscores.snapshot");
+
+    private ScoreTable table;
+    private int score;
+
+    @Setup
+    public void setUp() {
+        FILE.delete();
+        SNAPSHOT.delete();
+        table = new ScoreTable();
+    }
+
+    @TearDown
+    public void tearDown() {
+        FILE.delete();
+        SNAPSHOT.delete();
+    }
+
+    @Benchmark
+    public ScoreTable addScore() {
+        score = (score + 37) % 150;
+        table.addScore("Player", score, 3);
+        return table;
+    }
+
+    @Benchmark
+    public long rank() {
+        score = (score + 37) % 150;
+        return table.rank(score / 3);
+    }
+
+    @Benchmark
+    public long load() {
+        return new ScoreTable().size();
+    }
+}
\ No newline at end of file
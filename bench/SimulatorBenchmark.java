@@ -0,0 +1,41 @@
+package highsuit.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import highsuit.*;
+
+/**
+ * JMH benchmarks for Simulator
+ * One full headless game between two computer players over three rounds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SimulatorBenchmark {
+
+    private Simulator simulator;
+    private ArrayList<Player> players;
+    private Deck deck;
+    private Xoshiro256 random;
+
+    @Setup
+    public void setUp() {
+        simulator = new Simulator(2, 3);
+        players = simulator.createPlayers();
+        random = new Xoshiro256(5L);
+        deck = new Deck(random);
+    }
+
+    @Benchmark
+    public ArrayList<Player> playGame() {
+        simulator.playGame(players, deck, random);
+        return players;
+    }
+}
\ No newline at end of file
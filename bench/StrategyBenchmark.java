@@ -0,0 +1,73 @@
+package highsuit.bench;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import highsuit.*;
+
+/**
+ * JMH benchmarks for the computer strategy
+ * Live solving with SwapOptimizer, a full evaluation, a cached decision
+ * that always hits, and hand canonicalisation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StrategyBenchmark {
+
+    private static final int HANDS = 256;
+
+    private long[] hands;
+    private int next;
+    private SwapOptimizer optimizer;
+    private EvaluationCache cache;
+
+    @Setup
+    public void setUp() {
+        Deck deck = new Deck(11L);
+        hands = new long[HANDS];
+        for (int h = 0; h < HANDS; h++) {
+            deck.reshuffle();
+            for (int i = 0; i < 5; i++) {
+                hands[h] |= Hand.bit(deck.dealCardId());
+            }
+        }
+
+        optimizer = new SwapOptimizer();
+        cache = new EvaluationCache(1024);
+        for (long cards : hands) {
+            cache.decide(cards, optimizer);
+        }
+    }
+
+    private long nextHand() {
+        long cards = hands[next];
+        next = (next + 1) & (HANDS - 1);
+        return cards;
+    }
+
+    @Benchmark
+    public SwapOptimizer.Decision decide() {
+        return optimizer.decide(StrategyTable.sortedIds(nextHand()));
+    }
+
+    @Benchmark
+    public SwapOptimizer.Evaluation evaluate() {
+        return optimizer.evaluate(StrategyTable.sortedIds(nextHand()));
+    }
+
+    @Benchmark
+    public SwapOptimizer.Decision cachedDecide() {
+        return cache.decide(nextHand(), optimizer);
+    }
+
+    @Benchmark
+    public long canonical() {
+        return HandCanonicalizer.canonical(nextHand());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package highsuit.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import highsuit.*;
+
+/**
+ * JMH benchmarks for Tournament
+ * A 32-entrant round-robin (496 matches) and a 64-entrant knockout (63
+ * matches), half computers and half scripted humans with no think time,
+ * each match on its own virtual thread. Computer decisions are solved live
+ * unless the strategy table is loaded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TournamentBenchmark {
+
+    private final ArrayList<Tournament.Entrant> league = new ArrayList<>();
+    private final ArrayList<Tournament.Entrant> bracket = new ArrayList<>();
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < 32; i++) {
+            bracket.add(Tournament.Entrant.computer("Bot " + i));
+            bracket.add(Tournament.Entrant.scripted("Script " + i, 0, "1 2 3", "4 5"));
+        }
+        league.addAll(bracket.subList(0, 32));
+    }
+
+    @Benchmark
+    public Tournament.Result roundRobin() {
+        return Tournament.roundRobin(league, 3, seed++).run();
+    }
+
+    @Benchmark
+    public Tournament.Result knockout() {
+        return Tournament.knockout(bracket, 3, seed++).run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,155 @@
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+
+/**
+ * Renderer that encodes a screen into one byte array and writes it to the
+ * stream in a single call at flush(), or when the array fills. Card
+ * symbols and rule lines are encoded once and copied in as bytes, and
+ * plain ASCII text is copied a char at a time without an encoder, so
+ * drawing a screen makes almost no garbage.
+ *
+ * Like PrintStream, it does not throw on a failed write; checkError()
+ * reports whether one has failed.
+ */
+public class BufferedRenderer implements Renderer {
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private final OutputStream out;
+    private final Charset charset;
+    private final boolean asciiCompatible;
+    private final byte[] buffer;
+    private int count;
+    private final byte[][] cardGlyphs = new byte[Card.DECK_SIZE][];
+    private final byte[] lineSeparator;
+    private final HashMap<Integer, byte[]> rules = new HashMap<>();
+    private boolean error;
+
+    // Renderer for standard output, in the console's charset
+    public static BufferedRenderer stdout() {
+        return new BufferedRenderer(new FileOutputStream(FileDescriptor.out), System.out.charset(),
+            DEFAULT_CAPACITY);
+    }
+
+    public BufferedRenderer(OutputStream out) {
+        this(out, StandardCharsets.UTF_8, DEFAULT_CAPACITY);
+    }
+
+    public BufferedRenderer(OutputStream out, Charset charset, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Buffer capacity must be positive: " + capacity);
+        }
+        this.out = out;
+        this.charset = charset;
+        this.asciiCompatible = charset.contains(StandardCharsets.US_ASCII)
+            && "~".getBytes(charset).length == 1;
+        this.buffer = new byte[capacity];
+        for (int id = 0; id < Card.DECK_SIZE; id++) {
+            cardGlyphs[id] = Card.of(id).toSymbol().getBytes(charset);
+        }
+        this.lineSeparator = System.lineSeparator().getBytes(charset);
+    }
+
+    @Override
+    public void print(String text) {
+        int length = text.length();
+        if (!asciiCompatible) {
+            write(text.getBytes(charset));
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                write(text.substring(i).getBytes(charset)); // Rare: encode the rest
+                return;
+            }
+            if (count == buffer.length) {
+                drain();
+            }
+            buffer[count++] = (byte) c;
+        }
+    }
+
+    @Override
+    public void println(String text) {
+        print(text);
+        write(lineSeparator);
+    }
+
+    @Override
+    public void println() {
+        write(lineSeparator);
+    }
+
+    @Override
+    public void printf(String format, Object... args) {
+        print(String.format(format, args));
+    }
+
+    @Override
+    public void printCard(Card card) {
+        write(cardGlyphs[card.getId()]);
+    }
+
+    @Override
+    public void printRule(char c, int width) {
+        byte[] rule = rules.get(c << 16 | width);
+        if (rule == null) {
+            rule = (String.valueOf(c).repeat(width) + System.lineSeparator()).getBytes(charset);
+            rules.put(c << 16 | width, rule);
+        }
+        write(rule);
+    }
+
+    private void write(byte[] bytes) {
+        if (bytes.length > buffer.length - count) {
+            drain();
+            if (bytes.length > buffer.length) {
+                writeOut(bytes, bytes.length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    // Write out the buffer without flushing the stream
+    private void drain() {
+        if (count == 0) {
+            return;
+        }
+        writeOut(buffer, count);
+        count = 0;
+    }
+
+    private void writeOut(byte[] bytes, int length) {
+        try {
+            out.write(bytes, 0, length);
+        } catch (IOException e) {
+            error = true;
+        }
+    }
+
+    @Override
+    public void flush() {
+        drain();
+        try {
+            out.flush();
+        } catch (IOException e) {
+            error = true;
+        }
+    }
+
+    // Bytes waiting for the next flush
+    public int pending() {
+        return count;
+    }
+
+    public boolean checkError() {
+        return error;
+    }
+}
\ No newline at end of file
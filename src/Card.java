@@ -1,8 +1,14 @@
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 public class Card implements Comparable<Card> {
-    private int rank;
-    private int suit;
+    public static final int NUM_RANKS = 13;
+    public static final int NUM_SUITS = 4;
+    public static final int DECK_SIZE = NUM_RANKS * NUM_SUITS;
+    
+    private final int rank;
+    private final int suit;
+    private final int id;
 
     private static final String[] ranks = {"2", "3", "4", "5", "6", "7", "8", "9", "10",
         "Jack", "Queen", "King", "Ace"};
@@ -10,16 +16,53 @@ public class Card implements Comparable<Card> {
     
     // Card values for scoring
     private static final int[] values = {2, 3, 4, 5, 6, 7, 8, 9, 10, 10, 10, 10, 11};
+    
+    // Canonical immutable instances, indexed by card id (suit * 13 + rank)
+    private static final Card[] CARDS = new Card[DECK_SIZE];
+    
+    static {
+        for (int id = 0; id < DECK_SIZE; id++) {
+            CARDS[id] = new Card(id % NUM_RANKS, id / NUM_RANKS);
+        }
+    }
 
     public Card() {
-        Random random = new Random();
+        RandomGenerator random = ThreadLocalRandom.current();
         this.rank = random.nextInt(ranks.length);
         this.suit = random.nextInt(suits.length);
+        this.id = suit * NUM_RANKS + rank;
     }
 
     public Card(int rank, int suit) {
         this.rank = rank;
         this.suit = suit;
+        this.id = suit * NUM_RANKS + rank;
+    }
+    
+    // Shared instance for a card id (0..51); never allocates
+    public static Card of(int id) {
+        if (id < 0 || id >= DECK_SIZE) {
+            throw new IllegalArgumentException("Card id must be between 0 and " + (DECK_SIZE - 1));
+        }
+        return CARDS[id];
+    }
+    
+    // Shared instance for a rank (0..12) and suit (0..3)
+    public static Card of(int rank, int suit) {
+        if (rank < 0 || rank >= NUM_RANKS || suit < 0 || suit >= NUM_SUITS) {
+            throw new IllegalArgumentException("Invalid rank or suit");
+        }
+        return CARDS[suit * NUM_RANKS + rank];
+    }
+    
+    // Shared instance for a random card drawn from the given generator
+    public static Card random(RandomGenerator random) {
+        return CARDS[random.nextInt(DECK_SIZE)];
+    }
+    
+    // Card id encoding both suit and rank: suit * 13 + rank
+    public int getId() {
+        return this.id;
     }
 
     public String getRank() {
@@ -87,12 +130,11 @@ public class Card implements Comparable<Card> {
     public boolean equals(Object obj) {
         if (this == obj) return true;
         if (obj == null || getClass() != obj.getClass()) return false;
-        Card card = (Card) obj;
-        return rank == card.rank && suit == card.suit;
+        return id == ((Card) obj).id;
     }
     
     @Override
     public int hashCode() {
-        return 31 * rank + suit;
+        return id;
     }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+/**
+ * Renderer that writes every call straight to System.out, as the game
+ * always has. System.out is looked up on each call, so output follows
+ * System.setOut.
+ */
+public class ConsoleRenderer implements Renderer {
+    static final ConsoleRenderer INSTANCE = new ConsoleRenderer();
+
+    private ConsoleRenderer() {
+    }
+
+    @Override
+    public void print(String text) {
+        System.out.print(text);
+    }
+
+    @Override
+    public void println(String text) {
+        System.out.println(text);
+    }
+
+    @Override
+    public void println() {
+        System.out.println();
+    }
+
+    @Override
+    public void printf(String format, Object... args) {
+        System.out.printf(format, args);
+    }
+
+    @Override
+    public void printCard(Card card) {
+        System.out.print(card.toSymbol());
+    }
+
+    @Override
+    public void printRule(char c, int width) {
+        System.out.println(String.valueOf(c).repeat(width));
+    }
+
+    @Override
+    public void flush() {
+        System.out.flush();
+    }
+}
\ No newline at end of file
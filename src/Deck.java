@@ -1,35 +1,88 @@
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
-public class Deck {
-    private ArrayList<Card> cards;
+public final class Deck {
+    // All 52 cards stay in the array; dealing only moves the cursor
+    private final Card[] cards;
+    private int next;
+    private RandomGenerator random;
     
     public Deck() {
-        cards = new ArrayList<>();
-        // Create a full deck of 52 cards
-        for (int suit = 0; suit < 4; suit++) {
-            for (int rank = 0; rank < 13; rank++) {
-                cards.add(new Card(rank, suit));
-            }
+        this(new SplittableRandom());
+    }
+    
+    // Deck whose shuffles are repeatable for a given seed
+    public Deck(long seed) {
+        this(new SplittableRandom(seed));
+    }
+    
+    public Deck(RandomGenerator random) {
+        this.cards = new Card[Card.DECK_SIZE];
+        this.random = random;
+        reset();
+    }
+    
+    public RandomGenerator getRandom() {
+        return random;
+    }
+    
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+    
+    // Return every card to the deck in its original order
+    public void reset() {
+        for (int id = 0; id < Card.DECK_SIZE; id++) {
+            cards[id] = Card.of(id);
         }
+        next = 0;
     }
     
+    // Return every card to the deck and shuffle
+    public void reshuffle() {
+        reset();
+        shuffle();
+    }
+    
+    public void reshuffle(RandomGenerator random) {
+        reset();
+        shuffle(random);
+    }
+    
+    // Shuffle the undealt cards with this deck's generator
     public void shuffle() {
-        Collections.shuffle(cards);
+        shuffle(random);
+    }
+    
+    // Shuffle the undealt cards with a caller-supplied generator
+    // (same swap sequence as Collections.shuffle)
+    public void shuffle(RandomGenerator random) {
+        for (int i = Card.DECK_SIZE - next; i > 1; i--) {
+            int j = next + random.nextInt(i);
+            Card card = cards[next + i - 1];
+            cards[next + i - 1] = cards[j];
+            cards[j] = card;
+        }
     }
     
     public Card dealCard() {
-        if (cards.isEmpty()) {
+        if (next == Card.DECK_SIZE) {
             return null;
         }
-        return cards.remove(0);
+        return cards[next++];
+    }
+    
+    // Deal the next card as its id, or -1 if the deck is empty
+    public int dealCardId() {
+        Card card = dealCard();
+        return card == null ? -1 : card.getId();
     }
     
     public int cardsRemaining() {
-        return cards.size();
+        return Card.DECK_SIZE - next;
     }
     
     public boolean isEmpty() {
-        return cards.isEmpty();
+        return next == Card.DECK_SIZE;
     }
 }
\ No newline at end of file
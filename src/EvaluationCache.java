@@ -0,0 +1,163 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded memo of SwapOptimizer evaluations shared between threads.
+ * Entries are keyed by canonical hand (see HandCanonicalizer), so every
+ * suit relabelling of a hand reuses one evaluation; decisions are mapped
+ * back onto the actual hand exactly, tie-breaking included.
+ *
+ * The cache is split into segments, each a small least-recently-used map
+ * behind its own lock, and a full segment evicts its oldest entry.
+ * Evaluations are computed outside the lock, so two threads that miss on
+ * the same hand at once may both compute it; the first one stored wins.
+ */
+public class EvaluationCache {
+    public static final String CAPACITY_PROPERTY = "highsuit.cache.size";
+
+    private static final int SEGMENT_BITS = 4;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int capacity;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public EvaluationCache(int capacity) {
+        if (capacity < SEGMENTS) {
+            throw new IllegalArgumentException("Cache capacity must be at least " + SEGMENTS);
+        }
+        this.capacity = capacity;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(capacity / SEGMENTS, evictions);
+        }
+    }
+
+    /*
+     * Cache shared by every player in this JVM, sized by the
+     * highsuit.cache.size property; null when the property is unset or 0.
+     * A miss costs more than solving the hand directly, so the cache only
+     * pays off over long simulations where hands keep recurring.
+     */
+    public static EvaluationCache shared() {
+        return Shared.CACHE;
+    }
+
+    private static class Shared {
+        static final EvaluationCache CACHE = create();
+
+        private static EvaluationCache create() {
+            int size = Integer.getInteger(CAPACITY_PROPERTY, 0);
+            return size > 0 ? new EvaluationCache(Math.max(size, SEGMENTS)) : null;
+        }
+    }
+
+    // Best decision for a 5-card hand, over its cards in ascending id order
+    public SwapOptimizer.Decision decide(long cards, SwapOptimizer optimizer) {
+        return decide(cards, -1, optimizer);
+    }
+
+    // Best decision with the bonus suit fixed (-1 lets the optimizer choose)
+    public SwapOptimizer.Decision decide(long cards, int bonusSuit, SwapOptimizer optimizer) {
+        int suitMap = HandCanonicalizer.suitMap(cards);
+        SwapOptimizer.Evaluation evaluation = get(HandCanonicalizer.toCanonical(cards, suitMap), optimizer);
+        return evaluation.bestDecision(HandCanonicalizer.positionMap(cards, suitMap), suitMap, bonusSuit);
+    }
+
+    /*
+     * Candidate evaluation of a canonical hand, computed with the given
+     * optimizer on a miss. Only masks that can be a best decision are
+     * evaluated (see SwapOptimizer.Evaluation.candidates).
+     */
+    public SwapOptimizer.Evaluation get(long canonicalCards, SwapOptimizer optimizer) {
+        Segment segment = segmentFor(canonicalCards);
+        Long key = canonicalCards;
+
+        SwapOptimizer.Evaluation evaluation;
+        synchronized (segment) {
+            evaluation = segment.get(key);
+        }
+        if (evaluation != null) {
+            hits.increment();
+            return evaluation;
+        }
+
+        misses.increment();
+        evaluation = optimizer.evaluate(StrategyTable.sortedIds(canonicalCards)).candidates();
+        synchronized (segment) {
+            SwapOptimizer.Evaluation stored = segment.putIfAbsent(key, evaluation);
+            return stored != null ? stored : evaluation;
+        }
+    }
+
+    private Segment segmentFor(long key) {
+        return segments[(int) ((key * 0x9e3779b97f4a7c15L) >>> (Long.SIZE - SEGMENT_BITS))];
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long lookups = getHits() + getMisses();
+        return lookups == 0 ? 0.0 : (double) getHits() / lookups;
+    }
+
+    /**
+     * One lock's worth of entries, in access order.
+     */
+    private static class Segment extends LinkedHashMap<Long, SwapOptimizer.Evaluation> {
+        private static final long serialVersionUID = 1L;
+
+        private final int limit;
+        private final LongAdder evictions;
+
+        Segment(int limit, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.limit = limit;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, SwapOptimizer.Evaluation> eldest) {
+            if (size() > limit) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,89 @@
+/**
+ * One step of a game, as carried by a GameEventBus. Events live in the
+ * bus's ring and are filled in again for each step, so a consumer must
+ * copy whatever it keeps before its onEvent call returns.
+ *
+ * Every event names the round (from 0), the seat and the player. Hands
+ * are packed with GameReplay.packHand; fields not yet known are -1.
+ *   DEALT         the player's five cards: initialHand and hand
+ *   BONUS_CHOSEN  as DEALT, plus bonusSuit
+ *   SWAPPED       as BONUS_CHOSEN, plus swapMask (0 if none) and the new hand
+ *   SCORED        as SWAPPED, plus the player's bestSuit and round score
+ *   GAME_OVER     round is the number of rounds played and seat the
+ *                 number of players; there is no player
+ */
+public final class GameEvent {
+    public static final int DEALT = 0;
+    public static final int BONUS_CHOSEN = 1;
+    public static final int SWAPPED = 2;
+    public static final int SCORED = 3;
+    public static final int GAME_OVER = 4;
+
+    private int type;
+    private int round;
+    private int seat;
+    private String playerName;
+    private int initialHand;
+    private int hand;
+    private int bonusSuit;
+    private int swapMask;
+    private int bestSuit;
+    private int score;
+
+    GameEvent() {
+    }
+
+    void set(int type, int round, int seat, String playerName, int initialHand, int hand,
+             int bonusSuit, int swapMask, int bestSuit, int score) {
+        this.type = type;
+        this.round = round;
+        this.seat = seat;
+        this.playerName = playerName;
+        this.initialHand = initialHand;
+        this.hand = hand;
+        this.bonusSuit = bonusSuit;
+        this.swapMask = swapMask;
+        this.bestSuit = bestSuit;
+        this.score = score;
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public int getSeat() {
+        return seat;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public int getInitialHand() {
+        return initialHand;
+    }
+
+    public int getHand() {
+        return hand;
+    }
+
+    public int getBonusSuit() {
+        return bonusSuit;
+    }
+
+    public int getSwapMask() {
+        return swapMask;
+    }
+
+    public int getBestSuit() {
+        return bestSuit;
+    }
+
+    public int getScore() {
+        return score;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,276 @@
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Carries GameEvents from the game loop to consumers on their own threads,
+ * through a ring of events allocated once. Publishing claims the next slot,
+ * fills in its event and advances the cursor, so the game loop allocates
+ * nothing and never waits on a consumer unless one has fallen a whole ring
+ * behind. Each consumer follows the cursor with its own sequence and
+ * handles everything published since it last looked as one batch.
+ *
+ * There must be one producer thread. Subscribe every consumer, then
+ * start(); sync() waits until every consumer has handled all that was
+ * published, after which whatever the handlers recorded is safe to read on
+ * the producer's thread. close() lets the consumers finish and stops them.
+ *
+ * Idle consumers spin briefly, then yield, then park until the producer
+ * publishes, so a game waiting on its player costs no CPU.
+ *
+ * A handler that throws stops handling events: its consumer keeps pace
+ * with the cursor so the producer is never held up, and the next sync()
+ * throws an IllegalStateException with the failure as its cause.
+ */
+public class GameEventBus implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 1024;
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long PARK_NANOS = 50_000;
+
+    private final GameEvent[] ring;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(-1); // Last sequence published
+    private final ArrayList<Consumer> consumers = new ArrayList<>();
+    private Consumer[] running = new Consumer[0];
+    private volatile boolean closed;
+    private boolean started;
+
+    // Producer only
+    private long next;
+    private long gatingSequence = -1; // Slowest consumer when last checked
+
+    public GameEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    // capacity is rounded up to a power of two
+    public GameEventBus(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Ring capacity must be 1 to 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        ring = new GameEvent[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new GameEvent();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * A consumer running a handler on its own thread.
+     */
+    private final class Consumer implements Runnable {
+        final String name;
+        final GameEventHandler handler;
+        final AtomicLong sequence = new AtomicLong(-1); // Last sequence handled
+        final Thread thread;
+        volatile boolean parked;
+        volatile RuntimeException failure;
+
+        Consumer(String name, GameEventHandler handler) {
+            this.name = name;
+            this.handler = handler;
+            thread = new Thread(this, "game-events-" + name);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long nextSequence = 0;
+            for (;;) {
+                long available = waitFor(nextSequence);
+                if (available < nextSequence) {
+                    return; // Closed, and everything is handled
+                }
+                for (; nextSequence <= available; nextSequence++) {
+                    if (failure == null) {
+                        try {
+                            handler.onEvent(ring[(int) nextSequence & mask], nextSequence,
+                                nextSequence == available);
+                        } catch (RuntimeException e) {
+                            failure = e;
+                        }
+                    }
+                }
+                sequence.set(available);
+            }
+        }
+
+        // Wait until `wanted` is published, returning the cursor; below `wanted` once closed
+        private long waitFor(long wanted) {
+            long available;
+            int tries = 0;
+            while ((available = cursor.get()) < wanted) {
+                if (closed) {
+                    return cursor.get(); // Everything was published before closing
+                }
+                if (tries < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                    tries++;
+                } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+                    Thread.yield();
+                    tries++;
+                } else {
+                    parked = true;
+                    // Check again after parked is set, so a publish in between is not missed
+                    if (cursor.get() < wanted && !closed) {
+                        LockSupport.park(this);
+                    }
+                    parked = false;
+                }
+            }
+            return available;
+        }
+    }
+
+    // Add a consumer; every consumer must subscribe before start()
+    public synchronized void subscribe(String name, GameEventHandler handler) {
+        if (started) {
+            throw new IllegalStateException("Subscribe consumers before starting the bus");
+        }
+        consumers.add(new Consumer(name, handler));
+    }
+
+    public synchronized void start() {
+        if (started) {
+            throw new IllegalStateException("Event bus already started");
+        }
+        started = true;
+        running = consumers.toArray(new Consumer[0]);
+        for (Consumer consumer : running) {
+            consumer.thread.start();
+        }
+    }
+
+    /*
+     * Claim the next slot, waiting if it still holds an event a consumer
+     * has not handled. Fill in get(sequence), then publish(sequence).
+     */
+    long next() {
+        if (!started || closed) {
+            throw new IllegalStateException(closed ? "Event bus is closed" : "Start the bus before publishing");
+        }
+        long sequence = next;
+        long wrapPoint = sequence - ring.length;
+        if (wrapPoint > gatingSequence) {
+            int tries = 0;
+            while (wrapPoint > (gatingSequence = slowestConsumer())) {
+                backOff(tries++);
+            }
+        }
+        next = sequence + 1;
+        return sequence;
+    }
+
+    GameEvent get(long sequence) {
+        return ring[(int) sequence & mask];
+    }
+
+    void publish(long sequence) {
+        cursor.set(sequence);
+        for (Consumer consumer : running) {
+            if (consumer.parked) {
+                LockSupport.unpark(consumer.thread);
+            }
+        }
+    }
+
+    private void publish(int type, int round, int seat, String playerName, int initialHand, int hand,
+                         int bonusSuit, int swapMask, int bestSuit, int score) {
+        long sequence = next();
+        get(sequence).set(type, round, seat, playerName, initialHand, hand, bonusSuit, swapMask,
+            bestSuit, score);
+        publish(sequence);
+    }
+
+    public void dealt(int round, int seat, String playerName, int hand) {
+        publish(GameEvent.DEALT, round, seat, playerName, hand, hand, -1, -1, -1, -1);
+    }
+
+    public void bonusChosen(int round, int seat, String playerName, int hand, int bonusSuit) {
+        publish(GameEvent.BONUS_CHOSEN, round, seat, playerName, hand, hand, bonusSuit, -1, -1, -1);
+    }
+
+    public void swapped(int round, int seat, String playerName, int initialHand, int bonusSuit,
+                        int swapMask, int hand) {
+        publish(GameEvent.SWAPPED, round, seat, playerName, initialHand, hand, bonusSuit, swapMask,
+            -1, -1);
+    }
+
+    public void scored(int round, int seat, String playerName, int initialHand, int bonusSuit,
+                       int swapMask, int finalHand, int bestSuit, int score) {
+        publish(GameEvent.SCORED, round, seat, playerName, initialHand, finalHand, bonusSuit, swapMask,
+            bestSuit, score);
+    }
+
+    public void gameOver(int rounds, int players) {
+        publish(GameEvent.GAME_OVER, rounds, players, null, -1, -1, -1, -1, -1, -1);
+    }
+
+    // Lowest sequence every consumer has handled, or the cursor if there are none
+    private long slowestConsumer() {
+        long slowest = cursor.get();
+        for (Consumer consumer : running) {
+            slowest = Math.min(slowest, consumer.sequence.get());
+        }
+        return slowest;
+    }
+
+    private static void backOff(int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    /*
+     * Wait until every consumer has handled every event published so far.
+     * Throws IllegalStateException if a handler has failed.
+     */
+    public void sync() {
+        long published = cursor.get();
+        int tries = 0;
+        while (slowestConsumer() < published) {
+            backOff(tries++);
+        }
+        for (Consumer consumer : running) {
+            RuntimeException failure = consumer.failure;
+            if (failure != null) {
+                throw new IllegalStateException("Event consumer " + consumer.name + " failed", failure);
+            }
+        }
+    }
+
+    // Events published and not yet handled by the slowest consumer
+    public long backlog() {
+        return cursor.get() - slowestConsumer();
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    // Let every consumer handle what is published, then stop their threads
+    @Override
+    public void close() {
+        closed = true;
+        for (Consumer consumer : running) {
+            LockSupport.unpark(consumer.thread);
+        }
+        for (Consumer consumer : running) {
+            try {
+                consumer.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+/**
+ * Consumer of a GameEventBus. Each handler runs on its own thread and sees
+ * every event in the order it was published. The event object is reused
+ * once onEvent returns. endOfBatch is true for the last event published so
+ * far, so a handler can save up work and do it once per batch.
+ */
+public interface GameEventHandler {
+    void onEvent(GameEvent event, long sequence, boolean endOfBatch);
+
+    // Record every scored player-round into a replay, a round per deal to seat 0
+    static GameEventHandler recordInto(ReplayRecorder recorder) {
+        return (event, sequence, endOfBatch) -> {
+            if (event.getType() == GameEvent.DEALT && event.getSeat() == 0) {
+                recorder.startRound();
+            } else if (event.getType() == GameEvent.SCORED) {
+                recorder.addPlayerRound(event.getPlayerName(), event.getInitialHand(),
+                    event.getBonusSuit(), event.getSwapMask(), event.getHand(), event.getScore());
+            }
+        };
+    }
+}
\ No newline at end of file
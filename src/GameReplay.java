@@ -1,62 +1,262 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 
-public class GameReplay {
-    private ArrayList<RoundReplay> rounds;
+/**
+ * Record of every player's play in each round of a game.
+ * Each player-round is packed into one long and one int: both hands as
+ * 6-bit card ids, then a 5-bit mask of the positions swapped, the 2-bit
+ * bonus suit, the score as a byte and the player's number in a table of
+ * names. These sit in growable primitive arrays, so a long session costs
+ * 12 bytes per player-round, and Card objects are only looked up when a
+ * round is displayed or asked for.
+ */
+public class GameReplay implements ReplayRecorder {
+    public static final int HAND_SIZE = 5;
+    
+    private static final int CARD_BITS = 6;
+    private static final int NO_CARD = (1 << CARD_BITS) - 1;
+    private static final int HAND_BITS = CARD_BITS * HAND_SIZE;
+    private static final int BONUS_SHIFT = HAND_SIZE;
+    private static final int SCORE_SHIFT = BONUS_SHIFT + 2;
+    private static final int PLAYER_SHIFT = SCORE_SHIFT + 8;
+    private static final int MAX_PLAYERS = 1 << (32 - PLAYER_SHIFT);
+    private static final int INITIAL_CAPACITY = 8;
+    
+    private long[] hands = new long[INITIAL_CAPACITY];
+    private int[] decisions = new int[INITIAL_CAPACITY];
+    private int size;
+    private int[] roundStarts = new int[INITIAL_CAPACITY];
+    private int roundCount;
+    private final ArrayList<String> names = new ArrayList<>();
+    private final HashMap<String, Integer> nameIds = new HashMap<>();
     
     public GameReplay() {
-        rounds = new ArrayList<>();
     }
     
     public void addRound(RoundReplay round) {
-        rounds.add(round);
+        startRound();
+        for (PlayerRoundData data : round.playerData) {
+            addPlayerRound(data.playerName, packHand(data.initialHand), data.bonusSuit,
+                data.swapMask, packHand(data.finalHand), data.roundScore);
+        }
+    }
+    
+    // Begin a new round; players added after this belong to it
+    @Override
+    public void startRound() {
+        if (roundCount == roundStarts.length) {
+            roundStarts = Arrays.copyOf(roundStarts, roundCount * 2);
+        }
+        roundStarts[roundCount++] = size;
+    }
+    
+    /*
+     * Record one player's round in the current round. Hands are packed
+     * with packHand; swapMask has bit i set if position i was swapped.
+     */
+    @Override
+    public void addPlayerRound(String playerName, int initialHand, int bonusSuit,
+                               int swapMask, int finalHand, int roundScore) {
+        if (roundCount == 0) {
+            throw new IllegalStateException("Start a round before adding players to it");
+        }
+        checkPlayerRound(bonusSuit, swapMask, roundScore);
+        if (size == hands.length) {
+            hands = Arrays.copyOf(hands, size * 2);
+            decisions = Arrays.copyOf(decisions, size * 2);
+        }
+        hands[size] = (initialHand & 0xFFFFFFFFL) | (long) finalHand << HAND_BITS;
+        decisions[size] = swapMask | bonusSuit << BONUS_SHIFT | roundScore << SCORE_SHIFT
+            | playerId(playerName) << PLAYER_SHIFT;
+        size++;
+    }
+    
+    // Reject choices that do not fit the packed form
+    static void checkPlayerRound(int bonusSuit, int swapMask, int roundScore) {
+        if (bonusSuit < 0 || bonusSuit >= Card.NUM_SUITS) {
+            throw new IllegalArgumentException("Invalid bonus suit: " + bonusSuit);
+        }
+        if (swapMask < 0 || swapMask >= 1 << HAND_SIZE) {
+            throw new IllegalArgumentException("Invalid swap mask: " + swapMask);
+        }
+        if (roundScore < 0 || roundScore > 255) {
+            throw new IllegalArgumentException("Round score does not fit in a byte: " + roundScore);
+        }
+    }
+    
+    private int playerId(String playerName) {
+        Integer id = nameIds.get(playerName);
+        if (id == null) {
+            if (names.size() == MAX_PLAYERS) {
+                throw new IllegalStateException("Too many players in one replay");
+            }
+            id = names.size();
+            names.add(playerName);
+            nameIds.put(playerName, id);
+        }
+        return id;
+    }
+    
+    // Up to HAND_SIZE card ids as 6 bits each, first card lowest
+    public static int packHand(byte[] ids) {
+        if (ids.length > HAND_SIZE) {
+            throw new IllegalArgumentException("A hand holds at most " + HAND_SIZE + " cards");
+        }
+        int packed = 0;
+        for (int i = HAND_SIZE - 1; i >= 0; i--) {
+            packed = packed << CARD_BITS | (i < ids.length ? checkId(ids[i]) : NO_CARD);
+        }
+        return packed;
+    }
+    
+    public static int packHand(List<Card> cards) {
+        if (cards.size() > HAND_SIZE) {
+            throw new IllegalArgumentException("A hand holds at most " + HAND_SIZE + " cards");
+        }
+        int packed = 0;
+        for (int i = HAND_SIZE - 1; i >= 0; i--) {
+            packed = packed << CARD_BITS | (i < cards.size() ? cards.get(i).getId() : NO_CARD);
+        }
+        return packed;
+    }
+    
+    private static int checkId(int id) {
+        if (id < 0 || id >= Card.DECK_SIZE) {
+            throw new IllegalArgumentException("Invalid card id: " + id);
+        }
+        return id;
+    }
+    
+    // Card id at one position of a packed hand, or -1 if it is empty
+    public static int cardAt(int packed, int position) {
+        int id = packed >>> (position * CARD_BITS) & NO_CARD;
+        return id == NO_CARD ? -1 : id;
+    }
+    
+    // Card ids of a packed hand
+    public static byte[] unpackHand(int packed) {
+        byte[] ids = new byte[HAND_SIZE];
+        int count = 0;
+        for (int i = 0; i < HAND_SIZE; i++) {
+            int id = packed >>> (i * CARD_BITS) & NO_CARD;
+            if (id != NO_CARD) {
+                ids[count++] = (byte) id;
+            }
+        }
+        return count == HAND_SIZE ? ids : Arrays.copyOf(ids, count);
+    }
+    
+    // Mask with bit i set for each swapped position i
+    public static int swapMask(List<Integer> positions) {
+        int mask = 0;
+        for (int position : positions) {
+            if (position < 0 || position >= HAND_SIZE) {
+                throw new IllegalArgumentException("Invalid swap position: " + position);
+            }
+            mask |= 1 << position;
+        }
+        return mask;
+    }
+    
+    public int getRoundCount() {
+        return roundCount;
+    }
+    
+    // Number of players recorded in a round, counting from 0
+    public int getPlayerCount(int round) {
+        checkRound(round);
+        return roundEnd(round) - roundStarts[round];
+    }
+    
+    // One player's round, decoded on request
+    public PlayerRoundData getPlayerRound(int round, int player) {
+        checkRound(round);
+        if (player < 0 || player >= getPlayerCount(round)) {
+            throw new IndexOutOfBoundsException("No player " + player + " in round " + round);
+        }
+        int index = roundStarts[round] + player;
+        return new PlayerRoundData(names.get(decisions[index] >>> PLAYER_SHIFT), (int) hands[index],
+            decisions[index] >>> BONUS_SHIFT & 3, decisions[index] & (1 << HAND_SIZE) - 1,
+            (int) (hands[index] >>> HAND_BITS), decisions[index] >>> SCORE_SHIFT & 0xFF);
+    }
+    
+    // Player-rounds recorded in all rounds
+    public int size() {
+        return size;
+    }
+    
+    private void checkRound(int round) {
+        if (round < 0 || round >= roundCount) {
+            throw new IndexOutOfBoundsException("No round " + round + " of " + roundCount);
+        }
+    }
+    
+    private int roundEnd(int round) {
+        return round + 1 < roundCount ? roundStarts[round + 1] : size;
     }
     
     public void displayReplay() {
+        displayReplay(Renderer.console());
+    }
+    
+    public void displayReplay(Renderer out) {
         String[] suitNames = {"Clubs", "Diamonds", "Hearts", "Spades"};
         
-        System.out.println("\n" + "=".repeat(70));
-        System.out.println("GAME REPLAY");
-        System.out.println("=".repeat(70));
+        out.println();
+        out.printRule('=', 70);
+        out.println("GAME REPLAY");
+        out.printRule('=', 70);
         
-        for (int i = 0; i < rounds.size(); i++) {
-            RoundReplay round = rounds.get(i);
-            System.out.println("\nROUND " + (i + 1) + ":");
-            System.out.println("-".repeat(70));
+        for (int i = 0; i < roundCount; i++) {
+            out.println("\nROUND " + (i + 1) + ":");
+            out.printRule('-', 70);
             
-            for (PlayerRoundData data : round.playerData) {
-                System.out.println("\n" + data.playerName + ":");
+            for (int p = 0; p < getPlayerCount(i); p++) {
+                PlayerRoundData data = getPlayerRound(i, p);
+                out.println("\n" + data.playerName + ":");
                 
-                System.out.print("Initial Hand: ");
-                for (Card card : data.initialHand) {
-                    System.out.print(card.toSymbol() + " ");
-                }
-                System.out.println();
+                out.print("Initial Hand: ");
+                printHand(out, data.initialHand);
                 
-                System.out.println("Bonus Suit: " + suitNames[data.bonusSuit]);
+                out.println("Bonus Suit: " + suitNames[data.bonusSuit]);
                 
-                if (!data.swappedCards.isEmpty()) {
-                    System.out.print("Cards Swapped: ");
-                    for (int pos : data.swappedCards) {
-                        System.out.print((pos + 1) + " ");
+                if (data.swapMask != 0) {
+                    out.print("Cards Swapped: ");
+                    for (int pos = 0; pos < HAND_SIZE; pos++) {
+                        if ((data.swapMask & 1 << pos) != 0) {
+                            out.print((pos + 1) + " ");
+                        }
                     }
-                    System.out.println();
+                    out.println();
                 } else {
-                    System.out.println("No cards swapped");
+                    out.println("No cards swapped");
                 }
                 
-                System.out.print("Final Hand: ");
-                for (Card card : data.finalHand) {
-                    System.out.print(card.toSymbol() + " ");
-                }
-                System.out.println();
+                out.print("Final Hand: ");
+                printHand(out, data.finalHand);
                 
-                System.out.println("Round Score: " + data.roundScore);
+                out.println("Round Score: " + data.roundScore);
             }
         }
         
-        System.out.println("\n" + "=".repeat(70));
+        out.println();
+        out.printRule('=', 70);
+        out.flush();
     }
     
+    private static void printHand(Renderer out, byte[] ids) {
+        for (byte id : ids) {
+            out.printCard(Card.of(id));
+            out.print(" ");
+        }
+        out.println();
+    }
+    
+    /**
+     * Players' data for one round, gathered before adding it to a replay.
+     */
     public static class RoundReplay {
         ArrayList<PlayerRoundData> playerData;
         
@@ -69,23 +269,94 @@ public class GameReplay {
         }
     }
     
+    /**
+     * One player's round, as given to or decoded from a replay.
+     */
     public static class PlayerRoundData {
         String playerName;
-        ArrayList<Card> initialHand;
+        byte[] initialHand; // card ids
         int bonusSuit;
-        ArrayList<Integer> swappedCards;
-        ArrayList<Card> finalHand;
+        int swapMask; // bit i set if position i was swapped
+        byte[] finalHand; // card ids
         int roundScore;
         
-        public PlayerRoundData(String playerName, ArrayList<Card> initialHand, 
+        public PlayerRoundData(String playerName, ArrayList<Card> initialHand,
                                int bonusSuit, ArrayList<Integer> swappedCards,
                                ArrayList<Card> finalHand, int roundScore) {
+            this(playerName, toIds(initialHand), bonusSuit, swappedCards,
+                 toIds(finalHand), roundScore);
+        }
+        
+        public PlayerRoundData(String playerName, byte[] initialHand,
+                               int bonusSuit, ArrayList<Integer> swappedCards,
+                               byte[] finalHand, int roundScore) {
+            this.playerName = playerName;
+            this.initialHand = initialHand.clone();
+            this.bonusSuit = bonusSuit;
+            this.swapMask = swapMask(swappedCards);
+            this.finalHand = finalHand.clone();
+            this.roundScore = roundScore;
+        }
+        
+        PlayerRoundData(String playerName, int initialHand, int bonusSuit,
+                        int swapMask, int finalHand, int roundScore) {
             this.playerName = playerName;
-            this.initialHand = new ArrayList<>(initialHand);
+            this.initialHand = unpackHand(initialHand);
             this.bonusSuit = bonusSuit;
-            this.swappedCards = new ArrayList<>(swappedCards);
-            this.finalHand = new ArrayList<>(finalHand);
+            this.swapMask = swapMask;
+            this.finalHand = unpackHand(finalHand);
             this.roundScore = roundScore;
         }
+        
+        public String getPlayerName() {
+            return playerName;
+        }
+        
+        public ArrayList<Card> getInitialHand() {
+            return toCards(initialHand);
+        }
+        
+        public ArrayList<Card> getFinalHand() {
+            return toCards(finalHand);
+        }
+        
+        public int getBonusSuit() {
+            return bonusSuit;
+        }
+        
+        public int getSwapMask() {
+            return swapMask;
+        }
+        
+        // Positions swapped, in ascending order
+        public ArrayList<Integer> getSwappedCards() {
+            ArrayList<Integer> positions = new ArrayList<>();
+            for (int pos = 0; pos < HAND_SIZE; pos++) {
+                if ((swapMask & 1 << pos) != 0) {
+                    positions.add(pos);
+                }
+            }
+            return positions;
+        }
+        
+        public int getRoundScore() {
+            return roundScore;
+        }
+        
+        private static byte[] toIds(ArrayList<Card> cards) {
+            byte[] ids = new byte[cards.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = (byte) cards.get(i).getId();
+            }
+            return ids;
+        }
+        
+        private static ArrayList<Card> toCards(byte[] ids) {
+            ArrayList<Card> cards = new ArrayList<>(ids.length);
+            for (byte id : ids) {
+                cards.add(Card.of(id));
+            }
+            return cards;
+        }
     }
 }
\ No newline at end of file
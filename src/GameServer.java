@@ -0,0 +1,589 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking TCP server hosting many HighSuit tables at once on one
+ * selector thread. Each table seats up to MAX_SEATS human and computer
+ * players and plays by HighSuit's rules through the same Deck, Player and
+ * scoring code as the console game.
+ *
+ * A table keeps only what its game needs: a seed, the round, how far into
+ * the round's deck play has reached, and each seat's packed hand and
+ * total. The deck is not kept; a move deals the round's order again into
+ * one shared Deck from the table's seed and round, as SeedReplay does for
+ * a whole game. Input is read through one shared buffer and replies are
+ * written from another, so a connection holds a buffer only while the
+ * socket is behind. A connection that is behind is not read until its
+ * replies are written, and is closed if they pass MAX_PENDING. A table for one human and one computer holds about
+ * 160 bytes of game state, besides the socket.
+ *
+ * Computer seats decide on the selector thread, so load a StrategyTable
+ * (strategy.bin) when they play: without it each decision is solved live
+ * and holds up every other table meanwhile.
+ *
+ * The protocol is ASCII, one command or reply per line:
+ *   NEW <rounds> <humans> <computers>  open a table and take seat 0
+ *                                      -> TABLE <id>, SEAT 0
+ *   JOIN <id>                          take the table's next seat
+ *                                      -> SEAT <seat>
+ *   MOVE <bonusSuit> <swapMask>        play this round's hand
+ *                                      -> SCORE <round> <score> <total> <bestSuit> <5 card ids>
+ *   QUIT                               leave; the connection is closed
+ * Once every human seat is taken, each round deals every seat five cards
+ * and each human gets HAND <round> <5 card ids>. Computers play as soon as
+ * they are dealt; humans may play in any order, and swaps draw from the
+ * deck in the order the moves arrive. After the last round every human
+ * gets OVER <each seat's total>, and the connection may open or join
+ * another table. If a player leaves, the others get ABANDONED. A bad
+ * command gets ERR <reason>.
+ *
+ * Rounds count from 1. Card ids and suits are as in Card, and bit i of
+ * the swap mask swaps hand position i, as in GameReplay.
+ */
+public class GameServer implements Runnable, Closeable {
+    public static final int DEFAULT_PORT = 7531;
+    public static final int MAX_SEATS = 5; // Five hands with every card swapped use 50 cards
+    public static final int MAX_ROUNDS = 3;
+    static final int MAX_LINE = 128;
+    static final int MAX_PENDING = 64 * 1024; // Unwritten reply bytes kept for a connection
+    private static final int HAND_SIZE = GameReplay.HAND_SIZE;
+    private static final int BACKLOG = 4096;
+
+    private final Selector selector;
+    private final ServerSocketChannel server;
+    private final Consumer<SelectionKey> onSelect = this::select;
+    private final ByteBuffer in = ByteBuffer.allocateDirect(64 * 1024);
+    private final ByteBuffer out = ByteBuffer.allocateDirect(4096);
+    private final byte[] line = new byte[MAX_LINE];
+    private final byte[] digits = new byte[11];
+    private int lineLength;
+    private int parsed; // Parse position in line
+
+    // Shared by every table, on the selector thread
+    private final Deck deck = new Deck(0L);
+    private final Xoshiro256 random = new Xoshiro256(0L);
+    private final Player player = new Player("Player");
+    private final ArrayList<Integer> positions = new ArrayList<>(HAND_SIZE);
+    private final SplittableRandom seeds = new SplittableRandom();
+    private final HashMap<Integer, Table> openTables = new HashMap<>(); // Waiting for players
+    private int nextTableId;
+
+    private volatile boolean closed;
+    private volatile long moves;
+    private volatile int tables;
+    private volatile int connections;
+
+    /**
+     * A client connection. Its unfinished input line and any reply the
+     * socket would not take are kept only until they can be handled.
+     */
+    private static final class Connection {
+        final SocketChannel channel;
+        SelectionKey key;
+        Table table;
+        int seat;
+        byte[] partial; // Start of a line still arriving, or null
+        ByteBuffer pending; // Replies not yet written, or null
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * One table's game. Human seats come first and computers follow; each
+     * hand is packed as GameReplay.packHand does.
+     */
+    private static final class Table {
+        final int id;
+        final long seed;
+        final byte rounds;
+        final byte humans;
+        byte seated;
+        byte round; // From 0
+        byte dealt; // Cards dealt from this round's deck
+        int played; // Bit per seat that has played this round
+        final int[] hands;
+        final short[] totals;
+        final Connection[] players;
+
+        Table(int id, long seed, int rounds, int humans, int computers) {
+            this.id = id;
+            this.seed = seed;
+            this.rounds = (byte) rounds;
+            this.humans = (byte) humans;
+            hands = new int[humans + computers];
+            totals = new short[humans + computers];
+            players = new Connection[humans];
+        }
+
+        int seats() {
+            return hands.length;
+        }
+    }
+
+    // Server on the given port of every local address; 0 picks a free port
+    public GameServer(int port) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        try {
+            server.bind(new InetSocketAddress(port), BACKLOG);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            server.close();
+            selector.close();
+            throw e;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        GameServer gameServer = new GameServer(port);
+        if (StrategyTable.shared() == null) {
+            System.out.println("No strategy table; computer players will be slow to decide.");
+        }
+        System.out.println("HighSuit server listening on port " + gameServer.getPort());
+        gameServer.run();
+    }
+
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    // Tables open or being played
+    public int getTableCount() {
+        return tables;
+    }
+
+    public int getConnectionCount() {
+        return connections;
+    }
+
+    // Moves played so far, computers' included
+    public long getMoveCount() {
+        return moves;
+    }
+
+    // Run the server on a daemon thread
+    public Thread start() {
+        Thread thread = new Thread(this, "game-server");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!closed) {
+                selector.select(onSelect);
+            }
+        } catch (IOException e) {
+            System.out.println("Game server stopped: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key.channel());
+            }
+            closeQuietly(selector);
+        }
+    }
+
+    // Stop serving and close every connection
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+    }
+
+    private void select(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        Connection connection = (Connection) key.attachment();
+        if (key.isReadable()) {
+            read(connection);
+        }
+        if (key.isValid() && key.isWritable()) {
+            writePending(connection);
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = server.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Connection connection = new Connection(channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                connections++;
+            }
+        } catch (IOException e) {
+            // The client went away before it was registered
+        }
+    }
+
+    private void read(Connection connection) {
+        in.clear();
+        int count;
+        try {
+            count = connection.channel.read(in);
+        } catch (IOException e) {
+            count = -1;
+        }
+        if (count < 0) {
+            disconnect(connection);
+            return;
+        }
+        in.flip();
+
+        lineLength = 0;
+        if (connection.partial != null) {
+            lineLength = connection.partial.length;
+            System.arraycopy(connection.partial, 0, line, 0, lineLength);
+            connection.partial = null;
+        }
+        while (in.hasRemaining()) {
+            byte b = in.get();
+            if (b == '\n') {
+                handleLine(connection);
+                if (!connection.channel.isOpen()) {
+                    return;
+                }
+                lineLength = 0;
+            } else if (lineLength == MAX_LINE) {
+                send(connection, "ERR Line too long");
+                disconnect(connection);
+                return;
+            } else {
+                line[lineLength++] = b;
+            }
+        }
+        if (lineLength > 0) {
+            connection.partial = Arrays.copyOf(line, lineLength);
+        }
+    }
+
+    private void handleLine(Connection connection) {
+        if (lineLength > 0 && line[lineLength - 1] == '\r') {
+            lineLength--;
+        }
+        parsed = 0;
+        if (command("MOVE")) {
+            move(connection);
+        } else if (command("NEW")) {
+            newTable(connection);
+        } else if (command("JOIN")) {
+            join(connection);
+        } else if (command("QUIT")) {
+            disconnect(connection);
+        } else if (lineLength > 0) {
+            send(connection, "ERR Unknown command");
+        }
+    }
+
+    private void newTable(Connection connection) {
+        int rounds = number();
+        int humans = number();
+        int computers = number();
+        if (connection.table != null) {
+            send(connection, "ERR Already at a table");
+        } else if (rounds < 1 || rounds > MAX_ROUNDS) {
+            send(connection, "ERR Rounds must be 1 to " + MAX_ROUNDS);
+        } else if (humans < 1 || computers < 0 || humans + computers > MAX_SEATS) {
+            send(connection, "ERR A table seats 1 to " + MAX_SEATS + " players, at least one human");
+        } else {
+            Table table = new Table(nextTableId++, seeds.nextLong(), rounds, humans, computers);
+            tables++;
+            begin("TABLE ").putNumber(table.id).end(connection);
+            seat(connection, table);
+        }
+    }
+
+    private void join(Connection connection) {
+        int id = number();
+        Table table = openTables.get(id);
+        if (connection.table != null) {
+            send(connection, "ERR Already at a table");
+        } else if (table == null) {
+            send(connection, "ERR No open table " + id);
+        } else {
+            seat(connection, table);
+        }
+    }
+
+    private void seat(Connection connection, Table table) {
+        int seat = table.seated++;
+        connection.table = table;
+        connection.seat = seat;
+        table.players[seat] = connection;
+        begin("SEAT ").putNumber(seat).end(connection);
+        if (table.seated < table.humans) {
+            openTables.put(table.id, table);
+        } else {
+            openTables.remove(table.id);
+            deal(table);
+        }
+    }
+
+    // Deal every seat for the table's round; computers play at once
+    private void deal(Table table) {
+        random.reseed(table.seed, table.round);
+        deck.reshuffle(random);
+        for (int seat = 0; seat < table.seats(); seat++) {
+            player.clearHand();
+            for (int i = 0; i < HAND_SIZE; i++) {
+                player.addCard(deck.dealCard());
+            }
+            table.hands[seat] = GameReplay.packHand(player.getHand());
+        }
+        table.dealt = (byte) (HAND_SIZE * table.seats());
+        table.played = 0;
+
+        for (int seat = table.humans; seat < table.seats(); seat++) {
+            load(table, seat);
+            int bonusSuit = player.computerSelectBonusSuit();
+            ArrayList<Integer> swaps = player.computerSelectCards();
+            play(table, seat, bonusSuit, swaps);
+        }
+        for (Connection human : table.players) {
+            begin("HAND ").putNumber(table.round + 1).putHand(table.hands[human.seat]).end(human);
+        }
+    }
+
+    private void move(Connection connection) {
+        int bonusSuit = number();
+        int swapMask = number();
+        Table table = connection.table;
+        if (table == null || table.seated < table.humans) {
+            send(connection, "ERR No game in play");
+        } else if ((table.played & 1 << connection.seat) != 0) {
+            send(connection, "ERR Already played this round");
+        } else if (bonusSuit < 0 || bonusSuit >= Card.NUM_SUITS || swapMask < 0 || swapMask >= 1 << HAND_SIZE) {
+            send(connection, "ERR Move is MOVE <bonusSuit 0-3> <swapMask 0-31>");
+        } else {
+            load(table, connection.seat);
+            positions.clear();
+            for (int pos = 0; pos < HAND_SIZE; pos++) {
+                if ((swapMask & 1 << pos) != 0) {
+                    positions.add(pos);
+                }
+            }
+            int score = play(table, connection.seat, bonusSuit, positions);
+            begin("SCORE ").putNumber(table.round + 1).put(' ').putNumber(score).put(' ')
+                .putNumber(table.totals[connection.seat]).put(' ').putNumber(player.getBestSuit())
+                .putHand(table.hands[connection.seat]).end(connection);
+            if (table.played == (1 << table.seats()) - 1) {
+                endRound(table);
+            }
+        }
+    }
+
+    // Put a seat's hand in the scratch player, and the deck where play left it
+    private void load(Table table, int seat) {
+        random.reseed(table.seed, table.round);
+        deck.reshuffle(random);
+        for (int i = 0; i < table.dealt; i++) {
+            deck.dealCard();
+        }
+        player.clearHand();
+        for (int i = 0; i < HAND_SIZE; i++) {
+            player.addCard(GameReplay.cardAt(table.hands[seat], i));
+        }
+    }
+
+    // Swap and score the loaded hand, returning its round score
+    private int play(Table table, int seat, int bonusSuit, ArrayList<Integer> swaps) {
+        if (!swaps.isEmpty()) {
+            player.swapCards(swaps, deck);
+            table.dealt = (byte) (table.dealt + swaps.size());
+        }
+        int score = player.calculateRoundScore(bonusSuit);
+        table.hands[seat] = GameReplay.packHand(player.getHand());
+        table.totals[seat] = (short) (table.totals[seat] + score);
+        table.played |= 1 << seat;
+        moves++;
+        return score;
+    }
+
+    private void endRound(Table table) {
+        table.round++;
+        if (table.round < table.rounds) {
+            deal(table);
+            return;
+        }
+        tables--;
+        for (Connection human : table.players) {
+            human.table = null; // Off the table first, so a failed write leaves the others be
+            begin("OVER");
+            for (short total : table.totals) {
+                put(' ').putNumber(total);
+            }
+            end(human);
+        }
+    }
+
+    // Close a connection; anyone else at its table is told the game is off
+    private void disconnect(Connection connection) {
+        if (!connection.channel.isOpen()) {
+            return;
+        }
+        closeQuietly(connection.channel);
+        connections--;
+        Table table = connection.table;
+        if (table == null) {
+            return;
+        }
+        connection.table = null;
+        openTables.remove(table.id);
+        tables--;
+        for (Connection other : table.players) {
+            if (other != null && other.table == table) {
+                other.table = null;
+                send(other, "ABANDONED");
+            }
+        }
+    }
+
+    private boolean command(String name) {
+        int length = name.length();
+        if (lineLength < length || (lineLength > length && line[length] != ' ')) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (line[i] != name.charAt(i)) {
+                return false;
+            }
+        }
+        parsed = length;
+        return true;
+    }
+
+    // Next number on the line, or -1 if there is none
+    private int number() {
+        while (parsed < lineLength && line[parsed] == ' ') {
+            parsed++;
+        }
+        int value = -1;
+        while (parsed < lineLength && line[parsed] >= '0' && line[parsed] <= '9') {
+            value = Math.max(value, 0) * 10 + (line[parsed++] - '0');
+            if (value > 1_000_000_000) {
+                return -1;
+            }
+        }
+        return value;
+    }
+
+    private GameServer begin(String text) {
+        out.clear();
+        for (int i = 0; i < text.length(); i++) {
+            out.put((byte) text.charAt(i));
+        }
+        return this;
+    }
+
+    private GameServer put(char c) {
+        out.put((byte) c);
+        return this;
+    }
+
+    private GameServer putNumber(int value) {
+        if (value < 0) {
+            out.put((byte) '-');
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        while (count > 0) {
+            out.put(digits[--count]);
+        }
+        return this;
+    }
+
+    private GameServer putHand(int packed) {
+        for (int i = 0; i < HAND_SIZE; i++) {
+            put(' ').putNumber(GameReplay.cardAt(packed, i));
+        }
+        return this;
+    }
+
+    private void send(Connection connection, String text) {
+        begin(text).end(connection);
+    }
+
+    // Finish the line in the output buffer and write it to the connection
+    private void end(Connection connection) {
+        out.put((byte) '\n');
+        out.flip();
+        if (!connection.channel.isOpen()) {
+            return;
+        }
+        if (connection.pending == null) {
+            try {
+                connection.channel.write(out);
+            } catch (IOException e) {
+                disconnect(connection);
+                return;
+            }
+            if (!out.hasRemaining()) {
+                return;
+            }
+            connection.pending = ByteBuffer.allocate(Math.max(out.remaining(), 256));
+            connection.key.interestOps(SelectionKey.OP_WRITE); // Read no more until it catches up
+        } else if (connection.pending.position() + out.remaining() > MAX_PENDING) {
+            disconnect(connection);
+            return;
+        } else if (connection.pending.remaining() < out.remaining()) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.min(MAX_PENDING,
+                Math.max(connection.pending.capacity() * 2, connection.pending.position() + out.remaining())));
+            connection.pending.flip();
+            connection.pending = grown.put(connection.pending);
+        }
+        connection.pending.put(out);
+    }
+
+    private void writePending(Connection connection) {
+        ByteBuffer pending = connection.pending;
+        pending.flip();
+        try {
+            connection.channel.write(pending);
+        } catch (IOException e) {
+            disconnect(connection);
+            return;
+        }
+        if (pending.hasRemaining()) {
+            pending.compact();
+        } else {
+            connection.pending = null;
+            connection.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+/**
+ * Statistics over every round published to a GameEventBus: how players
+ * score, how often their bonus suit came out best and how many cards they
+ * swap. Runs as a bus consumer; read it on the producer's thread after
+ * GameEventBus.sync().
+ */
+public class GameStats implements GameEventHandler {
+    private static final String[] SUIT_NAMES = {"Clubs", "Diamonds", "Hearts", "Spades"};
+
+    private long games;
+    private long playerRounds;
+    private long totalScore;
+    private int bestScore;
+    private long bonusHits;
+    private final long[] bonusChoices = new long[SUIT_NAMES.length];
+    private final long[] swapCounts = new long[GameReplay.HAND_SIZE + 1];
+
+    @Override
+    public void onEvent(GameEvent event, long sequence, boolean endOfBatch) {
+        if (event.getType() == GameEvent.SCORED) {
+            playerRounds++;
+            totalScore += event.getScore();
+            bestScore = Math.max(bestScore, event.getScore());
+            if (event.getBonusSuit() == event.getBestSuit()) {
+                bonusHits++;
+            }
+            bonusChoices[event.getBonusSuit()]++;
+            swapCounts[Integer.bitCount(event.getSwapMask())]++;
+        } else if (event.getType() == GameEvent.GAME_OVER) {
+            games++;
+        }
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getPlayerRounds() {
+        return playerRounds;
+    }
+
+    public double getMeanScore() {
+        return playerRounds == 0 ? 0.0 : (double) totalScore / playerRounds;
+    }
+
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    // Share of player-rounds whose bonus suit was their best suit
+    public double getBonusHitRate() {
+        return playerRounds == 0 ? 0.0 : (double) bonusHits / playerRounds;
+    }
+
+    public long getBonusChoices(int suit) {
+        return bonusChoices[suit];
+    }
+
+    // Player-rounds in which exactly `cards` cards were swapped
+    public long getSwapCount(int cards) {
+        return swapCounts[cards];
+    }
+
+    public void display(Renderer out) {
+        out.printf("%nThis session: %d game(s), %d player-round(s)%n", games, playerRounds);
+        if (playerRounds == 0) {
+            return;
+        }
+        out.printf("Mean round score %.1f, best %d; bonus suit scored best in %.0f%% of rounds%n",
+            getMeanScore(), bestScore, getBonusHitRate() * 100);
+        out.print("Bonus suits chosen:");
+        for (int suit = 0; suit < SUIT_NAMES.length; suit++) {
+            out.print(" " + SUIT_NAMES[suit] + " " + bonusChoices[suit]);
+        }
+        out.println();
+        out.print("Cards swapped:");
+        for (int cards = 0; cards < swapCounts.length; cards++) {
+            out.print(" " + cards + ": " + swapCounts[cards]);
+        }
+        out.println();
+    }
+}
\ No newline at end of file
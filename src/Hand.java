@@ -0,0 +1,155 @@
+/**
+ * Hand of cards packed into a 52-bit long.
+ * Bit n is set when the card with id n (suit * 13 + rank) is held, so each
+ * suit occupies its own 13-bit lane. Suit scores come from a precomputed
+ * 8192-entry table indexed by a lane, which makes scoring allocation-free
+ * and O(1). The static methods work directly on a mask for hot loops.
+ */
+public class Hand {
+    public static final int LANE_BITS = Card.NUM_RANKS;
+    public static final int LANE_MASK = (1 << LANE_BITS) - 1;
+
+    // Points for every subset of ranks within a single suit
+    private static final int[] LANE_SCORES = new int[1 << LANE_BITS];
+
+    static {
+        for (int lane = 1; lane <= LANE_MASK; lane++) {
+            int lowest = Integer.numberOfTrailingZeros(lane);
+            LANE_SCORES[lane] = LANE_SCORES[lane & (lane - 1)] + Card.of(lowest, 0).getScore();
+        }
+    }
+
+    private long cards;
+
+    public Hand() {
+        this.cards = 0L;
+    }
+
+    public Hand(long cards) {
+        this.cards = cards;
+    }
+
+    public long getMask() {
+        return cards;
+    }
+
+    public void add(Card card) {
+        cards |= bit(card.getId());
+    }
+
+    public void add(int cardId) {
+        cards |= bit(cardId);
+    }
+
+    public void remove(Card card) {
+        cards &= ~bit(card.getId());
+    }
+
+    public void remove(int cardId) {
+        cards &= ~bit(cardId);
+    }
+
+    public boolean contains(Card card) {
+        return (cards & bit(card.getId())) != 0;
+    }
+
+    public int size() {
+        return Long.bitCount(cards);
+    }
+
+    public boolean isEmpty() {
+        return cards == 0L;
+    }
+
+    public void clear() {
+        cards = 0L;
+    }
+
+    public int suitScore(int suit) {
+        return suitScore(cards, suit);
+    }
+
+    public int bestSuit() {
+        return bestSuit(cards);
+    }
+
+    public int maxSuitScore() {
+        return maxSuitScore(cards);
+    }
+
+    public int roundScore(int bonusSuit) {
+        return roundScore(cards, bonusSuit);
+    }
+
+    // Single-bit mask for a card id
+    public static long bit(int cardId) {
+        return 1L << cardId;
+    }
+
+    // The 13-bit rank lane of one suit
+    public static int lane(long cards, int suit) {
+        return (int) (cards >>> (suit * LANE_BITS)) & LANE_MASK;
+    }
+
+    // Points held in a single suit
+    public static int suitScore(long cards, int suit) {
+        return LANE_SCORES[lane(cards, suit)];
+    }
+
+    // Number of cards held in a single suit
+    public static int suitCount(long cards, int suit) {
+        return Integer.bitCount(lane(cards, suit));
+    }
+
+    // Points for a single lane of ranks
+    public static int laneScore(int lane) {
+        return LANE_SCORES[lane];
+    }
+
+    // Highest scoring suit; ties go to the lowest suit index
+    public static int bestSuit(long cards) {
+        int maxScore = 0;
+        int bestSuit = 0;
+
+        for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+            int score = LANE_SCORES[lane(cards, suit)];
+            if (score > maxScore) {
+                maxScore = score;
+                bestSuit = suit;
+            }
+        }
+
+        return bestSuit;
+    }
+
+    // Points in the highest scoring suit
+    public static int maxSuitScore(long cards) {
+        int maxScore = 0;
+
+        for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+            maxScore = Math.max(maxScore, LANE_SCORES[lane(cards, suit)]);
+        }
+
+        return maxScore;
+    }
+
+    // Best suit score plus 5 when the bonus suit is the best suit
+    public static int roundScore(long cards, int bonusSuit) {
+        int maxScore = 0;
+        int maxSuit = 0;
+
+        for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+            int score = LANE_SCORES[lane(cards, suit)];
+            if (score > maxScore) {
+                maxScore = score;
+                maxSuit = suit;
+            }
+        }
+
+        if (maxSuit == bonusSuit) {
+            maxScore += 5;
+        }
+
+        return maxScore;
+    }
+}
\ No newline at end of file
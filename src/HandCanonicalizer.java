@@ -0,0 +1,152 @@
+/**
+ * Suit-isomorphism helpers for hand masks (see Hand).
+ * Two hands that differ only by relabelling suits score alike, apart from
+ * which suit the bonus must match. The canonical form of a hand reorders
+ * its suit lanes so the highest lane comes first; ties keep the original
+ * suit order. A suit map records where each canonical suit came from:
+ * bits 2c and 2c+1 hold the original suit placed at canonical suit c.
+ *
+ * A (hand, bonus suit) pair has its own canonical form. When suits tie for
+ * the best score the bonus only counts for the lowest of them, so a pair
+ * can only be relabelled among the suits below the bonus suit and among
+ * the suits above it; pairs with equal keys play exactly alike.
+ */
+public class HandCanonicalizer {
+    // Suit map that leaves every suit in place
+    public static final int IDENTITY = 0b11_10_01_00;
+
+    // Original suit placed at canonical suit c by a suit map
+    public static int suit(int suitMap, int canonicalSuit) {
+        return (suitMap >>> (2 * canonicalSuit)) & 3;
+    }
+
+    // Suit map that sorts the lanes of a hand from highest to lowest
+    public static int suitMap(long cards) {
+        // Sort keys hold the lane above the inverted suit, so equal lanes keep suit order
+        long a = sortKey(cards, 0);
+        long b = sortKey(cards, 1);
+        long c = sortKey(cards, 2);
+        long d = sortKey(cards, 3);
+        long t;
+
+        // Five compare-exchanges sort four values in descending order
+        if (a < b) { t = a; a = b; b = t; }
+        if (c < d) { t = c; c = d; d = t; }
+        if (a < c) { t = a; a = c; c = t; }
+        if (b < d) { t = b; b = d; d = t; }
+        if (b < c) { t = b; b = c; c = t; }
+
+        return (int) ((3 - (a & 3)) | (3 - (b & 3)) << 2 | (3 - (c & 3)) << 4 | (3 - (d & 3)) << 6);
+    }
+
+    private static long sortKey(long cards, int suit) {
+        return ((long) Hand.lane(cards, suit) << 2) | (3 - suit);
+    }
+
+    // Suit map for a (hand, bonus suit) pair: the bonus suit stays in place
+    public static int pairSuitMap(long cards, int bonusSuit) {
+        long[] keys = new long[Card.NUM_SUITS];
+        for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+            keys[suit] = sortKey(cards, suit);
+        }
+        sortDescending(keys, 0, bonusSuit);
+        sortDescending(keys, bonusSuit + 1, Card.NUM_SUITS);
+
+        int suitMap = 0;
+        for (int c = 0; c < Card.NUM_SUITS; c++) {
+            suitMap |= (int) (3 - (keys[c] & 3)) << (2 * c);
+        }
+        return suitMap;
+    }
+
+    // Insertion sort of keys[from, to), at most three entries
+    private static void sortDescending(long[] keys, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            long key = keys[i];
+            int j = i - 1;
+            while (j >= from && keys[j] < key) {
+                keys[j + 1] = keys[j];
+                j--;
+            }
+            keys[j + 1] = key;
+        }
+    }
+
+    // Canonical key of a (hand, bonus suit) pair, with the bonus suit above the card bits
+    public static long canonicalPair(long cards, int bonusSuit) {
+        if (bonusSuit < 0 || bonusSuit >= Card.NUM_SUITS) {
+            throw new IllegalArgumentException("Invalid bonus suit: " + bonusSuit);
+        }
+        return toCanonical(cards, pairSuitMap(cards, bonusSuit)) | (long) bonusSuit << Card.DECK_SIZE;
+    }
+
+    // Canonical form of a hand
+    public static long canonical(long cards) {
+        return toCanonical(cards, suitMap(cards));
+    }
+
+    public static boolean isCanonical(long cards) {
+        return canonical(cards) == cards;
+    }
+
+    // Move each suit lane to its canonical position
+    public static long toCanonical(long cards, int suitMap) {
+        long result = 0L;
+        for (int c = 0; c < Card.NUM_SUITS; c++) {
+            result |= (long) Hand.lane(cards, suit(suitMap, c)) << (c * Hand.LANE_BITS);
+        }
+        return result;
+    }
+
+    // Move each canonical lane back to its original suit
+    public static long fromCanonical(long canonicalCards, int suitMap) {
+        long result = 0L;
+        for (int c = 0; c < Card.NUM_SUITS; c++) {
+            result |= (long) Hand.lane(canonicalCards, c) << (suit(suitMap, c) * Hand.LANE_BITS);
+        }
+        return result;
+    }
+
+    // Position of each card of a hand (ascending id order) within its canonical form
+    public static int[] positionMap(long cards, int suitMap) {
+        long canonicalCards = toCanonical(cards, suitMap);
+        int[] positions = new int[Long.bitCount(cards)];
+        long rest = cards;
+        for (int i = 0; i < positions.length; i++) {
+            int canonicalId = toCanonicalId(Long.numberOfTrailingZeros(rest), suitMap);
+            positions[i] = Long.bitCount(canonicalCards & (Hand.bit(canonicalId) - 1));
+            rest &= rest - 1;
+        }
+        return positions;
+    }
+
+    // Card id after moving its suit to the canonical position
+    public static int toCanonicalId(int cardId, int suitMap) {
+        int suit = cardId / Card.NUM_RANKS;
+        for (int c = 0; c < Card.NUM_SUITS; c++) {
+            if (suit(suitMap, c) == suit) {
+                return c * Card.NUM_RANKS + cardId % Card.NUM_RANKS;
+            }
+        }
+        throw new IllegalArgumentException("Invalid suit map");
+    }
+
+    // All 24 suit maps, for walking every relabelling of a canonical hand
+    public static int[] allSuitMaps() {
+        int[] maps = new int[24];
+        int next = 0;
+        for (int s0 = 0; s0 < 4; s0++) {
+            for (int s1 = 0; s1 < 4; s1++) {
+                for (int s2 = 0; s2 < 4; s2++) {
+                    int s3 = 6 - s0 - s1 - s2;
+                    if (s1 == s0 || s2 == s0 || s2 == s1 || s3 < 0 || s3 > 3
+                            || s3 == s0 || s3 == s1 || s3 == s2) {
+                        continue;
+                    }
+                    maps[next++] = s0 | s1 << 2 | s2 << 4 | s3 << 6;
+                }
+            }
+        }
+        return maps;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,218 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSource;
+import java.util.zip.CRC32;
+
+/**
+ * Precomputed scores for every possible 5-card hand.
+ * Hands are indexed by their combinadic rank, so each of the C(52,5)
+ * hands maps to a unique slot in 0..2598959. Each slot is one byte
+ * holding the best suit (top 2 bits) and its score (low 6 bits), which
+ * is enough to answer calculateRoundScore for any bonus suit.
+ *
+ * File layout: magic, version, entry count, CRC32 of the entries, then
+ * one byte per hand. The file is generated by `ant generate-tables` (see
+ * build.xml) next to the jar, where it is found by default, and
+ * memory-mapped read-only when loaded.
+ */
+public class HandScoreTable {
+    public static final String DEFAULT_FILENAME = "handscores.bin";
+    public static final String FILE_PROPERTY = "highsuit.handtable";
+    public static final int HAND_SIZE = 5;
+    public static final int NUM_HANDS = 2598960;
+
+    private static final int MAGIC = 0x48535354; // "HSST"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+    private static final int SCORE_MASK = 0x3F;
+
+    // BINOMIAL[n][k] = C(n, k) for the combinadic rank
+    private static final int[][] BINOMIAL = new int[Card.DECK_SIZE + 1][HAND_SIZE + 1];
+
+    static {
+        for (int n = 0; n <= Card.DECK_SIZE; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, HAND_SIZE); k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + (k < n ? BINOMIAL[n - 1][k] : 0);
+            }
+        }
+    }
+
+    private final ByteBuffer entries;
+
+    private HandScoreTable(ByteBuffer entries) {
+        this.entries = entries;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : DEFAULT_FILENAME);
+        long start = System.nanoTime();
+        generate(file);
+        System.out.printf("Wrote %d hands to %s in %.2f s%n",
+            NUM_HANDS, file, (System.nanoTime() - start) / 1e9);
+    }
+
+    // Shared table, mapped on first use; null when no valid file is present
+    public static HandScoreTable shared() {
+        return Shared.TABLE;
+    }
+
+    private static class Shared {
+        static final HandScoreTable TABLE = loadDefault();
+
+        private static HandScoreTable loadDefault() {
+            try {
+                return load(locate(FILE_PROPERTY, DEFAULT_FILENAME));
+            } catch (IOException e) {
+                // Missing or damaged table, callers fall back to Hand scoring
+                return null;
+            }
+        }
+    }
+
+    /*
+     * Where a table file is looked for: the path named by the system
+     * property, else the file in the working directory if there is one,
+     * else the file next to the jar (or class directory) the game runs
+     * from, which is where `ant generate-tables` writes it.
+     */
+    static Path locate(String property, String filename) {
+        String named = System.getProperty(property);
+        if (named != null) {
+            return Paths.get(named);
+        }
+        Path local = Paths.get(filename);
+        if (Files.exists(local)) {
+            return local;
+        }
+        try {
+            CodeSource source = HandScoreTable.class.getProtectionDomain().getCodeSource();
+            if (source != null && source.getLocation() != null) {
+                Path location = Paths.get(source.getLocation().toURI());
+                Path dir = Files.isDirectory(location) ? location : location.getParent();
+                if (dir != null) {
+                    return dir.resolve(filename);
+                }
+            }
+        } catch (URISyntaxException | FileSystemNotFoundException | IllegalArgumentException | SecurityException e) {
+            // Not loaded from a local file; only the working directory applies
+        }
+        return local;
+    }
+
+    // Combinadic rank of a 5-card hand mask: sum of C(id_i, i + 1) over sorted ids
+    public static int rank(long cards) {
+        if (Long.bitCount(cards) != HAND_SIZE) {
+            throw new IllegalArgumentException("A hand must hold exactly " + HAND_SIZE + " cards");
+        }
+
+        int rank = 0;
+        int k = 1;
+        long rest = cards;
+        while (rest != 0) {
+            rank += BINOMIAL[Long.numberOfTrailingZeros(rest)][k++];
+            rest &= rest - 1;
+        }
+        return rank;
+    }
+
+    // Inverse of rank: the hand mask stored in a slot
+    public static long unrank(int rank) {
+        long cards = 0L;
+        int n = Card.DECK_SIZE;
+
+        for (int k = HAND_SIZE; k >= 1; k--) {
+            do {
+                n--;
+            } while (BINOMIAL[n][k] > rank);
+            cards |= Hand.bit(n);
+            rank -= BINOMIAL[n][k];
+        }
+        return cards;
+    }
+
+    public int bestSuit(long cards) {
+        return (entries.get(HEADER_SIZE + rank(cards)) & 0xFF) >>> 6;
+    }
+
+    public int maxSuitScore(long cards) {
+        return entries.get(HEADER_SIZE + rank(cards)) & SCORE_MASK;
+    }
+
+    public int roundScore(long cards, int bonusSuit) {
+        int entry = entries.get(HEADER_SIZE + rank(cards)) & 0xFF;
+        int score = entry & SCORE_MASK;
+        return (entry >>> 6) == bonusSuit ? score + 5 : score;
+    }
+
+    // Score every hand in rank order and write the table file
+    public static void generate(Path file) throws IOException {
+        byte[] table = new byte[NUM_HANDS];
+        int rank = 0;
+
+        // Nested ascending ids enumerate hands in colexicographic (= rank) order
+        for (int c4 = 4; c4 < Card.DECK_SIZE; c4++) {
+            for (int c3 = 3; c3 < c4; c3++) {
+                for (int c2 = 2; c2 < c3; c2++) {
+                    for (int c1 = 1; c1 < c2; c1++) {
+                        long high = Hand.bit(c4) | Hand.bit(c3) | Hand.bit(c2) | Hand.bit(c1);
+                        for (int c0 = 0; c0 < c1; c0++) {
+                            long cards = high | Hand.bit(c0);
+                            table[rank++] = encode(Hand.bestSuit(cards), Hand.maxSuitScore(cards));
+                        }
+                    }
+                }
+            }
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(table);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(NUM_HANDS).putLong(crc.getValue());
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer body = ByteBuffer.wrap(table);
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(new ByteBuffer[] {header, body});
+            }
+        }
+    }
+
+    // Memory-map a table file, checking its header and checksum
+    public static HandScoreTable load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_SIZE + NUM_HANDS) {
+                throw new IOException("Hand score table has the wrong size: " + file);
+            }
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION
+                    || mapped.getInt(8) != NUM_HANDS) {
+                throw new IOException("Not a hand score table: " + file);
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(mapped.slice(HEADER_SIZE, NUM_HANDS));
+            if (crc.getValue() != mapped.getLong(12)) {
+                throw new IOException("Hand score table checksum mismatch: " + file);
+            }
+
+            return new HandScoreTable(mapped);
+        }
+    }
+
+    private static byte encode(int bestSuit, int maxScore) {
+        return (byte) ((bestSuit << 6) | maxScore);
+    }
+}
\ No newline at end of file
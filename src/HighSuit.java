@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.*;
 
 public class HighSuit {
@@ -6,13 +9,32 @@ public class HighSuit {
     private int numRounds;
     private Scanner scanner;
     private ScoreTable Scores;
-    private GameReplay gameReplay;
+    private SeedReplay gameReplay; // Seed and choices; hands are dealt again to view it
+    private final SplittableRandom seeds = new SplittableRandom();
+    private ReplayLog.Writer replayLog; // Archive of every game, or null; used by the replay consumer
+    private volatile boolean archiveFailed;
+    private final GameEventBus events = new GameEventBus();
+    private final GameStats sessionStats = new GameStats();
+    private final Renderer renderer = // Screens are drawn here and shown at each prompt
+        Renderer.forMode(System.getProperty(Renderer.MODE_PROPERTY, "buffered"));
     private String[] suitNames = {"Clubs", "Diamonds", "Hearts", "Spades"};
     
     public HighSuit() {
         scanner = new Scanner(System.in);
-        Scores = new ScoreTable();
-        gameReplay = new GameReplay();
+        Scores = new ScoreTable(true, renderer); // Saved in the background
+        try {
+            replayLog = new ReplayLog.Writer(Paths.get(ReplayLog.DEFAULT_FILENAME),
+                Boolean.parseBoolean(System.getProperty(ReplayLog.COMPRESS_PROPERTY, "true")), true);
+        } catch (IOException e) {
+            renderer.println("Replays will not be archived.");
+        }
+        HandScoreTable.shared(); // Map the hand score table up front if present
+        
+        // Replays, high scores and statistics are recorded off the game loop
+        events.subscribe("replay", (event, sequence, endOfBatch) -> recordReplay(event));
+        events.subscribe("scores", Scores.eventHandler());
+        events.subscribe("stats", sessionStats);
+        events.start();
     }
     
     public static void main(String[] args) {
@@ -27,60 +49,81 @@ public class HighSuit {
         while (playAgain) {
             setupGame();
             playGame();
-            displayFinalResults();
             
-            // Save to high scores
-            for (Player player : players) {
-                Scores.addScore(player.getName(), player.getTotalScore(), numRounds);
+            // The consumers save the game to high scores and the archive
+            events.gameOver(numRounds, players.size());
+            events.sync();
+            if (archiveFailed) {
+                renderer.println("Error archiving replays; archiving stopped.");
+                archiveFailed = false;
             }
+            displayFinalResults();
+            
+            Scores.refresh(); // Include games finished by other running copies
+            displayRanks();
+            displayPlayerStats();
+            sessionStats.display(renderer);
             
             // Offer to view high scores
-            System.out.print("\nWould you like to view the high score table? (y/n): ");
-            if (scanner.nextLine().trim().equalsIgnoreCase("y")) {
-                Scores.display();
+            renderer.print("\nWould you like to view the high score table? (y/n): ");
+            if (readLine().trim().equalsIgnoreCase("y")) {
+                Scores.display(renderer);
             }
             
             // Offer replay
-            System.out.print("\nWould you like to view the game replay? (y/n): ");
-            if (scanner.nextLine().trim().equalsIgnoreCase("y")) {
-                gameReplay.displayReplay();
+            renderer.print("\nWould you like to view the game replay? (y/n): ");
+            if (readLine().trim().equalsIgnoreCase("y")) {
+                gameReplay.toGameReplay().displayReplay(renderer);
             }
             
-            System.out.print("\nPlay another game? (y/n): ");
-            playAgain = scanner.nextLine().trim().equalsIgnoreCase("y");
-            
-            if (playAgain) {
-                gameReplay = new GameReplay(); // Reset replay for new game
-            }
+            renderer.print("\nPlay another game? (y/n): ");
+            playAgain = readLine().trim().equalsIgnoreCase("y");
         }
         
-        System.out.println("\nThanks for playing HighSuit!");
+        renderer.println("\nThanks for playing HighSuit!");
+        renderer.flush();
+        events.close();
+        try {
+            Scores.close();
+        } catch (RuntimeException e) {
+            renderer.println("Error saving high scores.");
+        }
+        if (replayLog != null) {
+            try {
+                replayLog.close();
+            } catch (IOException e) {
+                renderer.println("Error archiving replays.");
+            }
+        }
+        renderer.flush();
         scanner.close();
     }
     
     private void displayWelcome() {
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println("WELCOME TO HIGHSUIT");
-        System.out.println("=".repeat(60));
-        System.out.println("A card game where you aim for the highest scoring suit!");
-        System.out.println("- Picture cards (J, Q, K) score 10 points");
-        System.out.println("- Aces score 11 points");
-        System.out.println("- Number cards score their face value");
-        System.out.println("- Choose a bonus suit for +5 points if it's your highest!");
-        System.out.println("=".repeat(60) + "\n");
+        renderer.println();
+        renderer.printRule('=', 60);
+        renderer.println("WELCOME TO HIGHSUIT");
+        renderer.printRule('=', 60);
+        renderer.println("A card game where you aim for the highest scoring suit!");
+        renderer.println("- Picture cards (J, Q, K) score 10 points");
+        renderer.println("- Aces score 11 points");
+        renderer.println("- Number cards score their face value");
+        renderer.println("- Choose a bonus suit for +5 points if it's your highest!");
+        renderer.printRule('=', 60);
+        renderer.println();
     }
     
     private void setupGame() {
         players = new ArrayList<>();
         
         // Level 1: Get number of players
-        System.out.print("Enter number of players (1 or 2): ");
+        renderer.print("Enter number of players (1 or 2): ");
         int numPlayers = getValidInput(1, 2);
         
         // Get player names
         for (int i = 1; i <= numPlayers; i++) {
-            System.out.print("Enter name for Player " + i + " (or 'Computer' for AI): ");
-            String name = scanner.nextLine().trim();
+            renderer.print("Enter name for Player " + i + " (or 'Computer' for AI): ");
+            String name = readLine().trim();
             if (name.isEmpty()) {
                 name = "Player " + i;
             }
@@ -88,156 +131,217 @@ public class HighSuit {
         }
         
         // Level 5: Get number of rounds
-        System.out.print("\nEnter number of rounds (1-3): ");
+        renderer.print("\nEnter number of rounds (1-3): ");
         numRounds = getValidInput(1, 3);
         
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println("Starting game with " + numPlayers + " player(s) for " + numRounds + " round(s)");
-        System.out.println("=".repeat(60));
+        // Deal from a fresh seed, so the replay need only keep it and the choices
+        long seed = seeds.nextLong();
+        deck = new Deck(seed);
+        ArrayList<String> names = new ArrayList<>();
+        for (Player player : players) {
+            names.add(player.getName());
+        }
+        gameReplay = new SeedReplay(seed, names);
+        
+        renderer.println();
+        renderer.printRule('=', 60);
+        renderer.println("Starting game with " + numPlayers + " player(s) for " + numRounds + " round(s)");
+        renderer.printRule('=', 60);
     }
     
     private void playGame() {
         for (int round = 1; round <= numRounds; round++) {
-            System.out.println("\n" + "=".repeat(60));
-            System.out.println("ROUND " + round + " of " + numRounds);
-            System.out.println("=".repeat(60));
+            renderer.println();
+            renderer.printRule('=', 60);
+            renderer.println("ROUND " + round + " of " + numRounds);
+            renderer.printRule('=', 60);
             
             playRound(round);
             
             // Pause between rounds
             if (round < numRounds) {
-                System.out.println("\nPress Enter to continue to next round...");
-                scanner.nextLine();
+                renderer.println("\nPress Enter to continue to next round...");
+                readLine();
             }
         }
     }
     
     private void playRound(int roundNumber) {
-        // Initialize deck and deal cards
-        deck = new Deck();
-        deck.shuffle();
-        
-        GameReplay.RoundReplay roundReplay = new GameReplay.RoundReplay();
+        // Collect all cards back into the deck and shuffle
+        deck.reshuffle();
+        int round = roundNumber - 1;
         
         // Deal 5 cards to each player
-        for (Player player : players) {
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
             player.clearHand();
             for (int i = 0; i < 5; i++) {
                 player.addCard(deck.dealCard());
             }
+            events.dealt(round, seat, player.getName(), GameReplay.packHand(player.getHand()));
         }
         
         // Each player's turn
-        for (Player player : players) {
-            System.out.println();
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
+            renderer.println();
             
-            // Store initial hand for replay
-            ArrayList<Card> initialHand = new ArrayList<>(player.getHand());
+            int initialHand = GameReplay.packHand(player.getHand());
             
             // Level 2: Display hand and select bonus suit
-            int bonusSuit = player.selectBonusSuit(scanner);
+            int bonusSuit = player.selectBonusSuit(scanner, renderer);
+            events.bonusChosen(round, seat, player.getName(), initialHand, bonusSuit);
             
             // Level 3: Swap cards
-            System.out.println();
-            ArrayList<Integer> swappedPositions = player.selectCardsToSwap(scanner, deck);
+            renderer.println();
+            ArrayList<Integer> swappedPositions = player.selectCardsToSwap(scanner, deck, renderer);
             
             // Perform swaps
             if (!swappedPositions.isEmpty()) {
-                // Sort in descending order to maintain correct indices
-                Collections.sort(swappedPositions, Collections.reverseOrder());
+                player.swapCards(swappedPositions, deck);
                 
-                for (int pos : swappedPositions) {
-                    if (pos >= 0 && pos < player.getHand().size() && !deck.isEmpty()) {
-                        player.getHand().remove(pos);
-                        player.addCard(deck.dealCard());
-                    }
-                }
-                
-                System.out.println("\nUpdated hand:");
-                player.displayHand();
+                renderer.println("\nUpdated hand:");
+                player.displayHand(renderer);
             }
+            int swapMask = GameReplay.swapMask(swappedPositions);
+            int finalHand = GameReplay.packHand(player.getHand());
+            events.swapped(round, seat, player.getName(), initialHand, bonusSuit, swapMask, finalHand);
             
             // Level 4: Calculate and display score
             int roundScore = player.calculateRoundScore(bonusSuit);
             player.addToTotalScore(roundScore);
             
-            int[] suitScores = player.calculateSuitScores();
-            int maxScore = 0;
-            int maxSuit = 0;
-            for (int i = 0; i < 4; i++) {
-                if (suitScores[i] > maxScore) {
-                    maxScore = suitScores[i];
-                    maxSuit = i;
-                }
-            }
+            int maxScore = player.getMaxSuitScore();
+            int maxSuit = player.getBestSuit();
+            events.scored(round, seat, player.getName(), initialHand, bonusSuit, swapMask, finalHand,
+                maxSuit, roundScore);
             
-            System.out.println("\nHighest scoring suit: " + suitNames[maxSuit] + " (" + maxScore + " points)");
+            renderer.println("\nHighest scoring suit: " + suitNames[maxSuit] + " (" + maxScore + " points)");
             if (maxSuit == bonusSuit) {
-                System.out.println("Bonus applied! (+5 points)");
+                renderer.println("Bonus applied! (+5 points)");
             }
-            System.out.println(player.getName() + "'s score this round: " + roundScore);
-            System.out.println(player.getName() + "'s total score: " + player.getTotalScore());
+            renderer.println(player.getName() + "'s score this round: " + roundScore);
+            renderer.println(player.getName() + "'s total score: " + player.getTotalScore());
             
-            // Store replay data
-            roundReplay.addPlayerData(new GameReplay.PlayerRoundData(
-                player.getName(),
-                initialHand,
-                bonusSuit,
-                swappedPositions,
-                new ArrayList<>(player.getHand()),
-                roundScore
-            ));
-            
-            System.out.println("-".repeat(60));
+            renderer.printRule('-', 60);
+        }
+    }
+    
+    // Replay consumer: keep the seed replay and archive each round
+    private void recordReplay(GameEvent event) {
+        boolean roundStarts = event.getType() == GameEvent.DEALT && event.getSeat() == 0;
+        if (roundStarts) {
+            gameReplay.startRound();
+        } else if (event.getType() == GameEvent.SCORED) {
+            gameReplay.addDecision(event.getPlayerName(), event.getBonusSuit(), event.getSwapMask());
+        }
+        if (replayLog != null) {
+            archive(event, roundStarts);
+        }
+    }
+    
+    // Write an event to the replay archive; on failure, stop archiving and say so at game end
+    private void archive(GameEvent event, boolean roundStarts) {
+        try {
+            if (roundStarts) {
+                if (event.getRound() == 0) {
+                    replayLog.startGame();
+                }
+                replayLog.startRound();
+            } else if (event.getType() == GameEvent.SCORED) {
+                replayLog.addPlayerRound(event.getPlayerName(), event.getInitialHand(),
+                    event.getBonusSuit(), event.getSwapMask(), event.getHand(), event.getScore());
+            } else if (event.getType() == GameEvent.GAME_OVER) {
+                replayLog.endGame();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            archiveFailed = true;
+            try {
+                replayLog.close();
+            } catch (IOException closeError) {
+                // Already failing; nothing more to save
+            }
+            replayLog = null;
+        }
+    }
+    
+    // Where each player's average stands among every stored result
+    private void displayRanks() {
+        renderer.println("\nAll-time standings:");
+        for (Player player : players) {
+            int average = player.getTotalScore() / numRounds;
+            renderer.printf("%-20s rank %d of %d (%.0f%% of results at or below)%n",
+                player.getName(), Scores.rank(average), Scores.size(), Scores.percentile(average));
+        }
+    }
+    
+    // Each player's round scores over every game they have played
+    private void displayPlayerStats() {
+        renderer.println("\nCareer statistics (round scores):");
+        renderer.printf("%-20s %6s %6s %5s %5s %5s %5s %5s%n",
+            "Player", "Games", "Mean", "Best", "Worst", "p50", "p90", "p99");
+        for (Player player : players) {
+            PlayerStats stats = Scores.playerStats(player.getName());
+            if (stats == null) {
+                continue;
+            }
+            renderer.printf("%-20s %6d %6.1f %5d %5d %5d %5d %5d%n",
+                stats.getName(), stats.getGames(), stats.getMeanRoundScore(), stats.getBestRound(),
+                stats.getWorstRound(), stats.getP50(), stats.getP90(), stats.getP99());
         }
-        
-        gameReplay.addRound(roundReplay);
     }
     
     private void displayFinalResults() {
-        System.out.println("\n" + "=".repeat(60));
-        System.out.println("FINAL RESULTS");
-        System.out.println("=".repeat(60));
+        renderer.println();
+        renderer.printRule('=', 60);
+        renderer.println("FINAL RESULTS");
+        renderer.printRule('=', 60);
         
         // Sort players by score (descending)
         ArrayList<Player> sortedPlayers = new ArrayList<>(players);
         sortedPlayers.sort((p1, p2) -> Integer.compare(p2.getTotalScore(), p1.getTotalScore()));
         
-        System.out.printf("%-20s %s%n", "Player", "Total Score");
-        System.out.println("-".repeat(60));
+        renderer.printf("%-20s %s%n", "Player", "Total Score");
+        renderer.printRule('-', 60);
         
         for (Player player : sortedPlayers) {
-            System.out.printf("%-20s %d%n", player.getName(), player.getTotalScore());
+            renderer.printf("%-20s %d%n", player.getName(), player.getTotalScore());
         }
         
-        System.out.println("=".repeat(60));
+        renderer.printRule('=', 60);
         
         // Declare winner
         Player winner = sortedPlayers.get(0);
         if (sortedPlayers.size() > 1 && sortedPlayers.get(0).getTotalScore() == sortedPlayers.get(1).getTotalScore()) {
-            System.out.println("\nIt's a tie!");
+            renderer.println("\nIt's a tie!");
         } else {
-            System.out.println("\n" + winner.getName() + " wins with " + winner.getTotalScore() + " points!");
+            renderer.println("\n" + winner.getName() + " wins with " + winner.getTotalScore() + " points!");
         }
         
         // Display average score for high score table
-        System.out.println("\nAverage scores per round:");
+        renderer.println("\nAverage scores per round:");
         for (Player player : players) {
             int avgScore = player.getTotalScore() / numRounds;
-            System.out.println(player.getName() + ": " + avgScore);
+            renderer.println(player.getName() + ": " + avgScore);
         }
     }
     
+    // Show everything drawn so far, then wait for the player's line
+    private String readLine() {
+        renderer.flush();
+        return scanner.nextLine();
+    }
+    
     private int getValidInput(int min, int max) {
         int input = -1;
         while (input < min || input > max) {
             try {
-                input = Integer.parseInt(scanner.nextLine().trim());
+                input = Integer.parseInt(readLine().trim());
                 if (input < min || input > max) {
-                    System.out.print("Invalid input. Enter a number between " + min + " and " + max + ": ");
+                    renderer.print("Invalid input. Enter a number between " + min + " and " + max + ": ");
                 }
             } catch (NumberFormatException e) {
-                System.out.print("Invalid input. Enter a number between " + min + " and " + max + ": ");
+                renderer.print("Invalid input. Enter a number between " + min + " and " + max + ": ");
             }
         }
         return input;
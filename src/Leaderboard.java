@@ -0,0 +1,300 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ranked results over non-negative integer scores, safe for many threads.
+ * Every result is counted in a histogram with one slot per score, kept as a
+ * Fenwick tree, so adding a result and asking how many results beat a score
+ * both take O(log range) however many results are stored. The histogram
+ * grows to fit the highest score seen, up to MAX_SCORE.
+ *
+ * Writers never share a lock: the histogram is split into stripes, each a
+ * Fenwick tree behind its own lock, and a result is counted in a randomly
+ * chosen stripe. Queries add up the stripes, so a count or rank taken while
+ * results are being added includes each of them either fully or not at all.
+ *
+ * Only the entries in the top `retain` places are kept by name. Once a
+ * result falls out of those places no later result can bring it back, so
+ * memory stays bounded. The kept entries are an immutable sorted array
+ * replaced by compare-and-set, which most results skip after one read
+ * because they do not beat the last kept place. Readers of top() always
+ * see one consistent list. Results with equal scores rank in the order
+ * they were added.
+ */
+public class Leaderboard<E> {
+    public static final int MAX_SCORE = (1 << 16) - 1;
+
+    private static final int INITIAL_RANGE = 64;
+    private static final int STRIPES = 16;
+
+    private final int retain;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final AtomicReference<Top> top = new AtomicReference<>(new Top(new int[0], new Object[0]));
+
+    public Leaderboard(int retain) {
+        if (retain < 1) {
+            throw new IllegalArgumentException("A leaderboard must keep at least one entry");
+        }
+        this.retain = retain;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    // Add one result; returns true if its entry was kept for listing
+    public boolean add(int score, E entry) {
+        addCount(score, 1);
+        return list(score, entry);
+    }
+
+    /*
+     * Offer an entry for listing without counting it, for a result already
+     * counted with addCount. Returns true if the entry was kept.
+     */
+    public boolean list(int score, E entry) {
+        if (score < 0 || score > MAX_SCORE) {
+            throw new IllegalArgumentException("Score out of range: " + score);
+        }
+        for (;;) {
+            Top current = top.get();
+            Top next = current.with(score, entry, retain);
+            if (next == null) {
+                return false; // At least `retain` results rank ahead of it
+            }
+            if (top.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    // Count results without keeping entries for them
+    public void addCount(int score, long count) {
+        if (score < 0 || score > MAX_SCORE) {
+            throw new IllegalArgumentException("Score out of range: " + score);
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+        Stripe stripe = stripes[ThreadLocalRandom.current().nextInt(STRIPES)];
+        while (!stripe.add(score, count)) {
+            growAll(score);
+        }
+    }
+
+    // Widen every stripe to fit score, so their trees stay the same shape
+    private void growAll(int score) {
+        lockAll(0, () -> {
+            for (Stripe stripe : stripes) {
+                stripe.grow(score);
+            }
+        });
+    }
+
+    // Run action holding every stripe's lock, taken in order
+    private void lockAll(int from, Runnable action) {
+        if (from == STRIPES) {
+            action.run();
+            return;
+        }
+        synchronized (stripes[from]) {
+            lockAll(from + 1, action);
+        }
+    }
+
+    /*
+     * Score of the result in the given place, counting from 1 for the best.
+     * Descends the summed trees to the lowest score with enough results at
+     * or below it. Holds every stripe's lock, so it sees one moment.
+     */
+    public int scoreAt(long place) {
+        int[] score = new int[1];
+        lockAll(0, () -> {
+            long size = 0;
+            for (Stripe stripe : stripes) {
+                size += stripe.size;
+            }
+            if (place < 1 || place > size) {
+                throw new IllegalArgumentException("No result in place " + place + " of " + size);
+            }
+            long target = size - place + 1;
+            int length = stripes[0].tree.length;
+            int index = 0;
+            for (int step = Integer.highestOneBit(length - 1); step > 0; step >>= 1) {
+                int next = index + step;
+                if (next < length) {
+                    long below = 0;
+                    for (Stripe stripe : stripes) {
+                        below += stripe.tree[next];
+                    }
+                    if (below < target) {
+                        index = next;
+                        target -= below;
+                    }
+                }
+            }
+            score[0] = index;
+        });
+        return score[0];
+    }
+
+    // Place a new result with this score would take: one more than the results beating it
+    public long rank(int score) {
+        long above = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                above += stripe.size - stripe.prefix(score);
+            }
+        }
+        return above + 1;
+    }
+
+    // Percentage of results scoring at most score
+    public double percentile(int score) {
+        long atOrBelow = 0;
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                atOrBelow += stripe.prefix(score);
+                size += stripe.size;
+            }
+        }
+        return size == 0 ? 0.0 : 100.0 * atOrBelow / size;
+    }
+
+    public long countAt(int score) {
+        long count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.countAt(score);
+            }
+        }
+        return count;
+    }
+
+    // Best kept entries in rank order, at most k of them, as of one moment
+    @SuppressWarnings("unchecked")
+    public List<E> top(int k) {
+        Object[] entries = top.get().entries;
+        List<E> list = new ArrayList<>(Math.min(k, entries.length));
+        for (int i = 0; i < entries.length && i < k; i++) {
+            list.add((E) entries[i]);
+        }
+        return list;
+    }
+
+    // One more than the highest score the histogram can hold without growing
+    public int getRange() {
+        synchronized (stripes[0]) {
+            return stripes[0].counts.length;
+        }
+    }
+
+    public int getRetain() {
+        return retain;
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * One lock's share of the histogram, with its Fenwick tree.
+     */
+    private static class Stripe {
+        long[] counts = new long[INITIAL_RANGE];
+        long[] tree = new long[INITIAL_RANGE + 1];
+        long size;
+
+        // Count a result; false if the score needs a wider histogram first
+        synchronized boolean add(int score, long count) {
+            if (score >= counts.length) {
+                return false;
+            }
+            counts[score] += count;
+            for (int i = score + 1; i < tree.length; i += i & -i) {
+                tree[i] += count;
+            }
+            size += count;
+            return true;
+        }
+
+        // Widen to the next power of two above score and rebuild the tree
+        void grow(int score) {
+            if (score < counts.length) {
+                return;
+            }
+            counts = Arrays.copyOf(counts, Integer.highestOneBit(score) << 1);
+            tree = new long[counts.length + 1];
+            for (int i = 1; i < tree.length; i++) {
+                tree[i] += counts[i - 1];
+                int parent = i + (i & -i);
+                if (parent < tree.length) {
+                    tree[parent] += tree[i];
+                }
+            }
+        }
+
+        // Number of results scoring at most score
+        long prefix(int score) {
+            long sum = 0;
+            for (int i = Math.min(score + 1, counts.length); i > 0; i -= i & -i) {
+                sum += tree[i];
+            }
+            return sum;
+        }
+
+        long countAt(int score) {
+            return score >= 0 && score < counts.length ? counts[score] : 0;
+        }
+    }
+
+    /**
+     * The kept entries and their scores, best first. Never modified once
+     * published; each change builds a new one.
+     */
+    private static class Top {
+        final int[] scores;
+        final Object[] entries;
+
+        Top(int[] scores, Object[] entries) {
+            this.scores = scores;
+            this.entries = entries;
+        }
+
+        // This list with the entry placed after equal scores, or null if it would not be kept
+        Top with(int score, Object entry, int retain) {
+            int length = scores.length;
+            if (length == retain && score <= scores[length - 1]) {
+                return null;
+            }
+            int position = length;
+            while (position > 0 && scores[position - 1] < score) {
+                position--;
+            }
+
+            int kept = Math.min(length + 1, retain);
+            int[] newScores = new int[kept];
+            Object[] newEntries = new Object[kept];
+            System.arraycopy(scores, 0, newScores, 0, position);
+            System.arraycopy(entries, 0, newEntries, 0, position);
+            newScores[position] = score;
+            newEntries[position] = entry;
+            System.arraycopy(scores, position, newScores, position + 1, kept - position - 1);
+            System.arraycopy(entries, position, newEntries, position + 1, kept - position - 1);
+            return new Top(newScores, newEntries);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,283 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Load test for a GameServer. Opens one connection per table from a single
+ * selector thread; each plays three-round games back to back against
+ * `computers` computer players, naming its best suit as the bonus suit and
+ * swapping every other card, and opens a new table when a game ends.
+ * Reports moves per second and the latency of a move, from sending MOVE to
+ * reading its SCORE, at p50, p99 and max.
+ *
+ * With no think time every table moves as soon as it is dealt, which
+ * measures the server's throughput; latency is then mostly time queued
+ * behind the other tables. A think time paces each table like a player,
+ * to measure latency at a given load.
+ *
+ *   java LoadClient [host] [port] [tables] [seconds] [computers] [thinkMillis]
+ */
+public class LoadClient {
+    private static final int LINE_SIZE = 64;
+
+    /**
+     * One table's connection.
+     */
+    private static final class Bot {
+        final SocketChannel channel;
+        SelectionKey key;
+        final byte[] line = new byte[LINE_SIZE];
+        int lineLength;
+        int bonusSuit;
+        int swapMask;
+        long dueAt; // When a thinking bot moves
+        long sentAt;
+        ByteBuffer pending; // Bytes the socket would not take yet
+
+        Bot(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * Outcome of a load test.
+     */
+    public static class Result {
+        private final long moves;
+        private final long games;
+        private final long errors;
+        private final double seconds;
+        private final long[] latencyNanos; // Sorted
+
+        Result(long moves, long games, long errors, double seconds, long[] latencyNanos) {
+            this.moves = moves;
+            this.games = games;
+            this.errors = errors;
+            this.seconds = seconds;
+            this.latencyNanos = latencyNanos;
+        }
+
+        public long getMoves() {
+            return moves;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        // ERR or ABANDONED replies, and connections lost
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getMovesPerSecond() {
+            return moves / seconds;
+        }
+
+        // Move latency at quantile q in microseconds, or -1 if no move finished
+        public double latencyMicros(double q) {
+            if (latencyNanos.length == 0) {
+                return -1;
+            }
+            int index = (int) Math.min(latencyNanos.length - 1, Math.ceil(q * latencyNanos.length) - 1);
+            return latencyNanos[Math.max(index, 0)] / 1000.0;
+        }
+
+        public void print() {
+            System.out.printf("%d moves, %d games in %.1f s: %.0f moves/s, %d errors%n",
+                moves, games, seconds, getMovesPerSecond(), errors);
+            System.out.printf("Move latency: p50 %.0f us, p99 %.0f us, max %.0f us%n",
+                latencyMicros(0.50), latencyMicros(0.99), latencyMicros(1.0));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+        int tables = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int computers = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+        int thinkMillis = args.length > 5 ? Integer.parseInt(args[5]) : 0;
+
+        run(new InetSocketAddress(host, port), tables, computers, thinkMillis, seconds * 1000L).print();
+    }
+
+    // Solo tables moving as fast as the server answers
+    public static Result run(InetSocketAddress server, int tables, long millis) throws IOException {
+        return run(server, tables, 0, 0, millis);
+    }
+
+    // Play at `tables` tables at once for about `millis`, counting once all are connected
+    public static Result run(InetSocketAddress server, int tables, int computers, int thinkMillis,
+                             long millis) throws IOException {
+        byte[] newTable = ("NEW 3 1 " + computers + "\n").getBytes(StandardCharsets.US_ASCII);
+        long thinkNanos = thinkMillis * 1_000_000L;
+        ArrayDeque<Bot> thinking = new ArrayDeque<>(); // Due in order, as the think time is fixed
+        try (Selector selector = Selector.open()) {
+            Bot[] bots = new Bot[tables];
+            for (int i = 0; i < tables; i++) {
+                SocketChannel channel = SocketChannel.open();
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.connect(server);
+                channel.configureBlocking(false);
+                bots[i] = new Bot(channel);
+                bots[i].key = channel.register(selector, SelectionKey.OP_READ, bots[i]);
+            }
+
+            ByteBuffer in = ByteBuffer.allocateDirect(64 * 1024);
+            ByteBuffer out = ByteBuffer.allocate(LINE_SIZE);
+            long[] latencies = new long[1 << 16];
+            long moves = 0;
+            long games = 0;
+            long errors = 0;
+            int open = tables;
+            for (Bot bot : bots) {
+                send(bot, out.clear().put(newTable));
+            }
+
+            long start = System.nanoTime();
+            long end = start + millis * 1_000_000;
+            while (open > 0) {
+                long now = System.nanoTime();
+                while (!thinking.isEmpty() && thinking.peek().dueAt <= now) {
+                    move(thinking.poll(), out);
+                }
+                if (now >= end) {
+                    break;
+                }
+                long wake = thinking.isEmpty() ? end : Math.min(end, thinking.peek().dueAt);
+                selector.select(Math.max(1, (wake - now) / 1_000_000));
+                for (SelectionKey key : selector.selectedKeys()) {
+                    Bot bot = (Bot) key.attachment();
+                    if (key.isValid() && key.isWritable()) {
+                        flushPending(bot);
+                    }
+                    if (!key.isValid() || !key.isReadable()) {
+                        continue;
+                    }
+                    in.clear();
+                    int count;
+                    try {
+                        count = bot.channel.read(in);
+                    } catch (IOException e) {
+                        count = -1;
+                    }
+                    if (count < 0) {
+                        key.cancel();
+                        bot.channel.close();
+                        errors++;
+                        open--;
+                        continue;
+                    }
+                    in.flip();
+                    while (in.hasRemaining()) {
+                        byte b = in.get();
+                        if (b != '\n') {
+                            if (bot.lineLength < LINE_SIZE) {
+                                bot.line[bot.lineLength++] = b;
+                            }
+                            continue;
+                        }
+                        byte first = bot.line[0];
+                        if (first == 'H') { // HAND <round> <5 card ids>
+                            chooseMove(bot);
+                            if (thinkNanos == 0) {
+                                move(bot, out);
+                            } else {
+                                bot.dueAt = System.nanoTime() + thinkNanos;
+                                thinking.add(bot);
+                            }
+                        } else if (first == 'S' && bot.line[1] == 'C') { // SCORE
+                            if (moves == latencies.length) {
+                                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+                            }
+                            latencies[(int) moves++] = System.nanoTime() - bot.sentAt;
+                        } else if (first == 'O') { // OVER
+                            games++;
+                            send(bot, out.clear().put(newTable));
+                        } else if (first == 'E' || first == 'A') { // ERR or ABANDONED
+                            errors++;
+                        }
+                        bot.lineLength = 0;
+                    }
+                }
+                selector.selectedKeys().clear();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            for (Bot bot : bots) {
+                bot.channel.close();
+            }
+            long[] sorted = Arrays.copyOf(latencies, (int) moves);
+            Arrays.sort(sorted);
+            return new Result(moves, games, errors, seconds, sorted);
+        }
+    }
+
+    // Name the hand's best suit and swap every card of another suit
+    private static void chooseMove(Bot bot) {
+        int[] ids = new int[GameReplay.HAND_SIZE];
+        int at = 5; // After "HAND "
+        while (at < bot.lineLength && bot.line[at] != ' ') {
+            at++; // Round
+        }
+        long cards = 0;
+        for (int i = 0; i < ids.length; i++) {
+            int id = 0;
+            for (at++; at < bot.lineLength && bot.line[at] != ' '; at++) {
+                id = id * 10 + (bot.line[at] - '0');
+            }
+            ids[i] = id;
+            cards |= Hand.bit(id);
+        }
+        bot.bonusSuit = Hand.bestSuit(cards);
+        bot.swapMask = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] / Card.NUM_RANKS != bot.bonusSuit) {
+                bot.swapMask |= 1 << i;
+            }
+        }
+    }
+
+    private static void move(Bot bot, ByteBuffer out) throws IOException {
+        out.clear().put((byte) 'M').put((byte) 'O').put((byte) 'V').put((byte) 'E').put((byte) ' ')
+            .put((byte) ('0' + bot.bonusSuit)).put((byte) ' ');
+        if (bot.swapMask >= 10) {
+            out.put((byte) ('0' + bot.swapMask / 10));
+        }
+        out.put((byte) ('0' + bot.swapMask % 10)).put((byte) '\n');
+        bot.sentAt = System.nanoTime();
+        send(bot, out);
+    }
+
+    private static void send(Bot bot, ByteBuffer out) throws IOException {
+        out.flip();
+        if (bot.pending == null) {
+            bot.channel.write(out);
+            if (!out.hasRemaining()) {
+                return;
+            }
+            bot.pending = ByteBuffer.allocate(256);
+            bot.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+        bot.pending.put(out);
+    }
+
+    private static void flushPending(Bot bot) throws IOException {
+        bot.pending.flip();
+        bot.channel.write(bot.pending);
+        if (bot.pending.hasRemaining()) {
+            bot.pending.compact();
+        } else {
+            bot.pending = null;
+            bot.key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+/**
+ * Renderer that draws nothing, so headless games pay nothing for output.
+ * printf does not even format its arguments.
+ */
+public class NullRenderer implements Renderer {
+    static final NullRenderer INSTANCE = new NullRenderer();
+
+    private NullRenderer() {
+    }
+
+    @Override
+    public void print(String text) {
+    }
+
+    @Override
+    public void println(String text) {
+    }
+
+    @Override
+    public void println() {
+    }
+
+    @Override
+    public void printf(String format, Object... args) {
+    }
+
+    @Override
+    public void printCard(Card card) {
+    }
+
+    @Override
+    public void printRule(char c, int width) {
+    }
+
+    @Override
+    public void flush() {
+    }
+}
\ No newline at end of file
@@ -1,15 +1,30 @@
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Scanner;
 
 public class Player {
+    private static final String[] SUIT_NAMES = {"Clubs", "Diamonds", "Hearts", "Spades"};
+    // Labels for hand positions, built once rather than per card drawn
+    private static final String[] POSITION_LABELS = {"[1] ", "[2] ", "[3] ", "[4] ", "[5] "};
+    private static final String[] POSITION_NUMBERS = {"1 ", "2 ", "3 ", "4 ", "5 "};
+    
     private String name;
     private ArrayList<Card> hand;
+    private final List<Card> handView; // Read-only view of hand
+    private final Hand cards = new Hand(); // The same cards as a mask, kept in step with hand
     private int totalScore;
     private boolean isComputer;
     
+    // Computer strategy state, created on first use
+    private SwapOptimizer optimizer;
+    private long decidedHand;
+    private int decidedEntry = StrategyTable.NOT_SOLVED;
+    
     public Player(String name) {
         this.name = name;
         this.hand = new ArrayList<>();
+        this.handView = Collections.unmodifiableList(hand);
         this.totalScore = 0;
         this.isComputer = name.equalsIgnoreCase("Computer");
     }
@@ -18,16 +33,27 @@ public class Player {
         return name;
     }
     
-    public ArrayList<Card> getHand() {
-        return hand;
+    // Read-only; change the hand through addCard, swapCards and clearHand,
+    // which keep the card mask in step
+    public List<Card> getHand() {
+        return handView;
     }
     
     public void addCard(Card card) {
+        if (cards.contains(card)) {
+            throw new IllegalArgumentException(name + " already holds " + card);
+        }
         hand.add(card);
+        cards.add(card);
+    }
+    
+    public void addCard(int cardId) {
+        addCard(Card.of(cardId));
     }
     
     public void clearHand() {
         hand.clear();
+        cards.clear();
     }
     
     public int getTotalScore() {
@@ -38,24 +64,41 @@ public class Player {
         totalScore += score;
     }
     
+    public void resetTotalScore() {
+        totalScore = 0;
+    }
+    
     public boolean isComputer() {
         return isComputer;
     }
     
     public void displayHand() {
-        System.out.print(name + "'s hand: ");
+        displayHand(Renderer.console());
+    }
+    
+    public void displayHand(Renderer out) {
+        out.print(name);
+        out.print("'s hand: ");
         for (int i = 0; i < hand.size(); i++) {
-            System.out.print("[" + (i + 1) + "] " + hand.get(i).toSymbol() + "  ");
+            out.print(i < POSITION_LABELS.length ? POSITION_LABELS[i] : "[" + (i + 1) + "] ");
+            out.printCard(hand.get(i));
+            out.print("  ");
         }
-        System.out.println();
+        out.println();
+    }
+    
+    // Bitmask of the cards in hand (bit n set for card id n), see Hand
+    public long getHandMask() {
+        return cards.getMask();
     }
     
     // Calculate maximum score for each suit
     public int[] calculateSuitScores() {
         int[] suitScores = new int[4]; // Clubs, Diamonds, Hearts, Spades
+        long cards = getHandMask();
         
-        for (Card card : hand) {
-            suitScores[card.getSuitValue()] += card.getScore();
+        for (int suit = 0; suit < 4; suit++) {
+            suitScores[suit] = Hand.suitScore(cards, suit);
         }
         
         return suitScores;
@@ -63,78 +106,82 @@ public class Player {
     
     // Get the best suit (highest scoring)
     public int getBestSuit() {
-        int[] suitScores = calculateSuitScores();
-        int maxScore = 0;
-        int bestSuit = 0;
-        
-        for (int i = 0; i < 4; i++) {
-            if (suitScores[i] > maxScore) {
-                maxScore = suitScores[i];
-                bestSuit = i;
-            }
-        }
-        
-        return bestSuit;
+        long cards = getHandMask();
+        HandScoreTable table = scoreTableFor(cards);
+        return table != null ? table.bestSuit(cards) : Hand.bestSuit(cards);
     }
     
     // Get maximum possible score from a single suit
     public int getMaxSuitScore() {
-        int[] suitScores = calculateSuitScores();
-        int maxScore = 0;
-        
-        for (int score : suitScores) {
-            if (score > maxScore) {
-                maxScore = score;
-            }
+        long cards = getHandMask();
+        HandScoreTable table = scoreTableFor(cards);
+        return table != null ? table.maxSuitScore(cards) : Hand.maxSuitScore(cards);
+    }
+    
+    // Precomputed table for full 5-card hands, if one was loaded
+    private static HandScoreTable scoreTableFor(long cards) {
+        if (Long.bitCount(cards) != HandScoreTable.HAND_SIZE) {
+            return null;
         }
-        
-        return maxScore;
+        return HandScoreTable.shared();
     }
     
     // Select bonus suit (human or computer)
     public int selectBonusSuit(Scanner scanner) {
-        String[] suitNames = {"Clubs", "Diamonds", "Hearts", "Spades"};
+        return selectBonusSuit(scanner, Renderer.console());
+    }
+    
+    public int selectBonusSuit(Scanner scanner, Renderer out) {
         int[] suitScores = calculateSuitScores();
         
-        System.out.println("\n" + name + "'s turn:");
-        displayHand();
+        out.println();
+        out.println(name + "'s turn:");
+        displayHand(out);
         
-        System.out.println("\nSuit scores:");
+        out.println();
+        out.println("Suit scores:");
         for (int i = 0; i < 4; i++) {
-            System.out.println((i + 1) + ". " + suitNames[i] + ": " + suitScores[i]);
+            out.println((i + 1) + ". " + SUIT_NAMES[i] + ": " + suitScores[i]);
         }
-        System.out.println("Maximum score possible: " + getMaxSuitScore());
+        out.println("Maximum score possible: " + getMaxSuitScore());
         
         if (isComputer) {
-            int bestSuit = getBestSuit();
-            System.out.println("\nComputer selects bonus suit: " + suitNames[bestSuit]);
+            int bestSuit = computerSelectBonusSuit();
+            out.println();
+            out.println("Computer selects bonus suit: " + SUIT_NAMES[bestSuit]);
             return bestSuit;
         } else {
-            System.out.print("\nSelect your bonus suit (1-4): ");
-            int choice = getValidInput(scanner, 1, 4);
+            out.print("\nSelect your bonus suit (1-4): ");
+            int choice = getValidInput(scanner, out, 1, 4);
             return choice - 1;
         }
     }
     
     // Select cards to swap
     public ArrayList<Integer> selectCardsToSwap(Scanner scanner, Deck deck) {
+        return selectCardsToSwap(scanner, deck, Renderer.console());
+    }
+    
+    public ArrayList<Integer> selectCardsToSwap(Scanner scanner, Deck deck, Renderer out) {
         ArrayList<Integer> cardsToSwap = new ArrayList<>();
         
         if (isComputer) {
             cardsToSwap = computerSelectCards();
             if (!cardsToSwap.isEmpty()) {
-                System.out.print("Computer swaps cards at positions: ");
+                out.print("Computer swaps cards at positions: ");
                 for (int pos : cardsToSwap) {
-                    System.out.print((pos + 1) + " ");
+                    out.print(POSITION_NUMBERS[pos]);
                 }
-                System.out.println();
+                out.println();
             } else {
-                System.out.println("Computer keeps all cards.");
+                out.println("Computer keeps all cards.");
             }
         } else {
-            System.out.println("\nSelect cards to swap (up to 4):");
-            displayHand();
-            System.out.println("Enter card positions (1-5) separated by spaces, or '0' to keep all:");
+            out.println();
+            out.println("Select cards to swap (up to 4):");
+            displayHand(out);
+            out.println("Enter card positions (1-5) separated by spaces, or '0' to keep all:");
+            out.flush();
             
             String input = scanner.nextLine().trim();
             if (!input.equals("0") && !input.isEmpty()) {
@@ -156,65 +203,97 @@ public class Player {
         return cardsToSwap;
     }
     
+    // Computer AI for selecting the bonus suit
+    public int computerSelectBonusSuit() {
+        int entry = computerDecision();
+        return entry != StrategyTable.NOT_SOLVED ? StrategyTable.bonusSuit(entry) : getBestSuit();
+    }
+    
     // Computer AI for selecting cards to swap
-    private ArrayList<Integer> computerSelectCards() {
+    public ArrayList<Integer> computerSelectCards() {
         ArrayList<Integer> toSwap = new ArrayList<>();
-        int bestSuit = getBestSuit();
-        int[] suitScores = calculateSuitScores();
+        int entry = computerDecision();
+        if (entry == StrategyTable.NOT_SOLVED) {
+            return toSwap;
+        }
         
-        // Strategy: Keep cards of the best suit, swap others
-        // But only swap if we have enough cards in deck and it makes sense
-        for (int i = 0; i < hand.size() && toSwap.size() < 4; i++) {
-            Card card = hand.get(i);
-            
-            // Swap if card is not of the best suit and best suit has at least 2 cards
-            if (card.getSuitValue() != bestSuit) {
-                int cardsInBestSuit = 0;
-                for (Card c : hand) {
-                    if (c.getSuitValue() == bestSuit) cardsInBestSuit++;
-                }
-                
-                // Only swap if we have at least 2 cards in best suit
-                if (cardsInBestSuit >= 2) {
-                    toSwap.add(i);
-                }
+        // The swap mask counts cards in ascending id order, not hand order
+        long cards = getHandMask();
+        int swapMask = StrategyTable.swapMask(entry);
+        for (int i = 0; i < hand.size(); i++) {
+            int order = Long.bitCount(cards & (Hand.bit(hand.get(i).getId()) - 1));
+            if ((swapMask & (1 << order)) != 0) {
+                toSwap.add(i);
             }
         }
         
         return toSwap;
     }
     
-    // Calculate final score for the round
-    public int calculateRoundScore(int bonusSuit) {
-        int[] suitScores = calculateSuitScores();
-        int maxScore = 0;
-        int maxSuit = 0;
+    // Strategy: pick the bonus suit and swaps with the highest expected
+    // round score. The decision comes from the precomputed StrategyTable
+    // when one is loaded, otherwise SwapOptimizer solves it live (through
+    // the shared EvaluationCache when that is enabled). It is kept
+    // until the hand changes, so the bonus suit and the swaps look up once.
+    private int computerDecision() {
+        long cards = getHandMask();
+        if (hand.size() != SwapOptimizer.HAND_SIZE || Long.bitCount(cards) != SwapOptimizer.HAND_SIZE) {
+            return StrategyTable.NOT_SOLVED;
+        }
         
-        for (int i = 0; i < 4; i++) {
-            if (suitScores[i] > maxScore) {
-                maxScore = suitScores[i];
-                maxSuit = i;
+        if (cards != decidedHand || decidedEntry == StrategyTable.NOT_SOLVED) {
+            StrategyTable table = StrategyTable.shared();
+            int entry = table != null ? table.lookup(cards) : StrategyTable.NOT_SOLVED;
+            
+            if (entry == StrategyTable.NOT_SOLVED) {
+                if (optimizer == null) {
+                    optimizer = new SwapOptimizer();
+                }
+                EvaluationCache cache = EvaluationCache.shared();
+                SwapOptimizer.Decision decision = cache != null
+                    ? cache.decide(cards, optimizer)
+                    : optimizer.decide(StrategyTable.sortedIds(cards));
+                entry = StrategyTable.encode(decision.getBonusSuit(), decision.getSwapMask());
             }
+            
+            decidedHand = cards;
+            decidedEntry = entry;
         }
+        return decidedEntry;
+    }
+    
+    // Replace the cards at the given positions with new cards from the deck.
+    // Positions are sorted in descending order so earlier indices stay valid.
+    public void swapCards(ArrayList<Integer> positions, Deck deck) {
+        Collections.sort(positions, Collections.reverseOrder());
         
-        // Add bonus if highest suit matches bonus suit
-        if (maxSuit == bonusSuit) {
-            maxScore += 5;
+        for (int pos : positions) {
+            if (pos >= 0 && pos < hand.size() && !deck.isEmpty()) {
+                cards.remove(hand.remove(pos));
+                addCard(deck.dealCard());
+            }
         }
-        
-        return maxScore;
     }
     
-    private int getValidInput(Scanner scanner, int min, int max) {
+    // Calculate final score for the round
+    // Highest suit score, plus 5 if the highest suit matches the bonus suit
+    public int calculateRoundScore(int bonusSuit) {
+        long cards = getHandMask();
+        HandScoreTable table = scoreTableFor(cards);
+        return table != null ? table.roundScore(cards, bonusSuit) : Hand.roundScore(cards, bonusSuit);
+    }
+    
+    private int getValidInput(Scanner scanner, Renderer out, int min, int max) {
         int input = -1;
         while (input < min || input > max) {
+            out.flush();
             try {
                 input = Integer.parseInt(scanner.nextLine().trim());
                 if (input < min || input > max) {
-                    System.out.print("Invalid input. Enter a number between " + min + " and " + max + ": ");
+                    out.print("Invalid input. Enter a number between " + min + " and " + max + ": ");
                 }
             } catch (NumberFormatException e) {
-                System.out.print("Invalid input. Enter a number between " + min + " and " + max + ": ");
+                out.print("Invalid input. Enter a number between " + min + " and " + max + ": ");
             }
         }
         return input;
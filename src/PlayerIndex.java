@@ -0,0 +1,109 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-player statistics keyed by name.
+ * Recording a game updates one player's PlayerStats in place, so a lookup
+ * never has to replay history. Safe for many threads: players are kept in
+ * a ConcurrentHashMap and each one's stats update under its own lock.
+ *
+ * Saved as a section of the high score snapshot: magic, version, player
+ * count, then each player's name, counters and non-empty sketch buckets.
+ */
+public class PlayerIndex {
+    private static final int MAGIC = 0x4853504C; // "HSPL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ConcurrentHashMap<String, PlayerStats> players = new ConcurrentHashMap<>();
+
+    public void recordGame(String name, int[] roundScores) {
+        players.computeIfAbsent(name, PlayerStats::new).recordGame(roundScores);
+    }
+
+    // Record a game known only by its total
+    public void recordGame(String name, int total, int rounds) {
+        players.computeIfAbsent(name, PlayerStats::new).recordGame(total, rounds);
+    }
+
+    // A copy of the player's stats, or null for a player never recorded
+    public PlayerStats get(String name) {
+        PlayerStats stats = players.get(name);
+        return stats != null ? stats.copy() : null;
+    }
+
+    public int size() {
+        return players.size();
+    }
+
+    // Copies of every player's stats, in no particular order
+    public List<PlayerStats> all() {
+        List<PlayerStats> all = new ArrayList<>(players.size());
+        for (PlayerStats stats : players.values()) {
+            all.add(stats.copy());
+        }
+        return all;
+    }
+
+    // Write the index at the channel's position, leaving the channel after it
+    public void writeTo(FileChannel channel) throws IOException {
+        List<PlayerStats> snapshot = all();
+        ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+        out.putInt(MAGIC).putInt(VERSION).putInt(snapshot.size());
+        for (PlayerStats stats : snapshot) {
+            int size = stats.serializedSize();
+            if (out.remaining() < size) {
+                flush(channel, out);
+                if (out.capacity() < size) {
+                    out = ByteBuffer.allocate(size);
+                }
+            }
+            stats.writeTo(out);
+        }
+        flush(channel, out);
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /*
+     * Read an index written at offset in file. Throws IOException if no
+     * index starts there, as in snapshots written before it existed.
+     */
+    public static PlayerIndex read(Path file, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size() - offset;
+            if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+                throw new IOException("No player index in " + file);
+            }
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+                throw new IOException("No player index in " + file);
+            }
+
+            PlayerIndex index = new PlayerIndex();
+            int count = in.getInt();
+            try {
+                for (int i = 0; i < count; i++) {
+                    PlayerStats stats = PlayerStats.readFrom(in);
+                    index.players.put(stats.getName(), stats);
+                }
+            } catch (RuntimeException e) {
+                throw new IOException("Damaged player index in " + file, e);
+            }
+            return index;
+        }
+    }
+}
\ No newline at end of file
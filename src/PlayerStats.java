@@ -0,0 +1,145 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Running totals for one player across every game recorded.
+ * Tracks games, rounds, total score, best and worst round score, and a
+ * QuantileSketch of round scores, each updated in constant time per round.
+ * Instances handed out by PlayerIndex are copies, so they do not change
+ * while being read.
+ */
+public class PlayerStats {
+    private final String name;
+    private long games;
+    private long rounds;
+    private long totalScore;
+    private int bestRound = Integer.MIN_VALUE;
+    private int worstRound = Integer.MAX_VALUE;
+    private final QuantileSketch roundScores;
+
+    public PlayerStats(String name) {
+        this(name, new QuantileSketch());
+    }
+
+    private PlayerStats(String name, QuantileSketch roundScores) {
+        this.name = name;
+        this.roundScores = roundScores;
+    }
+
+    // Record a game from its round scores
+    public synchronized void recordGame(int[] scores) {
+        if (scores.length == 0) {
+            throw new IllegalArgumentException("A game has at least one round");
+        }
+        games++;
+        for (int score : scores) {
+            addRounds(score, 1);
+        }
+    }
+
+    /*
+     * Record a game known only by its total, as from a score file without
+     * round scores. Each round counts as the game's average.
+     */
+    public synchronized void recordGame(int total, int gameRounds) {
+        if (gameRounds < 1) {
+            throw new IllegalArgumentException("A game has at least one round");
+        }
+        games++;
+        addRounds(total / gameRounds, gameRounds);
+        totalScore += total - (long) (total / gameRounds) * gameRounds;
+    }
+
+    private void addRounds(int score, int count) {
+        rounds += count;
+        totalScore += (long) score * count;
+        bestRound = Math.max(bestRound, score);
+        worstRound = Math.min(worstRound, score);
+        roundScores.add(Math.max(score, 0), count);
+    }
+
+    public synchronized PlayerStats copy() {
+        PlayerStats copy = new PlayerStats(name, roundScores.copy());
+        copy.games = games;
+        copy.rounds = rounds;
+        copy.totalScore = totalScore;
+        copy.bestRound = bestRound;
+        copy.worstRound = worstRound;
+        return copy;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized long getGames() {
+        return games;
+    }
+
+    public synchronized long getRounds() {
+        return rounds;
+    }
+
+    public synchronized long getTotalScore() {
+        return totalScore;
+    }
+
+    public synchronized double getMeanRoundScore() {
+        return rounds == 0 ? 0.0 : (double) totalScore / rounds;
+    }
+
+    public synchronized int getBestRound() {
+        return bestRound;
+    }
+
+    public synchronized int getWorstRound() {
+        return worstRound;
+    }
+
+    // Round score at quantile q, such as 0.9 for the 90th percentile
+    public synchronized int roundScoreQuantile(double q) {
+        return roundScores.quantile(q);
+    }
+
+    public int getP50() {
+        return roundScoreQuantile(0.50);
+    }
+
+    public int getP90() {
+        return roundScoreQuantile(0.90);
+    }
+
+    public int getP99() {
+        return roundScoreQuantile(0.99);
+    }
+
+    synchronized int serializedSize() {
+        return 2 + name.getBytes(StandardCharsets.UTF_8).length + 32 + roundScores.serializedSize();
+    }
+
+    // Name, counters, then the sketch
+    synchronized void writeTo(ByteBuffer out) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) bytes.length).put(bytes);
+        out.putLong(games).putLong(rounds).putLong(totalScore).putInt(bestRound).putInt(worstRound);
+        roundScores.writeTo(out);
+    }
+
+    static PlayerStats readFrom(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        long games = in.getLong();
+        long rounds = in.getLong();
+        long totalScore = in.getLong();
+        int bestRound = in.getInt();
+        int worstRound = in.getInt();
+
+        PlayerStats stats = new PlayerStats(new String(bytes, StandardCharsets.UTF_8), QuantileSketch.readFrom(in));
+        stats.games = games;
+        stats.rounds = rounds;
+        stats.totalScore = totalScore;
+        stats.bestRound = bestRound;
+        stats.worstRound = worstRound;
+        return stats;
+    }
+}
\ No newline at end of file
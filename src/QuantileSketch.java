@@ -0,0 +1,139 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-size histogram of non-negative scores for streaming quantiles.
+ * Scores below 64, which covers every round score the game can produce,
+ * get a bucket each and their quantiles are exact. Larger scores share
+ * log-spaced buckets, eight per power of two, so a quantile there is
+ * reported as its bucket's lower bound, at most 1/8 below the true value.
+ * Scores above MAX_SCORE are counted in the last bucket. Memory stays the
+ * same however many scores are added.
+ */
+public class QuantileSketch {
+    public static final int MAX_SCORE = Leaderboard.MAX_SCORE;
+
+    private static final int EXACT = 64;
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int EXACT_BITS = 6;
+    private static final int BUCKETS = EXACT
+        + (32 - Integer.numberOfLeadingZeros(MAX_SCORE) - EXACT_BITS) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+
+    public void add(int score) {
+        add(score, 1);
+    }
+
+    // Add the same score several times
+    public void add(int score, long times) {
+        if (score < 0) {
+            throw new IllegalArgumentException("Score must not be negative: " + score);
+        }
+        if (times < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + times);
+        }
+        counts[bucket(Math.min(score, MAX_SCORE))] += times;
+        count += times;
+    }
+
+    static int bucket(int score) {
+        if (score < EXACT) {
+            return score;
+        }
+        int octave = 31 - Integer.numberOfLeadingZeros(score);
+        int sub = (score >>> (octave - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT + (octave - EXACT_BITS) * SUB_BUCKETS + sub;
+    }
+
+    // Smallest score that falls in a bucket
+    static int lowerBound(int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        }
+        int octave = EXACT_BITS + (bucket - EXACT) / SUB_BUCKETS;
+        int sub = (bucket - EXACT) % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (octave - SUB_BITS);
+    }
+
+    /*
+     * Score at quantile q (0 to 1): the smallest score with at least
+     * q of the scores at or below it. Returns -1 when nothing was added.
+     */
+    public int quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        if (count == 0) {
+            return -1;
+        }
+        long target = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return lowerBound(i);
+            }
+        }
+        return lowerBound(BUCKETS - 1);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    // Fold another sketch's scores into this one
+    public void merge(QuantileSketch other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+    }
+
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch();
+        copy.merge(this);
+        return copy;
+    }
+
+    // Bytes writeTo needs: only non-empty buckets are written
+    public int serializedSize() {
+        int used = 0;
+        for (long bucketCount : counts) {
+            if (bucketCount != 0) {
+                used++;
+            }
+        }
+        return 1 + used * 9;
+    }
+
+    // Number of non-empty buckets, then each one's index and count
+    public void writeTo(ByteBuffer out) {
+        int start = out.position();
+        out.put((byte) 0);
+        int used = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                out.put((byte) i).putLong(counts[i]);
+                used++;
+            }
+        }
+        out.put(start, (byte) used);
+    }
+
+    public static QuantileSketch readFrom(ByteBuffer in) {
+        QuantileSketch sketch = new QuantileSketch();
+        int used = in.get() & 0xFF;
+        for (int i = 0; i < used; i++) {
+            int bucket = in.get() & 0xFF;
+            if (bucket >= BUCKETS) {
+                throw new IllegalArgumentException("No bucket " + bucket + " in a quantile sketch");
+            }
+            long bucketCount = in.getLong();
+            sketch.counts[bucket] += bucketCount;
+            sketch.count += bucketCount;
+        }
+        return sketch;
+    }
+}
\ No newline at end of file
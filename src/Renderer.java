@@ -0,0 +1,58 @@
+/**
+ * Where the game draws its screens. The game, players, score table and
+ * replays print only through a Renderer, so one choice decides what output
+ * costs: ConsoleRenderer writes each call straight to System.out,
+ * BufferedRenderer gathers a whole screen into one byte buffer and writes
+ * it at flush(), and NullRenderer draws nothing, for headless runs.
+ *
+ * Callers flush() once a screen is complete, and always before waiting
+ * for input, so prompts are visible when the player answers them.
+ */
+public interface Renderer {
+    String MODE_PROPERTY = "highsuit.render";
+
+    void print(String text);
+
+    void println(String text);
+
+    void println();
+
+    void printf(String format, Object... args);
+
+    // The card's symbol, as Card.toSymbol() gives it
+    void printCard(Card card);
+
+    // A line of `width` copies of c, then a line break
+    void printRule(char c, int width);
+
+    // Make everything printed so far visible
+    void flush();
+
+    // Writes to whatever System.out is when each call is made
+    static Renderer console() {
+        return ConsoleRenderer.INSTANCE;
+    }
+
+    static Renderer none() {
+        return NullRenderer.INSTANCE;
+    }
+
+    /*
+     * Renderer for an interactive game, chosen by -Dhighsuit.render:
+     * "buffered" (the default) for one write per screen to standard
+     * output, "console" to write through System.out call by call, or
+     * "none" to draw nothing.
+     */
+    static Renderer forMode(String mode) {
+        switch (mode) {
+            case "buffered":
+                return BufferedRenderer.stdout();
+            case "console":
+                return console();
+            case "none":
+                return none();
+            default:
+                throw new IllegalArgumentException("Unknown render mode: " + mode);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,400 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.Inflater;
+
+/**
+ * Index of a ReplayLog for fetching any one round without reading the
+ * rounds before it. It is kept in two files beside the log:
+ * `<log>.rounds` holds one 8-byte entry per round in log order, the
+ * position of the round's block and its offset within the block, and
+ * `<log>.games` holds an 8-byte slot per game id, the number of the game's
+ * first round entry and its round count. A lookup reads one slot and one
+ * or two entries, then the round itself with a positioned FileChannel
+ * read, so it costs the same however large the archive grows. A round in
+ * a compressed block costs reading and inflating that one block.
+ *
+ * The rounds file header records how much of the log is indexed. Opening
+ * an index first indexes any blocks appended since. If the index files
+ * are missing, damaged or ahead of the log, both are rebuilt from the
+ * log. Only one process at a time may write a log and its index.
+ */
+public class ReplayIndex implements Closeable {
+    public static final String ROUNDS_SUFFIX = ".rounds";
+    public static final String GAMES_SUFFIX = ".games";
+
+    private static final int MAGIC = 0x48535249; // "HSRI"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int ENTRY_SIZE = 8;
+    private static final int OFFSET_BITS = 16;
+    private static final long COMPRESSED_BIT = 1L << OFFSET_BITS;
+    private static final int POSITION_SHIFT = OFFSET_BITS + 1;
+    private static final int COUNT_BITS = 20;
+    private static final int PENDING_ENTRIES = 4096;
+
+    private final FileChannel data;
+    private final boolean ownsData;
+    private final FileChannel rounds;
+    private final FileChannel games;
+    private Inflater inflater; // For compressed blocks; used under its own lock
+
+    // What the files hold once pending entries are written
+    private long coveredEnd; // Log bytes indexed
+    private long roundCount;
+    private long lastGameId = -1;
+    private long gameFirst; // First round entry of lastGameId
+    private int gameRounds; // Rounds of lastGameId
+
+    // Entries and game slots not yet written
+    private final ByteBuffer pendingRounds = ByteBuffer.allocate(PENDING_ENTRIES * ENTRY_SIZE);
+    private long writtenRounds;
+    private long[] slots = new long[16];
+    private int slotCount;
+    private long slotsFrom; // Game id of slots[0]
+
+    /*
+     * Print one round of a replay log, rebuilding its index if needed.
+     * Usage: ReplayIndex log gameId round
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: ReplayIndex log gameId round");
+            System.exit(2);
+        }
+        try (ReplayIndex index = open(Paths.get(args[0]))) {
+            ReplayLog.Round round = index.fetch(Long.parseLong(args[1]), Integer.parseInt(args[2]));
+            System.out.println("Game " + round.getGameId() + ", round " + (round.getRoundNumber() + 1) + ":");
+            for (int p = 0; p < round.getPlayerCount(); p++) {
+                GameReplay.PlayerRoundData data = round.getPlayerRound(p);
+                StringBuilder line = new StringBuilder(data.getPlayerName()).append(':');
+                for (Card card : data.getInitialHand()) {
+                    line.append(' ').append(card.toSymbol());
+                }
+                line.append(" ->");
+                for (Card card : data.getFinalHand()) {
+                    line.append(' ').append(card.toSymbol());
+                }
+                line.append(", bonus suit ").append(data.getBonusSuit() + 1)
+                    .append(", swapped ").append(data.getSwappedCards())
+                    .append(", score ").append(data.getRoundScore());
+                System.out.println(line);
+            }
+        }
+    }
+
+    // Open the index of a log for lookups, bringing it up to date first
+    public static ReplayIndex open(Path log) throws IOException {
+        FileChannel data = FileChannel.open(log, StandardOpenOption.READ);
+        try {
+            return new ReplayIndex(log, data, true, ReplayLog.scan(data));
+        } catch (IOException | RuntimeException e) {
+            data.close();
+            throw e;
+        }
+    }
+
+    // Throw away a log's index files and index the whole log again
+    public static ReplayIndex rebuild(Path log) throws IOException {
+        Files.deleteIfExists(roundsFile(log));
+        Files.deleteIfExists(gamesFile(log));
+        return open(log);
+    }
+
+    public static Path roundsFile(Path log) {
+        return log.resolveSibling(log.getFileName() + ROUNDS_SUFFIX);
+    }
+
+    public static Path gamesFile(Path log) {
+        return log.resolveSibling(log.getFileName() + GAMES_SUFFIX);
+    }
+
+    // Index kept up to date by a ReplayLog.Writer through its own channel
+    ReplayIndex(Path log, FileChannel data, boolean ownsData, ReplayLog.Scan scan) throws IOException {
+        this.data = data;
+        this.ownsData = ownsData;
+        rounds = FileChannel.open(roundsFile(log), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel gamesChannel = null;
+        try {
+            gamesChannel = FileChannel.open(gamesFile(log), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            games = gamesChannel;
+            if (!load(scan)) {
+                rounds.truncate(0);
+                games.truncate(0);
+                coveredEnd = ReplayLog.FILE_HEADER_SIZE;
+                roundCount = 0;
+                lastGameId = -1;
+                writeHeader();
+            }
+            writtenRounds = roundCount;
+            catchUp(scan);
+        } catch (IOException | RuntimeException e) {
+            rounds.close();
+            if (gamesChannel != null) {
+                gamesChannel.close();
+            }
+            throw e;
+        }
+    }
+
+    // Read the header; false if the index does not fit the log
+    private boolean load(ReplayLog.Scan scan) throws IOException {
+        if (rounds.size() < HEADER_SIZE) {
+            return false;
+        }
+        ByteBuffer header = readFully(rounds, 0, HEADER_SIZE);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            return false;
+        }
+        coveredEnd = header.getLong();
+        roundCount = header.getLong();
+        lastGameId = header.getLong();
+        if (coveredEnd != scan.end && Arrays.binarySearch(scan.offsets, 0, scan.blocks, coveredEnd) < 0) {
+            return false; // Ahead of the log, or not at a block boundary
+        }
+        if (roundCount < 0 || rounds.size() < HEADER_SIZE + roundCount * ENTRY_SIZE
+                || (lastGameId < 0) != (roundCount == 0)
+                || games.size() < (lastGameId + 1) * ENTRY_SIZE) {
+            return false;
+        }
+        rounds.truncate(HEADER_SIZE + roundCount * ENTRY_SIZE);
+        if (roundCount > 0) {
+            long last = readFully(rounds, HEADER_SIZE + (roundCount - 1) * ENTRY_SIZE, ENTRY_SIZE).getLong();
+            long slot = readFully(games, lastGameId * ENTRY_SIZE, ENTRY_SIZE).getLong();
+            gameFirst = slot >>> COUNT_BITS;
+            gameRounds = (int) (slot & (1 << COUNT_BITS) - 1);
+            if ((last >>> POSITION_SHIFT) >= coveredEnd || gameFirst + gameRounds != roundCount) {
+                return false; // Entries lost in a crash
+            }
+        }
+        return true;
+    }
+
+    // Index every block past what is already covered
+    private void catchUp(ReplayLog.Scan scan) throws IOException {
+        if (coveredEnd == scan.end) {
+            return;
+        }
+        int block = Arrays.binarySearch(scan.offsets, 0, scan.blocks, coveredEnd);
+        Inflater inflater = new Inflater();
+        try {
+            for (; block < scan.blocks; block++) {
+                long position = scan.offsets[block];
+                ByteBuffer header = readFully(data, position, ReplayLog.BLOCK_HEADER_SIZE);
+                int rawLength = header.getInt();
+                int storedLength = header.getInt();
+                boolean compressed = (storedLength & ReplayLog.COMPRESSED) != 0;
+                ByteBuffer stored = readFully(data, position + ReplayLog.BLOCK_HEADER_SIZE,
+                    storedLength & ~ReplayLog.COMPRESSED);
+                addBlock(position, compressed, compressed ? ReplayLog.inflate(stored, rawLength, inflater) : stored);
+            }
+        } finally {
+            inflater.end();
+        }
+        commit(scan.end);
+    }
+
+    // Add entries for every round in a block's raw payload
+    void addBlock(long position, boolean compressed, ByteBuffer payload) throws IOException {
+        ByteBuffer in = payload.duplicate();
+        while (in.hasRemaining()) {
+            int offset = in.position() - payload.position();
+            ReplayLog.Round round = ReplayLog.Round.read(in);
+            addRound(round.getGameId(), round.getRoundNumber(),
+                position << POSITION_SHIFT | (compressed ? COMPRESSED_BIT : 0) | offset);
+        }
+    }
+
+    private void addRound(long gameId, int roundNumber, long entry) throws IOException {
+        if (slotCount == 0) {
+            slotsFrom = gameId == lastGameId ? gameId : lastGameId + 1;
+        }
+        if (gameId != lastGameId) {
+            if (gameId < lastGameId) {
+                throw new IllegalStateException("Game " + gameId + " follows game " + lastGameId);
+            }
+            while (slotsFrom + slotCount < gameId) {
+                pushSlot(0); // Game started but never played a round
+            }
+            pushSlot(0);
+            lastGameId = gameId;
+            gameFirst = roundCount;
+            gameRounds = 0;
+        } else if (slotCount == 0) {
+            pushSlot(0);
+        }
+        if (roundNumber != gameRounds) {
+            throw new IllegalStateException("Round " + roundNumber + " of game " + gameId + " is out of order");
+        }
+
+        if (!pendingRounds.hasRemaining()) {
+            writePendingRounds();
+        }
+        pendingRounds.putLong(entry);
+        roundCount++;
+        gameRounds++;
+        slots[slotCount - 1] = gameFirst << COUNT_BITS | gameRounds;
+    }
+
+    private void pushSlot(long slot) {
+        if (slotCount == slots.length) {
+            slots = Arrays.copyOf(slots, slotCount * 2);
+        }
+        slots[slotCount++] = slot;
+    }
+
+    private void writePendingRounds() throws IOException {
+        pendingRounds.flip();
+        writeFully(rounds, pendingRounds, HEADER_SIZE + writtenRounds * ENTRY_SIZE);
+        writtenRounds = roundCount;
+        pendingRounds.clear();
+    }
+
+    // Write pending entries, then record that the log is indexed up to end
+    void commit(long end) throws IOException {
+        writePendingRounds();
+        if (slotCount > 0) {
+            ByteBuffer out = ByteBuffer.allocate(slotCount * ENTRY_SIZE);
+            for (int i = 0; i < slotCount; i++) {
+                out.putLong(slots[i]);
+            }
+            out.flip();
+            writeFully(games, out, slotsFrom * ENTRY_SIZE);
+            slotCount = 0;
+        }
+        coveredEnd = end;
+        writeHeader();
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(coveredEnd).putLong(roundCount).putLong(lastGameId);
+        header.flip();
+        writeFully(rounds, header, 0);
+    }
+
+    // Force both files to disk
+    void force() throws IOException {
+        rounds.force(false);
+        games.force(false);
+    }
+
+    // Rounds indexed
+    public long size() {
+        return roundCount;
+    }
+
+    // Id of the last game with a round indexed, or -1 if none
+    public long getLastGameId() {
+        return lastGameId;
+    }
+
+    public int getRoundCount(long gameId) throws IOException {
+        if (gameId < 0 || gameId > lastGameId) {
+            return 0;
+        }
+        return (int) (slot(gameId) & (1 << COUNT_BITS) - 1);
+    }
+
+    private long slot(long gameId) throws IOException {
+        return readFully(games, gameId * ENTRY_SIZE, ENTRY_SIZE).getLong();
+    }
+
+    // One round of one game, read with positioned reads
+    public ReplayLog.Round fetch(long gameId, int round) throws IOException {
+        if (gameId < 0 || gameId > lastGameId) {
+            throw new IndexOutOfBoundsException("No game " + gameId + " in the replay log");
+        }
+        long slot = slot(gameId);
+        int count = (int) (slot & (1 << COUNT_BITS) - 1);
+        if (round < 0 || round >= count) {
+            throw new IndexOutOfBoundsException("No round " + round + " of " + count + " in game " + gameId);
+        }
+        long index = (slot >>> COUNT_BITS) + round;
+        ByteBuffer entries = readFully(rounds, HEADER_SIZE + index * ENTRY_SIZE,
+            index + 1 < roundCount ? 2 * ENTRY_SIZE : ENTRY_SIZE);
+        long entry = entries.getLong();
+        long position = entry >>> POSITION_SHIFT;
+        int offset = (int) (entry & COMPRESSED_BIT - 1);
+        long payloadStart = position + ReplayLog.BLOCK_HEADER_SIZE;
+
+        if ((entry & COMPRESSED_BIT) == 0) {
+            // Read just the round: it ends where the next one in the block starts
+            int end;
+            long next = entries.hasRemaining() ? entries.getLong() : -1;
+            if (next >= 0 && next >>> POSITION_SHIFT == position) {
+                end = (int) (next & COMPRESSED_BIT - 1);
+            } else {
+                end = readFully(data, position, Integer.BYTES).getInt();
+            }
+            return ReplayLog.Round.read(readFully(data, payloadStart + offset, end - offset));
+        }
+
+        ByteBuffer header = readFully(data, position, ReplayLog.BLOCK_HEADER_SIZE);
+        int rawLength = header.getInt();
+        int storedLength = header.getInt() & ~ReplayLog.COMPRESSED;
+        ByteBuffer stored = readFully(data, payloadStart, storedLength);
+        ByteBuffer raw;
+        Inflater blockInflater = inflater();
+        synchronized (blockInflater) {
+            raw = ReplayLog.inflate(stored, rawLength, blockInflater);
+        }
+        raw.position(offset);
+        return ReplayLog.Round.read(raw);
+    }
+
+    private synchronized Inflater inflater() {
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        return inflater;
+    }
+
+    public GameReplay.PlayerRoundData fetch(long gameId, int round, int player) throws IOException {
+        return fetch(gameId, round).getPlayerRound(player);
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Replay index is shorter than expected");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long start = position - buffer.position();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, start + buffer.position());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+        try {
+            rounds.close();
+            games.close();
+        } finally {
+            if (ownsData) {
+                data.close();
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,559 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only binary file of recorded rounds, for archiving every game.
+ * A Writer streams rounds into a direct buffer and writes it through a
+ * FileChannel as one block whenever it fills or is flushed, so no more
+ * than a block is ever held in memory. Blocks may be Deflate-compressed;
+ * each is compressed alone and never splits a round, so any block can be
+ * decoded on its own.
+ *
+ * A Reader memory-maps the file a window at a time and decodes blocks
+ * only as its iterator, spliterator or stream reaches them. Splitting
+ * hands out whole blocks, so a parallel stream scans a large archive on
+ * every core.
+ *
+ * File layout: magic and version, then blocks. A block header holds the
+ * raw payload length, the stored length with its top bit set when the
+ * payload is compressed, and the id of the last game in the block. The
+ * payload is a run of rounds: game id, round number, player count, then
+ * for each player the name, both packed hands, swap mask and bonus suit
+ * in one byte, and the score. A torn block at the end, left by a crash,
+ * is ignored by readers and cut off by the next writer.
+ */
+public class ReplayLog {
+    public static final String DEFAULT_FILENAME = "replays.dat";
+    public static final String COMPRESS_PROPERTY = "highsuit.replays.compress";
+    public static final int BLOCK_SIZE = 1 << 16;
+
+    private static final int MAGIC = 0x4853524C; // "HSRL"
+    private static final int VERSION = 1;
+    static final int FILE_HEADER_SIZE = 8;
+    static final int BLOCK_HEADER_SIZE = 16;
+    private static final int ROUND_HEADER_SIZE = 11;
+    private static final int PLAYER_FIXED_SIZE = 12;
+    static final int COMPRESSED = 1 << 31;
+    private static final int MAX_NAME_BYTES = 0xFFFF;
+    private static final long WINDOW_SIZE = 1L << 26;
+
+    private ReplayLog() {
+    }
+
+    /**
+     * Block boundaries of a file and the id of its last game.
+     */
+    static class Scan {
+        long[] offsets = new long[16];
+        int blocks;
+        long end = FILE_HEADER_SIZE;
+        long lastGameId = -1;
+    }
+
+    // Read the file header and every complete block header
+    static Scan scan(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < FILE_HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a replay log");
+        }
+
+        Scan scan = new Scan();
+        long size = channel.size();
+        while (scan.end + BLOCK_HEADER_SIZE <= size) {
+            header.clear();
+            while (header.hasRemaining() && channel.read(header, scan.end + header.position()) >= 0) {
+                // Read the whole block header
+            }
+            header.flip();
+            int rawLength = header.getInt();
+            int storedLength = header.getInt() & ~COMPRESSED;
+            long lastGameId = header.getLong();
+            if (rawLength < 0 || rawLength > BLOCK_SIZE || storedLength < 0
+                    || scan.end + BLOCK_HEADER_SIZE + storedLength > size) {
+                break; // Torn or damaged: the log ends here
+            }
+            if (scan.blocks == scan.offsets.length) {
+                scan.offsets = Arrays.copyOf(scan.offsets, scan.blocks * 2);
+            }
+            scan.offsets[scan.blocks++] = scan.end;
+            scan.end += BLOCK_HEADER_SIZE + storedLength;
+            scan.lastGameId = lastGameId;
+        }
+        return scan;
+    }
+
+    // Inflate a compressed block payload of rawLength bytes into a new buffer
+    static ByteBuffer inflate(ByteBuffer stored, int rawLength, Inflater inflater) {
+        try {
+            inflater.reset();
+            inflater.setInput(stored);
+            ByteBuffer raw = ByteBuffer.allocate(rawLength);
+            inflater.inflate(raw);
+            if (raw.hasRemaining()) {
+                throw new IllegalStateException("Replay block is damaged");
+            }
+            raw.flip();
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Replay block is damaged", e);
+        }
+    }
+
+    /**
+     * Streams rounds to the end of a replay log. Not safe for use by
+     * several threads at once.
+     */
+    public static class Writer implements ReplayRecorder, Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer block = ByteBuffer.allocateDirect(BLOCK_SIZE);
+        private final ByteBuffer header = ByteBuffer.allocateDirect(BLOCK_HEADER_SIZE);
+        private final Deflater deflater;
+        private final ReplayIndex index;
+        private ByteBuffer packed;
+        private long gameId;
+        private long lastGameId; // of the last round completed
+        private int roundNumber;
+        private int roundStart = -1; // in the block, while a round is open
+        private int players;
+
+        // Append to a log, creating it if needed; compress blocks if asked
+        public Writer(Path file, boolean compress) throws IOException {
+            this(file, compress, false);
+        }
+
+        // As above, also keeping the log's ReplayIndex up to date if asked
+        public Writer(Path file, boolean compress, boolean indexed) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                if (channel.size() == 0) {
+                    ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+                    fileHeader.flip();
+                    channel.write(fileHeader, 0);
+                }
+                Scan scan = scan(channel);
+                if (channel.size() > scan.end) {
+                    channel.truncate(scan.end); // Drop a block torn by a crash
+                }
+                channel.position(scan.end);
+                gameId = scan.lastGameId;
+                lastGameId = gameId;
+                index = indexed ? new ReplayIndex(file, channel, false, scan) : null;
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+        }
+
+        // Begin a new game, returning its id; ids count up from 0 across the file
+        public long startGame() {
+            endRound();
+            roundNumber = 0;
+            return ++gameId;
+        }
+
+        @Override
+        public void startRound() {
+            if (gameId < 0) {
+                throw new IllegalStateException("Start a game before recording rounds");
+            }
+            endRound();
+            if (roundNumber > 0xFFFF) {
+                throw new IllegalStateException("Too many rounds in one game");
+            }
+            ensureRoom(ROUND_HEADER_SIZE);
+            roundStart = block.position();
+            block.putLong(gameId).putShort((short) roundNumber++).put((byte) 0);
+            players = 0;
+        }
+
+        @Override
+        public void addPlayerRound(String playerName, int initialHand, int bonusSuit,
+                                   int swapMask, int finalHand, int roundScore) {
+            if (roundStart < 0) {
+                throw new IllegalStateException("Start a round before adding players to it");
+            }
+            GameReplay.checkPlayerRound(bonusSuit, swapMask, roundScore);
+            if (players == 0xFF) {
+                throw new IllegalStateException("Too many players in one round");
+            }
+            byte[] name = playerName.getBytes(StandardCharsets.UTF_8);
+            if (name.length > MAX_NAME_BYTES) {
+                throw new IllegalArgumentException("Player name is too long");
+            }
+            ensureRoom(PLAYER_FIXED_SIZE + name.length);
+            block.putShort((short) name.length).put(name)
+                .putLong((initialHand & 0xFFFFFFFFL) | (long) finalHand << 32)
+                .put((byte) (swapMask | bonusSuit << GameReplay.HAND_SIZE))
+                .put((byte) roundScore);
+            block.put(roundStart + ROUND_HEADER_SIZE - 1, (byte) ++players);
+        }
+
+        private void endRound() {
+            if (roundStart >= 0) {
+                lastGameId = gameId;
+                roundStart = -1;
+            }
+        }
+
+        /*
+         * Make room in the block, writing out what it holds. A round in
+         * progress moves to the start of the next block, so no round
+         * spans two blocks.
+         */
+        private void ensureRoom(int bytes) {
+            if (block.remaining() >= bytes) {
+                return;
+            }
+            int keep = roundStart >= 0 ? roundStart : block.position();
+            if (block.position() - keep + bytes > BLOCK_SIZE) {
+                throw new IllegalStateException("Round does not fit in a block");
+            }
+            try {
+                writeBlock(keep);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (roundStart >= 0) {
+                roundStart = 0;
+            }
+        }
+
+        // Write bytes [0, end) of the block and move the rest to its start
+        private void writeBlock(int end) throws IOException {
+            if (end == 0) {
+                return;
+            }
+            int position = block.position();
+            ByteBuffer payload = block.duplicate();
+            payload.position(0).limit(end);
+            int stored = end;
+            if (deflater != null) {
+                if (packed == null) {
+                    packed = ByteBuffer.allocateDirect(BLOCK_SIZE + BLOCK_SIZE / 8 + 64);
+                }
+                deflater.reset();
+                deflater.setInput(payload.duplicate());
+                deflater.finish();
+                packed.clear();
+                deflater.deflate(packed);
+                packed.flip();
+                if (deflater.finished() && packed.remaining() < end) {
+                    payload = packed;
+                    stored = packed.remaining() | COMPRESSED;
+                }
+            }
+            header.clear();
+            header.putInt(end).putInt(stored).putLong(lastGameId);
+            header.flip();
+            long blockPosition = channel.position();
+            ByteBuffer[] buffers = {header, payload};
+            while (payload.hasRemaining()) {
+                channel.write(buffers);
+            }
+            if (index != null) {
+                ByteBuffer raw = block.duplicate();
+                raw.position(0).limit(end);
+                index.addBlock(blockPosition, stored < 0, raw);
+                index.commit(channel.position());
+            }
+
+            ByteBuffer rest = block.duplicate();
+            rest.position(end).limit(position);
+            block.clear();
+            block.put(rest);
+        }
+
+        // Write the rounds recorded so far as a block and force them to disk
+        public void flush() throws IOException {
+            int end = roundStart >= 0 ? roundStart : block.position();
+            writeBlock(end);
+            if (roundStart >= 0) {
+                roundStart = 0;
+            }
+            channel.force(false);
+            if (index != null) {
+                index.force();
+            }
+        }
+
+        // End the game's last round and write it out with the rest
+        public void endGame() throws IOException {
+            endRound();
+            flush();
+        }
+
+        public long getGameId() {
+            return gameId;
+        }
+
+        // The index this writer keeps, or null if it keeps none
+        public ReplayIndex getIndex() {
+            return index;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                endRound();
+                flush();
+            } finally {
+                channel.close();
+                if (deflater != null) {
+                    deflater.end();
+                }
+                if (index != null) {
+                    index.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a replay log through memory-mapped windows. Iterators and
+     * streams from one Reader may be used at the same time.
+     */
+    public static class Reader implements Iterable<Round>, Closeable {
+        private final FileChannel channel;
+        private final Scan scan;
+        private final MappedByteBuffer[] windows; // Mapped when first needed
+
+        public Reader(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            try {
+                scan = scan(channel);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            windows = new MappedByteBuffer[(int) ((scan.end + WINDOW_SIZE - 1) / WINDOW_SIZE)];
+        }
+
+        /*
+         * Window w maps from w * WINDOW_SIZE on, running a block past its
+         * nominal end so that it holds every block starting inside it.
+         * Windows are shared by all spliterators of this Reader.
+         */
+        private synchronized MappedByteBuffer window(int w) throws IOException {
+            if (windows[w] == null) {
+                long start = w * WINDOW_SIZE;
+                long length = Math.min(WINDOW_SIZE + BLOCK_HEADER_SIZE + BLOCK_SIZE, scan.end - start);
+                windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+            return windows[w];
+        }
+
+        public int getBlockCount() {
+            return scan.blocks;
+        }
+
+        // Id of the last game in the log, or -1 if it is empty
+        public long getLastGameId() {
+            return scan.lastGameId;
+        }
+
+        @Override
+        public Iterator<Round> iterator() {
+            return Spliterators.iterator(spliterator());
+        }
+
+        @Override
+        public Spliterator<Round> spliterator() {
+            return new BlockSpliterator(0, scan.blocks);
+        }
+
+        public Stream<Round> rounds() {
+            return StreamSupport.stream(spliterator(), false);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        /**
+         * Rounds of blocks [block, end), decoded one block at a time.
+         */
+        private class BlockSpliterator implements Spliterator<Round> {
+            private int block;
+            private int end;
+            private ByteBuffer payload;
+            private Inflater inflater;
+
+            BlockSpliterator(int block, int end) {
+                this.block = block;
+                this.end = end;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Round> action) {
+                while (payload == null || !payload.hasRemaining()) {
+                    if (block == end) {
+                        if (inflater != null) {
+                            inflater.end();
+                            inflater = null;
+                        }
+                        return false;
+                    }
+                    payload = decode(block++);
+                }
+                action.accept(Round.read(payload));
+                return true;
+            }
+
+            // Payload of a block, mapped in place or inflated into a new buffer
+            private ByteBuffer decode(int index) {
+                long offset = scan.offsets[index];
+                try {
+                    ByteBuffer stored = window((int) (offset / WINDOW_SIZE)).duplicate();
+                    stored.position((int) (offset % WINDOW_SIZE));
+                    int rawLength = stored.getInt();
+                    int storedLength = stored.getInt();
+                    stored.getLong();
+                    stored.limit(stored.position() + (storedLength & ~COMPRESSED));
+                    if ((storedLength & COMPRESSED) == 0) {
+                        return stored.slice();
+                    }
+                    if (inflater == null) {
+                        inflater = new Inflater();
+                    }
+                    return inflate(stored, rawLength, inflater);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public Spliterator<Round> trySplit() {
+                if (payload != null || end - block < 2) {
+                    return null; // Split only whole blocks not yet started
+                }
+                int middle = (block + end) >>> 1;
+                Spliterator<Round> prefix = new BlockSpliterator(block, middle);
+                block = middle;
+                return prefix;
+            }
+
+            @Override
+            public long estimateSize() {
+                return Long.MAX_VALUE;
+            }
+
+            @Override
+            public int characteristics() {
+                return ORDERED | NONNULL | IMMUTABLE;
+            }
+        }
+    }
+
+    /**
+     * One recorded round. Players are decoded when asked for.
+     */
+    public static class Round {
+        private final long gameId;
+        private final int roundNumber;
+        private final int playerCount;
+        private final ByteBuffer block;
+        private final int players; // Offset of the first player in the block
+
+        private Round(long gameId, int roundNumber, int playerCount, ByteBuffer block, int players) {
+            this.gameId = gameId;
+            this.roundNumber = roundNumber;
+            this.playerCount = playerCount;
+            this.block = block;
+            this.players = players;
+        }
+
+        // The round at the buffer's position, leaving the buffer after it
+        static Round read(ByteBuffer in) {
+            long gameId = in.getLong();
+            int roundNumber = in.getShort() & 0xFFFF;
+            int playerCount = in.get() & 0xFF;
+            int start = in.position();
+            for (int i = 0; i < playerCount; i++) {
+                skipPlayer(in);
+            }
+            return new Round(gameId, roundNumber, playerCount, in, start);
+        }
+
+        private static void skipPlayer(ByteBuffer in) {
+            int nameLength = in.getShort() & 0xFFFF;
+            in.position(in.position() + nameLength + PLAYER_FIXED_SIZE - 2);
+        }
+
+        public long getGameId() {
+            return gameId;
+        }
+
+        // Round within its game, counting from 0
+        public int getRoundNumber() {
+            return roundNumber;
+        }
+
+        public int getPlayerCount() {
+            return playerCount;
+        }
+
+        public GameReplay.PlayerRoundData getPlayerRound(int player) {
+            ByteBuffer in = seek(player);
+            byte[] name = new byte[in.getShort() & 0xFFFF];
+            in.get(name);
+            long hands = in.getLong();
+            int choices = in.get() & 0xFF;
+            int roundScore = in.get() & 0xFF;
+            return new GameReplay.PlayerRoundData(new String(name, StandardCharsets.UTF_8), (int) hands,
+                choices >>> GameReplay.HAND_SIZE, choices & (1 << GameReplay.HAND_SIZE) - 1,
+                (int) (hands >>> 32), roundScore);
+        }
+
+        // One player's score, read without decoding the rest of the round
+        public int getRoundScore(int player) {
+            ByteBuffer in = seek(player);
+            int nameLength = in.getShort() & 0xFFFF;
+            return in.get(in.position() + nameLength + PLAYER_FIXED_SIZE - 3) & 0xFF;
+        }
+
+        // Buffer positioned at a player's record
+        private ByteBuffer seek(int player) {
+            if (player < 0 || player >= playerCount) {
+                throw new IndexOutOfBoundsException("No player " + player + " in round " + roundNumber);
+            }
+            ByteBuffer in = block.duplicate();
+            in.position(players);
+            for (int i = 0; i < player; i++) {
+                skipPlayer(in);
+            }
+            return in;
+        }
+
+        // Record this round's players into a recorder, such as a GameReplay
+        public void replayInto(ReplayRecorder recorder) {
+            recorder.startRound();
+            for (int i = 0; i < playerCount; i++) {
+                GameReplay.PlayerRoundData data = getPlayerRound(i);
+                recorder.addPlayerRound(data.playerName, GameReplay.packHand(data.initialHand),
+                    data.bonusSuit, data.swapMask, GameReplay.packHand(data.finalHand), data.roundScore);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+/**
+ * Something that records the play of each round, such as an in-memory
+ * GameReplay or a ReplayLog on disk. Hands are packed by
+ * GameReplay.packHand and swaps given as GameReplay.swapMask.
+ */
+public interface ReplayRecorder {
+    // Begin a new round; players added after this belong to it
+    void startRound();
+
+    void addPlayerRound(String playerName, int initialHand, int bonusSuit,
+                        int swapMask, int finalHand, int roundScore);
+}
\ No newline at end of file
@@ -0,0 +1,268 @@
+/**
+ * Background thread that saves queued results for a ScoreTable, so posting
+ * a result never waits for the disk. Callers queue results and report how
+ * many; the thread runs the flush action once `batchSize` results are
+ * waiting, once the oldest has waited `maxDelayMillis`, when flush() is
+ * called, and a last time on close() or JVM shutdown. One flush writes
+ * everything queued by then, so a burst of results costs one write.
+ * Posting only waits if results arrive faster than the disk takes them:
+ * once BACKLOG_BATCHES batches are waiting, queued() blocks until the
+ * thread takes them, so memory stays bounded.
+ *
+ * A flush action that throws does not stop the thread. Its exception is
+ * kept and thrown from the next flush() or close(), wrapped in an
+ * IllegalStateException, so a caller waiting for results to reach the
+ * disk learns that they did not.
+ *
+ * Tracks the queue depth and how long each flush took, for monitoring.
+ * Flush latencies are kept in microseconds in a QuantileSketch; any past
+ * QuantileSketch.MAX_SCORE (about 65ms) share its top bucket.
+ */
+public class ScoreFlusher implements AutoCloseable {
+    public static final String BATCH_PROPERTY = "highsuit.scores.flushBatch";
+    public static final String DELAY_PROPERTY = "highsuit.scores.flushMillis";
+    public static final int DEFAULT_BATCH_SIZE = 64;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 500;
+    public static final int BACKLOG_BATCHES = 16;
+
+    private final Runnable flush;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final Renderer messages;
+    private Thread thread; // Both set by start() before the flusher is handed out
+    private Thread shutdownHook;
+
+    // Guarded by this
+    private int queued;
+    private long oldestQueued;
+    private long requested;
+    private long completed;
+    private boolean closed;
+    private RuntimeException failure; // From a flush not yet reported
+    private int maxQueueDepth;
+    private long flushes;
+    private long totalFlushNanos;
+    private long maxFlushNanos;
+    private final QuantileSketch flushMicros = new QuantileSketch();
+
+    // Start a flusher thread with the batch size and delay from the system properties
+    public static ScoreFlusher start(Runnable flush, Renderer messages) {
+        return start(flush, Integer.getInteger(BATCH_PROPERTY, DEFAULT_BATCH_SIZE),
+            Long.getLong(DELAY_PROPERTY, DEFAULT_MAX_DELAY_MILLIS), messages);
+    }
+
+    public static ScoreFlusher start(Runnable flush, int batchSize, long maxDelayMillis) {
+        return start(flush, batchSize, maxDelayMillis, Renderer.console());
+    }
+
+    public static ScoreFlusher start(Runnable flush, int batchSize, long maxDelayMillis, Renderer messages) {
+        ScoreFlusher flusher = new ScoreFlusher(flush, batchSize, maxDelayMillis, messages);
+        flusher.thread = new Thread(flusher::run, "score-flusher");
+        flusher.thread.setDaemon(true);
+        flusher.shutdownHook = new Thread(flusher::close, "score-flusher-shutdown");
+        flusher.thread.start();
+        Runtime.getRuntime().addShutdownHook(flusher.shutdownHook);
+        return flusher;
+    }
+
+    private ScoreFlusher(Runnable flush, int batchSize, long maxDelayMillis, Renderer messages) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("A flush batch holds at least one result");
+        }
+        if (maxDelayMillis < 0) {
+            throw new IllegalArgumentException("Flush delay must not be negative: " + maxDelayMillis);
+        }
+        this.flush = flush;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = maxDelayMillis * 1_000_000;
+        this.messages = messages;
+    }
+
+    // Report results newly queued for the flush action to save
+    public synchronized void queued(int count) {
+        if (closed) {
+            throw new IllegalStateException("Score flusher is closed");
+        }
+        if (queued == 0) {
+            oldestQueued = System.nanoTime();
+            notifyAll(); // Start the delay
+        }
+        queued += count;
+        maxQueueDepth = Math.max(maxQueueDepth, queued);
+        if (queued >= batchSize) {
+            notifyAll();
+        }
+        try {
+            while (queued >= batchSize * BACKLOG_BATCHES && thread.isAlive()) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * Block until everything queued before this call has been flushed.
+     * Returns early, with the interrupt flag set, if the thread is
+     * interrupted while waiting. Throws IllegalStateException if a flush
+     * has failed since the last one reported.
+     */
+    public void flush() {
+        synchronized (this) {
+            if (thread.isAlive()) {
+                long round = ++requested;
+                notifyAll();
+                try {
+                    while (completed < round && thread.isAlive()) {
+                        wait();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                reportFailure();
+                return;
+            }
+            reportFailure();
+        }
+        flush.run(); // Closed: nothing else will save them
+    }
+
+    // Throw the failure kept from the flusher thread, once
+    private void reportFailure() {
+        if (failure != null) {
+            RuntimeException cause = failure;
+            failure = null;
+            throw new IllegalStateException("Flush failed", cause);
+        }
+    }
+
+    /*
+     * Stop the thread after a last flush; queueing more results is an
+     * error. Throws IllegalStateException if a flush failed and was not
+     * reported yet; at JVM shutdown, when nobody is left to catch it, the
+     * failure is printed to the flusher's Renderer instead.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        if (Thread.currentThread() != thread) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // Already shutting down; the hook is running or has run
+            }
+            synchronized (this) {
+                reportFailure();
+            }
+        } else {
+            synchronized (this) {
+                if (failure != null) {
+                    messages.println("Error saving high scores.");
+                    messages.flush();
+                }
+            }
+        }
+    }
+
+    private void run() {
+        for (;;) {
+            long round;
+            synchronized (this) {
+                try {
+                    while (!closed && !isDue()) {
+                        if (queued == 0) {
+                            wait();
+                        } else {
+                            long waited = System.nanoTime() - oldestQueued;
+                            wait(Math.max(1, (maxDelayNanos - waited + 999_999) / 1_000_000));
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    closed = true;
+                }
+                if (closed && queued == 0 && requested == completed) {
+                    notifyAll();
+                    return;
+                }
+                queued = 0;
+                round = requested;
+                notifyAll(); // Release posters held back by a full backlog
+            }
+
+            long start = System.nanoTime();
+            RuntimeException failed = null;
+            try {
+                flush.run();
+            } catch (RuntimeException e) {
+                failed = e;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            synchronized (this) {
+                if (failed != null) {
+                    if (failure == null) {
+                        failure = failed;
+                    } else {
+                        failure.addSuppressed(failed);
+                    }
+                }
+                flushes++;
+                totalFlushNanos += elapsed;
+                maxFlushNanos = Math.max(maxFlushNanos, elapsed);
+                flushMicros.add((int) Math.min(elapsed / 1000, Integer.MAX_VALUE));
+                completed = round;
+                notifyAll();
+            }
+        }
+    }
+
+    private boolean isDue() {
+        return queued >= batchSize
+            || requested > completed
+            || (queued > 0 && System.nanoTime() - oldestQueued >= maxDelayNanos);
+    }
+
+    // Results queued and not yet taken by a flush
+    public synchronized int getQueueDepth() {
+        return queued;
+    }
+
+    public synchronized int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public synchronized long getFlushCount() {
+        return flushes;
+    }
+
+    public synchronized double getMeanFlushMillis() {
+        return flushes == 0 ? 0.0 : totalFlushNanos / 1e6 / flushes;
+    }
+
+    public synchronized double getMaxFlushMillis() {
+        return maxFlushNanos / 1e6;
+    }
+
+    // Flush latency at quantile q in microseconds, or -1 before the first flush
+    public synchronized int flushLatencyMicros(double q) {
+        return flushMicros.quantile(q);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getMaxDelayMillis() {
+        return maxDelayNanos / 1_000_000;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,461 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only, crash-safe storage for high score records.
+ * Each record is one line of text. The log file starts with a line naming
+ * its generation, followed by the records appended since the last
+ * compaction; a file without that line (such as an old highscores.txt) is
+ * read as a legacy log with no generation. Records are buffered and written
+ * in batches through a FileChannel and forced to disk, so recording a score
+ * costs one small write however many are stored. A crash can leave at
+ * most a partial last line, which replay skips and the next append cuts off.
+ *
+ * Compaction writes the current state to a snapshot file, then replaces the
+ * log with an empty log of a new generation. The snapshot starts with a
+ * fixed-size header line naming the new generation and the one it
+ * replaces; what follows is written by the caller. Both files are replaced
+ * by renaming a temporary file. A snapshot is current for the log of its
+ * own generation; if a crash struck between the two steps, the log still
+ * has the previous generation, everything in it is already in the
+ * snapshot, and the next load finishes the compaction. Any other snapshot
+ * (say, after the log was deleted by hand) is ignored.
+ *
+ * Several processes may share the files. Every read and write holds an
+ * exclusive FileChannel lock on a separate lock file (the data files are
+ * replaced by renaming, so they cannot carry the lock themselves), and a
+ * lock per file within this JVM, since FileChannel locks are per process.
+ * Callers that keep state between calls take lock() around a whole update
+ * and call catchUp() first, to fold in what other processes wrote since.
+ */
+public class ScoreLog {
+    // Bytes before the caller's part of a snapshot
+    public static final int SNAPSHOT_HEADER_SIZE = 64;
+
+    private static final String LOG_HEADER = "#log ";
+    private static final String SNAPSHOT_HEADER = "#snapshot ";
+    private static final String LEGACY = "legacy";
+
+    // Lock within this JVM per lock file, taken before the file lock
+    private static final ConcurrentHashMap<Path, ReentrantLock> LOCAL_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path logFile;
+    private final Path snapshotFile;
+    private final Path lockFile;
+
+    private final StringBuilder pending = new StringBuilder();
+    private int pendingRecords;
+    private String generation;
+    private long validLength = -1;
+    private int logRecords;
+    private boolean snapshotCurrent;
+    private boolean snapshotReplaced;
+    private Object logKey; // Identity of the log file as last read or written
+    private FileChannel lockChannel; // Kept open between locks; used only while holding the local lock
+
+    public ScoreLog(Path logFile, Path snapshotFile) {
+        this(logFile, snapshotFile, logFile.resolveSibling(logFile.getFileName() + ".lock"));
+    }
+
+    public ScoreLog(Path logFile, Path snapshotFile, Path lockFile) {
+        this.logFile = logFile;
+        this.snapshotFile = snapshotFile;
+        this.lockFile = lockFile;
+    }
+
+    /**
+     * Writes the caller's part of a snapshot.
+     */
+    public interface SnapshotWriter {
+        void write(FileChannel channel) throws IOException;
+    }
+
+    /**
+     * Exclusive hold on the files, released by close().
+     */
+    public interface Lock extends AutoCloseable {
+        @Override
+        void close() throws IOException;
+    }
+
+    /*
+     * Wait until no other thread or process holds the files, then hold
+     * them. A thread that already holds them may lock again; only its
+     * outermost close() releases them.
+     */
+    public Lock lock() throws IOException {
+        ReentrantLock local = LOCAL_LOCKS.computeIfAbsent(lockFile.toAbsolutePath().normalize(),
+            path -> new ReentrantLock());
+        local.lock();
+        if (local.getHoldCount() > 1) {
+            return local::unlock;
+        }
+        try {
+            if (lockChannel == null || !lockChannel.isOpen()) {
+                lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            }
+            FileLock fileLock = lockChannel.lock();
+            return () -> {
+                try {
+                    fileLock.release();
+                } finally {
+                    local.unlock();
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            local.unlock();
+            throw e;
+        }
+    }
+
+    // Close the lock file; the next lock() opens it again
+    public void close() throws IOException {
+        ReentrantLock local = LOCAL_LOCKS.computeIfAbsent(lockFile.toAbsolutePath().normalize(),
+            path -> new ReentrantLock());
+        local.lock();
+        try {
+            if (lockChannel != null) {
+                lockChannel.close();
+                lockChannel = null;
+            }
+        } finally {
+            local.unlock();
+        }
+    }
+
+    /*
+     * Replay the log, returning its records in the order they were written.
+     * Afterwards isSnapshotCurrent tells whether the snapshot holds
+     * everything logged before them.
+     */
+    public List<String> load() throws IOException {
+        try (var _ = lock()) {
+            return loadLocked();
+        }
+    }
+
+    private List<String> loadLocked() throws IOException {
+        List<String> records = new ArrayList<>();
+        snapshotCurrent = false;
+        byte[] log;
+        try {
+            log = Files.readAllBytes(logFile);
+        } catch (NoSuchFileException e) {
+            generation = null;
+            validLength = 0;
+            logRecords = 0;
+            logKey = null;
+            return records;
+        }
+
+        List<String> logLines = new ArrayList<>();
+        validLength = splitLines(log, logLines);
+        logKey = logFileKey();
+        generation = LEGACY;
+        if (!logLines.isEmpty() && logLines.get(0).startsWith(LOG_HEADER)) {
+            generation = logLines.remove(0).substring(LOG_HEADER.length());
+        }
+
+        String[] tags = snapshotTags();
+        if (tags.length == 2 && tags[1].equals(generation)) {
+            // Interrupted compaction: the snapshot already holds this log
+            startLog(tags[0]);
+            snapshotCurrent = true;
+            return records;
+        }
+        snapshotCurrent = tags.length == 2 && tags[0].equals(generation);
+
+        logRecords = logLines.size();
+        records.addAll(logLines);
+        return records;
+    }
+
+    /*
+     * Records other processes have appended since this log was last read
+     * or written, oldest first. If another process compacted the files
+     * (or they were replaced some other way) the log is read again from
+     * the start, as by load(), and isSnapshotReplaced() tells the caller
+     * to reopen the snapshot, whose contents include everything it had.
+     */
+    public List<String> catchUp() throws IOException {
+        try (var _ = lock()) {
+            snapshotReplaced = false;
+            if (validLength < 0) {
+                snapshotReplaced = true;
+                return loadLocked();
+            }
+            BasicFileAttributes attributes = attributes();
+            if (attributes != null && logKey != null && logKey.equals(attributes.fileKey())
+                    && attributes.size() == validLength) {
+                return new ArrayList<>(); // Same file, nothing appended
+            }
+            byte[] tail = null;
+            try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size >= validLength && Objects.equals(readGeneration(channel), generation)) {
+                    tail = new byte[(int) (size - validLength)];
+                    ByteBuffer buffer = ByteBuffer.wrap(tail);
+                    channel.position(validLength);
+                    while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                        // Read to the end of the file
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                if (generation == null) {
+                    return new ArrayList<>(); // Still no log at all
+                }
+            }
+            if (tail == null) {
+                snapshotReplaced = true;
+                return loadLocked();
+            }
+            
+            List<String> records = new ArrayList<>();
+            validLength += splitLines(tail, records);
+            logRecords += records.size();
+            logKey = logFileKey();
+            return records;
+        }
+    }
+
+    // The log file's size and identity, or null if there is none
+    private BasicFileAttributes attributes() throws IOException {
+        try {
+            return Files.readAttributes(logFile, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private Object logFileKey() throws IOException {
+        BasicFileAttributes attributes = attributes();
+        return attributes != null ? attributes.fileKey() : null;
+    }
+
+    // Generation named by the log's first line: LEGACY if it has none, null if empty
+    private static String readGeneration(FileChannel channel) throws IOException {
+        if (channel.size() == 0) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE);
+        channel.read(header, 0);
+        List<String> lines = new ArrayList<>();
+        splitLines(Arrays.copyOf(header.array(), header.position()), lines);
+        if (lines.isEmpty() || !lines.get(0).startsWith(LOG_HEADER)) {
+            return LEGACY;
+        }
+        return lines.get(0).substring(LOG_HEADER.length());
+    }
+
+    // Generation and previous generation named by the snapshot header, if any
+    private String[] snapshotTags() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE);
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Read until the header is full or the file ends
+            }
+        } catch (NoSuchFileException e) {
+            return new String[0];
+        }
+
+        List<String> lines = new ArrayList<>();
+        splitLines(Arrays.copyOf(header.array(), header.position()), lines);
+        if (lines.isEmpty() || !lines.get(0).startsWith(SNAPSHOT_HEADER)) {
+            return new String[0];
+        }
+        return lines.get(0).substring(SNAPSHOT_HEADER.length()).trim().split(" ");
+    }
+
+    // Complete lines of a file, without line endings; returns the length they cover
+    private static int splitLines(byte[] data, List<String> lines) {
+        int start = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] == '\n') {
+                int end = i > start && data[i - 1] == '\r' ? i - 1 : i;
+                if (end > start) {
+                    lines.add(new String(data, start, end - start, StandardCharsets.UTF_8));
+                }
+                start = i + 1;
+            }
+        }
+        return start;
+    }
+
+    private static int completeLength(byte[] data) {
+        int end = data.length;
+        while (end > 0 && data[end - 1] != '\n') {
+            end--;
+        }
+        return end;
+    }
+
+    // Buffer a record until the next sync
+    public void append(String record) {
+        if (record.indexOf('\n') >= 0 || record.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("A record must fit on one line");
+        }
+        pending.append(record).append('\n');
+        pendingRecords++;
+    }
+
+    /*
+     * Write buffered records in one batch and force them to disk. They go
+     * after whatever the log holds; a caller sharing the files calls
+     * catchUp() first, under the same lock(), so it sees what is there.
+     */
+    public void sync() throws IOException {
+        if (pendingRecords == 0) {
+            return;
+        }
+        try (var _ = lock(); FileChannel channel = FileChannel.open(logFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size != validLength) {
+                // Not as last read: append after the last complete line,
+                // dropping any record torn by a crash
+                validLength = size == 0 ? 0 : completeLength(Files.readAllBytes(logFile));
+                if (size > validLength) {
+                    channel.truncate(validLength);
+                }
+            }
+
+            StringBuilder batch = new StringBuilder();
+            if (validLength == 0) {
+                // New log: start a generation so stale snapshots are never applied
+                generation = newGeneration();
+                snapshotCurrent = false;
+                batch.append(LOG_HEADER).append(generation).append('\n');
+            }
+            batch.append(pending);
+
+            ByteBuffer bytes = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+            channel.position(validLength);
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+            validLength = channel.position();
+        }
+        if (logKey == null) {
+            logKey = logFileKey();
+        }
+
+        logRecords += pendingRecords;
+        pending.setLength(0);
+        pendingRecords = 0;
+    }
+
+    /*
+     * Replace the snapshot and start an empty log. The writer fills in the
+     * snapshot after its header and must cover everything logged so far,
+     * including records still buffered, which are synced first so a crash
+     * cannot lose them.
+     */
+    public void compact(SnapshotWriter writer) throws IOException {
+        try (var _ = lock()) {
+            compactLocked(writer);
+        }
+    }
+
+    private void compactLocked(SnapshotWriter writer) throws IOException {
+        if (validLength < 0) {
+            load();
+        }
+        sync();
+
+        String next = newGeneration();
+        String tags = SNAPSHOT_HEADER + next + ' ' + (generation != null ? generation : LEGACY);
+        byte[] header = String.format("%-" + (SNAPSHOT_HEADER_SIZE - 1) + "s\n", tags)
+            .getBytes(StandardCharsets.UTF_8);
+        replace(snapshotFile, channel -> {
+            write(channel, header);
+            writer.write(channel);
+        });
+        startLog(next);
+        snapshotCurrent = true;
+    }
+
+    // Replace the log with an empty log of the given generation
+    private void startLog(String next) throws IOException {
+        byte[] header = (LOG_HEADER + next + "\n").getBytes(StandardCharsets.UTF_8);
+        replace(logFile, channel -> write(channel, header));
+        logKey = logFileKey();
+        generation = next;
+        validLength = header.length;
+        logRecords = 0;
+    }
+
+    // Write a file in full beside the target, then rename it into place
+    private static void replace(Path target, SnapshotWriter content) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            content.write(channel);
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void write(FileChannel channel, byte[] data) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(data);
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private static String newGeneration() {
+        return Long.toHexString(ThreadLocalRandom.current().nextLong());
+    }
+
+    // Whether the snapshot holds everything logged before the current log
+    public boolean isSnapshotCurrent() {
+        return snapshotCurrent;
+    }
+
+    // Whether the last catchUp found the files replaced and read them again
+    public boolean isSnapshotReplaced() {
+        return snapshotReplaced;
+    }
+
+    // Whether the log was read from a file without a generation header
+    public boolean isLegacy() {
+        return LEGACY.equals(generation);
+    }
+
+    // Records in the log since the last compaction, including buffered ones
+    public int getLogRecords() {
+        return logRecords + pendingRecords;
+    }
+
+    public int getPendingRecords() {
+        return pendingRecords;
+    }
+
+    public Path getLogFile() {
+        return logFile;
+    }
+
+    public Path getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    public Path getLockFile() {
+        return lockFile;
+    }
+}
\ No newline at end of file
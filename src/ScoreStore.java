@@ -0,0 +1,253 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary snapshot of every named high score, memory-mapped for reading.
+ * Records are fixed-width and sorted best first, so the top of the table
+ * is the first few records and a record is found by position alone.
+ * Player names are stored once each in a dictionary that records refer to
+ * by number. A histogram of results per average score sits ahead of the
+ * records, so ranks are known without reading them. Opening a store reads
+ * only its header; pages are touched as records and names are asked for.
+ *
+ * Layout, from the given offset: magic, version, record count, name count,
+ * histogram length, name bytes length (32-byte header); one long per
+ * average score; records of name id, average, total and rounds (16 bytes
+ * each); name count + 1 offsets into the name bytes; the UTF-8 names.
+ * The histogram may count results that have no record, such as those
+ * migrated from a table that only kept counts. Other data may follow the
+ * store in the same file, starting getByteSize() bytes after it.
+ */
+public class ScoreStore {
+    private static final int MAGIC = 0x48535343; // "HSSC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 16;
+
+    private final ByteBuffer buffer;
+    private final int recordCount;
+    private final int nameCount;
+    private final int range;
+    private final int recordsOffset;
+    private final int nameOffsetsOffset;
+    private final int nameBytesOffset;
+    private final long byteSize;
+
+    private ScoreStore(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a score store");
+        }
+        recordCount = buffer.getInt(8);
+        nameCount = buffer.getInt(12);
+        range = buffer.getInt(16);
+        int nameBytes = buffer.getInt(20);
+
+        long expected = HEADER_SIZE + 8L * range + (long) RECORD_SIZE * recordCount
+            + 4L * (nameCount + 1) + nameBytes;
+        if (recordCount < 0 || nameCount < 0 || range < 0 || nameBytes < 0 || expected > buffer.capacity()) {
+            throw new IOException("Score store is truncated");
+        }
+        byteSize = expected;
+        recordsOffset = HEADER_SIZE + 8 * range;
+        nameOffsetsOffset = recordsOffset + RECORD_SIZE * recordCount;
+        nameBytesOffset = nameOffsetsOffset + 4 * (nameCount + 1);
+    }
+
+    // Map the store that starts at offset in file, checking its header
+    public static ScoreStore open(Path file, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < offset + HEADER_SIZE || channel.size() - offset > Integer.MAX_VALUE) {
+                throw new IOException("Not a score store: " + file);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, offset, channel.size() - offset);
+            return new ScoreStore(mapped.order(ByteOrder.BIG_ENDIAN));
+        }
+    }
+
+    // Length of the store in bytes, from its header to the end of its names
+    public long getByteSize() {
+        return byteSize;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public int getNameCount() {
+        return nameCount;
+    }
+
+    // Length of the histogram; every average counted is below it
+    public int getRange() {
+        return range;
+    }
+
+    // Results counted with this average, named or not
+    public long countAt(int averageScore) {
+        return averageScore >= 0 && averageScore < range ? buffer.getLong(HEADER_SIZE + 8 * averageScore) : 0;
+    }
+
+    // Fields of the record in the given place, counting from 0 for the best
+    public int nameId(int record) {
+        return buffer.getInt(recordOffset(record));
+    }
+
+    public int averageScore(int record) {
+        return buffer.getInt(recordOffset(record) + 4);
+    }
+
+    public int totalScore(int record) {
+        return buffer.getInt(recordOffset(record) + 8);
+    }
+
+    public int rounds(int record) {
+        return buffer.getInt(recordOffset(record) + 12);
+    }
+
+    private int recordOffset(int record) {
+        if (record < 0 || record >= recordCount) {
+            throw new IndexOutOfBoundsException("Record " + record + " of " + recordCount);
+        }
+        return recordsOffset + RECORD_SIZE * record;
+    }
+
+    public String name(int nameId) {
+        if (nameId < 0 || nameId >= nameCount) {
+            throw new IndexOutOfBoundsException("Name " + nameId + " of " + nameCount);
+        }
+        int start = buffer.getInt(nameOffsetsOffset + 4 * nameId);
+        int end = buffer.getInt(nameOffsetsOffset + 4 * (nameId + 1));
+        byte[] bytes = new byte[end - start];
+        buffer.get(nameBytesOffset + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Streams a store into a channel.
+     * Records must be added best first, and exactly as many as announced.
+     * Names get numbers in the order first seen, so copying an old store's
+     * dictionary first keeps its name ids valid.
+     */
+    public static class Writer {
+        private static final int BUFFER_SIZE = 1 << 16;
+
+        private final FileChannel channel;
+        private final long start;
+        private final int recordCount;
+        private final int range;
+        private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final Map<String, Integer> nameIds = new HashMap<>();
+        private final List<byte[]> names = new ArrayList<>();
+        private int written;
+        private int lastAverage = Integer.MAX_VALUE;
+
+        public Writer(FileChannel channel, long[] histogram, int recordCount) throws IOException {
+            this.channel = channel;
+            this.start = channel.position();
+            this.recordCount = recordCount;
+            this.range = histogram.length;
+
+            // The header is rewritten once the dictionary is known
+            out.position(HEADER_SIZE);
+            for (long count : histogram) {
+                putLong(count);
+            }
+        }
+
+        // Number of a name in the dictionary, adding it if new
+        public int nameId(String name) {
+            Integer id = nameIds.get(name);
+            if (id == null) {
+                id = names.size();
+                nameIds.put(name, id);
+                names.add(name.getBytes(StandardCharsets.UTF_8));
+            }
+            return id;
+        }
+
+        public void add(int nameId, int averageScore, int totalScore, int rounds) throws IOException {
+            if (written == recordCount) {
+                throw new IllegalStateException("More records than the " + recordCount + " announced");
+            }
+            if (averageScore > lastAverage) {
+                throw new IllegalArgumentException("Records must be added best first");
+            }
+            lastAverage = averageScore;
+            room(RECORD_SIZE);
+            out.putInt(nameId).putInt(averageScore).putInt(totalScore).putInt(rounds);
+            written++;
+        }
+
+        public void add(String name, int averageScore, int totalScore, int rounds) throws IOException {
+            add(nameId(name), averageScore, totalScore, rounds);
+        }
+
+        // Write the dictionary and header; the channel is left at the end of the store
+        public void finish() throws IOException {
+            if (written != recordCount) {
+                throw new IllegalStateException(written + " records added, " + recordCount + " announced");
+            }
+            int offset = 0;
+            for (byte[] name : names) {
+                putInt(offset);
+                offset += name.length;
+            }
+            putInt(offset);
+            for (byte[] name : names) {
+                for (int i = 0; i < name.length; ) {
+                    room(1);
+                    int length = Math.min(out.remaining(), name.length - i);
+                    out.put(name, i, length);
+                    i += length;
+                }
+            }
+            flush();
+            long end = channel.position();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(recordCount).putInt(names.size())
+                .putInt(range).putInt(offset);
+            header.flip();
+            channel.position(start);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.position(end);
+        }
+
+        private void putInt(int value) throws IOException {
+            room(4);
+            out.putInt(value);
+        }
+
+        private void putLong(long value) throws IOException {
+            room(8);
+            out.putLong(value);
+        }
+
+        private void room(int bytes) throws IOException {
+            if (out.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            out.clear();
+        }
+    }
+}
\ No newline at end of file
@@ -1,90 +1,646 @@
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
-public class ScoreTable {
+/**
+ * High score table, safe to share between games on many threads.
+ * Results go straight into a concurrent Leaderboard, so posting takes no
+ * table-wide lock and display() shows one consistent top list. Disk work
+ * is serialized on the log: whichever thread gets there writes every
+ * result queued so far in one batch, so threads that post at the same time
+ * share a single forced write.
+ *
+ * A write-behind table leaves that work to a ScoreFlusher thread, so
+ * posting never waits for the disk. Queries still see queued results at
+ * once; call flush() to wait until they are saved and close() when done.
+ *
+ * Other processes may share the files. Each save holds the log's file
+ * lock and first merges in whatever other processes saved since this
+ * table last looked, so no process overwrites another's results; call
+ * refresh() to merge without saving.
+ */
+public class ScoreTable implements AutoCloseable {
     private static final String FILENAME = "highscores.txt";
-    private ArrayList<ScoreEntry> scores;
+    private static final String SNAPSHOT_FILENAME = "highscores.snapshot";
+    private static final String LOCK_FILENAME = "highscores.lock";
+    public static final String DISPLAY_PROPERTY = "highsuit.scores.display";
+    public static final int DEFAULT_DISPLAY_SIZE = 5;
+    
+    // Logged results before the log is folded into the snapshot: at least
+    // the threshold, and at least 1/COMPACT_RATIO of the snapshot's records
+    private static final int COMPACT_THRESHOLD = 256;
+    private static final int COMPACT_RATIO = 8;
+    
+    private final Leaderboard<ScoreEntry> scores;
+    private final ConcurrentLinkedQueue<ScoreEntry> unsaved;
+    private final int displaySize;
+    private final ScoreFlusher flusher; // Null when results are saved as they are posted
+    private final Renderer messages; // Where errors reading or closing the files are shown
+    private volatile boolean loaded;
+    
+    // Guarded by log
+    private final ScoreLog log;
+    private ScoreStore store;
+    private ArrayList<ScoreEntry> logged;
+    private long[] savedCounts;
+    private PlayerIndex players;
+    private IOException loadFailure; // Stored scores could not be read, so none are written
     
     public ScoreTable() {
-        scores = new ArrayList<>();
-        loadScores();
+        this(false);
+    }
+    
+    public ScoreTable(boolean writeBehind) {
+        this(writeBehind, Renderer.console());
+    }
+    
+    public ScoreTable(boolean writeBehind, Renderer messages) {
+        this(Integer.getInteger(DISPLAY_PROPERTY, DEFAULT_DISPLAY_SIZE), writeBehind, messages);
+    }
+    
+    public ScoreTable(int displaySize) {
+        this(displaySize, false);
+    }
+    
+    public ScoreTable(int displaySize, boolean writeBehind) {
+        this(displaySize, writeBehind, Renderer.console());
+    }
+    
+    /*
+     * Every result is counted for ranking; the best displaySize are listed
+     * by name. With writeBehind, results are saved by a background thread.
+     * Errors reading or closing the files are printed to messages, on the
+     * thread that meets them, so a game passes the renderer it draws with.
+     */
+    public ScoreTable(int displaySize, boolean writeBehind, Renderer messages) {
+        this.displaySize = displaySize;
+        this.messages = messages;
+        scores = new Leaderboard<>(displaySize);
+        log = new ScoreLog(Paths.get(FILENAME), Paths.get(SNAPSHOT_FILENAME), Paths.get(LOCK_FILENAME));
+        unsaved = new ConcurrentLinkedQueue<>();
+        logged = new ArrayList<>(); // Results since the snapshot, oldest first
+        savedCounts = new long[0];  // Results on disk per average, named or not
+        flusher = writeBehind ? ScoreFlusher.start(this::saveScores, messages) : null;
+        // Scores are read on first use rather than at startup
     }
     
     public void addScore(String playerName, int totalScore, int rounds) {
-        int averageScore = totalScore / rounds;
-        scores.add(new ScoreEntry(playerName, averageScore, totalScore, rounds));
-        Collections.sort(scores);
-        
-        // Keep only top 5
-        if (scores.size() > 5) {
-            scores = new ArrayList<>(scores.subList(0, 5));
+        ensureLoaded();
+        record(playerName, totalScore, rounds, null);
+        submit(1);
+    }
+    
+    // Add the scores of one game, written to disk as a single batch
+    public void addScores(String[] playerNames, int[] totalScores, int rounds) {
+        ensureLoaded();
+        for (int i = 0; i < playerNames.length; i++) {
+            record(playerNames[i], totalScores[i], rounds, null);
+        }
+        submit(playerNames.length);
+    }
+    
+    // Add one game from each player's round scores, kept for their statistics
+    public void addScores(String[] playerNames, int[][] roundScores) {
+        ensureLoaded();
+        for (int i = 0; i < playerNames.length; i++) {
+            int total = 0;
+            for (int score : roundScores[i]) {
+                total += score;
+            }
+            record(playerNames[i], total, roundScores[i].length, roundScores[i].clone());
         }
+        submit(playerNames.length);
+    }
+    
+    /*
+     * Bus consumer that adds each game when its GAME_OVER event arrives,
+     * from the round scores in its SCORED events. One game is collected
+     * at a time, so give each bus its own handler.
+     */
+    public GameEventHandler eventHandler() {
+        return new GameCollector();
+    }
+    
+    private class GameCollector implements GameEventHandler {
+        private final ArrayList<String> names = new ArrayList<>();
+        private int[][] roundScores = new int[2][3];
         
-        saveScores();
+        @Override
+        public void onEvent(GameEvent event, long sequence, boolean endOfBatch) {
+            if (event.getType() == GameEvent.SCORED) {
+                int seat = event.getSeat();
+                int round = event.getRound();
+                while (names.size() <= seat) {
+                    names.add(null);
+                }
+                names.set(seat, event.getPlayerName());
+                if (seat >= roundScores.length) {
+                    roundScores = Arrays.copyOf(roundScores, Math.max(seat + 1, roundScores.length * 2));
+                }
+                if (roundScores[seat] == null || round >= roundScores[seat].length) {
+                    roundScores[seat] = roundScores[seat] == null ? new int[round + 1]
+                        : Arrays.copyOf(roundScores[seat], Math.max(round + 1, roundScores[seat].length * 2));
+                }
+                roundScores[seat][round] = event.getScore();
+            } else if (event.getType() == GameEvent.GAME_OVER) {
+                int players = event.getSeat();
+                int rounds = event.getRound();
+                if (players > 0 && rounds > 0 && names.size() >= players) {
+                    String[] gameNames = new String[players];
+                    int[][] gameScores = new int[players][];
+                    for (int i = 0; i < players; i++) {
+                        gameNames[i] = names.get(i);
+                        gameScores[i] = Arrays.copyOf(roundScores[i], rounds);
+                    }
+                    addScores(gameNames, gameScores);
+                }
+                names.clear();
+            }
+        }
+    }
+    
+    // The entry is complete before it is queued, as a flush may take it at once
+    private void record(String playerName, int totalScore, int rounds, int[] roundScores) {
+        int averageScore = totalScore / rounds;
+        ScoreEntry entry = new ScoreEntry(playerName, averageScore, totalScore, rounds, roundScores);
+        scores.add(averageScore, entry);
+        unsaved.add(entry);
+    }
+    
+    // Save newly queued results now, or hand them to the flusher
+    private void submit(int results) {
+        if (flusher != null) {
+            flusher.queued(results);
+        } else {
+            saveScores();
+        }
+    }
+    
+    /*
+     * Wait until every result posted so far is on disk. A failed save is
+     * thrown: as UncheckedIOException when results are saved as they are
+     * posted, or as IllegalStateException from a write-behind flusher.
+     */
+    public void flush() {
+        if (flusher != null) {
+            flusher.flush();
+        } else {
+            saveScores();
+        }
+    }
+    
+    // Save any queued results, stop the flusher thread and release the lock file;
+    // a failed save is thrown as from flush()
+    @Override
+    public void close() {
+        try {
+            if (flusher != null) {
+                flusher.close();
+            }
+        } finally {
+            synchronized (log) {
+                try {
+                    log.close();
+                } catch (IOException e) {
+                    messages.println("Error closing high scores.");
+                }
+            }
+        }
+    }
+    
+    // The write-behind flusher and its metrics, or null if there is none
+    public ScoreFlusher getFlusher() {
+        return flusher;
+    }
+    
+    /*
+     * Statistics over every game of one player, or null if they have none.
+     * The index holds saved games only; ones still queued are added to the
+     * copy returned, so nothing waits for a flush.
+     */
+    public PlayerStats playerStats(String playerName) {
+        ensureLoaded();
+        synchronized (log) {
+            try (var _ = log.lock()) {
+                merge(log.catchUp());
+                ensureIndexed(); // Reads the snapshot, so only while it matches store
+            } catch (IOException e) {
+                messages.println("Error reading high scores.");
+                return null;
+            }
+            PlayerStats stats = players.get(playerName);
+            for (ScoreEntry entry : unsaved) {
+                if (entry.playerName.equals(playerName)) {
+                    if (stats == null) {
+                        stats = new PlayerStats(playerName);
+                    }
+                    entry.recordIn(stats);
+                }
+            }
+            return stats;
+        }
+    }
+    
+    // Merge in results other processes have saved since this table last looked
+    public void refresh() {
+        ensureLoaded();
+        synchronized (log) {
+            try (var _ = log.lock()) {
+                merge(log.catchUp());
+            } catch (IOException e) {
+                messages.println("Error reading high scores.");
+            }
+        }
+    }
+    
+    // Place an average score takes among every stored result, from 1
+    public long rank(int averageScore) {
+        ensureLoaded();
+        return scores.rank(averageScore);
+    }
+    
+    // Percentage of stored results with an average at or below this one
+    public double percentile(int averageScore) {
+        ensureLoaded();
+        return scores.percentile(averageScore);
+    }
+    
+    // Number of results stored, not just those displayed
+    public long size() {
+        ensureLoaded();
+        return scores.size();
+    }
+    
+    public int getDisplaySize() {
+        return displaySize;
     }
     
     public void display() {
-        System.out.println("\n" + "=".repeat(50));
-        System.out.println("HIGH SCORE TABLE");
-        System.out.println("=".repeat(50));
+        display(Renderer.console());
+    }
+    
+    public void display(Renderer out) {
+        ensureLoaded();
+        out.println();
+        out.printRule('=', 50);
+        out.println("HIGH SCORE TABLE");
+        out.printRule('=', 50);
         
         if (scores.isEmpty()) {
-            System.out.println("No high scores yet!");
+            out.println("No high scores yet!");
         } else {
-            System.out.printf("%-5s %-20s %-15s %-10s%n", "Rank", "Player", "Avg Score", "Total");
-            System.out.println("-".repeat(50));
+            out.printf("%-5s %-20s %-15s %-10s%n", "Rank", "Player", "Avg Score", "Total");
+            out.printRule('-', 50);
             
-            for (int i = 0; i < scores.size(); i++) {
-                ScoreEntry entry = scores.get(i);
-                System.out.printf("%-5d %-20s %-15d %-10d%n", 
+            List<ScoreEntry> top = scores.top(displaySize);
+            for (int i = 0; i < top.size(); i++) {
+                ScoreEntry entry = top.get(i);
+                out.printf("%-5d %-20s %-15d %-10d%n", 
                     (i + 1), entry.playerName, entry.averageScore, entry.totalScore);
             }
         }
-        System.out.println("=".repeat(50));
+        out.printRule('=', 50);
+        out.flush();
+    }
+    
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (log) {
+                if (!loaded) {
+                    loadScores();
+                    loaded = true;
+                }
+            }
+        }
     }
     
+    /*
+     * Map the snapshot and replay the log. Only the snapshot's header,
+     * histogram and top records are read, so the pages touched do not
+     * grow with the number of results stored. A legacy highscores.txt, or
+     * a text snapshot from before the binary store, is migrated once. If
+     * the files cannot be read, what could be is shown and the table is
+     * left read-only, so a save never replaces results it did not see.
+     */
     private void loadScores() {
-        try (BufferedReader reader = new BufferedReader(new FileReader(FILENAME))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 4) {
-                    scores.add(new ScoreEntry(
+        try (var _ = log.lock()) {
+            List<String> records = log.load();
+            boolean migrate = log.isLegacy() && !records.isEmpty();
+            IOException unreadable = null; // A snapshot neither binary nor text
+            if (log.isSnapshotCurrent()) {
+                try {
+                    store = ScoreStore.open(log.getSnapshotFile(), ScoreLog.SNAPSHOT_HEADER_SIZE);
+                    loadStore();
+                } catch (IOException e) {
+                    try {
+                        List<String> lines = Files.readAllLines(log.getSnapshotFile());
+                        replay(lines.subList(1, lines.size()));
+                        migrate = true;
+                    } catch (IOException textError) {
+                        e.addSuppressed(textError);
+                        unreadable = e;
+                    }
+                }
+            }
+            replay(records);
+            
+            if (unreadable != null) {
+                throw unreadable;
+            } else if (migrate) {
+                compact();
+            }
+        } catch (NoSuchFileException e) {
+            // File doesn't exist yet, that's okay
+        } catch (IOException e) {
+            loadFailure = e;
+            messages.println("Error reading high scores; new results will not be saved.");
+        }
+    }
+    
+    // Count every result in the snapshot and list the best of them
+    private void loadStore() {
+        long[] listed = new long[store.getRange()];
+        int top = Math.min(displaySize, store.getRecordCount());
+        for (int i = 0; i < top; i++) {
+            ScoreEntry entry = new ScoreEntry(store.name(store.nameId(i)),
+                store.averageScore(i), store.totalScore(i), store.rounds(i));
+            scores.add(entry.averageScore, entry);
+            listed[entry.averageScore]++;
+        }
+        for (int score = 0; score < listed.length; score++) {
+            long unlisted = store.countAt(score) - listed[score];
+            if (unlisted > 0) {
+                scores.addCount(score, unlisted);
+            }
+            countSaved(score, store.countAt(score));
+        }
+    }
+    
+    /*
+     * Replay text records: results (name,avg,total,rounds) or, in an older
+     * text snapshot, counts of unlisted results with one average (avg,count).
+     */
+    private void replay(List<String> lines) {
+        for (String line : lines) {
+            String[] parts = line.split(",");
+            try {
+                if (parts.length == 4 || parts.length == 5) {
+                    int averageScore = Integer.parseInt(parts[1]);
+                    ScoreEntry entry = new ScoreEntry(
                         parts[0], 
-                        Integer.parseInt(parts[1]),
+                        averageScore,
                         Integer.parseInt(parts[2]),
-                        Integer.parseInt(parts[3])
-                    ));
+                        Integer.parseInt(parts[3]),
+                        parts.length == 5
+                            ? Arrays.stream(parts[4].split(" ")).mapToInt(Integer::parseInt).toArray()
+                            : null
+                    );
+                    scores.add(averageScore, entry);
+                    logged.add(entry);
+                    countSaved(averageScore, 1);
+                    if (players != null) {
+                        entry.recordIn(players);
+                    }
+                } else if (parts.length == 2) {
+                    int averageScore = Integer.parseInt(parts[0]);
+                    long count = Long.parseLong(parts[1]);
+                    scores.addCount(averageScore, count);
+                    countSaved(averageScore, count);
                 }
+            } catch (IllegalArgumentException e) {
+                // Skip a damaged record
+            }
+        }
+    }
+    
+    /*
+     * Read the player index saved with the snapshot, then apply the results
+     * logged since. A snapshot from before the index existed is scanned
+     * once to rebuild it.
+     */
+    private void ensureIndexed() {
+        if (players != null) {
+            return;
+        }
+        if (store != null) {
+            try {
+                players = PlayerIndex.read(log.getSnapshotFile(),
+                    ScoreLog.SNAPSHOT_HEADER_SIZE + store.getByteSize());
+            } catch (IOException e) {
+                players = new PlayerIndex();
+                for (int i = 0; i < store.getRecordCount(); i++) {
+                    players.recordGame(store.name(store.nameId(i)), store.totalScore(i), store.rounds(i));
+                }
+            }
+        } else {
+            players = new PlayerIndex();
+        }
+        for (ScoreEntry entry : logged) {
+            entry.recordIn(players);
+        }
+    }
+    
+    /*
+     * Fold in what other processes saved, as returned by catchUp: records
+     * they appended, after their new snapshot if they compacted. That
+     * snapshot holds everything this table had saved, so only the
+     * difference from savedCounts is counted, and its best records are
+     * offered for listing unless an equal entry is listed already.
+     */
+    private void merge(List<String> records) throws IOException {
+        if (log.isSnapshotReplaced()) {
+            ScoreStore next = log.isSnapshotCurrent()
+                ? ScoreStore.open(log.getSnapshotFile(), ScoreLog.SNAPSHOT_HEADER_SIZE) : null;
+            long[] before = savedCounts;
+            savedCounts = new long[0];
+            logged.clear();
+            players = null; // Read again from the new snapshot when needed
+            store = next;
+            if (next != null) {
+                mergeStore(next, before);
             }
-            Collections.sort(scores);
-        } catch (IOException e) {
-            // File doesn't exist yet, that's okay
         }
+        replay(records);
     }
     
+    private void mergeStore(ScoreStore next, long[] before) {
+        for (int score = 0; score < next.getRange(); score++) {
+            long count = next.countAt(score);
+            long unseen = count - (score < before.length ? before[score] : 0);
+            if (unseen > 0) {
+                scores.addCount(score, unseen);
+            }
+            countSaved(score, count);
+        }
+        
+        HashMap<String, Integer> listed = new HashMap<>();
+        for (ScoreEntry entry : scores.top(displaySize)) {
+            listed.merge(entry.key(), 1, Integer::sum);
+        }
+        int top = Math.min(displaySize, next.getRecordCount());
+        for (int i = 0; i < top; i++) {
+            ScoreEntry entry = new ScoreEntry(next.name(next.nameId(i)),
+                next.averageScore(i), next.totalScore(i), next.rounds(i));
+            if (listed.merge(entry.key(), -1, Integer::sum) < 0) {
+                scores.list(entry.averageScore, entry);
+            }
+        }
+    }
+    
+    private void countSaved(int averageScore, long count) {
+        if (averageScore >= savedCounts.length) {
+            savedCounts = Arrays.copyOf(savedCounts, averageScore + 1);
+        }
+        savedCounts[averageScore] += count;
+    }
+    
+    /*
+     * Merge in what other processes saved, then append every queued
+     * result; once the log grows long, fold it into the snapshot. If
+     * another thread already wrote this thread's results there is nothing
+     * left to do.
+     */
     private void saveScores() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(FILENAME))) {
-            for (ScoreEntry entry : scores) {
-                writer.println(entry.playerName + "," + entry.averageScore + 
-                             "," + entry.totalScore + "," + entry.rounds);
+        synchronized (log) {
+            if (unsaved.isEmpty()) {
+                return;
+            }
+            if (loadFailure != null) {
+                unsaved.clear();
+                throw new UncheckedIOException("High scores could not be read, so are not saved", loadFailure);
+            }
+            try (var _ = log.lock()) {
+                merge(log.catchUp());
+                appendUnsaved();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Error saving high scores", e);
             }
-        } catch (IOException e) {
-            System.out.println("Error saving high scores.");
         }
     }
     
+    // Append the queued results, holding the lock with every other writer merged in
+    private void appendUnsaved() throws IOException {
+        boolean appended = false;
+        for (ScoreEntry entry; (entry = unsaved.poll()) != null; ) {
+            log.append(entry.toRecord());
+            logged.add(entry);
+            countSaved(entry.averageScore, 1);
+            if (players != null) {
+                entry.recordIn(players);
+            }
+            appended = true;
+        }
+        if (!appended) {
+            return;
+        }
+        
+        int stored = store != null ? store.getRecordCount() : 0;
+        if (log.getLogRecords() >= Math.max(COMPACT_THRESHOLD, stored / COMPACT_RATIO)) {
+            compact();
+        } else {
+            log.sync();
+        }
+    }
+    
+    /*
+     * Write a new snapshot holding the old one's records merged with the
+     * logged results, best first. On equal averages the older result stays
+     * ahead. Names already in the old dictionary keep their numbers, so
+     * its records are copied without decoding their names. The histogram
+     * counts only results on disk, not ones still queued by other threads.
+     * The player index follows the records.
+     */
+    private void compact() throws IOException {
+        ensureIndexed();
+        PlayerIndex index = players;
+        ArrayList<ScoreEntry> fresh = new ArrayList<>(logged);
+        fresh.sort(null); // Stable, so equal averages stay in the order added
+        long[] histogram = savedCounts.clone();
+        ScoreStore old = store;
+        int oldRecords = old != null ? old.getRecordCount() : 0;
+        
+        log.compact(channel -> {
+            ScoreStore.Writer writer = new ScoreStore.Writer(channel, histogram, oldRecords + fresh.size());
+            for (int id = 0; old != null && id < old.getNameCount(); id++) {
+                writer.nameId(old.name(id));
+            }
+            int next = 0;
+            for (int i = 0; i < oldRecords; i++) {
+                int averageScore = old.averageScore(i);
+                for (; next < fresh.size() && fresh.get(next).averageScore > averageScore; next++) {
+                    fresh.get(next).writeTo(writer);
+                }
+                writer.add(old.nameId(i), averageScore, old.totalScore(i), old.rounds(i));
+            }
+            for (; next < fresh.size(); next++) {
+                fresh.get(next).writeTo(writer);
+            }
+            writer.finish();
+            index.writeTo(channel);
+        });
+        
+        store = ScoreStore.open(log.getSnapshotFile(), ScoreLog.SNAPSHOT_HEADER_SIZE);
+        logged.clear();
+    }
+    
     private class ScoreEntry implements Comparable<ScoreEntry> {
-        String playerName;
-        int averageScore;
-        int totalScore;
-        int rounds;
+        final String playerName;
+        final int averageScore;
+        final int totalScore;
+        final int rounds;
+        final int[] roundScores; // Null when only the total is known
         
         ScoreEntry(String playerName, int averageScore, int totalScore, int rounds) {
+            this(playerName, averageScore, totalScore, rounds, null);
+        }
+        
+        ScoreEntry(String playerName, int averageScore, int totalScore, int rounds, int[] roundScores) {
             this.playerName = playerName;
             this.averageScore = averageScore;
             this.totalScore = totalScore;
             this.rounds = rounds;
+            this.roundScores = roundScores;
+        }
+        
+        // Round scores, when known, follow as a fifth field separated by spaces
+        String toRecord() {
+            String record = playerName + "," + averageScore + "," + totalScore + "," + rounds;
+            if (roundScores != null) {
+                StringJoiner scores = new StringJoiner(" ", ",", "");
+                for (int score : roundScores) {
+                    scores.add(Integer.toString(score));
+                }
+                record += scores;
+            }
+            return record;
+        }
+        
+        // Fields that identify a result, for matching one read back from another process
+        String key() {
+            return playerName + "," + averageScore + "," + totalScore + "," + rounds;
+        }
+        
+        void recordIn(PlayerIndex index) {
+            if (roundScores != null) {
+                index.recordGame(playerName, roundScores);
+            } else {
+                index.recordGame(playerName, totalScore, rounds);
+            }
+        }
+        
+        void recordIn(PlayerStats stats) {
+            if (roundScores != null) {
+                stats.recordGame(roundScores);
+            } else {
+                stats.recordGame(totalScore, rounds);
+            }
+        }
+        
+        void writeTo(ScoreStore.Writer writer) throws IOException {
+            writer.add(playerName, averageScore, totalScore, rounds);
         }
         
         @Override
@@ -0,0 +1,232 @@
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Replay of a game kept as the seed of its deck and each player's choices.
+ * Every hand follows from the deck order, so a player-round needs only one
+ * byte: the swap mask and the bonus suit. Hands and scores are rebuilt on
+ * request by dealing the game again through a Deck seeded the same way
+ * and the same Player code the game used. A three-round game for two
+ * stores 6 bytes of choices against the full card lists of a GameReplay.
+ * Rebuilding also checks a replay: if the scores it gives differ from the
+ * ones the game reported, the replay or the scores were altered.
+ *
+ * The game must deal as HighSuit does: a Deck built with Deck(seed), then
+ * for each round reshuffle(), five cards to every player in seat order,
+ * and each player's swaps in seat order.
+ */
+public class SeedReplay implements ReplayRecorder {
+    private static final int CARDS_PER_HAND = GameReplay.HAND_SIZE;
+    private static final int MAX_PLAYERS = 255;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final long seed;
+    private final String[] names;
+    private byte[] decisions = new byte[INITIAL_CAPACITY];
+    private int size;
+    private int roundCount;
+
+    // Replay of a game dealt from new Deck(seed), players in seat order
+    public SeedReplay(long seed, List<String> playerNames) {
+        if (playerNames.isEmpty() || playerNames.size() > MAX_PLAYERS) {
+            throw new IllegalArgumentException("A replay seats 1 to " + MAX_PLAYERS + " players");
+        }
+        this.seed = seed;
+        this.names = playerNames.toArray(new String[0]);
+    }
+
+    @Override
+    public void startRound() {
+        if (roundCount > 0 && size != roundCount * names.length) {
+            throw new IllegalStateException("Round " + (roundCount - 1) + " is missing players");
+        }
+        roundCount++;
+    }
+
+    // Record a player's choices; the hands and score are rebuilt, not kept
+    @Override
+    public void addPlayerRound(String playerName, int initialHand, int bonusSuit,
+                               int swapMask, int finalHand, int roundScore) {
+        addDecision(playerName, bonusSuit, swapMask);
+    }
+
+    // Record the next player's choices in the current round
+    public void addDecision(String playerName, int bonusSuit, int swapMask) {
+        if (roundCount == 0) {
+            throw new IllegalStateException("Start a round before adding players to it");
+        }
+        int seat = size - (roundCount - 1) * names.length;
+        if (seat == names.length) {
+            throw new IllegalStateException("Every player has already played round " + (roundCount - 1));
+        }
+        if (!names[seat].equals(playerName)) {
+            throw new IllegalArgumentException("Expected " + names[seat] + " to play, not " + playerName);
+        }
+        GameReplay.checkPlayerRound(bonusSuit, swapMask, 0);
+        if (size == decisions.length) {
+            decisions = Arrays.copyOf(decisions, size * 2);
+        }
+        decisions[size++] = (byte) (swapMask | bonusSuit << GameReplay.HAND_SIZE);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public List<String> getPlayerNames() {
+        return List.of(names);
+    }
+
+    public int getRoundCount() {
+        return roundCount;
+    }
+
+    public int getBonusSuit(int round, int player) {
+        return decision(round, player) >>> GameReplay.HAND_SIZE;
+    }
+
+    public int getSwapMask(int round, int player) {
+        return decision(round, player) & (1 << GameReplay.HAND_SIZE) - 1;
+    }
+
+    private int decision(int round, int player) {
+        if (round < 0 || round >= roundCount) {
+            throw new IndexOutOfBoundsException("No round " + round + " of " + roundCount);
+        }
+        if (player < 0 || player >= names.length) {
+            throw new IndexOutOfBoundsException("No player " + player + " of " + names.length);
+        }
+        int index = round * names.length + player;
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Player " + player + " has not played round " + round);
+        }
+        return decisions[index];
+    }
+
+    /*
+     * Deal the game again and record every player-round, with its hands
+     * and score, into a recorder such as a GameReplay or ReplayLog.Writer.
+     * Returns each player's score in each round.
+     */
+    public int[][] replayInto(ReplayRecorder recorder) {
+        Deck deck = new Deck(seed);
+        ArrayList<Player> players = new ArrayList<>(names.length);
+        for (String name : names) {
+            players.add(new Player(name));
+        }
+        int[][] roundScores = new int[names.length][roundCount];
+        ArrayList<Integer> positions = new ArrayList<>(CARDS_PER_HAND);
+
+        for (int round = 0; round < roundCount; round++) {
+            deck.reshuffle();
+            for (Player player : players) {
+                player.clearHand();
+                for (int i = 0; i < CARDS_PER_HAND; i++) {
+                    player.addCard(deck.dealCard());
+                }
+            }
+
+            recorder.startRound();
+            for (int seat = 0; seat < players.size(); seat++) {
+                int index = round * names.length + seat;
+                if (index >= size) {
+                    break; // The game stopped partway through this round
+                }
+                Player player = players.get(seat);
+                int initialHand = GameReplay.packHand(player.getHand());
+                int bonusSuit = decisions[index] >>> GameReplay.HAND_SIZE;
+                int swapMask = decisions[index] & (1 << GameReplay.HAND_SIZE) - 1;
+
+                positions.clear();
+                for (int pos = 0; pos < CARDS_PER_HAND; pos++) {
+                    if ((swapMask & 1 << pos) != 0) {
+                        positions.add(pos);
+                    }
+                }
+                if (!positions.isEmpty()) {
+                    player.swapCards(positions, deck);
+                }
+
+                int roundScore = player.calculateRoundScore(bonusSuit);
+                roundScores[seat][round] = roundScore;
+                recorder.addPlayerRound(names[seat], initialHand, bonusSuit, swapMask,
+                    GameReplay.packHand(player.getHand()), roundScore);
+            }
+        }
+        return roundScores;
+    }
+
+    // The full replay, rebuilt by dealing the game again
+    public GameReplay toGameReplay() {
+        GameReplay replay = new GameReplay();
+        replayInto(replay);
+        return replay;
+    }
+
+    // True if dealing the game again gives exactly these round scores
+    public boolean verify(int[][] roundScores) {
+        int[][] rebuilt = replayInto(new GameReplay());
+        return Arrays.deepEquals(rebuilt, roundScores);
+    }
+
+    /*
+     * Compact encoding: seed, player count, each name as a length and
+     * UTF-8 bytes, the number of player-rounds, then one byte for each.
+     * The round count follows from the players and player-rounds, so a
+     * round started with no one yet played is not kept.
+     */
+    public byte[] toBytes() {
+        byte[][] encoded = new byte[names.length][];
+        int length = Long.BYTES + 1 + Integer.BYTES + size;
+        for (int i = 0; i < names.length; i++) {
+            encoded[i] = names[i].getBytes(StandardCharsets.UTF_8);
+            if (encoded[i].length > 0xFFFF) {
+                throw new IllegalStateException("Player name is too long");
+            }
+            length += Short.BYTES + encoded[i].length;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(length);
+        out.putLong(seed).put((byte) names.length);
+        for (byte[] name : encoded) {
+            out.putShort((short) name.length).put(name);
+        }
+        out.putInt(size).put(decisions, 0, size);
+        return out.array();
+    }
+
+    public static SeedReplay fromBytes(byte[] bytes) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            long seed = in.getLong();
+            int playerCount = in.get() & 0xFF;
+            List<String> names = new ArrayList<>(playerCount);
+            for (int i = 0; i < playerCount; i++) {
+                byte[] name = new byte[in.getShort() & 0xFFFF];
+                in.get(name);
+                names.add(new String(name, StandardCharsets.UTF_8));
+            }
+            SeedReplay replay = new SeedReplay(seed, names);
+            int size = in.getInt();
+            if (size < 0 || size != in.remaining()) {
+                throw new IllegalArgumentException("Replay should hold " + size + " choices, not "
+                    + in.remaining());
+            }
+            replay.decisions = new byte[Math.max(size, INITIAL_CAPACITY)];
+            in.get(replay.decisions, 0, size);
+            for (int i = 0; i < size; i++) {
+                GameReplay.checkPlayerRound(replay.decisions[i] >>> GameReplay.HAND_SIZE,
+                    replay.decisions[i] & (1 << GameReplay.HAND_SIZE) - 1, 0);
+            }
+            replay.size = size;
+            replay.roundCount = (size + playerCount - 1) / playerCount;
+            return replay;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Replay is truncated", e);
+        }
+    }
+}
\ No newline at end of file
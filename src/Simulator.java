@@ -0,0 +1,263 @@
+import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.stream.LongStream;
+
+/**
+ * Headless HighSuit engine.
+ * Plays complete games with computer players only and no console I/O,
+ * following the same deal, bonus suit, swap and score steps as
+ * HighSuit.playRound. Batches are split into fixed-size chunks and run
+ * on all cores with a parallel stream.
+ *
+ * Every game shuffles from its own random stream derived from the batch's
+ * master seed and the game number, so a batch run with the same seed gives
+ * identical results at any thread count.
+ */
+public class Simulator {
+    private static final int CARDS_PER_HAND = 5;
+    private static final int CHUNK_SIZE = 256;
+
+    private final int numPlayers;
+    private final int numRounds;
+
+    public Simulator(int numPlayers, int numRounds) {
+        // Same limits as HighSuit.setupGame
+        if (numPlayers < 1 || numPlayers > 2) {
+            throw new IllegalArgumentException("Number of players must be between 1 and 2");
+        }
+        if (numRounds < 1 || numRounds > 3) {
+            throw new IllegalArgumentException("Number of rounds must be between 1 and 3");
+        }
+        this.numPlayers = numPlayers;
+        this.numRounds = numRounds;
+    }
+
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : ThreadLocalRandom.current().nextLong();
+
+        Simulator simulator = new Simulator(players, rounds);
+        Result result = simulator.run(games, seed);
+        result.print();
+
+        EvaluationCache cache = EvaluationCache.shared();
+        if (cache != null) {
+            System.out.printf("Evaluation cache: %d hits, %d misses, %d evictions (%.1f%% hit rate)%n",
+                cache.getHits(), cache.getMisses(), cache.getEvictions(), 100.0 * cache.getHitRate());
+        }
+    }
+
+    public int getNumPlayers() {
+        return numPlayers;
+    }
+
+    public int getNumRounds() {
+        return numRounds;
+    }
+
+    // Create the players for one simulated table
+    public ArrayList<Player> createPlayers() {
+        ArrayList<Player> players = new ArrayList<>();
+        for (int i = 0; i < numPlayers; i++) {
+            players.add(new Player("Computer"));
+        }
+        return players;
+    }
+
+    // Play a full game on the given table; totals are left on the players
+    public void playGame(ArrayList<Player> players, Deck deck, RandomGenerator random) {
+        for (Player player : players) {
+            player.resetTotalScore();
+        }
+        for (int round = 1; round <= numRounds; round++) {
+            playRound(players, deck, random);
+        }
+    }
+
+    // One round, mirroring HighSuit.playRound without the console output
+    public void playRound(ArrayList<Player> players, Deck deck, RandomGenerator random) {
+        deck.reshuffle(random);
+
+        for (Player player : players) {
+            player.clearHand();
+            for (int i = 0; i < CARDS_PER_HAND; i++) {
+                player.addCard(deck.dealCard());
+            }
+        }
+
+        for (Player player : players) {
+            int bonusSuit = player.computerSelectBonusSuit();
+
+            ArrayList<Integer> swappedPositions = player.computerSelectCards();
+            if (!swappedPositions.isEmpty()) {
+                player.swapCards(swappedPositions, deck);
+            }
+
+            player.addToTotalScore(player.calculateRoundScore(bonusSuit));
+        }
+    }
+
+    // Run a batch of games across all available cores with a random master seed
+    public Result run(long games) {
+        return run(games, ThreadLocalRandom.current().nextLong());
+    }
+
+    // Run a reproducible batch of games across all available cores
+    public Result run(long games, long seed) {
+        if (games < 0) {
+            throw new IllegalArgumentException("Number of games cannot be negative");
+        }
+
+        long start = System.nanoTime();
+        long chunks = (games + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        Result result = LongStream.range(0, chunks)
+            .parallel()
+            .mapToObj(chunk -> runChunk(seed, chunk * CHUNK_SIZE,
+                Math.min(CHUNK_SIZE, games - chunk * CHUNK_SIZE)))
+            .reduce(new Result(), Result::combine);
+
+        result.seed = seed;
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    // Play a run of games on one table, reusing its players, deck and generator
+    private Result runChunk(long seed, long firstGame, long games) {
+        Result result = new Result();
+        ArrayList<Player> players = createPlayers();
+        Xoshiro256 random = new Xoshiro256(seed, firstGame);
+        Deck deck = new Deck(random);
+
+        for (long i = 0; i < games; i++) {
+            random.reseed(seed, firstGame + i);
+            playGame(players, deck, random);
+            result.recordGame(players);
+        }
+
+        return result;
+    }
+
+    /**
+     * Aggregate statistics for a batch of simulated games.
+     * Game scores are per-player game totals.
+     */
+    public static class Result {
+        long games;
+        long playerGames;
+        long totalScore;
+        long totalScoreSquared;
+        int minScore = Integer.MAX_VALUE;
+        int maxScore = Integer.MIN_VALUE;
+        long ties;
+        long seed;
+        long elapsedNanos;
+
+        void recordGame(ArrayList<Player> players) {
+            games++;
+            int best = Integer.MIN_VALUE;
+            int bestCount = 0;
+
+            for (Player player : players) {
+                int score = player.getTotalScore();
+                playerGames++;
+                totalScore += score;
+                totalScoreSquared += (long) score * score;
+                minScore = Math.min(minScore, score);
+                maxScore = Math.max(maxScore, score);
+
+                if (score > best) {
+                    best = score;
+                    bestCount = 1;
+                } else if (score == best) {
+                    bestCount++;
+                }
+            }
+
+            if (bestCount > 1) {
+                ties++;
+            }
+        }
+
+        Result combine(Result other) {
+            Result merged = new Result();
+            merged.games = games + other.games;
+            merged.playerGames = playerGames + other.playerGames;
+            merged.totalScore = totalScore + other.totalScore;
+            merged.totalScoreSquared = totalScoreSquared + other.totalScoreSquared;
+            merged.minScore = Math.min(minScore, other.minScore);
+            merged.maxScore = Math.max(maxScore, other.maxScore);
+            merged.ties = ties + other.ties;
+            return merged;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getPlayerGames() {
+            return playerGames;
+        }
+
+        public long getTotalScore() {
+            return totalScore;
+        }
+
+        public int getMinScore() {
+            return playerGames == 0 ? 0 : minScore;
+        }
+
+        public int getMaxScore() {
+            return playerGames == 0 ? 0 : maxScore;
+        }
+
+        public long getTies() {
+            return ties;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public double getMeanScore() {
+            return playerGames == 0 ? 0.0 : (double) totalScore / playerGames;
+        }
+
+        public double getScoreStdDev() {
+            if (playerGames == 0) {
+                return 0.0;
+            }
+            double mean = getMeanScore();
+            double variance = (double) totalScoreSquared / playerGames - mean * mean;
+            return Math.sqrt(Math.max(0.0, variance));
+        }
+
+        public double getElapsedSeconds() {
+            return elapsedNanos / 1e9;
+        }
+
+        public double getGamesPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : games / getElapsedSeconds();
+        }
+
+        public void print() {
+            System.out.println("\n" + "=".repeat(60));
+            System.out.println("SIMULATION RESULTS");
+            System.out.println("=".repeat(60));
+            System.out.printf("%-20s %d%n", "Games", games);
+            System.out.printf("%-20s %d%n", "Seed", seed);
+            System.out.printf("%-20s %.3f s%n", "Elapsed", getElapsedSeconds());
+            System.out.printf("%-20s %.0f%n", "Games/second", getGamesPerSecond());
+            System.out.println("-".repeat(60));
+            System.out.printf("%-20s %.2f%n", "Mean game score", getMeanScore());
+            System.out.printf("%-20s %.2f%n", "Std deviation", getScoreStdDev());
+            System.out.printf("%-20s %d%n", "Min game score", getMinScore());
+            System.out.printf("%-20s %d%n", "Max game score", getMaxScore());
+            System.out.printf("%-20s %d%n", "Tied games", ties);
+            System.out.println("=".repeat(60));
+        }
+    }
+}
\ No newline at end of file
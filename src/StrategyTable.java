@@ -0,0 +1,182 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.zip.CRC32;
+
+/**
+ * Precomputed computer decisions for every starting hand.
+ * The best bonus suit and swap mask depend only on the five cards held, so
+ * they are solved offline with SwapOptimizer and stored one byte per hand,
+ * indexed by the hand's combinadic rank (see HandScoreTable). Hands that
+ * are suit relabellings of each other share one evaluation: each canonical
+ * hand is solved once and its result is mapped onto every relabelling.
+ *
+ * An entry holds a set flag (bit 7), the bonus suit (bits 5-6) and the swap
+ * mask (bits 0-4). Bit i of the mask refers to the i-th card of the hand in
+ * ascending card id order. A zero entry means the hand was not solved and
+ * the caller should compute the decision itself.
+ *
+ * File layout matches HandScoreTable: magic, version, entry count, CRC32
+ * of the entries, then the entries. The file is memory-mapped when loaded.
+ */
+public class StrategyTable {
+    public static final String DEFAULT_FILENAME = "strategy.bin";
+    public static final String FILE_PROPERTY = "highsuit.strategy";
+    public static final int NOT_SOLVED = -1;
+
+    private static final int MAGIC = 0x48535452; // "HSTR"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+    private static final int SOLVED = 0x80;
+    private static final int[] SUIT_MAPS = HandCanonicalizer.allSuitMaps();
+
+    private final ByteBuffer entries;
+
+    private StrategyTable(ByteBuffer entries) {
+        this.entries = entries;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : DEFAULT_FILENAME);
+        long start = System.nanoTime();
+        int classes = generate(file);
+        System.out.printf("Solved %d hand classes into %s in %.1f s%n",
+            classes, file, (System.nanoTime() - start) / 1e9);
+    }
+
+    // Shared table, mapped on first use; null when no valid file is present
+    public static StrategyTable shared() {
+        return Shared.TABLE;
+    }
+
+    private static class Shared {
+        static final StrategyTable TABLE = loadDefault();
+
+        private static StrategyTable loadDefault() {
+            try {
+                return load(HandScoreTable.locate(FILE_PROPERTY, DEFAULT_FILENAME));
+            } catch (IOException e) {
+                // Missing or damaged table, the computer solves hands live instead
+                return null;
+            }
+        }
+    }
+
+    // Entry for a 5-card hand, or NOT_SOLVED
+    public int lookup(long cards) {
+        int entry = entries.get(HEADER_SIZE + HandScoreTable.rank(cards)) & 0xFF;
+        return (entry & SOLVED) != 0 ? entry : NOT_SOLVED;
+    }
+
+    public static int bonusSuit(int entry) {
+        return (entry >>> 5) & 3;
+    }
+
+    // Swap mask over the hand's cards in ascending id order
+    public static int swapMask(int entry) {
+        return entry & (SwapOptimizer.NUM_MASKS - 1);
+    }
+
+    public static int encode(int bonusSuit, int swapMask) {
+        return SOLVED | bonusSuit << 5 | swapMask;
+    }
+
+    // Card ids of a hand in ascending order
+    public static int[] sortedIds(long cards) {
+        int[] ids = new int[Long.bitCount(cards)];
+        long rest = cards;
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = Long.numberOfTrailingZeros(rest);
+            rest &= rest - 1;
+        }
+        return ids;
+    }
+
+    // Solve every hand and write the table file; returns the number of classes solved
+    public static int generate(Path file) throws IOException {
+        return generate(file, Integer.MAX_VALUE);
+    }
+
+    // Solve at most classLimit canonical hands, leaving the rest unsolved
+    static int generate(Path file, int classLimit) throws IOException {
+        long[] canonicalHands = IntStream.range(0, HandScoreTable.NUM_HANDS)
+            .mapToLong(HandScoreTable::unrank)
+            .filter(HandCanonicalizer::isCanonical)
+            .limit(classLimit)
+            .toArray();
+
+        byte[] table = new byte[HandScoreTable.NUM_HANDS];
+        ThreadLocal<SwapOptimizer> optimizers = ThreadLocal.withInitial(SwapOptimizer::new);
+
+        // Relabellings of different canonical hands never collide, so threads write disjoint slots
+        LongStream.of(canonicalHands)
+            .parallel()
+            .forEach(cards -> solveClass(cards, optimizers.get(), table));
+
+        write(file, table);
+        return canonicalHands.length;
+    }
+
+    // Evaluate one canonical hand and fill in the entry of every relabelling
+    static void solveClass(long canonicalCards, SwapOptimizer optimizer, byte[] table) {
+        SwapOptimizer.Evaluation evaluation = optimizer.evaluate(sortedIds(canonicalCards));
+
+        for (int suitMap : SUIT_MAPS) {
+            long cards = HandCanonicalizer.fromCanonical(canonicalCards, suitMap);
+            int rank = HandScoreTable.rank(cards);
+            if (table[rank] != 0) {
+                continue; // Same hand reached through suits with identical lanes
+            }
+
+            int[] positionMap = HandCanonicalizer.positionMap(cards, suitMap);
+            SwapOptimizer.Decision decision = evaluation.bestDecision(positionMap, suitMap);
+            table[rank] = (byte) encode(decision.getBonusSuit(), decision.getSwapMask());
+        }
+    }
+
+    private static void write(Path file, byte[] table) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(table);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(table.length).putLong(crc.getValue());
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer body = ByteBuffer.wrap(table);
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(new ByteBuffer[] {header, body});
+            }
+        }
+    }
+
+    // Memory-map a strategy file, checking its header and checksum
+    public static StrategyTable load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_SIZE + HandScoreTable.NUM_HANDS) {
+                throw new IOException("Strategy table has the wrong size: " + file);
+            }
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION
+                    || mapped.getInt(8) != HandScoreTable.NUM_HANDS) {
+                throw new IOException("Not a strategy table: " + file);
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(mapped.slice(HEADER_SIZE, HandScoreTable.NUM_HANDS));
+            if (crc.getValue() != mapped.getLong(12)) {
+                throw new IOException("Strategy table checksum mismatch: " + file);
+            }
+
+            return new StrategyTable(mapped);
+        }
+    }
+}
\ No newline at end of file
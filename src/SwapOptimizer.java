@@ -0,0 +1,616 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Exact expected-value strategy for the computer player.
+ * For a 5-card hand it considers every keep/swap subset of up to four
+ * cards against the 47 unseen cards and every bonus suit, and picks the
+ * pair with the highest expected calculateRoundScore.
+ *
+ * Rather than enumerating the up to C(47,4) = 178365 possible draws, the
+ * unseen cards of each suit are summarised as counts of ways to draw j
+ * cards totalling t points. For each candidate best-suit score m, those
+ * counts are multiplied suit by suit (as polynomials in the number of
+ * cards drawn) to find how many draws make m the best score with a given
+ * suit as the lowest-numbered best suit, which is the suit HighSuit
+ * checks against the bonus. All counts are exact integers, so decisions
+ * are deterministic.
+ *
+ * An instance keeps its scratch tables between calls, so it is cheap to
+ * reuse but must not be shared between threads.
+ */
+public class SwapOptimizer {
+    public static final int HAND_SIZE = 5;
+    public static final int MAX_SWAPS = 4;
+    public static final int NUM_MASKS = 1 << HAND_SIZE;
+    public static final int SUIT_SETS = 1 << Card.NUM_SUITS;
+
+    private static final int UNSEEN = Card.DECK_SIZE - HAND_SIZE;
+    private static final int BONUS = 5;
+
+    // Highest total of four cards drawn from one suit (A, K, Q, J)
+    private static final int MAX_DRAW_SUM = 41;
+
+    // Swap masks ordered by number of swaps, then by value
+    private static final int[] MASK_ORDER = new int[NUM_MASKS - 1];
+
+    // C(47, k): number of equally likely draws when swapping k cards
+    private static final long[] DRAWS = new long[MAX_SWAPS + 1];
+
+    // C(46, k - 1): number of those draws that include any one given card
+    private static final long[] DRAWS_WITH_CARD = new long[MAX_SWAPS + 1];
+
+    private static final int[] VALUES = new int[Card.DECK_SIZE];
+
+    static {
+        int next = 0;
+        for (int swaps = 0; swaps <= MAX_SWAPS; swaps++) {
+            for (int mask = 0; mask < NUM_MASKS; mask++) {
+                if (Integer.bitCount(mask) == swaps) {
+                    MASK_ORDER[next++] = mask;
+                }
+            }
+        }
+
+        DRAWS[0] = 1;
+        for (int k = 1; k <= MAX_SWAPS; k++) {
+            DRAWS[k] = DRAWS[k - 1] * (UNSEEN - k + 1) / k;
+            DRAWS_WITH_CARD[k] = DRAWS[k] * k / UNSEEN;
+        }
+
+        for (int id = 0; id < Card.DECK_SIZE; id++) {
+            VALUES[id] = Card.of(id).getScore();
+        }
+    }
+
+    // ways[s][j][t]: ways to draw j unseen cards of suit s totalling t points
+    private final long[][][] ways = new long[Card.NUM_SUITS][MAX_SWAPS + 1][MAX_DRAW_SUM + 1];
+    private final long[][][] cumulative = new long[Card.NUM_SUITS][MAX_SWAPS + 1][MAX_DRAW_SUM + 1];
+    private final int[][] maxDrawSum = new int[Card.NUM_SUITS][MAX_SWAPS + 1];
+
+    // Suit scores of the cards kept under each swap mask
+    private final int[][] keptScores = new int[NUM_MASKS][Card.NUM_SUITS];
+
+    // Total points of the 47 unseen cards
+    private int unseenTotal;
+
+    // Masks already handled in this call, by kept scores and swap count
+    private final int[] seenKeys = new int[NUM_MASKS];
+    private final int[] seenMasks = new int[NUM_MASKS];
+    private int seenCount;
+
+    // Per-suit draw counts for one candidate best score m, by cards drawn:
+    // suit total exactly m, below m, and at most m
+    private final long[][] exact = new long[Card.NUM_SUITS][MAX_SWAPS + 1];
+    private final long[][] less = new long[Card.NUM_SUITS][MAX_SWAPS + 1];
+    private final long[][] atMost = new long[Card.NUM_SUITS][MAX_SWAPS + 1];
+
+    private final long[][] prefix = new long[Card.NUM_SUITS][MAX_SWAPS + 1];
+    private final long[][] suffix = new long[Card.NUM_SUITS][MAX_SWAPS + 1];
+    private final long[] product = new long[MAX_SWAPS + 1];
+    private final long[][] partial = new long[SUIT_SETS][MAX_SWAPS + 1];
+    private final long[][] nextPartial = new long[SUIT_SETS][MAX_SWAPS + 1];
+    private final long[] bonusCounts = new long[Card.NUM_SUITS];
+
+    // Best bonus suit and swap mask for a hand (bit i of the mask = swap card i)
+    public Decision decide(int[] cardIds) {
+        return decide(cardIds, -1);
+    }
+
+    // Best swap mask once the bonus suit is fixed (-1 lets the optimizer choose)
+    public Decision decide(int[] cardIds, int bonusSuit) {
+        prepare(cardIds);
+
+        Decision best = null;
+        seenCount = 0;
+        for (int mask : MASK_ORDER) {
+            int swaps = Integer.bitCount(mask);
+
+            // A mask that leaves the same suit scores as an earlier one
+            // (e.g. swapping the King instead of the Queen of a suit) has
+            // identical outcomes, so it can never be strictly better
+            if (findEquivalent(mask, swaps) >= 0) {
+                continue;
+            }
+
+            // Skip masks that cannot beat the best so far even in the best case
+            if (best != null && !isBetter(ceiling(mask, swaps), DRAWS[swaps],
+                                          best.scoreTotal, best.draws)) {
+                continue;
+            }
+
+            long maxTotal = countBestSuits(mask, swaps, bonusCounts);
+            for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+                if (bonusSuit >= 0 && suit != bonusSuit) {
+                    continue;
+                }
+                long total = maxTotal + BONUS * bonusCounts[suit];
+                if (best == null || isBetter(total, DRAWS[swaps], best.scoreTotal, best.draws)) {
+                    best = new Decision(suit, mask, total, DRAWS[swaps]);
+                }
+            }
+        }
+
+        return best;
+    }
+
+    // Full breakdown of every swap mask, without pruning
+    public Evaluation evaluate(int[] cardIds) {
+        prepare(cardIds);
+
+        Evaluation evaluation = new Evaluation();
+        seenCount = 0;
+        for (int mask : MASK_ORDER) {
+            int swaps = Integer.bitCount(mask);
+            int equivalent = findEquivalent(mask, swaps);
+            if (equivalent >= 0) {
+                // Equivalent masks share one row
+                evaluation.maxTotals[mask] = evaluation.maxTotals[equivalent];
+                evaluation.tieCounts[mask] = evaluation.tieCounts[equivalent];
+            } else {
+                evaluation.tieCounts[mask] = new long[SUIT_SETS];
+                evaluation.maxTotals[mask] = countMaxScores(mask, swaps, evaluation.tieCounts[mask]);
+            }
+        }
+        return evaluation;
+    }
+
+    // Build the unseen-card tables and kept suit scores for a hand
+    private void prepare(int[] cardIds) {
+        if (cardIds.length != HAND_SIZE) {
+            throw new IllegalArgumentException("A hand must hold exactly " + HAND_SIZE + " cards");
+        }
+
+        long held = 0L;
+        for (int id : cardIds) {
+            held |= Hand.bit(id);
+        }
+        if (Long.bitCount(held) != HAND_SIZE) {
+            throw new IllegalArgumentException("A hand cannot hold the same card twice");
+        }
+
+        unseenTotal = 0;
+        for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+            long[][] suitWays = ways[suit];
+            for (long[] row : suitWays) {
+                Arrays.fill(row, 0L);
+            }
+            suitWays[0][0] = 1;
+
+            int unseen = ~Hand.lane(held, suit) & Hand.LANE_MASK;
+            int count = 0;
+            for (int rank = Card.NUM_RANKS - 1; rank >= 0; rank--) {
+                if ((unseen & (1 << rank)) == 0) {
+                    continue;
+                }
+                int value = VALUES[suit * Card.NUM_RANKS + rank];
+                unseenTotal += value;
+                count++;
+                for (int j = Math.min(count, MAX_SWAPS); j >= 1; j--) {
+                    for (int t = MAX_DRAW_SUM; t >= value; t--) {
+                        suitWays[j][t] += suitWays[j - 1][t - value];
+                    }
+                }
+            }
+
+            for (int j = 0; j <= MAX_SWAPS; j++) {
+                long running = 0;
+                maxDrawSum[suit][j] = -1;
+                for (int t = 0; t <= MAX_DRAW_SUM; t++) {
+                    running += suitWays[j][t];
+                    cumulative[suit][j][t] = running;
+                    if (suitWays[j][t] != 0) {
+                        maxDrawSum[suit][j] = t;
+                    }
+                }
+            }
+        }
+
+        // Kept scores per mask, built from the mask with its lowest swap removed
+        for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+            keptScores[0][suit] = 0;
+        }
+        for (int id : cardIds) {
+            keptScores[0][id / Card.NUM_RANKS] += VALUES[id];
+        }
+        for (int mask = 1; mask < NUM_MASKS; mask++) {
+            int previous = mask & (mask - 1);
+            int id = cardIds[Integer.numberOfTrailingZeros(mask)];
+            System.arraycopy(keptScores[previous], 0, keptScores[mask], 0, Card.NUM_SUITS);
+            keptScores[mask][id / Card.NUM_RANKS] -= VALUES[id];
+        }
+    }
+
+    // Earlier mask with the same kept suit scores and swap count, or -1
+    // (the mask is remembered for later calls when there is none)
+    private int findEquivalent(int mask, int swaps) {
+        int[] kept = keptScores[mask];
+        int key = swaps;
+        for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+            key = (key << 6) | kept[suit];
+        }
+
+        for (int i = 0; i < seenCount; i++) {
+            if (seenKeys[i] == key) {
+                return seenMasks[i];
+            }
+        }
+        seenKeys[seenCount] = key;
+        seenMasks[seenCount++] = mask;
+        return -1;
+    }
+
+    /*
+     * Upper bound on the score total of a mask over all its draws. The best
+     * suit can gain at most the points drawn, and summed over every draw
+     * each unseen card is drawn DRAWS_WITH_CARD times.
+     */
+    private long ceiling(int mask, int swaps) {
+        long perDraw = (long) (upperBound(mask, swaps) + BONUS) * DRAWS[swaps];
+        long byExpectation = (long) (maxKept(keptScores[mask]) + BONUS) * DRAWS[swaps]
+                             + (long) unseenTotal * DRAWS_WITH_CARD[swaps];
+        return Math.min(perDraw, byExpectation);
+    }
+
+    // Best score any single draw could reach after swapping the masked cards
+    private int upperBound(int mask, int swaps) {
+        int bound = 0;
+        for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+            int extra = 0;
+            for (int j = swaps; j >= 0; j--) {
+                if (maxDrawSum[suit][j] >= 0) {
+                    extra = maxDrawSum[suit][j];
+                    break;
+                }
+            }
+            bound = Math.max(bound, keptScores[mask][suit] + extra);
+        }
+        return bound;
+    }
+
+    /*
+     * Sum of best-suit scores over every draw for one mask. bestOut[s]
+     * receives the number of draws in which s is the lowest-numbered suit
+     * with the best score: suits before s score less than m, s scores
+     * exactly m and suits after s score at most m.
+     */
+    private long countBestSuits(int mask, int swaps, long[] bestOut) {
+        Arrays.fill(bestOut, 0L);
+        int[] kept = keptScores[mask];
+        int low = maxKept(kept);
+        int high = upperBound(mask, swaps);
+
+        long maxTotal = 0;
+        for (int m = low; m <= high; m++) {
+            loadCounts(kept, m, swaps);
+
+            // prefix[s] = suits before s below m, suffix[s] = suits after s at most m
+            Arrays.fill(prefix[0], 0, swaps + 1, 0L);
+            prefix[0][0] = 1;
+            Arrays.fill(suffix[Card.NUM_SUITS - 1], 0, swaps + 1, 0L);
+            suffix[Card.NUM_SUITS - 1][0] = 1;
+            for (int suit = 1; suit < Card.NUM_SUITS; suit++) {
+                multiply(prefix[suit - 1], less[suit - 1], prefix[suit], swaps);
+                int back = Card.NUM_SUITS - 1 - suit;
+                multiply(suffix[back + 1], atMost[back + 1], suffix[back], swaps);
+            }
+
+            for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+                multiply(prefix[suit], exact[suit], product, swaps);
+                long count = 0;
+                for (int j = 0; j <= swaps; j++) {
+                    count += product[j] * suffix[suit][swaps - j];
+                }
+                if (count != 0) {
+                    bestOut[suit] += count;
+                    maxTotal += m * count;
+                }
+            }
+        }
+
+        return maxTotal;
+    }
+
+    /*
+     * Like countBestSuits, but tiesOut[set] receives the number of draws in
+     * which exactly that set of suits shares the best score. This is enough
+     * to score the mask under any ordering of the suits.
+     */
+    private long countMaxScores(int mask, int swaps, long[] tiesOut) {
+        Arrays.fill(tiesOut, 0L);
+        int[] kept = keptScores[mask];
+        int low = maxKept(kept);
+        int high = upperBound(mask, swaps);
+
+        long maxTotal = 0;
+        for (int m = low; m <= high; m++) {
+            loadCounts(kept, m, swaps);
+
+            Arrays.fill(partial[0], 0, swaps + 1, 0L);
+            partial[0][0] = 1;
+            int sets = 1;
+
+            // Extend every partial set of best suits one suit at a time
+            for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+                for (int set = 0; set < sets; set++) {
+                    multiply(partial[set], less[suit], nextPartial[set], swaps);
+                    multiply(partial[set], exact[suit], nextPartial[set | (1 << suit)], swaps);
+                }
+                sets *= 2;
+                for (int set = 0; set < sets; set++) {
+                    System.arraycopy(nextPartial[set], 0, partial[set], 0, swaps + 1);
+                }
+            }
+
+            for (int set = 1; set < SUIT_SETS; set++) {
+                long count = partial[set][swaps];
+                if (count != 0) {
+                    tiesOut[set] += count;
+                    maxTotal += m * count;
+                }
+            }
+        }
+
+        return maxTotal;
+    }
+
+    private static int maxKept(int[] kept) {
+        int max = 0;
+        for (int score : kept) {
+            max = Math.max(max, score);
+        }
+        return max;
+    }
+
+    // Fill exact, less and atMost for every suit at candidate best score m
+    private void loadCounts(int[] kept, int m, int swaps) {
+        for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+            int needed = m - kept[suit];
+            long[][] suitWays = ways[suit];
+            long[][] suitCumulative = cumulative[suit];
+            int below = Math.min(needed - 1, MAX_DRAW_SUM);
+            int upTo = Math.min(needed, MAX_DRAW_SUM);
+
+            for (int j = 0; j <= swaps; j++) {
+                exact[suit][j] = needed >= 0 && needed <= MAX_DRAW_SUM ? suitWays[j][needed] : 0;
+                less[suit][j] = below >= 0 ? suitCumulative[j][below] : 0;
+                atMost[suit][j] = upTo >= 0 ? suitCumulative[j][upTo] : 0;
+            }
+        }
+    }
+
+    // target = a * b, truncated to degree swaps
+    private static void multiply(long[] a, long[] b, long[] target, int swaps) {
+        for (int n = 0; n <= swaps; n++) {
+            long sum = 0;
+            for (int i = 0; i <= n; i++) {
+                sum += a[i] * b[n - i];
+            }
+            target[n] = sum;
+        }
+    }
+
+    // Draws where the bonus suit is the lowest of the suits sharing the best score
+    static long bonusCount(long[] ties, int bonusSuit) {
+        long count = 0;
+        for (int set = 1; set < SUIT_SETS; set++) {
+            if (Integer.numberOfTrailingZeros(set) == bonusSuit) {
+                count += ties[set];
+            }
+        }
+        return count;
+    }
+
+    // Exact comparison of total1 / draws1 against total2 / draws2
+    static boolean isBetter(long total1, long draws1, long total2, long draws2) {
+        return total1 * draws2 > total2 * draws1;
+    }
+
+    /**
+     * A bonus suit and swap mask with its expected score, held as an exact
+     * total over all equally likely draws.
+     */
+    public static class Decision {
+        final int bonusSuit;
+        final int swapMask;
+        final long scoreTotal;
+        final long draws;
+
+        Decision(int bonusSuit, int swapMask, long scoreTotal, long draws) {
+            this.bonusSuit = bonusSuit;
+            this.swapMask = swapMask;
+            this.scoreTotal = scoreTotal;
+            this.draws = draws;
+        }
+
+        public int getBonusSuit() {
+            return bonusSuit;
+        }
+
+        public int getSwapMask() {
+            return swapMask;
+        }
+
+        public double getExpectedScore() {
+            return (double) scoreTotal / draws;
+        }
+
+        // Hand positions to swap, in ascending order
+        public ArrayList<Integer> getSwapPositions() {
+            ArrayList<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < HAND_SIZE; i++) {
+                if ((swapMask & (1 << i)) != 0) {
+                    positions.add(i);
+                }
+            }
+            return positions;
+        }
+    }
+
+    /**
+     * Per-mask results for one hand: the total best-suit score over all
+     * draws and how often each set of suits shares the best score. Rows of
+     * equivalent masks are shared; masks dropped by candidates() have no row.
+     */
+    public static class Evaluation {
+        final long[] maxTotals = new long[NUM_MASKS];
+        final long[][] tieCounts = new long[NUM_MASKS][];
+
+        public static boolean isAllowed(int mask) {
+            return mask >= 0 && mask < NUM_MASKS && Integer.bitCount(mask) <= MAX_SWAPS;
+        }
+
+        public boolean isEvaluated(int mask) {
+            return isAllowed(mask) && tieCounts[mask] != null;
+        }
+
+        public long getDraws(int mask) {
+            return DRAWS[Integer.bitCount(mask)];
+        }
+
+        public long getScoreTotal(int mask, int bonusSuit) {
+            return maxTotals[mask] + BONUS * bonusCount(ties(mask), bonusSuit);
+        }
+
+        public double getExpectedScore(int mask, int bonusSuit) {
+            return (double) getScoreTotal(mask, bonusSuit) / getDraws(mask);
+        }
+
+        // Probability that the bonus applies after swapping the masked cards
+        public double getBonusChance(int mask, int bonusSuit) {
+            return (double) bonusCount(ties(mask), bonusSuit) / getDraws(mask);
+        }
+
+        private long[] ties(int mask) {
+            if (!isEvaluated(mask)) {
+                throw new IllegalArgumentException("Swap mask " + mask + " was not evaluated");
+            }
+            return tieCounts[mask];
+        }
+
+        /*
+         * Copy keeping only the masks that can be the best decision under
+         * some suit order and bonus suit, so cached evaluations stay small.
+         * A mask is dropped when its best case (every tie it can take going
+         * to one suit) is below the worst case of another mask (the bonus
+         * suit winning only the draws where it alone scores best).
+         */
+        public Evaluation candidates() {
+            long floorTotal = 0;
+            long floorDraws = 1;
+            for (int mask : MASK_ORDER) {
+                long[] ties = tieCounts[mask];
+                long worst = Long.MAX_VALUE;
+                for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+                    worst = Math.min(worst, ties[1 << suit]);
+                }
+                long total = maxTotals[mask] + BONUS * worst;
+                if (isBetter(total, getDraws(mask), floorTotal, floorDraws)) {
+                    floorTotal = total;
+                    floorDraws = getDraws(mask);
+                }
+            }
+
+            Evaluation kept = new Evaluation();
+            for (int mask : MASK_ORDER) {
+                long[] ties = tieCounts[mask];
+                long most = 0;
+                for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+                    long count = 0;
+                    for (int set = 1; set < SUIT_SETS; set++) {
+                        if ((set & (1 << suit)) != 0) {
+                            count += ties[set];
+                        }
+                    }
+                    most = Math.max(most, count);
+                }
+                if (!isBetter(floorTotal, floorDraws, maxTotals[mask] + BONUS * most, getDraws(mask))) {
+                    kept.maxTotals[mask] = maxTotals[mask];
+                    kept.tieCounts[mask] = ties;
+                }
+            }
+            return kept;
+        }
+
+        // Same choice as SwapOptimizer.decide, including tie-breaking
+        public Decision bestDecision() {
+            return bestDecision(-1);
+        }
+
+        public Decision bestDecision(int bonusSuit) {
+            Decision best = null;
+            for (int mask : MASK_ORDER) {
+                if (tieCounts[mask] == null) {
+                    continue;
+                }
+                for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+                    if (bonusSuit >= 0 && suit != bonusSuit) {
+                        continue;
+                    }
+                    long total = getScoreTotal(mask, suit);
+                    long draws = getDraws(mask);
+                    if (best == null || isBetter(total, draws, best.scoreTotal, best.draws)) {
+                        best = new Decision(suit, mask, total, draws);
+                    }
+                }
+            }
+            return best;
+        }
+
+        /*
+         * Best decision for another hand with the same shape: card i of that
+         * hand is card positionMap[i] of the evaluated hand, and suit c of the
+         * evaluated hand is suit HandCanonicalizer.suit(suitMap, c) there.
+         * Gives the same result as SwapOptimizer.decide on that hand.
+         */
+        public Decision bestDecision(int[] positionMap, int suitMap) {
+            return bestDecision(positionMap, suitMap, -1);
+        }
+
+        // As above, with the bonus suit of the other hand fixed (-1 to choose)
+        public Decision bestDecision(int[] positionMap, int suitMap, int bonusSuit) {
+            // Lowest relabelled suit of every set of evaluated suits
+            int[] lowest = new int[SUIT_SETS];
+            for (int set = 1; set < SUIT_SETS; set++) {
+                lowest[set] = Card.NUM_SUITS;
+                for (int c = 0; c < Card.NUM_SUITS; c++) {
+                    if ((set & (1 << c)) != 0) {
+                        lowest[set] = Math.min(lowest[set], HandCanonicalizer.suit(suitMap, c));
+                    }
+                }
+            }
+
+            Decision best = null;
+            long[] bonusCounts = new long[Card.NUM_SUITS];
+            for (int mask : MASK_ORDER) {
+                int mapped = 0;
+                for (int i = 0; i < HAND_SIZE; i++) {
+                    if ((mask & (1 << i)) != 0) {
+                        mapped |= 1 << positionMap[i];
+                    }
+                }
+                long[] ties = tieCounts[mapped];
+                if (ties == null) {
+                    continue;
+                }
+
+                Arrays.fill(bonusCounts, 0L);
+                for (int set = 1; set < SUIT_SETS; set++) {
+                    bonusCounts[lowest[set]] += ties[set];
+                }
+
+                long draws = getDraws(mask);
+                for (int suit = 0; suit < Card.NUM_SUITS; suit++) {
+                    if (bonusSuit >= 0 && suit != bonusSuit) {
+                        continue;
+                    }
+                    long total = maxTotals[mapped] + BONUS * bonusCounts[suit];
+                    if (best == null || isBetter(total, draws, best.scoreTotal, best.draws)) {
+                        best = new Decision(suit, mask, total, draws);
+                    }
+                }
+            }
+            return best;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,733 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * League runner playing many HighSuit matches at once between computer
+ * players and scripted humans, as a round-robin, where every entrant meets
+ * every other once, or a seeded knockout bracket.
+ *
+ * Every match runs on its own virtual thread against a context of its own:
+ * two Players, a Deck and a Xoshiro256 stream derived from the tournament
+ * seed and the match number, with no Scanner, console or score file. A
+ * match follows the same deal, bonus suit, swap and score steps as
+ * HighSuit.playRound, so the same seed gives the same results however the
+ * matches are scheduled. The whole round-robin is started at once; a
+ * knockout match starts straight away too and waits, parked, for the two
+ * matches feeding it. A scripted human can take a think time before each
+ * answer, and while it waits its match holds no platform thread, so tens
+ * of thousands of matches can be in play together. A match context is
+ * about a kilobyte, so load a StrategyTable (strategy.bin) for computer
+ * players: without it each computer seat also carries a live SwapOptimizer
+ * of about 17 KB, and decides far more slowly.
+ *
+ * Standings are updated as each match finishes and can be read while the
+ * tournament runs. A win is worth WIN_POINTS and a draw DRAW_POINTS;
+ * entrants are ranked by points, then score difference, then score, then
+ * seed. A knockout match level after its rounds plays up to
+ * MAX_TIEBREAK_ROUNDS more, one at a time, and if still level the higher
+ * seed goes through.
+ *
+ *   java Tournament [roundrobin|knockout] [computers] [scripted] [thinkMillis] [rounds] [seed]
+ */
+public class Tournament {
+    public static final int DEFAULT_ROUNDS = 3;
+    public static final int MAX_TIEBREAK_ROUNDS = 5;
+    public static final int WIN_POINTS = 3;
+    public static final int DRAW_POINTS = 1;
+    private static final int CARDS_PER_HAND = 5;
+    private static final int MAX_SWAPS = 4;
+
+    // Scripts the command line hands out to scripted humans in turn
+    private static final String[][] SCRIPTS = {
+        {"1"},
+        {"4 1 2"},
+        {"2 5", "3 1 2 3"},
+        {"3 0", "1 4 5", "2 1"}
+    };
+
+    private final ArrayList<Entrant> entrants;
+    private final boolean knockout;
+    private final int numRounds;
+    private final long seed;
+    private final Standing[] standings;
+    private final Match[] matches; // By match number; null for a knockout bye
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicInteger matchesPlayed = new AtomicInteger();
+    private final AtomicInteger matchesInPlay = new AtomicInteger();
+    private final AtomicInteger peakInPlay = new AtomicInteger();
+
+    private Tournament(List<Entrant> entrants, boolean knockout, int numRounds, long seed) {
+        if (entrants.size() < 2) {
+            throw new IllegalArgumentException("A tournament needs at least two entrants");
+        }
+        // Same limits as HighSuit.setupGame
+        if (numRounds < 1 || numRounds > 3) {
+            throw new IllegalArgumentException("Number of rounds must be between 1 and 3");
+        }
+        this.entrants = new ArrayList<>(entrants);
+        this.knockout = knockout;
+        this.numRounds = numRounds;
+        this.seed = seed;
+
+        standings = new Standing[entrants.size()];
+        for (int i = 0; i < standings.length; i++) {
+            standings[i] = new Standing(entrants.get(i).getName(), i);
+        }
+        long slots = knockout
+            ? bracketSize(entrants.size()) - 1
+            : (long) entrants.size() * (entrants.size() - 1) / 2;
+        if (slots > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many entrants: " + entrants.size());
+        }
+        matches = new Match[(int) slots];
+    }
+
+    // Every entrant plays every other once
+    public static Tournament roundRobin(List<Entrant> entrants, int rounds, long seed) {
+        return new Tournament(entrants, false, rounds, seed);
+    }
+
+    // Single elimination, seeded in list order; the top seeds get any byes
+    public static Tournament knockout(List<Entrant> entrants, int rounds, long seed) {
+        return new Tournament(entrants, true, rounds, seed);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String format = args.length > 0 ? args[0] : "roundrobin";
+        int computers = args.length > 1 ? Integer.parseInt(args[1]) : 150;
+        int scripted = args.length > 2 ? Integer.parseInt(args[2]) : 150;
+        long thinkMillis = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        int rounds = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_ROUNDS;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : ThreadLocalRandom.current().nextLong();
+
+        ArrayList<Entrant> entrants = new ArrayList<>();
+        for (int i = 0; i < computers; i++) {
+            entrants.add(Entrant.computer("Bot " + (i + 1)));
+        }
+        for (int i = 0; i < scripted; i++) {
+            entrants.add(Entrant.scripted("Script " + (i + 1), thinkMillis, SCRIPTS[i % SCRIPTS.length]));
+        }
+
+        Tournament tournament;
+        if (format.equals("knockout")) {
+            tournament = knockout(entrants, rounds, seed);
+        } else if (format.equals("roundrobin")) {
+            tournament = roundRobin(entrants, rounds, seed);
+        } else {
+            throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        if (computers > 0 && StrategyTable.shared() == null) {
+            System.out.println("No strategy table; computer players will be slow to decide.");
+        }
+
+        FutureTask<Result> task = new FutureTask<>(tournament::run);
+        new Thread(task, "tournament").start();
+        while (true) {
+            try {
+                task.get(1, TimeUnit.SECONDS).print(20);
+                return;
+            } catch (TimeoutException e) {
+                System.out.printf("%d/%d matches played, %d in play%n",
+                    tournament.getMatchesPlayed(), tournament.getMatchCount(), tournament.getMatchesInPlay());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Tournament failed", e.getCause());
+            }
+        }
+    }
+
+    public boolean isKnockout() {
+        return knockout;
+    }
+
+    public int getNumRounds() {
+        return numRounds;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public List<Entrant> getEntrants() {
+        return List.copyOf(entrants);
+    }
+
+    // Matches the tournament will play; byes are not matches
+    public int getMatchCount() {
+        return knockout ? entrants.size() - 1 : matches.length;
+    }
+
+    public int getMatchesPlayed() {
+        return matchesPlayed.get();
+    }
+
+    public int getMatchesInPlay() {
+        return matchesInPlay.get();
+    }
+
+    // Most matches in play at one moment so far
+    public int getPeakMatchesInPlay() {
+        return peakInPlay.get();
+    }
+
+    /*
+     * Current standings, best first. Safe to call while the tournament
+     * runs: each entrant's line is read whole, though matches finishing
+     * meanwhile may show for one entrant and not yet for the other.
+     */
+    public List<Standing> getStandings() {
+        Standing[] table = new Standing[standings.length];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = standings[i].copy();
+        }
+        Arrays.sort(table, Standing.RANKING);
+        return Arrays.asList(table);
+    }
+
+    // Play the whole tournament, returning once every match has finished
+    public Result run() {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("Tournament has already been run");
+        }
+        long start = System.nanoTime();
+        Entrant champion = null;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (knockout) {
+                champion = entrants.get(get(playKnockout(executor)));
+            } else {
+                for (Future<Match> match : playRoundRobin(executor)) {
+                    get(match);
+                }
+            }
+        }
+
+        ArrayList<Match> played = new ArrayList<>(matchesPlayed.get());
+        for (Match match : matches) {
+            if (match != null) {
+                played.add(match);
+            }
+        }
+        return new Result(this, played, champion, System.nanoTime() - start);
+    }
+
+    // Start every pairing at once; seat order alternates so no entrant is always dealt first
+    private List<Future<Match>> playRoundRobin(ExecutorService executor) {
+        ArrayList<Future<Match>> futures = new ArrayList<>(matches.length);
+        int number = 0;
+        for (int i = 0; i < entrants.size(); i++) {
+            for (int j = i + 1; j < entrants.size(); j++) {
+                int home = (i + j) % 2 == 0 ? i : j;
+                int away = home == i ? j : i;
+                int match = number++;
+                futures.add(executor.submit(() -> play(match, 0, home, away)));
+            }
+        }
+        return futures;
+    }
+
+    /*
+     * Start the whole bracket at once. Each match waits for the two
+     * matches feeding it and yields its winner's index, or -1 from an
+     * empty slot, so an entrant facing an empty slot goes through
+     * without playing.
+     */
+    private Future<Integer> playKnockout(ExecutorService executor) {
+        int[] order = bracketOrder(bracketSize(entrants.size()));
+        ArrayList<Future<Integer>> slots = new ArrayList<>(order.length);
+        for (int entrant : order) {
+            slots.add(CompletableFuture.completedFuture(entrant < entrants.size() ? entrant : -1));
+        }
+
+        int number = 0;
+        for (int stage = 0; slots.size() > 1; stage++) {
+            ArrayList<Future<Integer>> winners = new ArrayList<>(slots.size() / 2);
+            for (int i = 0; i < slots.size(); i += 2) {
+                Future<Integer> home = slots.get(i);
+                Future<Integer> away = slots.get(i + 1);
+                int match = number++;
+                int round = stage;
+                winners.add(executor.submit(() -> {
+                    int first = get(home);
+                    int second = get(away);
+                    if (first < 0 || second < 0) {
+                        return Math.max(first, second);
+                    }
+                    Match played = play(match, round, first, second);
+                    return played.getWinner() == played.getHome() ? first : second;
+                }));
+            }
+            slots = winners;
+        }
+        return slots.get(0);
+    }
+
+    // Waits for a match, passing on how it failed
+    private static <T> T get(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Match failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a match", e);
+        }
+    }
+
+    // Smallest power of two holding every entrant
+    static int bracketSize(int entrants) {
+        return Integer.highestOneBit(entrants - 1) << 1;
+    }
+
+    /*
+     * Seeds (0 = top) in bracket order for a bracket of `size` places,
+     * placed so that the top two seeds can only meet in the final, the top
+     * four only from the semi-finals on, and so on: 0 7 3 4 1 6 2 5 for 8.
+     */
+    static int[] bracketOrder(int size) {
+        int[] order = {0};
+        while (order.length < size) {
+            int[] next = new int[order.length * 2];
+            for (int i = 0; i < order.length; i++) {
+                next[2 * i] = order[i];
+                next[2 * i + 1] = next.length - 1 - order[i];
+            }
+            order = next;
+        }
+        return order;
+    }
+
+    // One match on its own context, recorded in the standings as soon as it ends
+    private Match play(int number, int stage, int home, int away) throws InterruptedException {
+        int inPlay = matchesInPlay.incrementAndGet();
+        peakInPlay.accumulateAndGet(inPlay, Math::max);
+        try {
+            Xoshiro256 random = new Xoshiro256(seed, number);
+            Deck deck = new Deck(random);
+            Seat[] seats = {new Seat(entrants.get(home)), new Seat(entrants.get(away))};
+
+            int rounds = 0;
+            while (rounds < numRounds
+                    || (knockout && rounds < numRounds + MAX_TIEBREAK_ROUNDS
+                        && seats[0].player.getTotalScore() == seats[1].player.getTotalScore())) {
+                playRound(seats, deck, random);
+                rounds++;
+            }
+
+            int homeScore = seats[0].player.getTotalScore();
+            int awayScore = seats[1].player.getTotalScore();
+            int winner;
+            if (homeScore != awayScore) {
+                winner = homeScore > awayScore ? home : away;
+            } else {
+                winner = knockout ? Math.min(home, away) : -1;
+            }
+            Match match = new Match(number, stage, entrants.get(home), entrants.get(away),
+                homeScore, awayScore, rounds, winner < 0 ? null : entrants.get(winner));
+
+            standings[home].record(homeScore, awayScore, winner < 0 ? 0 : winner == home ? 1 : -1);
+            standings[away].record(awayScore, homeScore, winner < 0 ? 0 : winner == away ? 1 : -1);
+            matches[number] = match;
+            matchesPlayed.incrementAndGet();
+            return match;
+        } finally {
+            matchesInPlay.decrementAndGet();
+        }
+    }
+
+    // One round, mirroring HighSuit.playRound without the console output
+    private static void playRound(Seat[] seats, Deck deck, Xoshiro256 random) throws InterruptedException {
+        deck.reshuffle(random);
+
+        for (Seat seat : seats) {
+            seat.player.clearHand();
+            for (int i = 0; i < CARDS_PER_HAND; i++) {
+                seat.player.addCard(deck.dealCard());
+            }
+        }
+
+        for (Seat seat : seats) {
+            seat.playTurn(deck);
+        }
+    }
+
+    /**
+     * An entrant's place at one match's table.
+     */
+    private static final class Seat {
+        final Entrant entrant;
+        final Player player;
+        int turn; // Scripted turns played, to cycle through the script
+
+        Seat(Entrant entrant) {
+            this.entrant = entrant;
+            this.player = new Player(entrant.getName());
+        }
+
+        void playTurn(Deck deck) throws InterruptedException {
+            int bonusSuit;
+            ArrayList<Integer> swappedPositions;
+            if (entrant.isComputer()) {
+                bonusSuit = player.computerSelectBonusSuit();
+                swappedPositions = player.computerSelectCards();
+            } else {
+                int script = turn++ % entrant.bonusSuits.length;
+                entrant.think();
+                bonusSuit = entrant.bonusSuits[script];
+                entrant.think();
+                swappedPositions = new ArrayList<>();
+                for (int i = 0; i < CARDS_PER_HAND; i++) {
+                    if ((entrant.swapMasks[script] & (1 << i)) != 0) {
+                        swappedPositions.add(i);
+                    }
+                }
+            }
+
+            if (!swappedPositions.isEmpty()) {
+                player.swapCards(swappedPositions, deck);
+            }
+            player.addToTotalScore(player.calculateRoundScore(bonusSuit));
+        }
+    }
+
+    /**
+     * A tournament player: the computer strategy, or a scripted human
+     * answering the game's two prompts from a fixed list of turns.
+     */
+    public static final class Entrant {
+        private final String name;
+        private final boolean computer;
+        private final long thinkMillis;
+        private final int[] bonusSuits; // Per scripted turn, 0-3
+        private final int[] swapMasks; // Per scripted turn, bit i swaps hand position i
+
+        private Entrant(String name, boolean computer, long thinkMillis, int[] bonusSuits, int[] swapMasks) {
+            this.name = name;
+            this.computer = computer;
+            this.thinkMillis = thinkMillis;
+            this.bonusSuits = bonusSuits;
+            this.swapMasks = swapMasks;
+        }
+
+        // Plays as the computer does in HighSuit
+        public static Entrant computer(String name) {
+            return new Entrant(name, true, 0, null, null);
+        }
+
+        /*
+         * Plays one turn per round from `turns`, starting again from the
+         * first once they run out. A turn is what a human would type at the
+         * two prompts: the bonus suit (1-4), then up to four hand positions
+         * (1-5) to swap, or 0 or nothing to keep every card, e.g. "2 1 4".
+         * The entrant waits thinkMillis before each answer.
+         */
+        public static Entrant scripted(String name, long thinkMillis, String... turns) {
+            if (turns.length == 0) {
+                throw new IllegalArgumentException("A script needs at least one turn");
+            }
+            if (thinkMillis < 0) {
+                throw new IllegalArgumentException("Think time cannot be negative");
+            }
+            int[] bonusSuits = new int[turns.length];
+            int[] swapMasks = new int[turns.length];
+            for (int t = 0; t < turns.length; t++) {
+                String[] answers = turns[t].trim().split("\\s+");
+                bonusSuits[t] = parseAnswer(turns[t], answers[0], 1, 4) - 1;
+                for (int i = 1; i < answers.length; i++) {
+                    int position = parseAnswer(turns[t], answers[i], 0, CARDS_PER_HAND);
+                    if (position == 0 && answers.length == 2) {
+                        break; // Keep all
+                    }
+                    int bit = position == 0 ? 0 : 1 << (position - 1);
+                    if (bit == 0 || (swapMasks[t] & bit) != 0 || Integer.bitCount(swapMasks[t]) == MAX_SWAPS) {
+                        throw new IllegalArgumentException("Bad swap positions in turn: " + turns[t]);
+                    }
+                    swapMasks[t] |= bit;
+                }
+            }
+            return new Entrant(name, false, thinkMillis, bonusSuits, swapMasks);
+        }
+
+        private static int parseAnswer(String turn, String answer, int min, int max) {
+            try {
+                int value = Integer.parseInt(answer);
+                if (value >= min && value <= max) {
+                    return value;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            throw new IllegalArgumentException("Bad answer '" + answer + "' in turn: " + turn);
+        }
+
+        private void think() throws InterruptedException {
+            if (thinkMillis > 0) {
+                Thread.sleep(thinkMillis);
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isComputer() {
+            return computer;
+        }
+
+        public long getThinkMillis() {
+            return thinkMillis;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * The outcome of one match. Scores are game totals, including any
+     * tiebreak rounds.
+     */
+    public static final class Match {
+        private final int number;
+        private final int stage;
+        private final Entrant home;
+        private final Entrant away;
+        private final int homeScore;
+        private final int awayScore;
+        private final int rounds;
+        private final Entrant winner;
+
+        Match(int number, int stage, Entrant home, Entrant away, int homeScore, int awayScore,
+              int rounds, Entrant winner) {
+            this.number = number;
+            this.stage = stage;
+            this.home = home;
+            this.away = away;
+            this.homeScore = homeScore;
+            this.awayScore = awayScore;
+            this.rounds = rounds;
+            this.winner = winner;
+        }
+
+        // Also the stream its deck is shuffled from
+        public int getNumber() {
+            return number;
+        }
+
+        // Knockout round, 0 for the first; always 0 in a round-robin
+        public int getStage() {
+            return stage;
+        }
+
+        // Dealt first each round
+        public Entrant getHome() {
+            return home;
+        }
+
+        public Entrant getAway() {
+            return away;
+        }
+
+        public int getHomeScore() {
+            return homeScore;
+        }
+
+        public int getAwayScore() {
+            return awayScore;
+        }
+
+        public int getRounds() {
+            return rounds;
+        }
+
+        // Null for a round-robin draw
+        public Entrant getWinner() {
+            return winner;
+        }
+
+        @Override
+        public String toString() {
+            return home + " " + homeScore + " - " + awayScore + " " + away;
+        }
+    }
+
+    /**
+     * One entrant's line in the standings. The tournament's own lines
+     * change as matches finish; those handed out are copies.
+     */
+    public static final class Standing {
+        static final Comparator<Standing> RANKING = Comparator
+            .comparingInt(Standing::getPoints).reversed()
+            .thenComparing(Comparator.comparingLong(Standing::getScoreDifference).reversed())
+            .thenComparing(Comparator.comparingLong(Standing::getScoreFor).reversed())
+            .thenComparingInt(Standing::getSeed);
+
+        private final String name;
+        private final int seed;
+        private int played;
+        private int won;
+        private int drawn;
+        private int lost;
+        private long scoreFor;
+        private long scoreAgainst;
+
+        Standing(String name, int seed) {
+            this.name = name;
+            this.seed = seed;
+        }
+
+        // outcome: 1 won, 0 drawn, -1 lost
+        synchronized void record(int score, int opponentScore, int outcome) {
+            played++;
+            if (outcome > 0) {
+                won++;
+            } else if (outcome < 0) {
+                lost++;
+            } else {
+                drawn++;
+            }
+            scoreFor += score;
+            scoreAgainst += opponentScore;
+        }
+
+        synchronized Standing copy() {
+            Standing copy = new Standing(name, seed);
+            copy.played = played;
+            copy.won = won;
+            copy.drawn = drawn;
+            copy.lost = lost;
+            copy.scoreFor = scoreFor;
+            copy.scoreAgainst = scoreAgainst;
+            return copy;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // Place in the entrant list, 0 first
+        public int getSeed() {
+            return seed;
+        }
+
+        public int getPlayed() {
+            return played;
+        }
+
+        public int getWon() {
+            return won;
+        }
+
+        public int getDrawn() {
+            return drawn;
+        }
+
+        public int getLost() {
+            return lost;
+        }
+
+        public int getPoints() {
+            return won * WIN_POINTS + drawn * DRAW_POINTS;
+        }
+
+        public long getScoreFor() {
+            return scoreFor;
+        }
+
+        public long getScoreAgainst() {
+            return scoreAgainst;
+        }
+
+        public long getScoreDifference() {
+            return scoreFor - scoreAgainst;
+        }
+    }
+
+    /**
+     * A finished tournament: every match played, in match number order,
+     * and the final standings.
+     */
+    public static class Result {
+        private final Tournament tournament;
+        private final List<Match> matches;
+        private final List<Standing> standings;
+        private final Entrant champion;
+        private final long elapsedNanos;
+
+        Result(Tournament tournament, List<Match> matches, Entrant champion, long elapsedNanos) {
+            this.tournament = tournament;
+            this.matches = matches;
+            this.standings = tournament.getStandings();
+            this.champion = champion;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public List<Match> getMatches() {
+            return matches;
+        }
+
+        public List<Standing> getStandings() {
+            return standings;
+        }
+
+        // Knockout winner; null for a round-robin
+        public Entrant getChampion() {
+            return champion;
+        }
+
+        public int getPeakMatchesInPlay() {
+            return tournament.getPeakMatchesInPlay();
+        }
+
+        public double getElapsedSeconds() {
+            return elapsedNanos / 1e9;
+        }
+
+        public double getMatchesPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : matches.size() / getElapsedSeconds();
+        }
+
+        // Summary and the top `places` of the standings
+        public void print(int places) {
+            print(places, Renderer.console());
+        }
+
+        public void print(int places, Renderer out) {
+            out.println();
+            out.printRule('=', 60);
+            out.println(tournament.isKnockout() ? "KNOCKOUT RESULTS" : "ROUND-ROBIN RESULTS");
+            out.printRule('=', 60);
+            out.printf("%-20s %d%n", "Entrants", standings.size());
+            out.printf("%-20s %d%n", "Matches", matches.size());
+            out.printf("%-20s %d%n", "Seed", tournament.getSeed());
+            out.printf("%-20s %.3f s%n", "Elapsed", getElapsedSeconds());
+            out.printf("%-20s %.0f%n", "Matches/second", getMatchesPerSecond());
+            out.printf("%-20s %d%n", "Peak in play", getPeakMatchesInPlay());
+            if (champion != null) {
+                out.printf("%-20s %s%n", "Champion", champion.getName());
+            }
+            out.printRule('-', 60);
+            out.printf("%-4s %-16s %5s %5s %5s %5s %6s %7s%n",
+                "", "Player", "P", "W", "D", "L", "Pts", "Diff");
+            for (int i = 0; i < Math.min(places, standings.size()); i++) {
+                Standing s = standings.get(i);
+                out.printf("%-4d %-16s %5d %5d %5d %5d %6d %+7d%n", i + 1, s.getName(),
+                    s.getPlayed(), s.getWon(), s.getDrawn(), s.getLost(), s.getPoints(), s.getScoreDifference());
+            }
+            out.printRule('=', 60);
+            out.flush();
+        }
+    }
+}
\ No newline at end of file
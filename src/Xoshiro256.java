@@ -0,0 +1,67 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * xoshiro256** pseudo-random generator.
+ * Fast, not thread-safe and reseedable in place, so one instance per thread
+ * can be pointed at a new stream for every game without allocating. A
+ * stream is identified by a master seed and a stream index (for example
+ * the game number); the same pair always produces the same sequence no
+ * matter which thread runs it.
+ */
+public final class Xoshiro256 implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    public Xoshiro256(long seed) {
+        reseed(seed);
+    }
+
+    public Xoshiro256(long masterSeed, long stream) {
+        reseed(masterSeed, stream);
+    }
+
+    // Restart from a single seed, expanded with splitmix64
+    public void reseed(long seed) {
+        long x = seed;
+        s0 = mix64(x += GOLDEN_GAMMA);
+        s1 = mix64(x += GOLDEN_GAMMA);
+        s2 = mix64(x += GOLDEN_GAMMA);
+        s3 = mix64(x + GOLDEN_GAMMA);
+    }
+
+    // Restart on an independent stream derived from a master seed
+    public void reseed(long masterSeed, long stream) {
+        reseed(streamSeed(masterSeed, stream));
+    }
+
+    // Seed for one stream of a master seed
+    public static long streamSeed(long masterSeed, long stream) {
+        return mix64(masterSeed ^ mix64(stream * GOLDEN_GAMMA + GOLDEN_GAMMA));
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+
+        return result;
+    }
+
+    // splitmix64 finaliser
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,150 @@
+import org.junit.Test;
+import org.junit.After;
+import org.junit.Before;
+import static org.junit.Assert.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JUnit test class for BufferedRenderer
+ * Tests that buffered output matches the console's, and when it is written
+ */
+public class BufferedRendererTest {
+
+    private PrintStream originalOut;
+    private ByteArrayOutputStream console;
+
+    @Before
+    public void setUp() {
+        originalOut = System.out;
+        console = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(console, true, StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    /**
+     * Stream that counts the writes reaching it.
+     */
+    private static class CountingStream extends ByteArrayOutputStream {
+        int writes;
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            writes++;
+            super.write(b, off, len);
+        }
+    }
+
+    private static void drawScreen(Renderer out) {
+        out.println();
+        out.printRule('=', 60);
+        out.println("ROUND 1 of 3");
+        out.printRule('=', 60);
+        for (int id = 0; id < Card.DECK_SIZE; id += 11) {
+            out.print("[" + (id + 1) + "] ");
+            out.printCard(Card.of(id));
+            out.println();
+        }
+        out.printf("%-20s %6d %6.1f%n", "Alice", 42, 8.5);
+        out.print("Café ♠ ");
+        out.println("done");
+        out.printRule('-', 60);
+        out.flush();
+    }
+
+    @Test
+    public void testMatchesConsoleOutput() {
+        drawScreen(Renderer.console());
+
+        ByteArrayOutputStream buffered = new ByteArrayOutputStream();
+        drawScreen(new BufferedRenderer(buffered));
+        assertEquals(console.toString(StandardCharsets.UTF_8), buffered.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testWritesOncePerFlush() {
+        CountingStream stream = new CountingStream();
+        BufferedRenderer out = new BufferedRenderer(stream);
+        out.println("Enter number of players (1 or 2): ");
+        out.printRule('=', 60);
+        out.printCard(Card.of(12));
+        assertEquals(0, stream.writes);
+        assertTrue(out.pending() > 0);
+
+        out.flush();
+        assertEquals(1, stream.writes);
+        assertEquals(0, out.pending());
+        out.flush();
+        assertEquals(1, stream.writes); // Nothing new to write
+    }
+
+    @Test
+    public void testDrainsWhenFull() {
+        CountingStream stream = new CountingStream();
+        BufferedRenderer out = new BufferedRenderer(stream, StandardCharsets.UTF_8, 16);
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            out.print("0123456789");
+            expected.append("0123456789");
+        }
+        out.printRule('*', 40); // Longer than the buffer
+        expected.append("*".repeat(40)).append(System.lineSeparator());
+        out.flush();
+
+        assertEquals(expected.toString(), stream.toString(StandardCharsets.UTF_8));
+        assertTrue(stream.writes > 1);
+    }
+
+    @Test
+    public void testEncodesInGivenCharset() {
+        Charset latin1 = StandardCharsets.ISO_8859_1;
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        BufferedRenderer out = new BufferedRenderer(stream, latin1, 64);
+        out.print("Café ");
+        out.printCard(Card.of(0));
+        out.flush();
+        // Unmappable suit symbols become '?' exactly as String.getBytes gives them
+        assertArrayEquals(("Café " + Card.of(0).toSymbol()).getBytes(latin1), stream.toByteArray());
+    }
+
+    @Test
+    public void testRecordsFailedWrites() {
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("closed");
+            }
+        };
+        BufferedRenderer out = new BufferedRenderer(broken);
+        out.println("lost");
+        assertFalse(out.checkError());
+        out.flush();
+        assertTrue(out.checkError());
+    }
+
+    @Test
+    public void testNullRendererDrawsNothing() {
+        drawScreen(Renderer.none());
+        assertEquals(0, console.size());
+    }
+
+    @Test
+    public void testForMode() {
+        assertSame(Renderer.console(), Renderer.forMode("console"));
+        assertSame(Renderer.none(), Renderer.forMode("none"));
+        assertTrue(Renderer.forMode("buffered") instanceof BufferedRenderer);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsUnknownMode() {
+        Renderer.forMode("fancy");
+    }
+}
\ No newline at end of file
@@ -148,4 +148,34 @@ public class CardTest {
             assertEquals(rank + 2, card.getScore());
         }
     }
+    
+    @Test
+    public void testFactoryReturnsSharedInstance() {
+        assertSame(Card.of(0, 0), Card.of(0, 0));
+        assertSame(Card.of(51), Card.of(12, 3));
+    }
+    
+    @Test
+    public void testCardIds() {
+        assertEquals(0, card1.getId());
+        assertEquals(51, card2.getId());
+        
+        for (int id = 0; id < Card.DECK_SIZE; id++) {
+            Card card = Card.of(id);
+            assertEquals(id, card.getId());
+            assertEquals(id % 13, card.getRankValue());
+            assertEquals(id / 13, card.getSuitValue());
+        }
+    }
+    
+    @Test
+    public void testFactoryEqualsConstructedCard() {
+        assertEquals(card1, Card.of(0, 0));
+        assertEquals(card1.hashCode(), Card.of(0, 0).hashCode());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCardId() {
+        Card.of(52);
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ import org.junit.Test;
 import org.junit.Before;
 import static org.junit.Assert.*;
 import java.util.HashSet;
+import java.util.Random;
 
 /**
  * JUnit test class for Deck
@@ -177,4 +178,90 @@ public class DeckTest {
         deck.shuffle();
         assertEquals(52, deck.cardsRemaining());
     }
+    
+    @Test
+    public void testDealsSharedCardInstances() {
+        for (int i = 0; i < 52; i++) {
+            Card card = deck.dealCard();
+            assertSame(Card.of(card.getId()), card);
+        }
+    }
+    
+    @Test
+    public void testDealCardId() {
+        assertEquals(0, deck.dealCardId());
+        assertEquals(51, deck.cardsRemaining());
+        
+        while (!deck.isEmpty()) {
+            deck.dealCard();
+        }
+        assertEquals(-1, deck.dealCardId());
+    }
+    
+    @Test
+    public void testResetRestoresAllCards() {
+        deck.shuffle();
+        for (int i = 0; i < 20; i++) {
+            deck.dealCard();
+        }
+        
+        deck.reset();
+        assertEquals(52, deck.cardsRemaining());
+        for (int id = 0; id < 52; id++) {
+            assertSame(Card.of(id), deck.dealCard());
+        }
+    }
+    
+    @Test
+    public void testReshuffleAfterDealing() {
+        for (int i = 0; i < 52; i++) {
+            deck.dealCard();
+        }
+        
+        deck.reshuffle();
+        assertEquals(52, deck.cardsRemaining());
+        
+        HashSet<Card> cards = new HashSet<>();
+        while (!deck.isEmpty()) {
+            cards.add(deck.dealCard());
+        }
+        assertEquals(52, cards.size());
+    }
+    
+    @Test
+    public void testShuffleKeepsDealtCardsOut() {
+        HashSet<Card> dealt = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            dealt.add(deck.dealCard());
+        }
+        
+        deck.shuffle();
+        assertEquals(42, deck.cardsRemaining());
+        while (!deck.isEmpty()) {
+            assertFalse(dealt.contains(deck.dealCard()));
+        }
+    }
+    
+    @Test
+    public void testSeededShuffleIsRepeatable() {
+        Deck other = new Deck();
+        deck.shuffle(new Random(21));
+        other.shuffle(new Random(21));
+        
+        for (int i = 0; i < 52; i++) {
+            assertSame(other.dealCard(), deck.dealCard());
+        }
+    }
+    
+    @Test
+    public void testSeededDecksMatch() {
+        Deck first = new Deck(99L);
+        Deck second = new Deck(99L);
+        first.shuffle();
+        second.shuffle();
+        
+        for (int i = 0; i < 52; i++) {
+            assertSame(first.dealCard(), second.dealCard());
+        }
+    }
 }
\ No newline at end of file
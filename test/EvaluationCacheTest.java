@@ -0,0 +1,131 @@
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * JUnit test class for EvaluationCache
+ * Tests cached decisions against live solving, counters, eviction and
+ * sharing between threads
+ */
+public class EvaluationCacheTest {
+
+    private SwapOptimizer optimizer;
+
+    @Before
+    public void setUp() {
+        optimizer = new SwapOptimizer();
+    }
+
+    private static long randomHand(Random random) {
+        Deck deck = new Deck(random.nextLong());
+        deck.shuffle();
+        long cards = 0L;
+        for (int i = 0; i < 5; i++) {
+            cards |= Hand.bit(deck.dealCardId());
+        }
+        return cards;
+    }
+
+    @Test
+    public void testDecisionsMatchLiveSolving() {
+        EvaluationCache cache = new EvaluationCache(1024);
+        Random random = new Random(90);
+
+        for (int trial = 0; trial < 40; trial++) {
+            long cards = randomHand(random);
+            int[] ids = StrategyTable.sortedIds(cards);
+
+            SwapOptimizer.Decision live = optimizer.decide(ids);
+            SwapOptimizer.Decision cached = cache.decide(cards, optimizer);
+            assertEquals(live.getSwapMask(), cached.getSwapMask());
+            assertEquals(live.getBonusSuit(), cached.getBonusSuit());
+            assertEquals(live.getExpectedScore(), cached.getExpectedScore(), 0.0);
+
+            int bonus = trial % 4;
+            SwapOptimizer.Decision fixed = cache.decide(cards, bonus, optimizer);
+            assertEquals(optimizer.decide(ids, bonus).getSwapMask(), fixed.getSwapMask());
+            assertEquals(bonus, fixed.getBonusSuit());
+        }
+    }
+
+    @Test
+    public void testRelabelledHandsHit() {
+        EvaluationCache cache = new EvaluationCache(1024);
+        long cards = randomHand(new Random(91));
+
+        for (int suitMap : HandCanonicalizer.allSuitMaps()) {
+            long relabelled = HandCanonicalizer.fromCanonical(cards, suitMap);
+            SwapOptimizer.Decision cached = cache.decide(relabelled, optimizer);
+            SwapOptimizer.Decision live = optimizer.decide(StrategyTable.sortedIds(relabelled));
+            assertEquals(live.getSwapMask(), cached.getSwapMask());
+            assertEquals(live.getBonusSuit(), cached.getBonusSuit());
+        }
+
+        assertEquals(1, cache.getMisses());
+        assertEquals(23, cache.getHits());
+        assertEquals(1, cache.size());
+        assertEquals(23.0 / 24.0, cache.getHitRate(), 1e-12);
+    }
+
+    @Test
+    public void testEvictsBeyondCapacity() {
+        EvaluationCache cache = new EvaluationCache(16);
+        Random random = new Random(92);
+
+        for (int trial = 0; trial < 40; trial++) {
+            cache.decide(randomHand(random), optimizer);
+        }
+
+        assertTrue(cache.size() <= cache.getCapacity());
+        assertEquals(cache.getMisses() - cache.size(), cache.getEvictions());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testSharedBetweenThreads() throws Exception {
+        EvaluationCache cache = new EvaluationCache(1024);
+        Random random = new Random(93);
+        long[] hands = new long[8];
+        for (int i = 0; i < hands.length; i++) {
+            hands[i] = randomHand(random);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(pool.submit(() -> {
+                    SwapOptimizer own = new SwapOptimizer();
+                    int[] masks = new int[hands.length];
+                    for (int i = 0; i < hands.length; i++) {
+                        masks[i] = cache.decide(hands[i], own).getSwapMask();
+                    }
+                    return masks;
+                }));
+            }
+
+            int[] expected = futures.get(0).get();
+            for (Future<int[]> future : futures) {
+                assertArrayEquals(expected, future.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(32, cache.getHits() + cache.getMisses());
+        assertTrue(cache.size() <= hands.length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsTinyCapacity() {
+        new EvaluationCache(1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,179 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JUnit test class for GameEventBus
+ * Tests ordered delivery to every consumer, batching, wrapping the ring,
+ * recording replays and statistics, and reporting failed handlers
+ */
+public class GameEventBusTest {
+
+    private static final int HAND = GameReplay.packHand(new byte[] {0, 13, 26, 39, 51});
+    private static final int SWAPPED_HAND = GameReplay.packHand(new byte[] {0, 13, 26, 2, 3});
+
+    /**
+     * Handler that checks sequences arrive in order and counts batches.
+     */
+    private static class OrderCheck implements GameEventHandler {
+        long expected;
+        long scoreSum;
+        int batches;
+        boolean outOfOrder;
+
+        @Override
+        public void onEvent(GameEvent event, long sequence, boolean endOfBatch) {
+            if (sequence != expected++ || event.getScore() != (int) (sequence % 1000)) {
+                outOfOrder = true;
+            }
+            scoreSum += event.getScore();
+            if (endOfBatch) {
+                batches++;
+            }
+        }
+    }
+
+    @Test
+    public void testEveryConsumerSeesEveryEventInOrder() {
+        OrderCheck first = new OrderCheck();
+        OrderCheck second = new OrderCheck();
+        int events = 100_000;
+        long expectedSum = 0;
+        try (GameEventBus bus = new GameEventBus(8)) { // Wraps the ring many times
+            bus.subscribe("first", first);
+            bus.subscribe("second", second);
+            bus.start();
+            for (int i = 0; i < events; i++) {
+                bus.scored(0, 0, "Alice", HAND, 0, 0, HAND, 0, i % 1000);
+                expectedSum += i % 1000;
+            }
+            bus.sync();
+            assertEquals(0, bus.backlog());
+        }
+        for (OrderCheck check : List.of(first, second)) {
+            assertFalse(check.outOfOrder);
+            assertEquals(events, check.expected);
+            assertEquals(expectedSum, check.scoreSum);
+            assertTrue(check.batches >= 1 && check.batches <= events);
+        }
+    }
+
+    @Test
+    public void testCloseDeliversEverythingPublished() {
+        OrderCheck check = new OrderCheck();
+        GameEventBus bus = new GameEventBus(64);
+        bus.subscribe("check", check);
+        bus.start();
+        for (int i = 0; i < 50; i++) {
+            bus.scored(0, 0, "Alice", HAND, 0, 0, HAND, 0, i);
+        }
+        bus.close();
+        assertEquals(50, check.expected);
+    }
+
+    @Test
+    public void testRecordsReplay() {
+        GameReplay direct = new GameReplay();
+        GameReplay fromEvents = new GameReplay();
+        try (GameEventBus bus = new GameEventBus()) {
+            bus.subscribe("replay", GameEventHandler.recordInto(fromEvents));
+            bus.start();
+            for (int round = 0; round < 3; round++) {
+                direct.startRound();
+                bus.dealt(round, 0, "Alice", HAND);
+                bus.dealt(round, 1, "Computer", HAND);
+                bus.bonusChosen(round, 0, "Alice", HAND, round);
+                bus.swapped(round, 0, "Alice", HAND, round, 0b11000, SWAPPED_HAND);
+                bus.scored(round, 0, "Alice", HAND, round, 0b11000, SWAPPED_HAND, 0, 30 + round);
+                direct.addPlayerRound("Alice", HAND, round, 0b11000, SWAPPED_HAND, 30 + round);
+                bus.bonusChosen(round, 1, "Computer", HAND, 3);
+                bus.swapped(round, 1, "Computer", HAND, 3, 0, HAND);
+                bus.scored(round, 1, "Computer", HAND, 3, 0, HAND, 3, 16);
+                direct.addPlayerRound("Computer", HAND, 3, 0, HAND, 16);
+            }
+            bus.gameOver(3, 2);
+            bus.sync();
+        }
+
+        assertEquals(direct.getRoundCount(), fromEvents.getRoundCount());
+        for (int round = 0; round < 3; round++) {
+            assertEquals(2, fromEvents.getPlayerCount(round));
+            for (int p = 0; p < 2; p++) {
+                GameReplay.PlayerRoundData want = direct.getPlayerRound(round, p);
+                GameReplay.PlayerRoundData got = fromEvents.getPlayerRound(round, p);
+                assertEquals(want.getPlayerName(), got.getPlayerName());
+                assertEquals(want.getInitialHand(), got.getInitialHand());
+                assertEquals(want.getFinalHand(), got.getFinalHand());
+                assertEquals(want.getSwapMask(), got.getSwapMask());
+                assertEquals(want.getRoundScore(), got.getRoundScore());
+            }
+        }
+    }
+
+    @Test
+    public void testCollectsStatistics() {
+        GameStats stats = new GameStats();
+        try (GameEventBus bus = new GameEventBus(16)) {
+            bus.subscribe("stats", stats);
+            bus.start();
+            for (int game = 0; game < 2; game++) {
+                bus.scored(0, 0, "Alice", HAND, 2, 0b00111, SWAPPED_HAND, 2, 40);
+                bus.scored(0, 1, "Computer", HAND, 1, 0, HAND, 3, 20);
+                bus.gameOver(1, 2);
+            }
+            bus.sync();
+        }
+        assertEquals(2, stats.getGames());
+        assertEquals(4, stats.getPlayerRounds());
+        assertEquals(30.0, stats.getMeanScore(), 1e-9);
+        assertEquals(40, stats.getBestScore());
+        assertEquals(0.5, stats.getBonusHitRate(), 1e-9);
+        assertEquals(2, stats.getBonusChoices(2));
+        assertEquals(2, stats.getSwapCount(3));
+        assertEquals(2, stats.getSwapCount(0));
+    }
+
+    @Test
+    public void testFailedHandlerIsReported() {
+        List<Long> seen = new ArrayList<>();
+        try (GameEventBus bus = new GameEventBus(4)) {
+            bus.subscribe("failing", (event, sequence, endOfBatch) -> {
+                seen.add(sequence);
+                if (sequence == 2) {
+                    throw new IllegalArgumentException("bad event");
+                }
+            });
+            bus.start();
+            for (int i = 0; i < 20; i++) { // Never held up by the failed consumer
+                bus.gameOver(1, 1);
+            }
+            try {
+                bus.sync();
+                fail("Expected the failure to be reported");
+            } catch (IllegalStateException e) {
+                assertTrue(e.getCause() instanceof IllegalArgumentException);
+            }
+        }
+        assertEquals(List.of(0L, 1L, 2L), seen);
+    }
+
+    @Test
+    public void testRoundsCapacityUpToPowerOfTwo() {
+        assertEquals(8, new GameEventBus(5).getCapacity());
+        assertEquals(1024, new GameEventBus().getCapacity());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPublishBeforeStart() {
+        new GameEventBus().gameOver(1, 1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubscribeAfterStart() {
+        try (GameEventBus bus = new GameEventBus()) {
+            bus.start();
+            bus.subscribe("late", new GameStats());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,164 @@
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import static org.junit.Assert.*;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * JUnit test class for GameReplay
+ * Tests packing player-rounds into primitive arrays and decoding them back
+ */
+public class GameReplayTest {
+    
+    private GameReplay replay;
+    private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+    private final PrintStream originalOut = System.out;
+    
+    @Before
+    public void setUp() {
+        replay = new GameReplay();
+        System.setOut(new PrintStream(outContent));
+    }
+    
+    @After
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+    
+    private static byte[] ids(int... ids) {
+        byte[] bytes = new byte[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            bytes[i] = (byte) ids[i];
+        }
+        return bytes;
+    }
+    
+    @Test
+    public void testPackHandRoundTrip() {
+        byte[] hand = ids(0, 51, 12, 13, 38);
+        assertArrayEquals(hand, GameReplay.unpackHand(GameReplay.packHand(hand)));
+        
+        ArrayList<Card> cards = new ArrayList<>();
+        for (byte id : hand) {
+            cards.add(Card.of(id));
+        }
+        assertEquals(GameReplay.packHand(hand), GameReplay.packHand(cards));
+    }
+    
+    @Test
+    public void testShortHandRoundTrip() {
+        assertArrayEquals(ids(7, 8), GameReplay.unpackHand(GameReplay.packHand(ids(7, 8))));
+        assertEquals(0, GameReplay.unpackHand(GameReplay.packHand(new byte[0])).length);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCardRejected() {
+        GameReplay.packHand(ids(1, 2, 52));
+    }
+    
+    @Test
+    public void testSwapMask() {
+        assertEquals(0, GameReplay.swapMask(new ArrayList<>()));
+        assertEquals(0b11010, GameReplay.swapMask(Arrays.asList(4, 1, 3)));
+    }
+    
+    @Test
+    public void testRecordAndDecode() {
+        replay.startRound();
+        replay.addPlayerRound("Alice", GameReplay.packHand(ids(0, 1, 2, 3, 4)), 2,
+            0b00011, GameReplay.packHand(ids(2, 3, 4, 50, 51)), 56);
+        replay.addPlayerRound("Bob", GameReplay.packHand(ids(10, 11, 12, 13, 14)), 0,
+            0, GameReplay.packHand(ids(10, 11, 12, 13, 14)), 0);
+        replay.startRound();
+        replay.addPlayerRound("Alice", GameReplay.packHand(ids(20, 21, 22, 23, 24)), 3,
+            0b10000, GameReplay.packHand(ids(20, 21, 22, 23, 25)), 31);
+        
+        assertEquals(2, replay.getRoundCount());
+        assertEquals(2, replay.getPlayerCount(0));
+        assertEquals(1, replay.getPlayerCount(1));
+        assertEquals(3, replay.size());
+        
+        GameReplay.PlayerRoundData alice = replay.getPlayerRound(0, 0);
+        assertEquals("Alice", alice.getPlayerName());
+        assertEquals(Card.of(0), alice.getInitialHand().get(0));
+        assertEquals(Card.of(51), alice.getFinalHand().get(4));
+        assertEquals(2, alice.getBonusSuit());
+        assertEquals(Arrays.asList(0, 1), alice.getSwappedCards());
+        assertEquals(56, alice.getRoundScore());
+        
+        GameReplay.PlayerRoundData later = replay.getPlayerRound(1, 0);
+        assertEquals("Alice", later.getPlayerName());
+        assertEquals(3, later.getBonusSuit());
+        assertEquals(0b10000, later.getSwapMask());
+        assertEquals(31, later.getRoundScore());
+        assertEquals("Bob", replay.getPlayerRound(0, 1).getPlayerName());
+    }
+    
+    @Test
+    public void testGrowsPastInitialCapacity() {
+        for (int round = 0; round < 100; round++) {
+            replay.startRound();
+            for (int player = 0; player < 3; player++) {
+                replay.addPlayerRound("Player" + player, GameReplay.packHand(ids(round % 52, 1, 2, 3, 4)),
+                    player, 0, GameReplay.packHand(ids(round % 52, 1, 2, 3, 4)), round);
+            }
+        }
+        
+        assertEquals(100, replay.getRoundCount());
+        assertEquals(300, replay.size());
+        GameReplay.PlayerRoundData last = replay.getPlayerRound(99, 2);
+        assertEquals("Player2", last.getPlayerName());
+        assertEquals(99, last.getRoundScore());
+        assertEquals(Card.of(47), last.getInitialHand().get(0));
+    }
+    
+    @Test
+    public void testAddRoundFromRoundReplay() {
+        ArrayList<Card> initial = new ArrayList<>(Arrays.asList(Card.of(5), Card.of(6), Card.of(7), Card.of(8), Card.of(9)));
+        ArrayList<Card> result = new ArrayList<>(Arrays.asList(Card.of(5), Card.of(7), Card.of(9), Card.of(30), Card.of(31)));
+        GameReplay.RoundReplay round = new GameReplay.RoundReplay();
+        round.addPlayerData(new GameReplay.PlayerRoundData("Carol", initial, 1,
+            new ArrayList<>(Arrays.asList(3, 1)), result, 24));
+        replay.addRound(round);
+        
+        GameReplay.PlayerRoundData data = replay.getPlayerRound(0, 0);
+        assertEquals(initial, data.getInitialHand());
+        assertEquals(result, data.getFinalHand());
+        assertEquals(Arrays.asList(1, 3), data.getSwappedCards());
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testPlayerBeforeRoundRejected() {
+        replay.addPlayerRound("Alice", 0, 0, 0, 0, 0);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testScoreOutsideByteRejected() {
+        replay.startRound();
+        replay.addPlayerRound("Alice", GameReplay.packHand(ids(1)), 0, 0, GameReplay.packHand(ids(1)), 256);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testMissingRoundRejected() {
+        replay.getPlayerRound(0, 0);
+    }
+    
+    @Test
+    public void testDisplayReplay() {
+        replay.startRound();
+        replay.addPlayerRound("Alice", GameReplay.packHand(ids(0, 1, 2, 3, 4)), 2,
+            0b00101, GameReplay.packHand(ids(1, 3, 4, 50, 51)), 21);
+        replay.displayReplay();
+        String output = outContent.toString();
+        
+        assertTrue(output.contains("ROUND 1:"));
+        assertTrue(output.contains("Alice:"));
+        assertTrue(output.contains("Bonus Suit: Hearts"));
+        assertTrue(output.contains("Cards Swapped: 1 3 "));
+        assertTrue(output.contains("Initial Hand: " + Card.of(0).toSymbol() + " "));
+        assertTrue(output.contains("Round Score: 21"));
+    }
+}
\ No newline at end of file
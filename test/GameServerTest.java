@@ -0,0 +1,249 @@
+import org.junit.Test;
+import org.junit.After;
+import org.junit.Before;
+import static org.junit.Assert.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JUnit test class for GameServer
+ * Tests the table protocol, scoring through the shared game code, and a
+ * loopback run of the load client
+ */
+public class GameServerTest {
+
+    private GameServer server;
+    private Thread serverThread;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new GameServer(0);
+        serverThread = server.start();
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        server.close();
+        serverThread.join(5000);
+    }
+
+    /**
+     * Blocking client speaking the line protocol.
+     */
+    private class Client implements AutoCloseable {
+        final Socket socket;
+        final BufferedReader in;
+        final OutputStream out;
+
+        Client() throws IOException {
+            socket = new Socket("localhost", server.getPort());
+            socket.setSoTimeout(5000);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            out = socket.getOutputStream();
+        }
+
+        String[] ask(String command) throws IOException {
+            send(command);
+            return reply();
+        }
+
+        void send(String command) throws IOException {
+            out.write((command + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        String[] reply() throws IOException {
+            String line = in.readLine();
+            assertNotNull("Connection closed", line);
+            return line.split(" ");
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    private static long cards(String[] reply, int from) {
+        long cards = 0;
+        for (int i = from; i < from + 5; i++) {
+            cards |= Hand.bit(Integer.parseInt(reply[i]));
+        }
+        return cards;
+    }
+
+    @Test
+    public void testGameAgainstComputer() throws IOException {
+        try (Client client = new Client()) {
+            String[] table = client.ask("NEW 2 1 1");
+            assertEquals("TABLE", table[0]);
+            assertArrayEquals(new String[] {"SEAT", "0"}, client.reply());
+
+            int total = 0;
+            for (int round = 1; round <= 2; round++) {
+                String[] hand = client.reply();
+                assertEquals("HAND", hand[0]);
+                assertEquals(String.valueOf(round), hand[1]);
+                long dealt = cards(hand, 2);
+                assertEquals(5, Long.bitCount(dealt));
+
+                String[] score = client.ask("MOVE 2 0");
+                assertEquals("SCORE", score[0]);
+                assertEquals(String.valueOf(round), score[1]);
+                assertEquals(dealt, cards(score, 5)); // Nothing swapped
+                assertEquals(Hand.roundScore(dealt, 2), Integer.parseInt(score[2]));
+                total += Integer.parseInt(score[2]);
+                assertEquals(total, Integer.parseInt(score[3]));
+                assertEquals(Hand.bestSuit(dealt), Integer.parseInt(score[4]));
+            }
+
+            String[] over = client.reply();
+            assertEquals("OVER", over[0]);
+            assertEquals(3, over.length);
+            assertEquals(total, Integer.parseInt(over[1]));
+            assertTrue(Integer.parseInt(over[2]) > 0);
+        }
+    }
+
+    @Test
+    public void testSwapDrawsNewCards() throws IOException {
+        try (Client client = new Client()) {
+            client.ask("NEW 1 1 0");
+            client.reply();
+            long dealt = cards(client.reply(), 2);
+
+            String[] score = client.ask("MOVE 0 31");
+            long swapped = cards(score, 5);
+            assertEquals(5, Long.bitCount(swapped));
+            assertEquals(0, dealt & swapped);
+            assertEquals(Hand.roundScore(swapped, 0), Integer.parseInt(score[2]));
+            assertEquals("OVER", client.reply()[0]);
+        }
+    }
+
+    @Test
+    public void testTwoHumansShareTable() throws IOException {
+        try (Client alice = new Client(); Client bob = new Client()) {
+            String id = alice.ask("NEW 2 2 0")[1];
+            alice.reply();
+            assertArrayEquals(new String[] {"SEAT", "1"}, bob.ask("JOIN " + id));
+
+            int[] totals = new int[2];
+            for (int round = 1; round <= 2; round++) {
+                long aliceCards = cards(alice.reply(), 2);
+                long bobCards = cards(bob.reply(), 2);
+                assertEquals(0, aliceCards & bobCards);
+
+                totals[1] += Integer.parseInt(bob.ask("MOVE 1 3")[2]);
+                assertEquals("ERR", bob.ask("MOVE 1 0")[0]); // Already played
+                totals[0] += Integer.parseInt(alice.ask("MOVE 0 0")[2]);
+            }
+            String[] over = alice.reply();
+            assertEquals(String.valueOf(totals[0]), over[1]);
+            assertEquals(String.valueOf(totals[1]), over[2]);
+            assertArrayEquals(over, bob.reply());
+
+            assertEquals("TABLE", alice.ask("NEW 1 1 0")[0]); // Free for another game
+        }
+    }
+
+    @Test
+    public void testLeavingAbandonsTable() throws IOException {
+        try (Client alice = new Client()) {
+            String id = alice.ask("NEW 1 2 1")[1];
+            alice.reply();
+            try (Client bob = new Client()) {
+                bob.ask("JOIN " + id);
+                alice.reply();
+                bob.send("QUIT");
+            }
+            assertArrayEquals(new String[] {"ABANDONED"}, alice.reply());
+            assertEquals("ERR", alice.ask("MOVE 0 0")[0]);
+        }
+    }
+
+    @Test
+    public void testRejectsBadCommands() throws IOException {
+        try (Client client = new Client()) {
+            assertEquals("ERR", client.ask("MOVE 0 0")[0]);
+            assertEquals("ERR", client.ask("NEW 4 1 0")[0]);
+            assertEquals("ERR", client.ask("NEW 1 3 3")[0]);
+            assertEquals("ERR", client.ask("NEW 1 0 2")[0]);
+            assertEquals("ERR", client.ask("JOIN 99")[0]);
+            assertEquals("ERR", client.ask("DEAL")[0]);
+
+            client.ask("NEW 1 1 0");
+            client.reply();
+            client.reply();
+            assertEquals("ERR", client.ask("MOVE 4 0")[0]);
+            assertEquals("ERR", client.ask("MOVE 0 32")[0]);
+            assertEquals("ERR", client.ask("NEW 1 1 0")[0]);
+            assertEquals("SCORE", client.ask("MOVE 0 0")[0]);
+        }
+    }
+
+    @Test
+    public void testClientThatNeverReadsIsThrottled() throws Exception {
+        byte[] flood = "NEW 9 1 0\n".repeat(1000).getBytes(StandardCharsets.US_ASCII);
+        AtomicLong sent = new AtomicLong();
+        Thread flooder;
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(4096);
+            socket.connect(new InetSocketAddress("localhost", server.getPort()));
+            OutputStream out = socket.getOutputStream();
+            flooder = new Thread(() -> {
+                try {
+                    while (true) {
+                        out.write(flood);
+                        sent.addAndGet(flood.length);
+                    }
+                } catch (IOException e) {
+                    // Blocked until closed, or dropped by the server
+                }
+            });
+            flooder.start();
+
+            // The server stops reading once its replies back up, so the writes stall
+            long deadline = System.nanoTime() + 20_000_000_000L;
+            long last = -1;
+            while (sent.get() != last && System.nanoTime() < deadline) {
+                last = sent.get();
+                Thread.sleep(500);
+            }
+            assertEquals(last, sent.get());
+            assertTrue(last < 64L * 1024 * 1024);
+        }
+        flooder.join(5000);
+
+        try (Client client = new Client()) {
+            assertEquals("TABLE", client.ask("NEW 1 1 0")[0]);
+        }
+    }
+
+    @Test
+    public void testLoadClient() throws IOException {
+        LoadClient.Result result = LoadClient.run(new InetSocketAddress("localhost", server.getPort()), 200, 1000);
+        assertEquals(0, result.getErrors());
+        assertTrue(result.getMoves() > 200);
+        assertTrue(result.getGames() > 0);
+        assertTrue(result.getMovesPerSecond() > 0);
+        assertTrue(result.latencyMicros(0.99) >= result.latencyMicros(0.50));
+        assertTrue(result.latencyMicros(0.50) > 0);
+        assertTrue(server.getMoveCount() >= result.getMoves());
+    }
+
+    @Test
+    public void testLoadClientWithComputersAndThinkTime() throws IOException {
+        LoadClient.Result result = LoadClient.run(new InetSocketAddress("localhost", server.getPort()),
+            20, 1, 50, 1000);
+        assertEquals(0, result.getErrors());
+        assertTrue(result.getMoves() > 20);
+        assertTrue(server.getMoveCount() >= 2 * result.getMoves()); // The computers' too
+    }
+}
\ No newline at end of file
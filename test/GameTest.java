@@ -2,6 +2,7 @@ import org.junit.Test;
 import org.junit.Before;
 import static org.junit.Assert.*;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Integration test class for HighSuit game
@@ -32,10 +33,7 @@ public void testCardSwapping() {
 
     ArrayList<Card> originalHand = new ArrayList<>(player1.getHand());
 
-    player1.getHand().remove(0);
-    player1.getHand().remove(0);
-    player1.addCard(deck.dealCard());
-    player1.addCard(deck.dealCard());
+    player1.swapCards(new ArrayList<>(List.of(0, 1)), deck);
 
     assertEquals(5, player1.getHand().size());
     assertEquals(deckBefore - 2, deck.cardsRemaining());
@@ -0,0 +1,133 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.Random;
+
+/**
+ * JUnit test class for HandCanonicalizer
+ * Tests that suit relabellings share one canonical form and map back exactly
+ */
+public class HandCanonicalizerTest {
+
+    private static long randomHand(Random random) {
+        Deck deck = new Deck(random.nextLong());
+        deck.shuffle();
+        long cards = 0L;
+        for (int i = 0; i < 5; i++) {
+            cards |= Hand.bit(deck.dealCardId());
+        }
+        return cards;
+    }
+
+    @Test
+    public void testAllSuitMapsArePermutations() {
+        int[] maps = HandCanonicalizer.allSuitMaps();
+        assertEquals(24, maps.length);
+        for (int map : maps) {
+            int seen = 0;
+            for (int c = 0; c < 4; c++) {
+                seen |= 1 << HandCanonicalizer.suit(map, c);
+            }
+            assertEquals(0b1111, seen);
+        }
+    }
+
+    @Test
+    public void testCanonicalIsSharedByRelabellings() {
+        Random random = new Random(12);
+        for (int trial = 0; trial < 50; trial++) {
+            long cards = randomHand(random);
+            long canonical = HandCanonicalizer.canonical(cards);
+            assertTrue(HandCanonicalizer.isCanonical(canonical));
+
+            for (int map : HandCanonicalizer.allSuitMaps()) {
+                long relabelled = HandCanonicalizer.fromCanonical(cards, map);
+                assertEquals(canonical, HandCanonicalizer.canonical(relabelled));
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Random random = new Random(13);
+        for (int trial = 0; trial < 50; trial++) {
+            long cards = randomHand(random);
+            int map = HandCanonicalizer.suitMap(cards);
+            long canonical = HandCanonicalizer.toCanonical(cards, map);
+            assertEquals(cards, HandCanonicalizer.fromCanonical(canonical, map));
+            assertEquals(Long.bitCount(cards), Long.bitCount(canonical));
+        }
+    }
+
+    @Test
+    public void testCanonicalIdFollowsLanes() {
+        long cards = Hand.bit(Card.of(4, 3).getId()) | Hand.bit(Card.of(9, 3).getId())
+                   | Hand.bit(Card.of(2, 1).getId());
+        int map = HandCanonicalizer.suitMap(cards);
+
+        // Spades hold the highest lane, so they move to Clubs
+        assertEquals(3, HandCanonicalizer.suit(map, 0));
+        assertEquals(Card.of(9, 0).getId(), HandCanonicalizer.toCanonicalId(Card.of(9, 3).getId(), map));
+        assertEquals(Card.of(2, 1).getId(), HandCanonicalizer.toCanonicalId(Card.of(2, 1).getId(), map));
+    }
+
+    @Test
+    public void testIdentity() {
+        long cards = randomHand(new Random(14));
+        assertEquals(cards, HandCanonicalizer.toCanonical(cards, HandCanonicalizer.IDENTITY));
+    }
+
+    @Test
+    public void testPairKeyKeepsBonusSuit() {
+        long cards = randomHand(new Random(15));
+        for (int bonus = 0; bonus < 4; bonus++) {
+            long key = HandCanonicalizer.canonicalPair(cards, bonus);
+            assertEquals(bonus, (int) (key >>> 52));
+            assertEquals(bonus, HandCanonicalizer.suit(HandCanonicalizer.pairSuitMap(cards, bonus), bonus));
+            assertEquals(Long.bitCount(cards), Long.bitCount(key & ((1L << 52) - 1)));
+        }
+    }
+
+    @Test
+    public void testEqualPairKeysPlayAlike() {
+        SwapOptimizer optimizer = new SwapOptimizer();
+        Random random = new Random(16);
+
+        for (int trial = 0; trial < 10; trial++) {
+            long cards = randomHand(random);
+            int bonus = trial % 4;
+            long key = HandCanonicalizer.canonicalPair(cards, bonus);
+            double expected = optimizer.decide(StrategyTable.sortedIds(cards), bonus).getExpectedScore();
+
+            for (int map : HandCanonicalizer.allSuitMaps()) {
+                long relabelled = HandCanonicalizer.fromCanonical(cards, map);
+                int relabelledBonus = HandCanonicalizer.suit(map, bonus);
+                if (HandCanonicalizer.canonicalPair(relabelled, relabelledBonus) == key) {
+                    double score = optimizer.decide(StrategyTable.sortedIds(relabelled), relabelledBonus)
+                                            .getExpectedScore();
+                    assertEquals(expected, score, 0.0);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPositionMap() {
+        Random random = new Random(17);
+        for (int trial = 0; trial < 20; trial++) {
+            long cards = randomHand(random);
+            int map = HandCanonicalizer.suitMap(cards);
+            int[] positions = HandCanonicalizer.positionMap(cards, map);
+            int[] ids = StrategyTable.sortedIds(cards);
+            int[] canonicalIds = StrategyTable.sortedIds(HandCanonicalizer.toCanonical(cards, map));
+
+            for (int i = 0; i < ids.length; i++) {
+                assertEquals(HandCanonicalizer.toCanonicalId(ids[i], map), canonicalIds[positions[i]]);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPairRejectsBadBonus() {
+        HandCanonicalizer.canonicalPair(0x1FL, 4);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+import org.junit.Test;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+
+/**
+ * JUnit test class for HandScoreTable
+ * Tests combinadic ranking, table generation and checksum-validated loading
+ */
+public class HandScoreTableTest {
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    private static Path tableFile;
+    private static HandScoreTable table;
+
+    @BeforeClass
+    public static void generateTable() throws IOException {
+        tableFile = folder.getRoot().toPath().resolve(HandScoreTable.DEFAULT_FILENAME);
+        HandScoreTable.generate(tableFile);
+        table = HandScoreTable.load(tableFile);
+    }
+
+    @Test
+    public void testRankBounds() {
+        long lowest = 0x1FL;                 // ids 0..4
+        long highest = 0x1FL << 47;          // ids 47..51
+        assertEquals(0, HandScoreTable.rank(lowest));
+        assertEquals(HandScoreTable.NUM_HANDS - 1, HandScoreTable.rank(highest));
+    }
+
+    @Test
+    public void testRankRoundTrip() {
+        Random random = new Random(5);
+        for (int i = 0; i < 10000; i++) {
+            int rank = random.nextInt(HandScoreTable.NUM_HANDS);
+            long cards = HandScoreTable.unrank(rank);
+            assertEquals(5, Long.bitCount(cards));
+            assertEquals(rank, HandScoreTable.rank(cards));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRankRejectsShortHand() {
+        HandScoreTable.rank(0xFL);
+    }
+
+    @Test
+    public void testTableMatchesHandScoring() {
+        Random random = new Random(9);
+        for (int i = 0; i < 20000; i++) {
+            long cards = HandScoreTable.unrank(random.nextInt(HandScoreTable.NUM_HANDS));
+            assertEquals(Hand.bestSuit(cards), table.bestSuit(cards));
+            assertEquals(Hand.maxSuitScore(cards), table.maxSuitScore(cards));
+            for (int bonus = 0; bonus < 4; bonus++) {
+                assertEquals(Hand.roundScore(cards, bonus), table.roundScore(cards, bonus));
+            }
+        }
+    }
+
+    @Test
+    public void testCorruptTableRejected() throws IOException {
+        Path corrupt = folder.newFile("corrupt.bin").toPath();
+        Files.copy(tableFile, corrupt, StandardCopyOption.REPLACE_EXISTING);
+
+        try (RandomAccessFile file = new RandomAccessFile(corrupt.toFile(), "rw")) {
+            file.seek(1000);
+            int value = file.read();
+            file.seek(1000);
+            file.write(value ^ 0x01);
+        }
+
+        try {
+            HandScoreTable.load(corrupt);
+            fail("Expected checksum failure");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("checksum"));
+        }
+    }
+
+    @Test
+    public void testLocateDefaultsBesideClasses() throws Exception {
+        String property = "highsuit.test.table";
+        Path classes = Path.of(HandScoreTable.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        Path dir = Files.isDirectory(classes) ? classes : classes.getParent();
+        assertEquals(dir.resolve("missing-table.bin"), HandScoreTable.locate(property, "missing-table.bin"));
+
+        System.setProperty(property, tableFile.toString());
+        try {
+            assertEquals(tableFile, HandScoreTable.locate(property, "missing-table.bin"));
+        } finally {
+            System.clearProperty(property);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingTable() throws IOException {
+        HandScoreTable.load(folder.getRoot().toPath().resolve("missing.bin"));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+import java.util.Random;
+
+/**
+ * JUnit test class for Hand
+ * Tests bitmask hand operations and table-driven suit scoring
+ */
+public class HandTest {
+
+    private Hand hand;
+
+    @Before
+    public void setUp() {
+        hand = new Hand();
+    }
+
+    @Test
+    public void testEmptyHand() {
+        assertTrue(hand.isEmpty());
+        assertEquals(0, hand.size());
+        assertEquals(0, hand.maxSuitScore());
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        hand.add(Card.of(12, 3));
+        hand.add(5);
+
+        assertEquals(2, hand.size());
+        assertTrue(hand.contains(Card.of(12, 3)));
+        assertTrue(hand.contains(Card.of(5)));
+
+        hand.remove(Card.of(12, 3));
+        assertFalse(hand.contains(Card.of(12, 3)));
+        assertEquals(1, hand.size());
+
+        hand.clear();
+        assertTrue(hand.isEmpty());
+    }
+
+    @Test
+    public void testSuitLanes() {
+        hand.add(Card.of(12, 0)); // Ace of Clubs = 11
+        hand.add(Card.of(9, 2));  // Jack of Hearts = 10
+        hand.add(Card.of(0, 2));  // 2 of Hearts = 2
+
+        assertEquals(11, hand.suitScore(0));
+        assertEquals(0, hand.suitScore(1));
+        assertEquals(12, hand.suitScore(2));
+        assertEquals(2, Hand.suitCount(hand.getMask(), 2));
+        assertEquals(2, hand.bestSuit());
+    }
+
+    @Test
+    public void testFullSuitLane() {
+        // 2..10 = 54, J/Q/K = 30, A = 11
+        assertEquals(95, Hand.laneScore(Hand.LANE_MASK));
+    }
+
+    @Test
+    public void testRoundScoreBonus() {
+        hand.add(Card.of(10, 0)); // Queen of Clubs = 10
+        hand.add(Card.of(11, 0)); // King of Clubs = 10
+        hand.add(Card.of(0, 1));  // 2 of Diamonds = 2
+
+        assertEquals(25, hand.roundScore(0));
+        assertEquals(20, hand.roundScore(1));
+    }
+
+    @Test
+    public void testTieGoesToLowestSuit() {
+        hand.add(Card.of(3, 1)); // 5 of Diamonds
+        hand.add(Card.of(3, 3)); // 5 of Spades
+
+        assertEquals(1, hand.bestSuit());
+        assertEquals(5, hand.roundScore(3));
+        assertEquals(10, hand.roundScore(1));
+    }
+
+    @Test
+    public void testMatchesPerCardScoring() {
+        Random random = new Random(11);
+
+        for (int trial = 0; trial < 1000; trial++) {
+            Player player = new Player("Alice");
+            Deck deck = new Deck();
+            deck.shuffle(random);
+            for (int i = 0; i < 5; i++) {
+                player.addCard(deck.dealCard());
+            }
+
+            int[] expected = new int[4];
+            for (Card card : player.getHand()) {
+                expected[card.getSuitValue()] += card.getScore();
+            }
+
+            long cards = player.getHandMask();
+            for (int suit = 0; suit < 4; suit++) {
+                assertEquals(expected[suit], Hand.suitScore(cards, suit));
+            }
+        }
+    }
+}
\ No newline at end of file
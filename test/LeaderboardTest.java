@@ -0,0 +1,198 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * JUnit test class for Leaderboard
+ * Tests histogram counts, rank and percentile queries, and top listing
+ */
+public class LeaderboardTest {
+
+    @Test
+    public void testEmpty() {
+        Leaderboard<String> board = new Leaderboard<>(5);
+        assertTrue(board.isEmpty());
+        assertEquals(1, board.rank(30));
+        assertEquals(0.0, board.percentile(30), 0.0);
+        assertTrue(board.top(5).isEmpty());
+    }
+
+    @Test
+    public void testTopInRankOrder() {
+        Leaderboard<String> board = new Leaderboard<>(3);
+        board.add(20, "Low");
+        board.add(50, "High");
+        board.add(30, "Mid");
+
+        assertEquals(Arrays.asList("High", "Mid", "Low"), board.top(3));
+        assertEquals(Arrays.asList("High", "Mid"), board.top(2));
+    }
+
+    @Test
+    public void testEqualScoresKeepOrderAdded() {
+        Leaderboard<String> board = new Leaderboard<>(5);
+        board.add(40, "First");
+        board.add(40, "Second");
+        board.add(45, "Best");
+        board.add(40, "Third");
+
+        assertEquals(Arrays.asList("Best", "First", "Second", "Third"), board.top(5));
+    }
+
+    @Test
+    public void testOnlyTopEntriesKept() {
+        Leaderboard<String> board = new Leaderboard<>(2);
+        assertTrue(board.add(10, "a"));
+        assertTrue(board.add(20, "b"));
+        assertTrue(board.add(30, "c"));
+        assertFalse(board.add(5, "d"));
+        assertFalse(board.add(20, "e"));
+
+        assertEquals(Arrays.asList("c", "b"), board.top(10));
+        assertEquals(5, board.size());
+    }
+
+    @Test
+    public void testRankAndPercentile() {
+        Leaderboard<String> board = new Leaderboard<>(1);
+        board.addCount(10, 3);
+        board.addCount(20, 5);
+        board.addCount(30, 2);
+
+        assertEquals(1, board.rank(30));
+        assertEquals(3, board.rank(20));
+        assertEquals(8, board.rank(10));
+        assertEquals(11, board.rank(0));
+        assertEquals(1, board.rank(99));
+        assertEquals(30.0, board.percentile(10), 1e-9);
+        assertEquals(80.0, board.percentile(25), 1e-9);
+        assertEquals(100.0, board.percentile(30), 1e-9);
+    }
+
+    @Test
+    public void testScoreAt() {
+        Leaderboard<String> board = new Leaderboard<>(1);
+        board.addCount(10, 3);
+        board.addCount(20, 5);
+        board.addCount(30, 2);
+
+        assertEquals(30, board.scoreAt(1));
+        assertEquals(30, board.scoreAt(2));
+        assertEquals(20, board.scoreAt(3));
+        assertEquals(20, board.scoreAt(7));
+        assertEquals(10, board.scoreAt(8));
+        assertEquals(10, board.scoreAt(10));
+    }
+
+    @Test
+    public void testGrowsForHighScores() {
+        Leaderboard<String> board = new Leaderboard<>(3);
+        board.add(10, "a");
+        board.add(1000, "b");
+        board.add(70, "c");
+
+        assertTrue(board.getRange() > 1000);
+        assertEquals(Arrays.asList("b", "c", "a"), board.top(3));
+        assertEquals(2, board.rank(70));
+        assertEquals(1, board.countAt(1000));
+    }
+
+    @Test
+    public void testMatchesSortedList() {
+        Random random = new Random(12);
+        Leaderboard<Integer> board = new Leaderboard<>(10);
+        int[] scores = new int[5000];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = random.nextInt(300);
+            board.add(scores[i], i);
+        }
+
+        int[] sorted = scores.clone();
+        Arrays.sort(sorted);
+        for (int score = 0; score <= 300; score += 7) {
+            int above = 0;
+            for (int s : scores) {
+                if (s > score) {
+                    above++;
+                }
+            }
+            assertEquals(above + 1, board.rank(score));
+        }
+        for (int place = 1; place <= scores.length; place += 97) {
+            assertEquals(sorted[scores.length - place], board.scoreAt(place));
+        }
+
+        // Best ten, equal scores in the order added
+        Integer[] order = new Integer[scores.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(scores[b], scores[a]));
+        assertEquals(Arrays.asList(order).subList(0, 10), board.top(10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNegativeScore() {
+        new Leaderboard<String>(5).add(-1, "a");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsScoreBeyondRange() {
+        new Leaderboard<String>(5).addCount(Leaderboard.MAX_SCORE + 1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsEmptyPlace() {
+        new Leaderboard<String>(5).scoreAt(1);
+    }
+
+    @Test
+    public void testConcurrentAdds() throws InterruptedException {
+        Leaderboard<Integer> board = new Leaderboard<>(10);
+        int threads = 4;
+        int perThread = 20000;
+        boolean[] unsorted = new boolean[1];
+
+        Thread reader = new Thread(() -> {
+            while (board.size() < (long) threads * perThread) {
+                List<Integer> top = board.top(10);
+                for (int i = 1; i < top.size(); i++) {
+                    if (top.get(i - 1) % 1000 < top.get(i) % 1000) {
+                        unsorted[0] = true;
+                    }
+                }
+            }
+        });
+        reader.start();
+
+        Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            writers[t] = new Thread(() -> {
+                Random random = new Random(id);
+                for (int i = 0; i < perThread; i++) {
+                    int score = random.nextInt(1000);
+                    // Entry encodes its writer and score so readers can check the order
+                    board.add(score, (id * perThread + i) * 1000 + score);
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        reader.join();
+
+        assertFalse(unsorted[0]);
+        assertEquals((long) threads * perThread, board.size());
+        long counted = 0;
+        for (int score = 0; score < 1000; score++) {
+            counted += board.countAt(score);
+        }
+        assertEquals(board.size(), counted);
+        assertEquals(10, board.top(10).size());
+        assertEquals(board.top(1).get(0) % 1000, board.scoreAt(1));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * JUnit test class for PlayerIndex
+ * Tests per-player statistics, saving and reading the index, and concurrent updates
+ */
+public class PlayerIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+    private PlayerIndex index;
+
+    @Before
+    public void setUp() {
+        file = folder.getRoot().toPath().resolve("players.dat");
+        index = new PlayerIndex();
+    }
+
+    private void save(int prefix) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(prefix);
+            index.writeTo(channel);
+        }
+    }
+
+    @Test
+    public void testUnknownPlayer() {
+        assertNull(index.get("Nobody"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testRoundScores() {
+        index.recordGame("Alice", new int[] {20, 40, 30});
+        index.recordGame("Alice", new int[] {50});
+
+        PlayerStats stats = index.get("Alice");
+        assertEquals("Alice", stats.getName());
+        assertEquals(2, stats.getGames());
+        assertEquals(4, stats.getRounds());
+        assertEquals(140, stats.getTotalScore());
+        assertEquals(35.0, stats.getMeanRoundScore(), 1e-9);
+        assertEquals(50, stats.getBestRound());
+        assertEquals(20, stats.getWorstRound());
+        assertEquals(30, stats.getP50());
+        assertEquals(50, stats.getP90());
+        assertEquals(50, stats.getP99());
+    }
+
+    @Test
+    public void testGameKnownOnlyByTotal() {
+        index.recordGame("Bob", 61, 2);
+
+        PlayerStats stats = index.get("Bob");
+        assertEquals(1, stats.getGames());
+        assertEquals(2, stats.getRounds());
+        assertEquals(61, stats.getTotalScore());
+        assertEquals(30, stats.getBestRound());
+        assertEquals(30, stats.getP50());
+    }
+
+    @Test
+    public void testStatsAreCopies() {
+        index.recordGame("Alice", new int[] {20});
+        PlayerStats before = index.get("Alice");
+        index.recordGame("Alice", new int[] {40});
+
+        assertEquals(1, before.getGames());
+        assertEquals(2, index.get("Alice").getGames());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGameWithoutRoundsRejected() {
+        index.recordGame("Alice", new int[0]);
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        index.recordGame("Alice", new int[] {20, 40, 30});
+        index.recordGame("Bob", 90, 3);
+        index.recordGame("Zoë", new int[] {56, 0});
+        save(100);
+
+        PlayerIndex read = PlayerIndex.read(file, 100);
+        assertEquals(3, read.size());
+        for (PlayerStats expected : index.all()) {
+            PlayerStats actual = read.get(expected.getName());
+            assertEquals(expected.getGames(), actual.getGames());
+            assertEquals(expected.getRounds(), actual.getRounds());
+            assertEquals(expected.getTotalScore(), actual.getTotalScore());
+            assertEquals(expected.getBestRound(), actual.getBestRound());
+            assertEquals(expected.getWorstRound(), actual.getWorstRound());
+            assertEquals(expected.getP50(), actual.getP50());
+            assertEquals(expected.getP99(), actual.getP99());
+        }
+    }
+
+    @Test
+    public void testManyPlayersSpanBuffers() throws Exception {
+        for (int i = 0; i < 5000; i++) {
+            index.recordGame("Player" + i, new int[] {i % 57, (i * 7) % 57});
+        }
+        save(0);
+
+        PlayerIndex read = PlayerIndex.read(file, 0);
+        assertEquals(5000, read.size());
+        assertEquals(Math.min(4999 % 57, (4999 * 7) % 57), read.get("Player4999").getWorstRound());
+        assertEquals(2, read.get("Player1234").getRounds());
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingIndexRejected() throws Exception {
+        save(0);
+        PlayerIndex.read(file, 4);
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncatedIndexRejected() throws Exception {
+        index.recordGame("Alice", new int[] {20, 40, 30});
+        save(0);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+        PlayerIndex.read(file, 0);
+    }
+
+    @Test
+    public void testConcurrentGames() throws Exception {
+        Thread[] games = new Thread[4];
+        for (int t = 0; t < games.length; t++) {
+            games[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    index.recordGame("Shared", new int[] {i % 50, 10});
+                }
+            });
+            games[t].start();
+        }
+        for (Thread game : games) {
+            game.join();
+        }
+
+        PlayerStats stats = index.get("Shared");
+        assertEquals(4000, stats.getGames());
+        assertEquals(8000, stats.getRounds());
+        assertEquals(4 * (49 * 50 / 2 * 20 + 10 * 1000), stats.getTotalScore());
+        assertEquals(49, stats.getBestRound());
+    }
+}
\ No newline at end of file
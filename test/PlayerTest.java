@@ -2,6 +2,7 @@ import org.junit.Test;
 import org.junit.Before;
 import static org.junit.Assert.*;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * JUnit test class for Player
@@ -224,4 +225,61 @@ public class PlayerTest {
         
         assertEquals(25 + 26, player.getTotalScore());
     }
+    
+    @Test
+    public void testComputerKeepsHighFlush() {
+        for (int rank = 8; rank <= 12; rank++) {
+            computerPlayer.addCard(new Card(rank, 1)); // 10 to Ace of Diamonds
+        }
+        
+        assertEquals(1, computerPlayer.computerSelectBonusSuit());
+        assertTrue(computerPlayer.computerSelectCards().isEmpty());
+    }
+    
+    @Test
+    public void testComputerSwapsWeakCards() {
+        computerPlayer.addCard(new Card(12, 0)); // Ace of Clubs
+        computerPlayer.addCard(new Card(0, 1));  // 2 of Diamonds
+        computerPlayer.addCard(new Card(11, 0)); // King of Clubs
+        computerPlayer.addCard(new Card(1, 3));  // 3 of Spades
+        computerPlayer.addCard(new Card(10, 0)); // Queen of Clubs
+        
+        assertEquals(0, computerPlayer.computerSelectBonusSuit());
+        ArrayList<Integer> swaps = computerPlayer.computerSelectCards();
+        assertTrue(swaps.contains(1));
+        assertTrue(swaps.contains(3));
+        assertTrue(swaps.size() <= 4);
+    }
+    
+    @Test
+    public void testHandMaskFollowsHand() {
+        Deck deck = new Deck(11L);
+        deck.shuffle();
+        for (int i = 0; i < 5; i++) {
+            player.addCard(deck.dealCard());
+        }
+        player.swapCards(new ArrayList<>(List.of(0, 3)), deck);
+        
+        long expected = 0L;
+        for (Card card : player.getHand()) {
+            expected |= Hand.bit(card.getId());
+        }
+        assertEquals(5, Long.bitCount(expected));
+        assertEquals(expected, player.getHandMask());
+        
+        player.clearHand();
+        assertEquals(0L, player.getHandMask());
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testHandIsReadOnly() {
+        player.addCard(new Card(0, 0));
+        player.getHand().remove(0);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsDuplicateCard() {
+        player.addCard(new Card(12, 0));
+        player.addCard(Card.of(12, 0));
+    }
 }
\ No newline at end of file
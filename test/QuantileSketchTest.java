@@ -0,0 +1,120 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.nio.ByteBuffer;
+
+/**
+ * JUnit test class for QuantileSketch
+ * Tests exact and bucketed quantiles, merging and serialization
+ */
+public class QuantileSketchTest {
+
+    @Test
+    public void testEmptySketch() {
+        QuantileSketch sketch = new QuantileSketch();
+        assertEquals(0, sketch.getCount());
+        assertEquals(-1, sketch.quantile(0.5));
+    }
+
+    @Test
+    public void testSmallScoresAreExact() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int score = 1; score <= 56; score++) {
+            sketch.add(score);
+        }
+
+        assertEquals(56, sketch.getCount());
+        assertEquals(1, sketch.quantile(0.0));
+        assertEquals(28, sketch.quantile(0.5));
+        assertEquals(51, sketch.quantile(0.9));
+        assertEquals(56, sketch.quantile(0.99));
+        assertEquals(56, sketch.quantile(1.0));
+    }
+
+    @Test
+    public void testRepeatedScores() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(10, 90);
+        sketch.add(40, 10);
+
+        assertEquals(100, sketch.getCount());
+        assertEquals(10, sketch.quantile(0.9));
+        assertEquals(40, sketch.quantile(0.91));
+    }
+
+    @Test
+    public void testBucketsCoverEveryScore() {
+        int previous = -1;
+        for (int score = 0; score <= QuantileSketch.MAX_SCORE; score++) {
+            int bucket = QuantileSketch.bucket(score);
+            assertTrue(bucket == previous || bucket == previous + 1);
+            assertEquals(bucket, QuantileSketch.bucket(QuantileSketch.lowerBound(bucket)));
+            assertTrue(QuantileSketch.lowerBound(bucket) <= score);
+            previous = bucket;
+        }
+    }
+
+    @Test
+    public void testLargeScoresWithinOneEighth() {
+        for (int score = 64; score <= QuantileSketch.MAX_SCORE; score += 37) {
+            QuantileSketch sketch = new QuantileSketch();
+            sketch.add(score);
+            int estimate = sketch.quantile(0.5);
+            assertTrue(estimate <= score);
+            assertTrue(score - estimate <= score / 8);
+        }
+    }
+
+    @Test
+    public void testScoresAboveMaximumCountedInLastBucket() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(Integer.MAX_VALUE);
+        assertEquals(1, sketch.getCount());
+        assertEquals(QuantileSketch.bucket(QuantileSketch.MAX_SCORE),
+            QuantileSketch.bucket(sketch.quantile(1.0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeScoreRejected() {
+        new QuantileSketch().add(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQuantileOutOfRange() {
+        new QuantileSketch().quantile(1.5);
+    }
+
+    @Test
+    public void testMergeAndCopy() {
+        QuantileSketch low = new QuantileSketch();
+        QuantileSketch high = new QuantileSketch();
+        low.add(5, 50);
+        high.add(50, 50);
+
+        QuantileSketch merged = low.copy();
+        merged.merge(high);
+
+        assertEquals(50, low.getCount());
+        assertEquals(100, merged.getCount());
+        assertEquals(5, merged.quantile(0.5));
+        assertEquals(50, merged.quantile(0.51));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(3, 7);
+        sketch.add(42);
+        sketch.add(1000, 2);
+
+        ByteBuffer buffer = ByteBuffer.allocate(sketch.serializedSize());
+        sketch.writeTo(buffer);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+
+        QuantileSketch read = QuantileSketch.readFrom(buffer);
+        assertEquals(10, read.getCount());
+        for (double q = 0; q <= 1.0; q += 0.05) {
+            assertEquals(sketch.quantile(q), read.quantile(q));
+        }
+    }
+}
\ No newline at end of file
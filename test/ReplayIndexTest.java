@@ -0,0 +1,186 @@
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * JUnit test class for ReplayIndex
+ * Tests fetching single rounds by game and round, and rebuilding the index
+ */
+public class ReplayIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path logFile;
+
+    @Before
+    public void setUp() {
+        logFile = folder.getRoot().toPath().resolve("replays.dat");
+    }
+
+    private static final int HAND = GameReplay.packHand(new byte[] {0, 13, 26, 39, 51});
+
+    // Game g has g % 3 + 1 rounds; each player's score encodes the game and round
+    private static void writeGames(ReplayLog.Writer writer, int games) {
+        for (int g = 0; g < games; g++) {
+            long game = writer.startGame();
+            for (int r = 0; r <= game % 3; r++) {
+                writer.startRound();
+                writer.addPlayerRound("Alice", HAND, r, 0, HAND, score(game, r));
+                writer.addPlayerRound("Computer", HAND, 3, 0b101, HAND, r);
+            }
+        }
+    }
+
+    private static int score(long game, int round) {
+        return (int) ((game * 7 + round) % 57);
+    }
+
+    private static void assertRound(ReplayIndex index, long game, int round) throws IOException {
+        ReplayLog.Round fetched = index.fetch(game, round);
+        assertEquals(game, fetched.getGameId());
+        assertEquals(round, fetched.getRoundNumber());
+        assertEquals(2, fetched.getPlayerCount());
+        assertEquals(score(game, round), fetched.getRoundScore(0));
+        GameReplay.PlayerRoundData computer = index.fetch(game, round, 1);
+        assertEquals("Computer", computer.getPlayerName());
+        assertEquals(0b101, computer.getSwapMask());
+        assertEquals(round, computer.getRoundScore());
+    }
+
+    private void assertEveryRound(int games) throws IOException {
+        try (ReplayIndex index = ReplayIndex.open(logFile)) {
+            assertEquals(games - 1, index.getLastGameId());
+            long rounds = 0;
+            for (long g = 0; g < games; g++) {
+                assertEquals(g % 3 + 1, index.getRoundCount(g));
+                rounds += g % 3 + 1;
+            }
+            assertEquals(rounds, index.size());
+            for (long g = games - 1; g >= 0; g -= 7) {
+                for (int r = 0; r <= g % 3; r++) {
+                    assertRound(index, g, r);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFetchFromRawBlocks() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false, true)) {
+            writeGames(writer, 5000);
+        }
+        assertEveryRound(5000);
+    }
+
+    @Test
+    public void testFetchFromCompressedBlocks() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, true, true)) {
+            writeGames(writer, 5000);
+        }
+        assertEveryRound(5000);
+    }
+
+    @Test
+    public void testWriterIndexServesLookups() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false, true)) {
+            writeGames(writer, 10);
+            writer.flush();
+            assertRound(writer.getIndex(), 8, 2); // Game 9's last round is still open
+            assertEquals(3, writer.getIndex().getRoundCount(5));
+        }
+    }
+
+    @Test
+    public void testRebuildsLostIndex() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, true, true)) {
+            writeGames(writer, 3000);
+        }
+        Files.delete(ReplayIndex.roundsFile(logFile));
+        Files.delete(ReplayIndex.gamesFile(logFile));
+        assertEveryRound(3000);
+
+        try (ReplayIndex index = ReplayIndex.rebuild(logFile)) {
+            assertRound(index, 2999, 2);
+        }
+    }
+
+    @Test
+    public void testIndexesBlocksWrittenWithoutIt() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false, true)) {
+            writeGames(writer, 100);
+        }
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, true)) {
+            writeGames(writer, 2900); // Continues from game 100
+        }
+        assertEveryRound(3000);
+    }
+
+    @Test
+    public void testRebuildsIndexAheadOfLog() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false, true)) {
+            writeGames(writer, 3);
+            writer.flush();
+            writeGames(writer, 3);
+        }
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(logFile) - 5); // Crash partway through the last block
+        }
+
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false, true)) {
+            ReplayIndex index = writer.getIndex();
+            assertEquals(2, index.getLastGameId());
+            assertEquals(2, index.getRoundCount(2)); // Its last round stayed behind
+            writeGames(writer, 1);
+        }
+        try (ReplayIndex index = ReplayIndex.open(logFile)) {
+            assertEquals(3, index.getLastGameId());
+            assertEquals(6, index.size());
+            assertEquals(score(3, 0), index.fetch(3, 0).getRoundScore(0));
+        }
+    }
+
+    @Test
+    public void testGamesWithoutRounds() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false, true)) {
+            writer.startGame();
+            writer.startGame(); // Abandoned before its first round
+            writer.startGame();
+            writer.startRound();
+            writer.addPlayerRound("Alice", HAND, 0, 0, HAND, 9);
+        }
+        try (ReplayIndex index = ReplayIndex.open(logFile)) {
+            assertEquals(0, index.getRoundCount(0));
+            assertEquals(0, index.getRoundCount(1));
+            assertEquals(1, index.getRoundCount(2));
+            assertEquals(9, index.fetch(2, 0).getRoundScore(0));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testMissingRound() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false, true)) {
+            writeGames(writer, 2);
+        }
+        try (ReplayIndex index = ReplayIndex.open(logFile)) {
+            index.fetch(1, 2);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testMissingGame() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false, true)) {
+            writeGames(writer, 2);
+        }
+        try (ReplayIndex index = ReplayIndex.open(logFile)) {
+            index.fetch(2, 0);
+        }
+    }
+}
\ No newline at end of file
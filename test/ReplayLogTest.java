@@ -0,0 +1,273 @@
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+/**
+ * JUnit test class for ReplayLog
+ * Tests streaming rounds to blocks on disk and reading them back by mapping
+ */
+public class ReplayLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path logFile;
+
+    @Before
+    public void setUp() {
+        logFile = folder.getRoot().toPath().resolve("replays.dat");
+    }
+
+    private static final int HAND = GameReplay.packHand(new byte[] {0, 13, 26, 39, 51});
+    private static final int SWAPPED = GameReplay.packHand(new byte[] {0, 13, 26, 1, 2});
+
+    // Write games of `rounds` rounds with two players each
+    private static void writeGames(ReplayLog.Writer writer, int games, int rounds) {
+        for (int g = 0; g < games; g++) {
+            writer.startGame();
+            for (int r = 0; r < rounds; r++) {
+                writer.startRound();
+                writer.addPlayerRound("Alice", HAND, g % 4, 0b11000, SWAPPED, (g + r) % 57);
+                writer.addPlayerRound("Computer", SWAPPED, 3, 0, SWAPPED, r);
+            }
+        }
+    }
+
+    private List<ReplayLog.Round> readAll() throws IOException {
+        try (ReplayLog.Reader reader = new ReplayLog.Reader(logFile)) {
+            List<ReplayLog.Round> rounds = new ArrayList<>();
+            for (ReplayLog.Round round : reader) {
+                rounds.add(round);
+            }
+            return rounds;
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false)) {
+            assertEquals(0, writer.startGame());
+            writer.startRound();
+            writer.addPlayerRound("Alice", HAND, 2, 0b11000, SWAPPED, 33);
+            writer.addPlayerRound("Bob", SWAPPED, 0, 0, SWAPPED, 7);
+            writer.startRound();
+            writer.addPlayerRound("Alice", SWAPPED, 1, 0b00001, HAND, 56);
+        }
+
+        List<ReplayLog.Round> rounds = readAll();
+        assertEquals(2, rounds.size());
+        ReplayLog.Round first = rounds.get(0);
+        assertEquals(0, first.getGameId());
+        assertEquals(0, first.getRoundNumber());
+        assertEquals(2, first.getPlayerCount());
+        GameReplay.PlayerRoundData alice = first.getPlayerRound(0);
+        assertEquals("Alice", alice.getPlayerName());
+        assertEquals(HAND, GameReplay.packHand(alice.getInitialHand()));
+        assertEquals(SWAPPED, GameReplay.packHand(alice.getFinalHand()));
+        assertEquals(2, alice.getBonusSuit());
+        assertEquals(0b11000, alice.getSwapMask());
+        assertEquals(33, alice.getRoundScore());
+        assertEquals("Bob", first.getPlayerRound(1).getPlayerName());
+        assertEquals(7, first.getPlayerRound(1).getRoundScore());
+
+        ReplayLog.Round second = rounds.get(1);
+        assertEquals(1, second.getRoundNumber());
+        assertEquals(1, second.getPlayerCount());
+        assertEquals(56, second.getPlayerRound(0).getRoundScore());
+        assertEquals(1, second.getPlayerRound(0).getBonusSuit());
+    }
+
+    @Test
+    public void testCompressedBlocksAreSmaller() throws IOException {
+        Path plainFile = folder.getRoot().toPath().resolve("plain.dat");
+        try (ReplayLog.Writer plain = new ReplayLog.Writer(plainFile, false);
+             ReplayLog.Writer packed = new ReplayLog.Writer(logFile, true)) {
+            writeGames(plain, 2000, 3);
+            writeGames(packed, 2000, 3);
+        }
+        assertTrue(Files.size(logFile) < Files.size(plainFile) / 2);
+
+        List<ReplayLog.Round> rounds = readAll();
+        assertEquals(6000, rounds.size());
+        for (int i = 0; i < rounds.size(); i++) {
+            ReplayLog.Round round = rounds.get(i);
+            assertEquals(i / 3, round.getGameId());
+            assertEquals(i % 3, round.getRoundNumber());
+            assertEquals((i / 3 + i % 3) % 57, round.getPlayerRound(0).getRoundScore());
+            assertEquals("Computer", round.getPlayerRound(1).getPlayerName());
+        }
+    }
+
+    @Test
+    public void testRoundsNeverSpanBlocks() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false)) {
+            writeGames(writer, 5000, 3);
+        }
+        try (ReplayLog.Reader reader = new ReplayLog.Reader(logFile)) {
+            assertTrue(reader.getBlockCount() > 1);
+            assertEquals(4999, reader.getLastGameId());
+            assertEquals(15000, reader.rounds().count());
+            assertTrue(reader.rounds().allMatch(round -> round.getPlayerCount() == 2
+                && round.getPlayerRound(1).getPlayerName().equals("Computer")));
+        }
+    }
+
+    @Test
+    public void testReopenContinuesGameIds() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, true)) {
+            writeGames(writer, 3, 1);
+        }
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false)) {
+            assertEquals(2, writer.getGameId());
+            writeGames(writer, 2, 1);
+            assertEquals(4, writer.getGameId());
+        }
+
+        List<ReplayLog.Round> rounds = readAll();
+        assertEquals(5, rounds.size());
+        for (int i = 0; i < rounds.size(); i++) {
+            assertEquals(i, rounds.get(i).getGameId());
+        }
+    }
+
+    @Test
+    public void testFlushKeepsOpenRound() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false)) {
+            writer.startGame();
+            writer.startRound();
+            writer.addPlayerRound("Alice", HAND, 0, 0, HAND, 10);
+            writer.startRound();
+            writer.addPlayerRound("Alice", HAND, 0, 0, HAND, 11);
+            writer.flush();
+            assertEquals(1, readAll().size()); // Only the finished round
+
+            writer.addPlayerRound("Bob", HAND, 0, 0, HAND, 12);
+        }
+
+        List<ReplayLog.Round> rounds = readAll();
+        assertEquals(2, rounds.size());
+        assertEquals(2, rounds.get(1).getPlayerCount());
+        assertEquals("Bob", rounds.get(1).getPlayerRound(1).getPlayerName());
+    }
+
+    @Test
+    public void testEndGameWritesLastRound() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, true, true)) {
+            writeGames(writer, 2, 3);
+            writer.endGame();
+
+            List<ReplayLog.Round> rounds = readAll();
+            assertEquals(6, rounds.size());
+            for (int i = 0; i < rounds.size(); i++) {
+                assertEquals(i / 3, rounds.get(i).getGameId());
+                assertEquals(i % 3, rounds.get(i).getRoundNumber());
+            }
+            assertEquals(1, writer.getIndex().getLastGameId());
+            assertEquals(2, writer.getIndex().fetch(1, 2).getRoundNumber());
+        }
+        assertEquals(6, readAll().size());
+    }
+
+    @Test
+    public void testTornBlockIsDropped() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false)) {
+            writeGames(writer, 2, 1);
+            writer.flush(); // Game 1's round is still open, so stays behind
+            writeGames(writer, 2, 1);
+        }
+        long whole = Files.size(logFile);
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+            channel.truncate(whole - 5); // Crash partway through the last block
+        }
+        assertEquals(1, readAll().size());
+
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false)) {
+            assertEquals(0, writer.getGameId());
+            writeGames(writer, 1, 1);
+        }
+        List<ReplayLog.Round> rounds = readAll();
+        assertEquals(2, rounds.size());
+        assertEquals(1, rounds.get(1).getGameId());
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsOtherFiles() throws IOException {
+        Files.write(logFile, "Alice,42\n".getBytes());
+        new ReplayLog.Reader(logFile).close();
+    }
+
+    @Test
+    public void testSplitsByBlock() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, true)) {
+            writeGames(writer, 20000, 2);
+        }
+        try (ReplayLog.Reader reader = new ReplayLog.Reader(logFile)) {
+            Spliterator<ReplayLog.Round> rest = reader.spliterator();
+            Spliterator<ReplayLog.Round> prefix = rest.trySplit();
+            assertNotNull(prefix);
+            List<Long> games = new ArrayList<>();
+            prefix.forEachRemaining(round -> games.add(round.getGameId()));
+            rest.forEachRemaining(round -> games.add(round.getGameId()));
+            assertEquals(40000, games.size());
+            for (int i = 0; i < games.size(); i++) {
+                assertEquals(i / 2, (long) games.get(i));
+            }
+
+            long total = reader.rounds().parallel()
+                .mapToLong(round -> round.getPlayerRound(0).getRoundScore()).sum();
+            long expected = 0;
+            for (int g = 0; g < 20000; g++) {
+                expected += g % 57 + (g + 1) % 57;
+            }
+            assertEquals(expected, total);
+            assertEquals(reader.rounds().map(ReplayLog.Round::getGameId).collect(Collectors.toList()),
+                reader.rounds().parallel().map(ReplayLog.Round::getGameId).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testReplayIntoGameReplay() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false)) {
+            writeGames(writer, 1, 3);
+        }
+        GameReplay replay = new GameReplay();
+        try (ReplayLog.Reader reader = new ReplayLog.Reader(logFile)) {
+            Iterator<ReplayLog.Round> rounds = reader.iterator();
+            while (rounds.hasNext()) {
+                rounds.next().replayInto(replay);
+            }
+        }
+        assertEquals(3, replay.getRoundCount());
+        assertEquals(6, replay.size());
+        assertEquals(0b11000, replay.getPlayerRound(2, 0).getSwapMask());
+        assertEquals(2, replay.getPlayerRound(2, 0).getRoundScore());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRoundNeedsGame() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false)) {
+            writer.startRound();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsInvalidBonusSuit() throws IOException {
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(logFile, false)) {
+            writer.startGame();
+            writer.startRound();
+            writer.addPlayerRound("Alice", HAND, 4, 0, HAND, 10);
+        }
+    }
+}
\ No newline at end of file
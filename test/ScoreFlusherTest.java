@@ -0,0 +1,191 @@
+import org.junit.Test;
+import org.junit.After;
+import static org.junit.Assert.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JUnit test class for ScoreFlusher
+ * Tests size, time, explicit and closing flushes and the flush metrics
+ */
+public class ScoreFlusherTest {
+
+    private final AtomicInteger flushes = new AtomicInteger();
+    private ScoreFlusher flusher;
+
+    @After
+    public void tearDown() {
+        if (flusher != null) {
+            flusher.close();
+        }
+    }
+
+    private void waitForFlushes(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (flushes.get() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void testFlushesWhenBatchFills() throws Exception {
+        flusher = ScoreFlusher.start(flushes::incrementAndGet, 3, 60_000);
+        flusher.queued(2);
+        Thread.sleep(50);
+        assertEquals(0, flushes.get());
+        assertEquals(2, flusher.getQueueDepth());
+
+        flusher.queued(1);
+        waitForFlushes(1);
+        assertEquals(1, flushes.get());
+    }
+
+    @Test
+    public void testFlushesAfterDelay() throws Exception {
+        flusher = ScoreFlusher.start(flushes::incrementAndGet, 1000, 20);
+        long start = System.nanoTime();
+        flusher.queued(1);
+        waitForFlushes(1);
+
+        assertEquals(1, flushes.get());
+        assertTrue(System.nanoTime() - start >= 20_000_000);
+        assertEquals(0, flusher.getQueueDepth());
+    }
+
+    @Test
+    public void testExplicitFlushWaits() {
+        flusher = ScoreFlusher.start(flushes::incrementAndGet, 1000, 60_000);
+        flusher.queued(5);
+        flusher.flush();
+
+        assertEquals(1, flushes.get());
+        assertEquals(0, flusher.getQueueDepth());
+        assertEquals(5, flusher.getMaxQueueDepth());
+    }
+
+    @Test
+    public void testCloseFlushesQueued() {
+        flusher = ScoreFlusher.start(flushes::incrementAndGet, 1000, 60_000);
+        flusher.queued(1);
+        flusher.close();
+        assertEquals(1, flushes.get());
+
+        flusher.close(); // Closing twice does nothing more
+        assertEquals(1, flushes.get());
+    }
+
+    @Test
+    public void testCloseWithNothingQueued() {
+        flusher = ScoreFlusher.start(flushes::incrementAndGet, 1000, 60_000);
+        flusher.close();
+        assertEquals(0, flushes.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testQueueAfterCloseRejected() {
+        flusher = ScoreFlusher.start(flushes::incrementAndGet, 1000, 60_000);
+        flusher.close();
+        flusher.queued(1);
+    }
+
+    @Test
+    public void testFlushAfterCloseRunsInline() {
+        flusher = ScoreFlusher.start(flushes::incrementAndGet, 1000, 60_000);
+        flusher.close();
+        flusher.flush();
+        assertEquals(1, flushes.get());
+    }
+
+    @Test
+    public void testLatencyMetrics() {
+        flusher = ScoreFlusher.start(() -> {
+            flushes.incrementAndGet();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 1000, 60_000);
+        assertEquals(-1, flusher.flushLatencyMicros(0.5));
+
+        flusher.queued(1);
+        flusher.flush();
+        flusher.queued(1);
+        flusher.flush();
+
+        assertEquals(2, flusher.getFlushCount());
+        assertTrue(flusher.getMeanFlushMillis() >= 10);
+        assertTrue(flusher.getMaxFlushMillis() >= flusher.getMeanFlushMillis());
+        assertTrue(flusher.flushLatencyMicros(0.99) >= 10_000 * 7 / 8);
+    }
+
+    @Test
+    public void testFailedFlushReportedAndKeepsRunning() {
+        RuntimeException diskFull = new java.io.UncheckedIOException(new java.io.IOException("Disk full"));
+        flusher = ScoreFlusher.start(() -> {
+            if (flushes.incrementAndGet() == 1) {
+                throw diskFull;
+            }
+        }, 1000, 60_000);
+        flusher.queued(1);
+        try {
+            flusher.flush();
+            fail("Failed flush not reported");
+        } catch (IllegalStateException e) {
+            assertSame(diskFull, e.getCause());
+        }
+
+        flusher.queued(1);
+        flusher.flush(); // Reported once; this one succeeds
+        assertEquals(2, flushes.get());
+    }
+
+    @Test
+    public void testCloseReportsUnreportedFailure() throws Exception {
+        flusher = ScoreFlusher.start(() -> {
+            flushes.incrementAndGet();
+            throw new IllegalStateException("Disk full");
+        }, 1, 60_000);
+        flusher.queued(1);
+        waitForFlushes(1);
+        try {
+            flusher.close();
+            fail("Failed flush not reported");
+        } catch (IllegalStateException e) {
+            assertEquals("Disk full", e.getCause().getMessage());
+        }
+        flusher.close(); // Already reported
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyBatchRejected() {
+        ScoreFlusher.start(flushes::incrementAndGet, 0, 100);
+    }
+    @Test
+    public void testFullBacklogHoldsPosters() throws Exception {
+        java.util.concurrent.CountDownLatch disk = new java.util.concurrent.CountDownLatch(1);
+        flusher = ScoreFlusher.start(() -> {
+            flushes.incrementAndGet();
+            try {
+                disk.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 1, 60_000);
+        flusher.queued(1);
+        waitForFlushes(1); // The flusher is now stuck writing
+
+        Thread poster = new Thread(() -> {
+            for (int i = 0; i < ScoreFlusher.BACKLOG_BATCHES; i++) {
+                flusher.queued(1);
+            }
+        });
+        poster.start();
+        poster.join(200);
+        assertTrue(poster.isAlive());
+        assertEquals(ScoreFlusher.BACKLOG_BATCHES, flusher.getQueueDepth());
+
+        disk.countDown();
+        poster.join(5000);
+        assertFalse(poster.isAlive());
+    }
+}
\ No newline at end of file
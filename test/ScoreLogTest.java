@@ -0,0 +1,256 @@
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * JUnit test class for ScoreLog
+ * Tests batched appends, replay, torn records and crash-safe compaction
+ */
+public class ScoreLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path logFile;
+    private Path snapshotFile;
+
+    @Before
+    public void setUp() {
+        logFile = folder.getRoot().toPath().resolve("scores.log");
+        snapshotFile = folder.getRoot().toPath().resolve("scores.snapshot");
+    }
+
+    private ScoreLog newLog() {
+        return new ScoreLog(logFile, snapshotFile);
+    }
+
+    private static ScoreLog.SnapshotWriter text(String content) {
+        return channel -> channel.write(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // What the caller wrote after the snapshot header
+    private String snapshotBody() throws IOException {
+        byte[] bytes = Files.readAllBytes(snapshotFile);
+        return new String(bytes, ScoreLog.SNAPSHOT_HEADER_SIZE,
+            bytes.length - ScoreLog.SNAPSHOT_HEADER_SIZE, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testAppendAndReplay() throws IOException {
+        ScoreLog log = newLog();
+        log.append("a");
+        log.append("b");
+        assertEquals(2, log.getPendingRecords());
+        log.sync();
+        assertEquals(0, log.getPendingRecords());
+        log.append("c");
+        log.sync();
+
+        assertEquals(Arrays.asList("a", "b", "c"), newLog().load());
+        assertEquals(3, log.getLogRecords());
+    }
+
+    @Test
+    public void testMissingLogIsEmpty() throws IOException {
+        ScoreLog log = newLog();
+        assertTrue(log.load().isEmpty());
+        assertFalse(log.isSnapshotCurrent());
+        assertFalse(log.isLegacy());
+    }
+
+    @Test
+    public void testLegacyFileReadsAsLog() throws IOException {
+        Files.write(logFile, "Alice,50,100,2\r\nBob,30,90,3\r\n".getBytes(StandardCharsets.UTF_8));
+
+        ScoreLog log = newLog();
+        assertEquals(Arrays.asList("Alice,50,100,2", "Bob,30,90,3"), log.load());
+        assertTrue(log.isLegacy());
+        log.append("Carol,40,80,2");
+        log.sync();
+
+        assertEquals(Arrays.asList("Alice,50,100,2", "Bob,30,90,3", "Carol,40,80,2"), newLog().load());
+    }
+
+    @Test
+    public void testTornRecordIsDropped() throws IOException {
+        ScoreLog log = newLog();
+        log.append("a");
+        log.sync();
+        Files.write(logFile, "b,1".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        ScoreLog reopened = newLog();
+        assertEquals(Arrays.asList("a"), reopened.load());
+        reopened.append("c");
+        reopened.sync();
+
+        assertEquals(Arrays.asList("a", "c"), newLog().load());
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        ScoreLog log = newLog();
+        for (int i = 0; i < 10; i++) {
+            log.append("r" + i);
+        }
+        log.sync();
+        long before = Files.size(logFile);
+
+        log.compact(text("top"));
+        assertEquals(0, log.getLogRecords());
+        assertTrue(Files.size(logFile) < before);
+        assertEquals("top", snapshotBody());
+
+        log.append("after");
+        log.sync();
+        ScoreLog reopened = newLog();
+        assertEquals(Arrays.asList("after"), reopened.load());
+        assertTrue(reopened.isSnapshotCurrent());
+    }
+
+    @Test
+    public void testCompactionSyncsPendingRecords() throws IOException {
+        ScoreLog log = newLog();
+        log.append("pending");
+        log.compact(text("pending"));
+
+        ScoreLog reopened = newLog();
+        assertTrue(reopened.load().isEmpty());
+        assertTrue(reopened.isSnapshotCurrent());
+        assertEquals("pending", snapshotBody());
+    }
+
+    @Test
+    public void testInterruptedCompactionIsFinished() throws IOException {
+        ScoreLog log = newLog();
+        log.append("a");
+        log.append("b");
+        log.sync();
+        byte[] oldLog = Files.readAllBytes(logFile);
+
+        // Crash after the snapshot was renamed into place, before the log was replaced
+        log.compact(text("a,b"));
+        Files.write(logFile, oldLog);
+
+        ScoreLog recovered = newLog();
+        assertTrue(recovered.load().isEmpty());
+        assertTrue(recovered.isSnapshotCurrent());
+        recovered.append("c");
+        recovered.sync();
+
+        ScoreLog reopened = newLog();
+        assertEquals(Arrays.asList("c"), reopened.load());
+        assertTrue(reopened.isSnapshotCurrent());
+    }
+
+    @Test
+    public void testStaleSnapshotIgnored() throws IOException {
+        ScoreLog log = newLog();
+        log.append("old");
+        log.compact(text("old"));
+
+        // The log is deleted by hand and a new one started
+        Files.delete(logFile);
+        ScoreLog fresh = newLog();
+        assertTrue(fresh.load().isEmpty());
+        assertFalse(fresh.isSnapshotCurrent());
+        fresh.append("new");
+        fresh.sync();
+
+        ScoreLog reopened = newLog();
+        assertEquals(Arrays.asList("new"), reopened.load());
+        assertFalse(reopened.isSnapshotCurrent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsMultiLineRecord() {
+        newLog().append("a\nb");
+    }
+    @Test
+    public void testCatchUpReadsOtherWriters() throws IOException {
+        ScoreLog first = newLog();
+        ScoreLog second = newLog();
+        first.load();
+        second.load();
+
+        first.append("a,1,1,1");
+        first.sync();
+        assertEquals(Arrays.asList("a,1,1,1"), second.catchUp());
+        assertTrue(second.isSnapshotReplaced()); // The log did not exist when second loaded
+
+        second.append("b,2,2,1");
+        second.sync();
+        assertEquals(Arrays.asList("b,2,2,1"), first.catchUp());
+        assertFalse(first.isSnapshotReplaced());
+        first.append("c,3,3,1");
+        first.sync();
+        assertEquals(Arrays.asList("c,3,3,1"), second.catchUp());
+        assertTrue(second.catchUp().isEmpty());
+
+        assertEquals(Arrays.asList("a,1,1,1", "b,2,2,1", "c,3,3,1"), newLog().load());
+    }
+
+    @Test
+    public void testCatchUpAfterOtherCompacts() throws IOException {
+        ScoreLog first = newLog();
+        ScoreLog second = newLog();
+        first.append("a,1,1,1");
+        first.sync();
+        second.load();
+
+        first.append("b,2,2,1");
+        first.compact(text("a,b"));
+        first.append("c,3,3,1");
+        first.sync();
+
+        assertEquals(Arrays.asList("c,3,3,1"), second.catchUp());
+        assertTrue(second.isSnapshotReplaced());
+        assertTrue(second.isSnapshotCurrent());
+        assertEquals(1, second.getLogRecords());
+    }
+
+    @Test
+    public void testLockIsReentrant() throws IOException {
+        ScoreLog log = newLog();
+        try (var _ = log.lock()) {
+            log.append("a,1,1,1");
+            log.sync();
+            try (var _ = log.lock()) {
+                assertEquals(1, log.getLogRecords());
+            }
+            log.append("b,2,2,1");
+            log.sync();
+        }
+        assertTrue(Files.exists(log.getLockFile()));
+        assertEquals(2, newLog().load().size());
+    }
+
+    @Test
+    public void testLockExcludesOtherThreads() throws Exception {
+        ScoreLog log = newLog();
+        java.util.concurrent.atomic.AtomicBoolean entered = new java.util.concurrent.atomic.AtomicBoolean();
+        Thread other;
+        try (var _ = log.lock()) {
+            other = new Thread(() -> {
+                try (var _ = newLog().lock()) {
+                    entered.set(true);
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+            });
+            other.start();
+            other.join(200);
+            assertFalse(entered.get());
+        }
+        other.join(5000);
+        assertTrue(entered.get());
+    }
+}
\ No newline at end of file
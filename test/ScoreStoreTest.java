@@ -0,0 +1,138 @@
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * JUnit test class for ScoreStore
+ * Tests writing, mapping and validating binary score snapshots
+ */
+public class ScoreStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+
+    @Before
+    public void setUp() {
+        file = folder.getRoot().toPath().resolve("scores.dat");
+    }
+
+    // Write a store after a prefix of the given length
+    private void write(int prefix, long[] histogram, Object[][] records) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.allocate(prefix));
+            ScoreStore.Writer writer = new ScoreStore.Writer(channel, histogram, records.length);
+            for (Object[] record : records) {
+                writer.add((String) record[0], (Integer) record[1], (Integer) record[2], (Integer) record[3]);
+            }
+            writer.finish();
+        }
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        long[] histogram = new long[64];
+        histogram[50] = 1;
+        histogram[30] = 2;
+        write(0, histogram, new Object[][] {
+            {"Alice", 50, 100, 2},
+            {"Bob", 30, 90, 3},
+            {"Alice", 30, 60, 2},
+        });
+
+        ScoreStore store = ScoreStore.open(file, 0);
+        assertEquals(3, store.getRecordCount());
+        assertEquals(2, store.getNameCount());
+        assertEquals(64, store.getRange());
+        assertEquals(2, store.countAt(30));
+        assertEquals(0, store.countAt(40));
+        assertEquals(0, store.countAt(1000));
+
+        assertEquals("Alice", store.name(store.nameId(0)));
+        assertEquals(50, store.averageScore(0));
+        assertEquals(100, store.totalScore(0));
+        assertEquals(2, store.rounds(0));
+        assertEquals("Bob", store.name(store.nameId(1)));
+        assertEquals(store.nameId(0), store.nameId(2));
+        assertEquals(60, store.totalScore(2));
+    }
+
+    @Test
+    public void testOffsetAndEmptyStore() throws IOException {
+        write(ScoreLog.SNAPSHOT_HEADER_SIZE, new long[0], new Object[0][]);
+
+        ScoreStore store = ScoreStore.open(file, ScoreLog.SNAPSHOT_HEADER_SIZE);
+        assertEquals(0, store.getRecordCount());
+        assertEquals(0, store.getNameCount());
+    }
+
+    @Test
+    public void testNonAsciiNames() throws IOException {
+        write(0, new long[64], new Object[][] {{"Zoë", 40, 80, 2}, {"Łukasz", 20, 40, 2}});
+
+        ScoreStore store = ScoreStore.open(file, 0);
+        assertEquals("Zoë", store.name(store.nameId(0)));
+        assertEquals("Łukasz", store.name(store.nameId(1)));
+    }
+
+    @Test
+    public void testManyRecordsSpanBuffers() throws IOException {
+        int count = 20000;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            ScoreStore.Writer writer = new ScoreStore.Writer(channel, new long[64], count);
+            for (int i = 0; i < count; i++) {
+                writer.add("Player" + (i % 1000), 50 - i / 1000, i, 1);
+            }
+            writer.finish();
+        }
+
+        ScoreStore store = ScoreStore.open(file, 0);
+        assertEquals(count, store.getRecordCount());
+        assertEquals(1000, store.getNameCount());
+        assertEquals(19999, store.totalScore(19999));
+        assertEquals(31, store.averageScore(19999));
+        assertEquals("Player999", store.name(store.nameId(19999)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsUnsortedRecords() throws IOException {
+        write(0, new long[64], new Object[][] {{"Low", 10, 20, 2}, {"High", 40, 80, 2}});
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRejectsMissingRecords() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            new ScoreStore.Writer(channel, new long[64], 2).finish();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsOtherFiles() throws IOException {
+        Files.write(file, new byte[100]);
+        ScoreStore.open(file, 0);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsTruncatedStore() throws IOException {
+        write(0, new long[64], new Object[][] {{"Alice", 50, 100, 2}});
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length - 3));
+        ScoreStore.open(file, 0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRecordOutOfRange() throws IOException {
+        write(0, new long[64], new Object[][] {{"Alice", 50, 100, 2}});
+        ScoreStore.open(file, 0).totalScore(1);
+    }
+}
\ No newline at end of file
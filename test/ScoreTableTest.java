@@ -14,6 +14,8 @@ public class ScoreTableTest {
     
     private ScoreTable ScoreTable;
     private static final String TEST_FILENAME = "highscores.txt";
+    private static final String SNAPSHOT_FILENAME = "highscores.snapshot";
+    private static final String LOCK_FILENAME = "highscores.lock";
     private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
     private final PrintStream originalOut = System.out;
     
@@ -24,6 +26,7 @@ public class ScoreTableTest {
         if (file.exists()) {
             file.delete();
         }
+        new File(SNAPSHOT_FILENAME).delete();
         
         ScoreTable = new ScoreTable();
         System.setOut(new PrintStream(outContent));
@@ -38,6 +41,8 @@ public class ScoreTableTest {
         if (file.exists()) {
             file.delete();
         }
+        new File(SNAPSHOT_FILENAME).delete();
+        new File(LOCK_FILENAME).delete();
     }
     
     @Test
@@ -231,4 +236,454 @@ public class ScoreTableTest {
         
         assertTrue(output.contains("5"));
     }
+    
+    @Test
+    public void testAddScoresBatch() {
+        ScoreTable.addScores(new String[] {"Alice", "Bob"}, new int[] {120, 90}, 3);
+        
+        ScoreTable newTable = new ScoreTable();
+        newTable.display();
+        String output = outContent.toString();
+        
+        assertTrue(output.indexOf("Alice") < output.indexOf("Bob"));
+        assertTrue(output.contains("40"));
+    }
+    
+    @Test
+    public void testScoresSurviveCompaction() {
+        for (int i = 0; i < 300; i++) {
+            ScoreTable.addScore("Player" + i, i, 1);
+        }
+        
+        ScoreTable newTable = new ScoreTable();
+        newTable.display();
+        String output = outContent.toString();
+        
+        assertTrue(output.contains("Player299"));
+        assertTrue(output.contains("Player295"));
+        assertFalse(output.contains("Player294"));
+        assertTrue(new File(TEST_FILENAME).length() < 300 * 10);
+    }
+    
+    @Test
+    public void testLegacyFileLoads() throws Exception {
+        java.nio.file.Files.write(java.nio.file.Paths.get(TEST_FILENAME),
+            java.util.Arrays.asList("Legacy,44,88,2", "Older,20,40,2"));
+        
+        ScoreTable legacyTable = new ScoreTable();
+        legacyTable.addScore("Newer", 60, 2);
+        
+        outContent.reset();
+        new ScoreTable().display();
+        String output = outContent.toString();
+        
+        assertTrue(output.indexOf("Legacy") < output.indexOf("Newer"));
+        assertTrue(output.indexOf("Newer") < output.indexOf("Older"));
+    }
+    
+    @Test
+    public void testConfigurableDisplaySize() {
+        ScoreTable wideTable = new ScoreTable(7);
+        for (int i = 1; i <= 8; i++) {
+            wideTable.addScore("Player" + i, 100 - i, 1);
+        }
+        
+        wideTable.display();
+        String output = outContent.toString();
+        
+        assertTrue(output.contains("Player7"));
+        assertFalse(output.contains("Player8"));
+    }
+    
+    @Test
+    public void testRankAndPercentile() {
+        ScoreTable.addScore("Low", 60, 3);    // avg: 20
+        ScoreTable.addScore("High", 150, 3);  // avg: 50
+        ScoreTable.addScore("Mid", 90, 3);    // avg: 30
+        ScoreTable.addScore("Mid2", 90, 3);   // avg: 30
+        
+        assertEquals(4, ScoreTable.size());
+        assertEquals(1, ScoreTable.rank(50));
+        assertEquals(2, ScoreTable.rank(30));
+        assertEquals(4, ScoreTable.rank(20));
+        assertEquals(75.0, ScoreTable.percentile(30), 1e-9);
+    }
+    
+    @Test
+    public void testRanksSurviveCompaction() {
+        for (int i = 0; i < 300; i++) {
+            ScoreTable.addScore("Player" + i, i % 50, 1);
+        }
+        
+        ScoreTable newTable = new ScoreTable();
+        
+        assertEquals(300, newTable.size());
+        assertEquals(1, newTable.rank(49));
+        assertEquals(7, newTable.rank(48));
+        assertEquals(50.0, newTable.percentile(24), 1e-9);
+        
+        newTable.display();
+        String output = outContent.toString();
+        assertTrue(output.contains("Player49 "));
+        assertTrue(output.contains("Player99 "));
+        assertFalse(output.contains("Player48 "));
+    }
+    
+    @Test
+    public void testLegacyFileMigratedToBinarySnapshot() throws Exception {
+        java.nio.file.Files.write(java.nio.file.Paths.get(TEST_FILENAME),
+            java.util.Arrays.asList("Legacy,44,88,2", "Older,20,40,2"));
+        
+        assertEquals(2, new ScoreTable().size());
+        assertTrue(new File(SNAPSHOT_FILENAME).exists());
+        assertTrue(java.nio.file.Files.readAllLines(java.nio.file.Paths.get(TEST_FILENAME)).get(0).startsWith("#log "));
+        
+        new ScoreTable().display();
+        String output = outContent.toString();
+        assertTrue(output.indexOf("Legacy") < output.indexOf("Older"));
+    }
+    
+    @Test
+    public void testLoadsOnFirstUse() throws Exception {
+        ScoreTable lazyTable = new ScoreTable();
+        java.nio.file.Files.write(java.nio.file.Paths.get(TEST_FILENAME),
+            java.util.Arrays.asList("Written,44,88,2"));
+        
+        lazyTable.display();
+        assertTrue(outContent.toString().contains("Written"));
+    }
+    
+    @Test
+    public void testSnapshotKeepsAllResultsSorted() {
+        for (int i = 0; i < 600; i++) {
+            ScoreTable.addScore("Player" + (i % 40), (i * 7) % 120, 1);
+        }
+        
+        ScoreTable newTable = new ScoreTable(3);
+        assertEquals(600, newTable.size());
+        newTable.addScore("Champion", 500, 1);
+        newTable.display();
+        String output = outContent.toString();
+        
+        // 119 is first reached at i = 17 and again every 120 results
+        assertTrue(output.indexOf("Champion") < output.indexOf("Player17 "));
+        assertEquals(1, newTable.rank(500));
+        assertEquals(2, newTable.rank(119));
+    }
+    
+    @Test
+    public void testTextSnapshotMigrated() throws Exception {
+        java.nio.file.Files.write(java.nio.file.Paths.get(SNAPSHOT_FILENAME),
+            java.util.Arrays.asList("#snapshot 1a2b 0", "Listed,44,88,2", "44,3", "10,6"));
+        java.nio.file.Files.write(java.nio.file.Paths.get(TEST_FILENAME),
+            java.util.Arrays.asList("#log 1a2b", "Logged,30,60,2"));
+        
+        ScoreTable migrated = new ScoreTable();
+        assertEquals(11, migrated.size());
+        assertEquals(5, migrated.rank(30));
+        
+        ScoreTable reopened = new ScoreTable();
+        assertEquals(11, reopened.size());
+        reopened.display();
+        String output = outContent.toString();
+        assertTrue(output.indexOf("Listed") < output.indexOf("Logged"));
+    }
+    
+    @Test
+    public void testDamagedSnapshotLeftAlone() throws Exception {
+        for (int i = 0; i < 300; i++) {
+            ScoreTable.addScore("Player" + i, i, 1);
+        }
+        
+        // Spoil the store's version with bytes that are not text either
+        java.nio.file.Path snapshot = java.nio.file.Paths.get(SNAPSHOT_FILENAME);
+        byte[] damaged = java.nio.file.Files.readAllBytes(snapshot);
+        java.util.Arrays.fill(damaged, ScoreLog.SNAPSHOT_HEADER_SIZE + 4, ScoreLog.SNAPSHOT_HEADER_SIZE + 8, (byte) 0xFF);
+        java.nio.file.Files.write(snapshot, damaged);
+        byte[] log = java.nio.file.Files.readAllBytes(java.nio.file.Paths.get(TEST_FILENAME));
+        
+        ByteArrayOutputStream shown = new ByteArrayOutputStream();
+        Renderer messages = new BufferedRenderer(shown);
+        ScoreTable reopened = new ScoreTable(false, messages);
+        assertEquals(300 - 256, reopened.size()); // The log is still replayed
+        messages.flush();
+        assertTrue(shown.toString().contains("Error reading high scores"));
+        assertFalse(outContent.toString().contains("Error"));
+        try {
+            reopened.addScore("Newer", 500, 1);
+            fail("Saved over scores it could not read");
+        } catch (java.io.UncheckedIOException e) {
+            // Expected
+        }
+        assertArrayEquals(damaged, java.nio.file.Files.readAllBytes(snapshot));
+        assertArrayEquals(log, java.nio.file.Files.readAllBytes(java.nio.file.Paths.get(TEST_FILENAME)));
+    }
+    
+    @Test
+    public void testConcurrentPosting() throws Exception {
+        Thread[] games = new Thread[4];
+        for (int t = 0; t < games.length; t++) {
+            int id = t;
+            games[t] = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    ScoreTable.addScore("Game" + id + "-" + i, (id * 100 + i) % 97, 1);
+                }
+            });
+            games[t].start();
+        }
+        for (Thread game : games) {
+            game.join();
+        }
+        
+        assertEquals(400, ScoreTable.size());
+        ScoreTable reopened = new ScoreTable();
+        assertEquals(400, reopened.size());
+        assertEquals(ScoreTable.rank(50), reopened.rank(50));
+    }
+    
+    @Test
+    public void testConcurrentPostingKeepsRoundScores() throws Exception {
+        Thread[] games = new Thread[4];
+        for (int t = 0; t < games.length; t++) {
+            int id = t;
+            games[t] = new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    ScoreTable.addScores(new String[] {"Racer" + id}, new int[][] {{0, 60}});
+                }
+            });
+            games[t].start();
+        }
+        for (Thread game : games) {
+            game.join();
+        }
+        
+        // Another poster's save can write an entry the moment it is queued
+        int records = 0;
+        for (String line : java.nio.file.Files.readAllLines(java.nio.file.Paths.get(TEST_FILENAME))) {
+            if (line.startsWith("Racer")) {
+                assertEquals(line, 5, line.split(",").length);
+                records++;
+            }
+        }
+        assertEquals(200, records);
+    }
+    @Test
+    public void testPlayerStatsFromRoundScores() {
+        ScoreTable.addScores(new String[] {"Alice", "Bob"}, new int[][] {{20, 40, 30}, {10, 10, 13}});
+        ScoreTable.addScores(new String[] {"Alice"}, new int[][] {{50}});
+        
+        PlayerStats alice = ScoreTable.playerStats("Alice");
+        assertEquals(2, alice.getGames());
+        assertEquals(4, alice.getRounds());
+        assertEquals(50, alice.getBestRound());
+        assertEquals(20, alice.getWorstRound());
+        assertEquals(30, alice.getP50());
+        assertEquals(3, ScoreTable.size());
+        assertNull(ScoreTable.playerStats("Carol"));
+        
+        ScoreTable reopened = new ScoreTable();
+        assertEquals(4, reopened.playerStats("Alice").getRounds());
+        assertEquals(33, reopened.playerStats("Bob").getTotalScore());
+        assertEquals(13, reopened.playerStats("Bob").getBestRound());
+    }
+    
+    @Test
+    public void testPlayerStatsSurviveCompaction() {
+        for (int i = 0; i < 300; i++) {
+            ScoreTable.addScores(new String[] {"Player" + (i % 3)}, new int[][] {{i % 57, 5}});
+        }
+        PlayerStats before = ScoreTable.playerStats("Player1");
+        
+        ScoreTable reopened = new ScoreTable();
+        PlayerStats after = reopened.playerStats("Player1");
+        assertEquals(100, after.getGames());
+        assertEquals(before.getTotalScore(), after.getTotalScore());
+        assertEquals(before.getBestRound(), after.getBestRound());
+        assertEquals(before.getP90(), after.getP90());
+        assertEquals(1, after.getWorstRound());
+    }
+    
+    @Test
+    public void testPlayerStatsRebuiltFromSnapshotWithoutIndex() throws Exception {
+        for (int i = 0; i < 300; i++) {
+            ScoreTable.addScore("Player" + (i % 2), 2 * i, 2);
+        }
+        
+        // Cut the player index off, as in a snapshot written before it existed
+        java.nio.file.Path snapshot = java.nio.file.Paths.get(SNAPSHOT_FILENAME);
+        long storeEnd = ScoreLog.SNAPSHOT_HEADER_SIZE
+            + ScoreStore.open(snapshot, ScoreLog.SNAPSHOT_HEADER_SIZE).getByteSize();
+        try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(snapshot,
+                java.nio.file.StandardOpenOption.WRITE)) {
+            channel.truncate(storeEnd);
+        }
+        
+        PlayerStats stats = new ScoreTable().playerStats("Player0");
+        assertEquals(150, stats.getGames());
+        assertEquals(300, stats.getRounds());
+        assertEquals(298, stats.getBestRound());
+        assertEquals(0, stats.getWorstRound());
+    }
+    
+    @Test
+    public void testRoundScoresLogged() throws Exception {
+        ScoreTable.addScores(new String[] {"Alice"}, new int[][] {{20, 41}});
+        
+        java.util.List<String> lines = java.nio.file.Files.readAllLines(java.nio.file.Paths.get(TEST_FILENAME));
+        assertEquals("Alice,30,61,2,20 41", lines.get(lines.size() - 1));
+    }
+    @Test
+    public void testWriteBehindSavesInBackground() {
+        try (ScoreTable writeBehind = new ScoreTable(5, true)) {
+            writeBehind.addScore("Alice", 90, 3);
+            writeBehind.addScores(new String[] {"Bob"}, new int[][] {{20, 40}});
+            
+            // Queued results are visible before they are saved
+            assertEquals(2, writeBehind.size());
+            assertEquals(1, writeBehind.rank(31));
+            assertEquals(2, writeBehind.playerStats("Bob").getRounds());
+            
+            writeBehind.flush();
+            assertEquals(0, writeBehind.getFlusher().getQueueDepth());
+            assertTrue(writeBehind.getFlusher().getFlushCount() >= 1);
+            assertEquals(2, new ScoreTable().size());
+        }
+    }
+    
+    @Test
+    public void testWriteBehindCloseSaves() {
+        ScoreTable writeBehind = new ScoreTable(true);
+        for (int i = 0; i < 10; i++) {
+            writeBehind.addScore("Player" + i, i, 1);
+        }
+        writeBehind.close();
+        
+        ScoreTable reopened = new ScoreTable();
+        assertEquals(10, reopened.size());
+        assertEquals(10, reopened.rank(0));
+    }
+    
+    @Test
+    public void testWriteBehindCompacts() {
+        try (ScoreTable writeBehind = new ScoreTable(5, true)) {
+            for (int i = 0; i < 300; i++) {
+                writeBehind.addScores(new String[] {"Player" + (i % 3)}, new int[][] {{i % 57}});
+            }
+            writeBehind.flush();
+            assertEquals(100, writeBehind.playerStats("Player2").getGames());
+        }
+        
+        ScoreTable reopened = new ScoreTable();
+        assertEquals(300, reopened.size());
+        assertEquals(100, reopened.playerStats("Player0").getGames());
+        assertTrue(new File(TEST_FILENAME).length() < 300 * 10);
+    }
+    
+    @Test
+    public void testSynchronousTableHasNoFlusher() {
+        assertNull(ScoreTable.getFlusher());
+        ScoreTable.addScore("Alice", 90, 3);
+        ScoreTable.flush();
+        ScoreTable.close();
+        assertEquals(1, new ScoreTable().size());
+    }
+    @Test
+    public void testTablesSharingFilesMergeResults() {
+        ScoreTable other = new ScoreTable();
+        ScoreTable.addScore("Alice", 90, 3);
+        other.addScore("Bob", 60, 3);      // Merges Alice in before saving
+        ScoreTable.addScore("Carol", 30, 3);
+        
+        assertEquals(2, other.size()); // Carol was saved after other last looked
+        other.refresh();
+        assertEquals(3, other.size());
+        assertEquals(3, ScoreTable.size());
+        assertEquals(3, new ScoreTable().size());
+        
+        other.display();
+        String output = outContent.toString();
+        assertTrue(output.indexOf("Alice") < output.indexOf("Bob"));
+        assertTrue(output.indexOf("Bob") < output.indexOf("Carol"));
+    }
+    
+    @Test
+    public void testMergeAfterOtherTableCompacts() {
+        ScoreTable other = new ScoreTable();
+        other.addScore("Early", 10, 1);
+        ScoreTable.addScore("Champion", 500, 1);
+        for (int i = 0; i < 300; i++) {
+            ScoreTable.addScore("Player" + i, i % 50, 1); // Compacts
+        }
+        other.addScore("Late", 20, 1);
+        
+        assertEquals(303, other.size());
+        assertEquals(1, other.rank(500));
+        assertEquals(8, other.rank(48)); // Champion and six 49s
+        assertEquals(1, other.playerStats("Player7").getGames());
+        other.display();
+        String output = outContent.toString();
+        assertTrue(output.contains("Champion"));
+        assertEquals(output.indexOf("Champion"), output.lastIndexOf("Champion"));
+        assertTrue(output.contains("Player49 "));
+        
+        ScoreTable reopened = new ScoreTable();
+        assertEquals(303, reopened.size());
+        assertEquals(reopened.rank(20), other.rank(20));
+    }
+    
+    @Test
+    public void testSeparateProcessesKeepEveryResult() throws Exception {
+        Process[] processes = new Process[3];
+        for (int p = 0; p < processes.length; p++) {
+            processes[p] = new ProcessBuilder(
+                java.nio.file.Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                Poster.class.getName(), "Process" + p, "150")
+                .inheritIO().start();
+        }
+        for (Process process : processes) {
+            assertEquals(0, process.waitFor());
+        }
+        
+        ScoreTable reopened = new ScoreTable();
+        assertEquals(450, reopened.size());
+        for (int p = 0; p < processes.length; p++) {
+            assertEquals(150, reopened.playerStats("Process" + p).getGames());
+        }
+    }
+    
+    @Test
+    public void testEventHandlerAddsEachGame() {
+        try (GameEventBus events = new GameEventBus(4)) {
+            events.subscribe("scores", ScoreTable.eventHandler());
+            events.start();
+            for (int game = 0; game < 3; game++) {
+                for (int round = 0; round < 2; round++) {
+                    events.scored(round, 0, "Alice", 0, 0, 0, 0, 0, 20 + round);
+                    events.scored(round, 1, "Computer", 0, 1, 0, 0, 2, 10);
+                }
+                events.gameOver(2, 2);
+            }
+            events.sync();
+        }
+        
+        assertEquals(6, ScoreTable.size());
+        PlayerStats alice = ScoreTable.playerStats("Alice");
+        assertEquals(3, alice.getGames());
+        assertEquals(6, alice.getRounds());
+        assertEquals(123, alice.getTotalScore());
+        assertEquals(60, ScoreTable.playerStats("Computer").getTotalScore());
+    }
+    
+    /**
+     * Posts results from a separate JVM for testSeparateProcessesKeepEveryResult.
+     */
+    public static class Poster {
+        public static void main(String[] args) {
+            ScoreTable table = new ScoreTable();
+            for (int i = 0; i < Integer.parseInt(args[1]); i++) {
+                table.addScores(new String[] {args[0]}, new int[][] {{i % 57, 5}});
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JUnit test class for SeedReplay
+ * Tests rebuilding hands and scores from the deck seed and players' choices
+ */
+public class SeedReplayTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final List<String> NAMES = List.of("Computer", "Alice");
+
+    /*
+     * Play a game the way HighSuit deals it, with every seat choosing as
+     * the computer does, recording both the full replay and the seed one.
+     */
+    private static int[][] playGame(long seed, int rounds, GameReplay full, SeedReplay compact) {
+        Deck deck = new Deck(seed);
+        ArrayList<Player> players = new ArrayList<>();
+        for (String name : NAMES) {
+            players.add(new Player(name));
+        }
+        int[][] roundScores = new int[players.size()][rounds];
+        for (int round = 0; round < rounds; round++) {
+            deck.reshuffle();
+            for (Player player : players) {
+                player.clearHand();
+                for (int i = 0; i < 5; i++) {
+                    player.addCard(deck.dealCard());
+                }
+            }
+            full.startRound();
+            compact.startRound();
+            for (int seat = 0; seat < players.size(); seat++) {
+                Player player = players.get(seat);
+                int initialHand = GameReplay.packHand(player.getHand());
+                int bonusSuit = player.computerSelectBonusSuit();
+                ArrayList<Integer> swapped = player.computerSelectCards();
+                int swapMask = GameReplay.swapMask(swapped);
+                if (!swapped.isEmpty()) {
+                    player.swapCards(swapped, deck);
+                }
+                int roundScore = player.calculateRoundScore(bonusSuit);
+                roundScores[seat][round] = roundScore;
+                full.addPlayerRound(player.getName(), initialHand, bonusSuit, swapMask,
+                    GameReplay.packHand(player.getHand()), roundScore);
+                compact.addDecision(player.getName(), bonusSuit, swapMask);
+            }
+        }
+        return roundScores;
+    }
+
+    private static void assertSameReplay(GameReplay expected, GameReplay actual) {
+        assertEquals(expected.getRoundCount(), actual.getRoundCount());
+        for (int round = 0; round < expected.getRoundCount(); round++) {
+            assertEquals(expected.getPlayerCount(round), actual.getPlayerCount(round));
+            for (int p = 0; p < expected.getPlayerCount(round); p++) {
+                GameReplay.PlayerRoundData want = expected.getPlayerRound(round, p);
+                GameReplay.PlayerRoundData got = actual.getPlayerRound(round, p);
+                assertEquals(want.getPlayerName(), got.getPlayerName());
+                assertEquals(want.getInitialHand(), got.getInitialHand());
+                assertEquals(want.getFinalHand(), got.getFinalHand());
+                assertEquals(want.getBonusSuit(), got.getBonusSuit());
+                assertEquals(want.getSwapMask(), got.getSwapMask());
+                assertEquals(want.getRoundScore(), got.getRoundScore());
+            }
+        }
+    }
+
+    @Test
+    public void testRebuildsEveryHandAndScore() {
+        for (long seed = 1; seed <= 20; seed++) {
+            GameReplay full = new GameReplay();
+            SeedReplay compact = new SeedReplay(seed, NAMES);
+            int[][] scores = playGame(seed, 3, full, compact);
+
+            assertSameReplay(full, compact.toGameReplay());
+            assertTrue(compact.verify(scores));
+        }
+    }
+
+    @Test
+    public void testDetectsAlteredScores() {
+        GameReplay full = new GameReplay();
+        SeedReplay compact = new SeedReplay(7L, NAMES);
+        int[][] scores = playGame(7L, 3, full, compact);
+
+        scores[1][2]++;
+        assertFalse(compact.verify(scores));
+    }
+
+    @Test
+    public void testBytesRoundTrip() {
+        GameReplay full = new GameReplay();
+        SeedReplay compact = new SeedReplay(42L, NAMES);
+        playGame(42L, 3, full, compact);
+
+        byte[] bytes = compact.toBytes();
+        // Seed, player count, two names, choice count and six choices
+        assertEquals(8 + 1 + (2 + 8) + (2 + 5) + 4 + 6, bytes.length);
+
+        SeedReplay decoded = SeedReplay.fromBytes(bytes);
+        assertEquals(42L, decoded.getSeed());
+        assertEquals(NAMES, decoded.getPlayerNames());
+        assertEquals(3, decoded.getRoundCount());
+        for (int round = 0; round < 3; round++) {
+            for (int p = 0; p < 2; p++) {
+                assertEquals(compact.getBonusSuit(round, p), decoded.getBonusSuit(round, p));
+                assertEquals(compact.getSwapMask(round, p), decoded.getSwapMask(round, p));
+            }
+        }
+        assertSameReplay(full, decoded.toGameReplay());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsTruncatedBytes() {
+        SeedReplay compact = new SeedReplay(42L, NAMES);
+        playGame(42L, 2, new GameReplay(), compact);
+        byte[] bytes = compact.toBytes();
+        SeedReplay.fromBytes(Arrays.copyOf(bytes, bytes.length - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsPlayerOutOfTurn() {
+        SeedReplay compact = new SeedReplay(1L, NAMES);
+        compact.startRound();
+        compact.addDecision("Alice", 0, 0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRejectsRoundMissingPlayers() {
+        SeedReplay compact = new SeedReplay(1L, NAMES);
+        compact.startRound();
+        compact.addDecision("Computer", 0, 0);
+        compact.startRound();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsInvalidSwapMask() {
+        SeedReplay compact = new SeedReplay(1L, NAMES);
+        compact.startRound();
+        compact.addDecision("Computer", 0, 32);
+    }
+
+    @Test
+    public void testRecordsIntoReplayLog() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("replays.dat");
+        SeedReplay compact = new SeedReplay(9L, NAMES);
+        GameReplay full = new GameReplay();
+        int[][] scores = playGame(9L, 2, full, compact);
+        try (ReplayLog.Writer writer = new ReplayLog.Writer(file, false)) {
+            writer.startGame();
+            assertArrayEquals(scores, compact.replayInto(writer));
+        }
+
+        GameReplay fromLog = new GameReplay();
+        try (ReplayLog.Reader reader = new ReplayLog.Reader(file)) {
+            reader.forEach(round -> round.replayInto(fromLog));
+        }
+        assertSameReplay(full, fromLog);
+    }
+}
\ No newline at end of file
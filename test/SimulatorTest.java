@@ -0,0 +1,151 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * JUnit test class for Simulator
+ * Tests headless rounds, batch runs and aggregate statistics
+ */
+public class SimulatorTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyPlayers() {
+        new Simulator(3, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyRounds() {
+        new Simulator(1, 4);
+    }
+
+    @Test
+    public void testRoundDealsFullHands() {
+        Simulator simulator = new Simulator(2, 1);
+        ArrayList<Player> players = simulator.createPlayers();
+
+        simulator.playRound(players, new Deck(), new Random(1));
+
+        for (Player player : players) {
+            assertEquals(5, player.getHand().size());
+            assertTrue(player.getTotalScore() > 0);
+        }
+    }
+
+    @Test
+    public void testRoundMatchesInteractiveRules() {
+        Simulator simulator = new Simulator(2, 1);
+        ArrayList<Player> players = simulator.createPlayers();
+        simulator.playRound(players, new Deck(), new Random(7));
+
+        // Replay the same deal step by step through the Player API
+        Deck deck = new Deck();
+        deck.shuffle(new Random(7));
+        ArrayList<Player> expected = simulator.createPlayers();
+        for (Player player : expected) {
+            for (int i = 0; i < 5; i++) {
+                player.addCard(deck.dealCard());
+            }
+        }
+        for (Player player : expected) {
+            int bonusSuit = player.computerSelectBonusSuit();
+            player.swapCards(player.computerSelectCards(), deck);
+            player.addToTotalScore(player.calculateRoundScore(bonusSuit));
+        }
+
+        for (int i = 0; i < players.size(); i++) {
+            assertEquals(expected.get(i).getHand(), players.get(i).getHand());
+            assertEquals(expected.get(i).getTotalScore(), players.get(i).getTotalScore());
+        }
+    }
+
+    @Test
+    public void testPlayGameResetsTotals() {
+        Simulator simulator = new Simulator(1, 3);
+        ArrayList<Player> players = simulator.createPlayers();
+        Deck deck = new Deck();
+        Random random = new Random(3);
+
+        simulator.playGame(players, deck, random);
+        int first = players.get(0).getTotalScore();
+        simulator.playGame(players, deck, random);
+
+        // The same two deals, the second played on fresh players
+        Random replay = new Random(3);
+        Deck replayDeck = new Deck();
+        simulator.playGame(simulator.createPlayers(), replayDeck, replay);
+        ArrayList<Player> fresh = simulator.createPlayers();
+        simulator.playGame(fresh, replayDeck, replay);
+
+        assertTrue(first > 0);
+        assertEquals(fresh.get(0).getTotalScore(), players.get(0).getTotalScore());
+    }
+
+    @Test
+    public void testRunCountsGames() {
+        Simulator simulator = new Simulator(2, 3);
+        Simulator.Result result = simulator.run(1000);
+
+        assertEquals(1000, result.getGames());
+        assertEquals(2000, result.getPlayerGames());
+        assertTrue(result.getMinScore() >= 3 * 5);
+        assertTrue(result.getMaxScore() <= 3 * 56);
+        assertTrue(result.getMeanScore() >= result.getMinScore());
+        assertTrue(result.getMeanScore() <= result.getMaxScore());
+        assertTrue(result.getGamesPerSecond() > 0);
+    }
+
+    @Test
+    public void testSinglePlayerHasNoTies() {
+        Simulator.Result result = new Simulator(1, 1).run(200);
+        assertEquals(0, result.getTies());
+    }
+
+    @Test
+    public void testEmptyRun() {
+        Simulator.Result result = new Simulator(1, 1).run(0);
+        assertEquals(0, result.getGames());
+        assertEquals(0, result.getMinScore());
+        assertEquals(0.0, result.getMeanScore(), 0.0);
+    }
+
+    @Test
+    public void testSameSeedSameResults() {
+        Simulator simulator = new Simulator(2, 3);
+        Simulator.Result first = simulator.run(600, 42L);
+        Simulator.Result second = simulator.run(600, 42L);
+
+        assertEquals(42L, first.getSeed());
+        assertEquals(first.getTotalScore(), second.getTotalScore());
+        assertEquals(first.getMinScore(), second.getMinScore());
+        assertEquals(first.getMaxScore(), second.getMaxScore());
+        assertEquals(first.getTies(), second.getTies());
+    }
+
+    @Test
+    public void testResultsIndependentOfThreadCount() throws Exception {
+        Simulator simulator = new Simulator(2, 2);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            Simulator.Result one = single.submit(() -> simulator.run(1000, 7L)).get();
+            Simulator.Result four = several.submit(() -> simulator.run(1000, 7L)).get();
+
+            assertEquals(one.getTotalScore(), four.getTotalScore());
+            assertEquals(one.getTies(), four.getTies());
+            assertEquals(one.getMinScore(), four.getMinScore());
+            assertEquals(one.getMaxScore(), four.getMaxScore());
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    @Test
+    public void testDifferentSeedsDiffer() {
+        Simulator simulator = new Simulator(1, 3);
+        assertNotEquals(simulator.run(300, 1L).getTotalScore(),
+                        simulator.run(300, 2L).getTotalScore());
+    }
+}
\ No newline at end of file
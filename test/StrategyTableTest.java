@@ -0,0 +1,117 @@
+import org.junit.Test;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * JUnit test class for StrategyTable
+ * Tests that decisions mapped from canonical hands match live solving,
+ * and that partial or damaged tables are handled
+ */
+public class StrategyTableTest {
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    private static final int CLASS_LIMIT = 150;
+
+    private static Path tableFile;
+    private static StrategyTable table;
+
+    @BeforeClass
+    public static void generateTable() throws IOException {
+        tableFile = folder.getRoot().toPath().resolve(StrategyTable.DEFAULT_FILENAME);
+        assertEquals(CLASS_LIMIT, StrategyTable.generate(tableFile, CLASS_LIMIT));
+        table = StrategyTable.load(tableFile);
+    }
+
+    private static long randomHand(Random random) {
+        Deck deck = new Deck(random.nextLong());
+        deck.shuffle();
+        long cards = 0L;
+        for (int i = 0; i < 5; i++) {
+            cards |= Hand.bit(deck.dealCardId());
+        }
+        return cards;
+    }
+
+    @Test
+    public void testCanonicalEvaluationMatchesLiveDecision() {
+        SwapOptimizer optimizer = new SwapOptimizer();
+        Random random = new Random(31);
+
+        for (int trial = 0; trial < 60; trial++) {
+            long cards = randomHand(random);
+            long canonical = HandCanonicalizer.canonical(cards);
+            byte[] slots = new byte[HandScoreTable.NUM_HANDS];
+            StrategyTable.solveClass(canonical, optimizer, slots);
+
+            int entry = slots[HandScoreTable.rank(cards)] & 0xFF;
+            SwapOptimizer.Decision live = optimizer.decide(StrategyTable.sortedIds(cards));
+            assertEquals(StrategyTable.encode(live.getBonusSuit(), live.getSwapMask()), entry);
+        }
+    }
+
+    @Test
+    public void testSolvedEntriesMatchLiveDecision() {
+        SwapOptimizer optimizer = new SwapOptimizer();
+        int checked = 0;
+
+        for (int rank = 0; rank < HandScoreTable.NUM_HANDS && checked < 100; rank += 97) {
+            long cards = HandScoreTable.unrank(rank);
+            int entry = table.lookup(cards);
+            if (entry == StrategyTable.NOT_SOLVED) {
+                continue;
+            }
+
+            SwapOptimizer.Decision live = optimizer.decide(StrategyTable.sortedIds(cards));
+            assertEquals(live.getBonusSuit(), StrategyTable.bonusSuit(entry));
+            assertEquals(live.getSwapMask(), StrategyTable.swapMask(entry));
+            checked++;
+        }
+        assertTrue(checked > 0);
+    }
+
+    @Test
+    public void testUnsolvedEntries() {
+        // Canonical hands are solved in rank order, so this late class is never reached
+        long last = HandScoreTable.unrank(HandScoreTable.NUM_HANDS - 1);
+        assertEquals(StrategyTable.NOT_SOLVED, table.lookup(HandCanonicalizer.canonical(last)));
+    }
+
+    @Test
+    public void testEncoding() {
+        int entry = StrategyTable.encode(3, 0b10110);
+        assertEquals(3, StrategyTable.bonusSuit(entry));
+        assertEquals(0b10110, StrategyTable.swapMask(entry));
+        assertNotEquals(StrategyTable.NOT_SOLVED, entry);
+    }
+
+    @Test
+    public void testSortedIds() {
+        long cards = Hand.bit(40) | Hand.bit(3) | Hand.bit(17);
+        assertArrayEquals(new int[] {3, 17, 40}, StrategyTable.sortedIds(cards));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsCorruptTable() throws IOException {
+        Path corrupt = folder.getRoot().toPath().resolve("corrupt.bin");
+        Files.copy(tableFile, corrupt);
+        try (RandomAccessFile file = new RandomAccessFile(corrupt.toFile(), "rw")) {
+            file.seek(file.length() - 1);
+            file.write(0x85);
+        }
+        StrategyTable.load(corrupt);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsMissingTable() throws IOException {
+        StrategyTable.load(folder.getRoot().toPath().resolve("missing.bin"));
+    }
+}
\ No newline at end of file
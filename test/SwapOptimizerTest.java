@@ -0,0 +1,194 @@
+import org.junit.Test;
+import org.junit.Before;
+import static org.junit.Assert.*;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * JUnit test class for SwapOptimizer
+ * Tests exact expected scores against brute-force enumeration and the
+ * decisions made for the computer player
+ */
+public class SwapOptimizerTest {
+
+    private SwapOptimizer optimizer;
+
+    @Before
+    public void setUp() {
+        optimizer = new SwapOptimizer();
+    }
+
+    private static int[] randomHand(Random random) {
+        Deck deck = new Deck(random.nextLong());
+        deck.shuffle();
+        int[] ids = new int[5];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = deck.dealCardId();
+        }
+        return ids;
+    }
+
+    // Score total over every possible draw, by direct enumeration
+    private static long bruteForceTotal(int[] ids, int mask, int bonusSuit) {
+        long kept = 0L;
+        long held = 0L;
+        for (int i = 0; i < ids.length; i++) {
+            held |= Hand.bit(ids[i]);
+            if ((mask & (1 << i)) == 0) {
+                kept |= Hand.bit(ids[i]);
+            }
+        }
+
+        int[] unseen = new int[47];
+        int n = 0;
+        for (int id = 0; id < 52; id++) {
+            if ((held & Hand.bit(id)) == 0) {
+                unseen[n++] = id;
+            }
+        }
+
+        return drawAll(unseen, 0, Integer.bitCount(mask), kept, bonusSuit);
+    }
+
+    private static long drawAll(int[] unseen, int from, int remaining, long cards, int bonusSuit) {
+        if (remaining == 0) {
+            return Hand.roundScore(cards, bonusSuit);
+        }
+        long total = 0;
+        for (int i = from; i <= unseen.length - remaining; i++) {
+            total += drawAll(unseen, i + 1, remaining - 1, cards | Hand.bit(unseen[i]), bonusSuit);
+        }
+        return total;
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(2024);
+
+        for (int trial = 0; trial < 2; trial++) {
+            int[] ids = randomHand(random);
+            SwapOptimizer.Evaluation evaluation = optimizer.evaluate(ids);
+
+            for (int mask = 0; mask < 32; mask++) {
+                if (!SwapOptimizer.Evaluation.isAllowed(mask)) {
+                    continue;
+                }
+                for (int bonus = 0; bonus < 4; bonus++) {
+                    assertEquals(bruteForceTotal(ids, mask, bonus),
+                                 evaluation.getScoreTotal(mask, bonus));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTieCountsCoverEveryDraw() {
+        SwapOptimizer.Evaluation evaluation = optimizer.evaluate(randomHand(new Random(3)));
+
+        for (int mask = 0; mask < 32; mask++) {
+            if (!SwapOptimizer.Evaluation.isAllowed(mask)) {
+                continue;
+            }
+            double chance = 0;
+            for (int bonus = 0; bonus < 4; bonus++) {
+                chance += evaluation.getBonusChance(mask, bonus);
+            }
+            assertEquals(1.0, chance, 1e-9);
+        }
+    }
+
+    @Test
+    public void testDecideMatchesFullEvaluation() {
+        Random random = new Random(77);
+
+        for (int trial = 0; trial < 200; trial++) {
+            int[] ids = randomHand(random);
+            SwapOptimizer.Decision fast = optimizer.decide(ids);
+            SwapOptimizer.Decision full = optimizer.evaluate(ids).bestDecision();
+
+            assertEquals(full.getSwapMask(), fast.getSwapMask());
+            assertEquals(full.getBonusSuit(), fast.getBonusSuit());
+            assertEquals(full.getExpectedScore(), fast.getExpectedScore(), 0.0);
+        }
+    }
+
+    @Test
+    public void testKeepsStrongFlush() {
+        int[] ids = {Card.of(12, 2).getId(), Card.of(11, 2).getId(), Card.of(10, 2).getId(),
+                     Card.of(9, 2).getId(), Card.of(8, 2).getId()};
+
+        SwapOptimizer.Decision decision = optimizer.decide(ids);
+        assertEquals(0, decision.getSwapMask());
+        assertEquals(2, decision.getBonusSuit());
+        assertEquals(56.0, decision.getExpectedScore(), 0.0);
+    }
+
+    @Test
+    public void testSwapsLoneLowCard() {
+        // A-K-Q of Clubs plus two low off-suit cards
+        int[] ids = {Card.of(12, 0).getId(), Card.of(0, 1).getId(), Card.of(11, 0).getId(),
+                     Card.of(1, 3).getId(), Card.of(10, 0).getId()};
+
+        SwapOptimizer.Decision decision = optimizer.decide(ids);
+        assertEquals(0, decision.getBonusSuit());
+
+        ArrayList<Integer> positions = decision.getSwapPositions();
+        assertTrue(positions.contains(1));
+        assertTrue(positions.contains(3));
+        assertFalse(positions.contains(0));
+        assertTrue(decision.getExpectedScore() > 36.0);
+    }
+
+    @Test
+    public void testFixedBonusSuit() {
+        int[] ids = randomHand(new Random(8));
+        SwapOptimizer.Evaluation evaluation = optimizer.evaluate(ids);
+
+        for (int bonus = 0; bonus < 4; bonus++) {
+            SwapOptimizer.Decision decision = optimizer.decide(ids, bonus);
+            assertEquals(bonus, decision.getBonusSuit());
+            assertEquals(evaluation.bestDecision(bonus).getSwapMask(), decision.getSwapMask());
+        }
+    }
+
+    @Test
+    public void testNeverSwapsAllFive() {
+        Random random = new Random(5);
+        for (int trial = 0; trial < 100; trial++) {
+            assertTrue(Integer.bitCount(optimizer.decide(randomHand(random)).getSwapMask()) <= 4);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsDuplicateCards() {
+        optimizer.decide(new int[] {0, 0, 1, 2, 3});
+    }
+
+    @Test
+    public void testCandidatesKeepBestDecision() {
+        Random random = new Random(21);
+
+        for (int trial = 0; trial < 30; trial++) {
+            int[] ids = randomHand(random);
+            SwapOptimizer.Evaluation full = optimizer.evaluate(ids);
+            SwapOptimizer.Evaluation kept = full.candidates();
+
+            SwapOptimizer.Decision best = full.bestDecision();
+            assertTrue(kept.isEvaluated(best.getSwapMask()));
+            assertEquals(best.getSwapMask(), kept.bestDecision().getSwapMask());
+            assertEquals(best.getBonusSuit(), kept.bestDecision().getBonusSuit());
+            for (int bonus = 0; bonus < 4; bonus++) {
+                assertEquals(full.bestDecision(bonus).getSwapMask(), kept.bestDecision(bonus).getSwapMask());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDroppedMaskCannotBeScored() {
+        // Keeping a made flush beats swapping all four other cards
+        int[] ids = {Card.of(12, 2).getId(), Card.of(11, 2).getId(), Card.of(10, 2).getId(),
+                     Card.of(9, 2).getId(), Card.of(8, 2).getId()};
+        SwapOptimizer.Evaluation kept = optimizer.evaluate(ids).candidates();
+        kept.getScoreTotal(0b11110, 2);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,263 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * JUnit test class for Tournament
+ * Tests round-robin and knockout scheduling, standings, scripted turns,
+ * reproducibility from the seed, printed results, and many matches in
+ * play at once
+ */
+public class TournamentTest {
+
+    private static List<Tournament.Entrant> entrants(int computers, int scripted, long thinkMillis) {
+        ArrayList<Tournament.Entrant> entrants = new ArrayList<>();
+        for (int i = 0; i < computers; i++) {
+            entrants.add(Tournament.Entrant.computer("Bot " + i));
+        }
+        for (int i = 0; i < scripted; i++) {
+            entrants.add(Tournament.Entrant.scripted("Script " + i, thinkMillis, "1", "2 1 2", "3 5"));
+        }
+        return entrants;
+    }
+
+    @Test
+    public void testRoundRobinPlaysEveryPairingOnce() {
+        Tournament tournament = Tournament.roundRobin(entrants(3, 4, 0), 2, 7L);
+        Tournament.Result result = tournament.run();
+
+        assertEquals(21, tournament.getMatchCount());
+        assertEquals(21, result.getMatches().size());
+        assertEquals(21, tournament.getMatchesPlayed());
+        assertEquals(0, tournament.getMatchesInPlay());
+        assertNull(result.getChampion());
+
+        HashMap<String, Integer> pairings = new HashMap<>();
+        int wins = 0;
+        int draws = 0;
+        for (Tournament.Match match : result.getMatches()) {
+            assertEquals(2, match.getRounds());
+            assertNotSame(match.getHome(), match.getAway());
+            String a = match.getHome().getName();
+            String b = match.getAway().getName();
+            pairings.merge(a.compareTo(b) < 0 ? a + "/" + b : b + "/" + a, 1, Integer::sum);
+            if (match.getWinner() == null) {
+                assertEquals(match.getHomeScore(), match.getAwayScore());
+                draws++;
+            } else {
+                Tournament.Entrant loser = match.getWinner() == match.getHome() ? match.getAway() : match.getHome();
+                assertTrue(score(match, match.getWinner()) > score(match, loser));
+                wins++;
+            }
+        }
+        assertEquals(21, pairings.size());
+
+        int won = 0;
+        int lost = 0;
+        int drawn = 0;
+        int points = 0;
+        long difference = 0;
+        for (Tournament.Standing standing : result.getStandings()) {
+            assertEquals(6, standing.getPlayed());
+            won += standing.getWon();
+            lost += standing.getLost();
+            drawn += standing.getDrawn();
+            points += standing.getPoints();
+            difference += standing.getScoreDifference();
+        }
+        assertEquals(wins, won);
+        assertEquals(wins, lost);
+        assertEquals(2 * draws, drawn);
+        assertEquals(wins * Tournament.WIN_POINTS + 2 * draws * Tournament.DRAW_POINTS, points);
+        assertEquals(0, difference);
+    }
+
+    private static int score(Tournament.Match match, Tournament.Entrant entrant) {
+        return entrant == match.getHome() ? match.getHomeScore() : match.getAwayScore();
+    }
+
+    @Test
+    public void testStandingsRankedByPoints() {
+        List<Tournament.Standing> standings = Tournament.roundRobin(entrants(2, 6, 0), 3, 11L).run().getStandings();
+        for (int i = 1; i < standings.size(); i++) {
+            Tournament.Standing above = standings.get(i - 1);
+            Tournament.Standing below = standings.get(i);
+            assertTrue(above.getPoints() >= below.getPoints());
+            if (above.getPoints() == below.getPoints()) {
+                assertTrue(above.getScoreDifference() >= below.getScoreDifference());
+            }
+        }
+    }
+
+    @Test
+    public void testComputersOutscoreFixedScripts() {
+        ArrayList<Tournament.Entrant> entrants = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            entrants.add(Tournament.Entrant.computer("Bot " + i));
+            entrants.add(Tournament.Entrant.scripted("Script " + i, 0, "1 1 2 3 4"));
+        }
+        int computerPoints = 0;
+        int scriptPoints = 0;
+        for (Tournament.Standing standing : Tournament.roundRobin(entrants, 3, 5L).run().getStandings()) {
+            if (standing.getName().startsWith("Bot")) {
+                computerPoints += standing.getPoints();
+            } else {
+                scriptPoints += standing.getPoints();
+            }
+        }
+        assertTrue(computerPoints > scriptPoints);
+    }
+
+    @Test
+    public void testSameSeedSameResults() {
+        List<Tournament.Match> first = Tournament.roundRobin(entrants(3, 3, 0), 3, 42L).run().getMatches();
+        List<Tournament.Match> second = Tournament.roundRobin(entrants(3, 3, 0), 3, 42L).run().getMatches();
+        List<Tournament.Match> other = Tournament.roundRobin(entrants(3, 3, 0), 3, 43L).run().getMatches();
+
+        boolean differs = false;
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(i, first.get(i).getNumber());
+            assertEquals(first.get(i).toString(), second.get(i).toString());
+            differs |= !first.get(i).toString().equals(other.get(i).toString());
+        }
+        assertTrue(differs);
+    }
+
+    @Test
+    public void testScriptedTurnsPlayAsTyped() {
+        List<Tournament.Entrant> entrants = List.of(
+            Tournament.Entrant.scripted("Bob", 0, "1"),
+            Tournament.Entrant.scripted("Alice", 0, "2 1 3", "4 0"));
+        Tournament.Match match = Tournament.roundRobin(entrants, 3, 99L).run().getMatches().get(0);
+
+        // Seats alternate, so match 0 seats Alice first; it shuffles from stream 0 of the seed
+        Xoshiro256 random = new Xoshiro256(99L, 0);
+        Deck deck = new Deck(random);
+        Player alice = new Player("Alice");
+        Player bob = new Player("Bob");
+        int[] aliceBonus = {1, 3, 1};
+        for (int round = 0; round < 3; round++) {
+            deck.reshuffle(random);
+            for (Player player : List.of(alice, bob)) {
+                player.clearHand();
+                for (int i = 0; i < 5; i++) {
+                    player.addCard(deck.dealCard());
+                }
+            }
+            if (round != 1) {
+                ArrayList<Integer> positions = new ArrayList<>(List.of(0, 2));
+                alice.swapCards(positions, deck);
+            }
+            alice.addToTotalScore(alice.calculateRoundScore(aliceBonus[round]));
+            bob.addToTotalScore(bob.calculateRoundScore(0));
+        }
+
+        assertEquals("Alice", match.getHome().getName());
+        assertEquals(alice.getTotalScore(), match.getHomeScore());
+        assertEquals(bob.getTotalScore(), match.getAwayScore());
+    }
+
+    @Test
+    public void testScriptRejectsBadTurns() {
+        String[][] bad = {{}, {"5"}, {"0"}, {"x"}, {"1 6"}, {"1 2 2"}, {"1 1 2 3 4 5"}, {"1 0 2"}};
+        for (String[] turns : bad) {
+            try {
+                Tournament.Entrant.scripted("Bad", 0, turns);
+                fail("Accepted " + String.join(",", turns));
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+        Tournament.Entrant.scripted("Good", 0, "1 0", "4", " 2 5 4 3 1 ");
+    }
+
+    @Test
+    public void testKnockoutBracket() {
+        Tournament tournament = Tournament.knockout(entrants(3, 3, 0), 3, 3L);
+        Tournament.Result result = tournament.run();
+
+        // Six entrants in a bracket of eight: the top two seeds start in the semi-finals
+        assertEquals(5, tournament.getMatchCount());
+        assertEquals(5, result.getMatches().size());
+        Tournament.Entrant champion = result.getChampion();
+        assertNotNull(champion);
+
+        HashMap<String, Integer> losses = new HashMap<>();
+        int finals = 0;
+        for (Tournament.Match match : result.getMatches()) {
+            assertNotNull(match.getWinner());
+            assertTrue(match.getRounds() >= 3);
+            assertTrue(match.getRounds() <= 3 + Tournament.MAX_TIEBREAK_ROUNDS);
+            if (match.getStage() == 0) {
+                assertNotEquals("Bot 0", match.getHome().getName());
+                assertNotEquals("Bot 0", match.getAway().getName());
+                assertNotEquals("Bot 1", match.getHome().getName());
+                assertNotEquals("Bot 1", match.getAway().getName());
+            }
+            if (match.getStage() == 2) {
+                finals++;
+                assertSame(champion, match.getWinner());
+            }
+            Tournament.Entrant loser = match.getWinner() == match.getHome() ? match.getAway() : match.getHome();
+            losses.merge(loser.getName(), 1, Integer::sum);
+        }
+        assertEquals(1, finals);
+        assertEquals(5, losses.size());
+        assertFalse(losses.containsKey(champion.getName()));
+        assertEquals(champion.getName(), result.getStandings().get(0).getName());
+    }
+
+    @Test
+    public void testBracketOrder() {
+        assertEquals(2, Tournament.bracketSize(2));
+        assertEquals(8, Tournament.bracketSize(5));
+        assertEquals(8, Tournament.bracketSize(8));
+        assertEquals(16, Tournament.bracketSize(9));
+        assertArrayEquals(new int[] {0, 7, 3, 4, 1, 6, 2, 5}, Tournament.bracketOrder(8));
+        assertArrayEquals(new int[] {0, 1}, Tournament.bracketOrder(2));
+    }
+
+    @Test
+    public void testThinkingMatchesPlayTogether() {
+        // 1,770 matches, each thinking for 12 x 20 ms
+        Tournament tournament = Tournament.roundRobin(entrants(0, 60, 20), 3, 1L);
+        long start = System.nanoTime();
+        Tournament.Result result = tournament.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertEquals(1770, result.getMatches().size());
+        assertTrue(result.getPeakMatchesInPlay() > 1000);
+        assertTrue(seconds < 30);
+    }
+
+    @Test
+    public void testPrintThroughRenderer() {
+        Tournament.Result result = Tournament.knockout(entrants(2, 2, 0), 1, 8L).run();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        result.print(3, new BufferedRenderer(bytes));
+        String text = bytes.toString(StandardCharsets.UTF_8);
+        String[] lines = text.split("\\R");
+
+        assertEquals("KNOCKOUT RESULTS", lines[2]);
+        assertEquals("=".repeat(60), lines[3]);
+        assertTrue(lines[lines.length - 2].startsWith("3    "));
+        assertTrue(text.contains("Champion             " + result.getChampion().getName()));
+        assertEquals("=".repeat(60), lines[lines.length - 1]);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRunsOnce() {
+        Tournament tournament = Tournament.roundRobin(entrants(0, 2, 0), 1, 1L);
+        tournament.run();
+        tournament.run();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNeedsTwoEntrants() {
+        Tournament.knockout(entrants(1, 0, 0), 3, 1L);
+    }
+}
\ No newline at end of file
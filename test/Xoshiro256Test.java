@@ -0,0 +1,50 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * JUnit test class for Xoshiro256
+ * Tests seeding, reseeding and independent streams
+ */
+public class Xoshiro256Test {
+
+    @Test
+    public void testSameSeedSameSequence() {
+        Xoshiro256 first = new Xoshiro256(123L);
+        Xoshiro256 second = new Xoshiro256(123L);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(first.nextLong(), second.nextLong());
+        }
+    }
+
+    @Test
+    public void testReseedRestartsStream() {
+        Xoshiro256 random = new Xoshiro256(5L, 10L);
+        long firstValue = random.nextLong();
+        random.nextLong();
+
+        random.reseed(5L, 10L);
+        assertEquals(firstValue, random.nextLong());
+    }
+
+    @Test
+    public void testStreamsAreIndependent() {
+        Xoshiro256 first = new Xoshiro256(5L, 0L);
+        Xoshiro256 second = new Xoshiro256(5L, 1L);
+        assertNotEquals(first.nextLong(), second.nextLong());
+        assertNotEquals(Xoshiro256.streamSeed(5L, 0L), Xoshiro256.streamSeed(6L, 0L));
+    }
+
+    @Test
+    public void testBoundedInts() {
+        Xoshiro256 random = new Xoshiro256(1L);
+        int[] counts = new int[52];
+
+        for (int i = 0; i < 52000; i++) {
+            counts[random.nextInt(52)]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 800 && count < 1200);
+        }
+    }
+}
\ No newline at end of file